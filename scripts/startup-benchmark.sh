@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+
+# Measures how long Gopher takes to show its window (first frame) and to load its tasks
+# so that every command can be run (interactive), for task files of 10k to 1M tasks.
+# If the AppCDS archive was generated with ./gradlew appCdsArchive, each launch is also
+# timed with the archive, to compare against the JDK's default class data sharing.
+# Usage: scripts/startup-benchmark.sh [task counts...]
+# Set RUNS to change the number of launches timed per setting (default 3).
+# Needs a display; on a headless machine run it under xvfb-run, or time the same startup without
+# a window with ./gradlew bench -Pbenchmark=gopher.StartupBenchmark.
+
+cd "$(dirname "$0")/.." || exit 1
+
+# build the jar if it doesn't exist
+JAR=build/libs/Gopher.jar
+if [ ! -e "$JAR" ] && ! ./gradlew -q shadowJar
+then
+    echo "********** BUILD FAILURE **********"
+    exit 1
+fi
+JAR=$(pwd)/$JAR
+ARCHIVE=$(pwd)/build/libs/Gopher.jsa
+RUNS=${RUNS:-3}
+
+COUNTS=("$@")
+if [ ${#COUNTS[@]} -eq 0 ]
+then
+    COUNTS=(10000 100000 1000000)
+fi
+
+WORK_DIR=$(mktemp -d)
+trap 'rm -rf "$WORK_DIR"' EXIT
+
+for COUNT in "${COUNTS[@]}"
+do
+    # write a task file of todos and deadlines in the current save format
+    mkdir -p "$WORK_DIR/task"
+    rm -f "$WORK_DIR"/task/*
+    awk -v count="$COUNT" 'BEGIN {
+        print "# gopher tasks v2"
+        for (i = 1; i <= count; i++) {
+            if (i % 2 == 0) {
+                printf "D | %s | Task %d | 2025-06-%02d 23:59 | id:%d\n", (i % 3 == 0 ? "X" : " "), i, 10 + i % 20, i
+            } else {
+                printf "T |   | Task %d | id:%d\n", i, i
+            }
+        }
+    }' > "$WORK_DIR/task/task.txt"
+
+    for RUN in $(seq "$RUNS")
+    do
+        echo "$COUNT tasks, run $RUN, default CDS:"
+        (cd "$WORK_DIR" && java -Dgopher.startupBenchmark=true $JAVA_OPTS -jar "$JAR")
+        if [ -e "$ARCHIVE" ]
+        then
+            echo "$COUNT tasks, run $RUN, AppCDS:"
+            (cd "$WORK_DIR" && java -XX:SharedArchiveFile="$ARCHIVE" -Dgopher.startupBenchmark=true $JAVA_OPTS \
+                -jar "$JAR")
+        fi
+    done
+done
@@ -0,0 +1,174 @@
+package gopher;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import gopher.bench.BenchmarkTasks;
+import gopher.message.Message;
+import gopher.metrics.Metrics;
+import gopher.storage.TaskManager;
+import gopher.ui.UI;
+
+/**
+ * Benchmarks startup on task files of 10,000 to 1,000,000 tasks: the time from launching the JVM
+ * to the first frame, when the greeting can be shown, and to interactive, when the tasks are loaded
+ * and every command can be run. Each launch is a new JVM, so class loading and JIT warmup are counted
+ * the way a user sees them, and each storage mode is timed: tasks in memory, in columns,
+ * and in a paged store, both when the store is first filled from the task file and when it is reopened.
+ *
+ * Runs headless, doing what the window does before its first frame without drawing it,
+ * so it runs wherever the other benchmarks do. scripts/startup-benchmark.sh times the real window.
+ * Takes the task counts as its arguments, 10,000, 100,000 and 1,000,000 by default.
+ */
+public class StartupBenchmark {
+    /** Number of launches timed for each task count and storage mode */
+    private static final int RUNS = 3;
+
+    /** Argument that makes the JVM launched a single timed startup rather than the benchmark */
+    private static final String LAUNCH_ARGUMENT = "--launch";
+
+    /** Path of the paged store file relative to the benchmark directory, as opened by Gopher */
+    private static final Path PAGED_STORE_FILE = Paths.get("task", "task.db");
+
+    private static final String FIRST_FRAME_PREFIX = "First frame: ";
+    private static final String INTERACTIVE_PREFIX = "Interactive: ";
+
+    /**
+     * Runs the benchmark, or a single timed startup if launched by the benchmark.
+     *
+     * @param args task counts, or the launch argument
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals(LAUNCH_ARGUMENT)) {
+            launch();
+            return;
+        }
+        List<Integer> counts = new ArrayList<>();
+        for (String arg : args) {
+            counts.add(Integer.parseInt(arg));
+        }
+        if (counts.isEmpty()) {
+            counts = List.of(10_000, 100_000, 1_000_000);
+        }
+        System.out.println("Startup benchmark, " + RUNS + " launches each");
+
+        TaskManager.initialize();
+        for (int count : counts) {
+            TaskManager.saveTasks(BenchmarkTasks.create(count), count + 1);
+            String tasks = String.format("%,d tasks, ", count);
+            time(tasks + "in memory", List.of(), false);
+            time(tasks + "columnar", List.of("-Dgopher.columnarStorage=true"), false);
+            time(tasks + "paged, first import", List.of("-Dgopher.pagedStorage=true"), true);
+            time(tasks + "paged, reopened", List.of("-Dgopher.pagedStorage=true"), false);
+            Files.deleteIfExists(PAGED_STORE_FILE);
+        }
+    }
+
+    /**
+     * Launches a new JVM for each run with the given options, printing the mean and fastest
+     * time to the first frame and to interactive.
+     *
+     * @param name name of the setting shown in the report
+     * @param options JVM options selecting the storage mode
+     * @param isStoreDeleted whether the paged store is deleted before each launch, so that it is filled again
+     * @throws Exception if a launch fails
+     */
+    private static void time(String name, List<String> options, boolean isStoreDeleted) throws Exception {
+        long totalFirstFrame = 0;
+        long totalInteractive = 0;
+        long fastestInteractive = Long.MAX_VALUE;
+        for (int i = 0; i < RUNS; i++) {
+            if (isStoreDeleted) {
+                Files.deleteIfExists(PAGED_STORE_FILE);
+            }
+            long[] millis = runLaunch(options);
+            totalFirstFrame += millis[0];
+            totalInteractive += millis[1];
+            fastestInteractive = Math.min(fastestInteractive, millis[1]);
+        }
+        System.out.printf("%-40s first frame %,8d ms   interactive %,8d ms   fastest %,8d ms%n",
+                name, totalFirstFrame / RUNS, totalInteractive / RUNS, fastestInteractive);
+    }
+
+    /**
+     * Launches a new JVM that starts Gopher once in the current directory.
+     *
+     * @param options JVM options selecting the storage mode
+     * @return milliseconds from launch to the first frame and to interactive
+     * @throws Exception if the JVM fails or does not report both times
+     */
+    private static long[] runLaunch(List<String> options) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(options);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBenchmark.class.getName());
+        command.add(LAUNCH_ARGUMENT);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long firstFrame = -1;
+        long interactive = -1;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.startsWith(FIRST_FRAME_PREFIX)) {
+                    firstFrame = parseMillis(line, FIRST_FRAME_PREFIX);
+                } else if (line.startsWith(INTERACTIVE_PREFIX)) {
+                    interactive = parseMillis(line, INTERACTIVE_PREFIX);
+                } else {
+                    System.out.println(line);
+                }
+            }
+        }
+        if (process.waitFor() != 0 || firstFrame < 0 || interactive < 0) {
+            throw new IOException("Startup was not timed: " + String.join(" ", command));
+        }
+        return new long[]{firstFrame, interactive};
+    }
+
+    private static long parseMillis(String line, String prefix) {
+        return Long.parseLong(line.substring(prefix.length(), line.length() - " ms".length()));
+    }
+
+    /**
+     * Starts Gopher the way the window does, printing the time from launch to the first frame
+     * and to interactive the way the window does when benchmarked, then exits.
+     *
+     * @throws Exception if the tasks cannot be loaded
+     */
+    private static void launch() throws Exception {
+        new Gopher();
+        UI.getGreetMessage();
+        long firstFrameNanos = Metrics.recordSinceLaunch(Metrics.STARTUP_FIRST_FRAME);
+
+        CountDownLatch loaded = new CountDownLatch(1);
+        AtomicReference<Optional<Message>> error = new AtomicReference<>();
+        Gopher.executeLoadTasksInBackground(loadError -> {
+            error.set(loadError);
+            loaded.countDown();
+        });
+        loaded.await();
+        long interactiveNanos = Metrics.recordSinceLaunch(Metrics.STARTUP_INTERACTIVE);
+        if (error.get().isPresent()) {
+            System.out.println("Tasks could not be loaded");
+            System.exit(1);
+        }
+        System.out.println(FIRST_FRAME_PREFIX + firstFrameNanos / 1_000_000 + " ms");
+        System.out.println(INTERACTIVE_PREFIX + interactiveNanos / 1_000_000 + " ms");
+
+        // The reminder and task file watcher threads would keep the JVM running
+        System.exit(0);
+    }
+}
@@ -0,0 +1,113 @@
+package gopher.bench;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Runs the benchmarks of Gopher, which are plain programs rather than unit tests,
+ * so that their timings never make the test suite flaky.
+ * Each piece of work is run for a few warmup rounds first, then timed over measured rounds,
+ * reporting the mean and fastest round and the heap allocated per round by the running thread.
+ *
+ * Benchmarks are run with ./gradlew bench -Pbenchmark=[class] --args='[arguments]'
+ * in the build/bench directory, so that task files they write never touch the user's tasks.
+ */
+public class BenchmarkRunner {
+    /** Number of rounds run before measuring, so that the code is compiled */
+    public static final int DEFAULT_WARMUP_ROUNDS = 3;
+
+    /** Number of measured rounds */
+    public static final int DEFAULT_ROUNDS = 5;
+
+    /**
+     * Times the given work over the default number of warmup and measured rounds.
+     *
+     * @param name name of the work shown in the report
+     * @param work work to be timed
+     * @throws Exception if the work fails
+     */
+    public static void run(String name, Work work) throws Exception {
+        run(name, DEFAULT_WARMUP_ROUNDS, DEFAULT_ROUNDS, work);
+    }
+
+    /**
+     * Times the given work, printing the mean and fastest time of a round
+     * and the mean number of bytes allocated in a round.
+     *
+     * @param name name of the work shown in the report
+     * @param warmupRounds number of rounds run before measuring
+     * @param rounds number of measured rounds
+     * @param work work to be timed
+     * @throws Exception if the work fails
+     */
+    public static void run(String name, int warmupRounds, int rounds, Work work) throws Exception {
+        for (int i = 0; i < warmupRounds; i++) {
+            work.run();
+        }
+        long totalNanos = 0;
+        long fastestNanos = Long.MAX_VALUE;
+        long totalBytes = 0;
+        for (int i = 0; i < rounds; i++) {
+            long startBytes = getAllocatedBytes();
+            long startTime = System.nanoTime();
+            work.run();
+            long nanos = System.nanoTime() - startTime;
+            totalBytes += getAllocatedBytes() - startBytes;
+            totalNanos += nanos;
+            fastestNanos = Math.min(fastestNanos, nanos);
+        }
+        System.out.printf("%-40s mean %10.3f ms   fastest %10.3f ms   allocated %,14d bytes%n",
+                name, totalNanos / 1e6 / rounds, fastestNanos / 1e6, totalBytes / rounds);
+    }
+
+    /**
+     * Gets the number of heap bytes allocated so far by the current thread.
+     *
+     * @return bytes allocated by the current thread
+     */
+    public static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Gets the number of heap bytes in use after collecting garbage,
+     * to measure how much memory a data structure keeps.
+     *
+     * @return bytes of the heap in use
+     */
+    public static long getUsedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Collect a few times, as one collection may not free everything unreachable
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Gets the argument at the given position as a number, or the default if there is none.
+     *
+     * @param args arguments of the benchmark
+     * @param index position of the argument
+     * @param defaultValue number used if the argument is not given
+     * @return number given by the argument
+     */
+    public static int getIntArgument(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    /**
+     * Represents a piece of work to be timed.
+     */
+    @FunctionalInterface
+    public interface Work {
+        /**
+         * Runs the work once.
+         *
+         * @throws Exception if the work fails
+         */
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,75 @@
+package gopher.bench;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.task.Deadline;
+import gopher.task.Event;
+import gopher.task.Priority;
+import gopher.task.Task;
+import gopher.task.ToDo;
+
+/**
+ * Creates realistic task lists for the benchmarks: a mix of todos, deadlines and events
+ * over a year, where some names repeat the way chores and meetings do, and some tasks
+ * have a priority and tags. The same count always gives the same tasks.
+ */
+public class BenchmarkTasks {
+    /** Names shared by many tasks, like recurring chores and meetings */
+    private static final String[] COMMON_NAMES = {
+        "standup", "pay rent", "weekly review", "gym", "call mum", "team sync",
+        "water plants", "grocery run", "backup laptop", "read paper",
+    };
+
+    /** Words making up the other names */
+    private static final String[] WORDS = {
+        "report", "budget", "slides", "invoice", "design", "release", "meeting", "draft",
+        "review", "survey", "contract", "ticket", "demo", "training", "audit", "roadmap",
+    };
+
+    private static final LocalDate FIRST_DATE = LocalDate.of(2025, 1, 1);
+
+    /**
+     * Creates the given number of tasks, with IDs from 1 upwards.
+     *
+     * @param count number of tasks
+     * @return list of the tasks
+     */
+    public static List<Task> create(int count) {
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(createTask(i));
+        }
+        return tasks;
+    }
+
+    /**
+     * Creates the task at the given position of a benchmark list.
+     *
+     * @param index 0-based position of the task
+     * @return task at the position, with ID index + 1
+     */
+    public static Task createTask(int index) {
+        String name = index % 10 < 3
+                ? COMMON_NAMES[index % COMMON_NAMES.length]
+                : WORDS[index % WORDS.length] + " " + WORDS[index / WORDS.length % WORDS.length] + " " + index;
+        String date = FIRST_DATE.plusDays(index % 365) + " " + String.format("%02d:00", index % 24);
+        Task task = switch (index % 3) {
+        case 0 -> new ToDo(name);
+        case 1 -> new Deadline(name, date);
+        default -> new Event(name, date, FIRST_DATE.plusDays(index % 365 + 1).toString());
+        };
+        task.setId(index + 1);
+        if (index % 7 == 0) {
+            task.setPriority(Priority.HIGH);
+        }
+        if (index % 5 == 0) {
+            task.setTags(List.of("work", WORDS[index % WORDS.length]));
+        }
+        if (index % 4 == 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+}
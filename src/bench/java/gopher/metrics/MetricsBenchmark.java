@@ -0,0 +1,37 @@
+package gopher.metrics;
+
+import gopher.bench.BenchmarkRunner;
+
+/**
+ * Benchmarks the overhead that recording a command adds to it: timing the command,
+ * recording its latency into the histogram of the command, and the JFR event.
+ * Each round records one million commands, so the time of a round in milliseconds
+ * is the overhead of a command in nanoseconds.
+ */
+public class MetricsBenchmark {
+    private static final int COMMANDS_PER_ROUND = 1_000_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args not used
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        System.out.println("Metrics benchmark, " + COMMANDS_PER_ROUND + " commands per round");
+        BenchmarkRunner.run("recordCommand", () -> {
+            for (int i = 0; i < COMMANDS_PER_ROUND; i++) {
+                Metrics.recordCommand(CommandName.LIST, i);
+            }
+        });
+        BenchmarkRunner.run("timing, recordCommand and JFR event", () -> {
+            for (int i = 0; i < COMMANDS_PER_ROUND; i++) {
+                long startTime = System.nanoTime();
+                CommandExecutionEvent event = new CommandExecutionEvent();
+                event.begin();
+                Metrics.recordCommand(CommandName.LIST, System.nanoTime() - startTime);
+                event.emit(CommandName.LIST.getLabel(), false);
+            }
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package gopher.storage;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import gopher.bench.BenchmarkRunner;
+import gopher.bench.BenchmarkTasks;
+import gopher.task.Task;
+
+/**
+ * Benchmarks the task file in each encoding: its size on disk, and the time taken to save
+ * the tasks to it and to load them back. The rows of the tasks are cached after the first save,
+ * as they are for the unchanged tasks of a running list, so saving times the writing and encoding.
+ * Takes the number of tasks as its argument, 1,000,000 by default.
+ */
+public class TaskFileFormatBenchmark {
+    /** Path of the task file written, relative to the benchmark directory */
+    private static final Path FILE = Paths.get("format-benchmark.txt");
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tasks
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int count = BenchmarkRunner.getIntArgument(args, 0, 1_000_000);
+        List<Task> tasks = BenchmarkTasks.create(count);
+        int nextId = count + 1;
+        System.out.println("Task file format benchmark on " + count + " tasks");
+
+        try {
+            for (TaskFileFormat format : TaskFileFormat.values()) {
+                String name = format.name().toLowerCase();
+                BenchmarkRunner.run("save, " + name, 1, 3,
+                        () -> TaskManager.writeTasks(FILE, format, tasks, nextId, new HashMap<>()));
+                System.out.printf("%-40s %,14d bytes   %,8.1f bytes per task%n",
+                        "file size, " + name, Files.size(FILE), (double) Files.size(FILE) / count);
+                BenchmarkRunner.run("load, " + name, 1, 3, () -> {
+                    List<Task> loaded = new ArrayList<>(count);
+                    TaskManager.readTasks(FILE, loaded);
+                    if (loaded.size() != count) {
+                        throw new IllegalStateException("Loaded " + loaded.size() + " of " + count + " tasks");
+                    }
+                });
+            }
+        } finally {
+            Files.deleteIfExists(FILE);
+        }
+    }
+}
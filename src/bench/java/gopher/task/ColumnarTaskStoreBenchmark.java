@@ -0,0 +1,51 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.bench.BenchmarkRunner;
+import gopher.bench.BenchmarkTasks;
+
+/**
+ * Benchmarks the heap kept by the columnar task store against a list of task objects,
+ * and filtering by tag and priority on each.
+ * Takes the number of tasks as its argument, 1,000,000 by default.
+ */
+public class ColumnarTaskStoreBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tasks
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int count = BenchmarkRunner.getIntArgument(args, 0, 1_000_000);
+        System.out.println("Columnar store benchmark on " + count + " tasks");
+
+        long emptyHeap = BenchmarkRunner.getUsedHeap();
+        ArrayList<Task> objects = new ArrayList<>(BenchmarkTasks.create(count));
+        long objectHeap = BenchmarkRunner.getUsedHeap() - emptyHeap;
+        ColumnarTaskStore columns = new ColumnarTaskStore(count);
+        columns.addAll(objects);
+        objects = null;
+        long columnHeap = BenchmarkRunner.getUsedHeap() - emptyHeap;
+        System.out.printf("%-40s %,14d bytes   %,8.1f bytes per task%n",
+                "heap of task objects", objectHeap, (double) objectHeap / count);
+        System.out.printf("%-40s %,14d bytes   %,8.1f bytes per task%n",
+                "heap of columnar store", columnHeap, (double) columnHeap / count);
+
+        TaskList objectList = new TaskList(new ArrayList<>(columns));
+        TaskAttributes tagFilter = new TaskAttributes();
+        tagFilter.getTags().add("work");
+        tagFilter.getTags().add("review");
+        TaskAttributes priorityFilter = new TaskAttributes();
+        priorityFilter.setPriority(Priority.HIGH);
+        priorityFilter.getTags().add("work");
+        for (TaskAttributes filter : List.of(tagFilter, priorityFilter)) {
+            ListQuery query = new ListQuery(1, ListQuery.DEFAULT_PAGE_SIZE, filter);
+            String description = (filter.getPriority() == null ? "" : "priority, ") + filter.getTags();
+            BenchmarkRunner.run("filter " + description + ", objects", () -> objectList.filter(query));
+            BenchmarkRunner.run("filter " + description + ", columns", () -> columns.filter(filter));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.bench.BenchmarkRunner;
+import gopher.bench.BenchmarkTasks;
+import gopher.parser.Parser;
+
+/**
+ * Benchmarks the heap kept by task names shared through the name pool against every
+ * task holding its own copy of its name, as each task did before the pool, for tasks
+ * loaded from their saved rows. Also times interning a name.
+ * Takes the number of tasks as its argument, 1,000,000 by default.
+ */
+public class TaskNamePoolBenchmark {
+    /** Number of names interned in a round */
+    private static final int INTERNS_PER_ROUND = 1_000_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tasks
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int count = BenchmarkRunner.getIntArgument(args, 0, 1_000_000);
+        System.out.println("Name pool benchmark on " + count + " tasks");
+        long emptyHeap = BenchmarkRunner.getUsedHeap();
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(Parser.parseSavedTaskRow(BenchmarkTasks.createTask(i).getSaveMessage(), true));
+        }
+        long pooledHeap = BenchmarkRunner.getUsedHeap() - emptyHeap;
+        // A copy made from the characters has its own bytes, where new String(name) would share them
+        for (Task task : tasks) {
+            task.name = new String(task.name.toCharArray());
+        }
+        long copiedHeap = BenchmarkRunner.getUsedHeap() - emptyHeap;
+        System.out.printf("%-40s %,14d bytes   %,8.1f bytes per task%n",
+                "heap of tasks, names pooled", pooledHeap, (double) pooledHeap / count);
+        System.out.printf("%-40s %,14d bytes   %,8.1f bytes per task%n",
+                "heap of tasks, names copied", copiedHeap, (double) copiedHeap / count);
+
+        String[] names = new String[tasks.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = tasks.get(i).name;
+        }
+        BenchmarkRunner.run("intern " + INTERNS_PER_ROUND + " names", () -> {
+            for (int i = 0; i < INTERNS_PER_ROUND; i++) {
+                TaskNamePool.intern(names[i % names.length]);
+            }
+        });
+    }
+}
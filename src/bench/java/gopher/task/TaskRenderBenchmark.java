@@ -0,0 +1,48 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.bench.BenchmarkRunner;
+import gopher.bench.BenchmarkTasks;
+
+/**
+ * Benchmarks list and find with the display strings of the tasks cached, as they are
+ * after the first render, against formatting every display string again each time,
+ * as was done before the strings were cached.
+ * Takes the number of tasks as its argument, 100,000 by default.
+ */
+public class TaskRenderBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tasks
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int count = BenchmarkRunner.getIntArgument(args, 0, 100_000);
+        List<Task> tasks = BenchmarkTasks.create(count);
+        TaskList taskList = new TaskList(new ArrayList<>(tasks));
+        FindQuery query = new FindQuery("review", false);
+        System.out.println("Render benchmark on " + count + " tasks");
+
+        BenchmarkRunner.run("list all, strings cached", taskList::toString);
+        BenchmarkRunner.run("list all, strings formatted", () -> {
+            invalidateAll(tasks);
+            taskList.toString();
+        });
+        BenchmarkRunner.run("list one page, strings cached",
+                () -> taskList.render(0, ListQuery.DEFAULT_PAGE_SIZE));
+        BenchmarkRunner.run("find, strings cached", () -> taskList.find(query));
+        BenchmarkRunner.run("find, strings formatted", () -> {
+            invalidateAll(tasks);
+            taskList.find(query);
+        });
+    }
+
+    private static void invalidateAll(List<Task> tasks) {
+        for (Task task : tasks) {
+            task.invalidateCache();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import gopher.bench.BenchmarkRunner;
+import gopher.bench.BenchmarkTasks;
+
+/**
+ * Benchmarks how scanning a list of tasks scales with the number of threads checking it,
+ * from one thread up to the number of available processors, for a cheap check of the status
+ * and for the match of a find query against the displayed task.
+ * Each is run on a list of task objects and on a columnar store.
+ * Only the calling thread's allocations are counted, so parallel rounds report almost none.
+ * Takes the number of tasks as its argument, 1,000,000 by default.
+ */
+public class TaskScanBenchmark {
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tasks
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int count = BenchmarkRunner.getIntArgument(args, 0, 1_000_000);
+        int processorCount = Runtime.getRuntime().availableProcessors();
+        System.out.println("Scan benchmark on " + count + " tasks, " + processorCount + " processors");
+
+        ArrayList<Task> objects = new ArrayList<>(BenchmarkTasks.create(count));
+        ColumnarTaskStore columns = new ColumnarTaskStore(count);
+        columns.addAll(objects);
+        Pattern query = Pattern.compile("review", Pattern.CASE_INSENSITIVE | Pattern.LITERAL);
+        Predicate<Task> isDone = Task::isDone;
+        Predicate<Task> matchesFind = task -> query.matcher(task.toString()).find();
+
+        List<Integer> parallelisms = new ArrayList<>();
+        for (int parallelism = 1; parallelism < processorCount; parallelism *= 2) {
+            parallelisms.add(parallelism);
+        }
+        parallelisms.add(processorCount);
+        for (int parallelism : parallelisms) {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                String threads = ", " + parallelism + (parallelism == 1 ? " thread" : " threads");
+                BenchmarkRunner.run("done, objects" + threads, () -> TaskScan.scan(objects, isDone, 1, pool));
+                BenchmarkRunner.run("done, columns" + threads, () -> TaskScan.scan(columns, isDone, 1, pool));
+                BenchmarkRunner.run("find, objects" + threads, () -> TaskScan.scan(objects, matchesFind, 1, pool));
+                BenchmarkRunner.run("find, columns" + threads, () -> TaskScan.scan(columns, matchesFind, 1, pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.bench.BenchmarkRunner;
+import gopher.bench.BenchmarkTasks;
+import gopher.parser.Parser;
+import gopher.storage.TaskManager;
+
+/**
+ * Benchmarks resolving the selectors of mark, unmark and delete commands and applying
+ * them in bulk, against selecting the same number of tasks one listed number at a time.
+ * The bulk operations include their single save of the task file.
+ * Takes the number of tasks as its argument, 1,000,000 by default.
+ */
+public class TaskSelectionBenchmark {
+    /** Number of task numbers listed one by one, as was needed before selectors */
+    private static final int LISTED_NUMBER_COUNT = 10_000;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args number of tasks
+     * @throws Exception if the benchmark fails
+     */
+    public static void main(String[] args) throws Exception {
+        int count = BenchmarkRunner.getIntArgument(args, 0, 1_000_000);
+        TaskManager.initialize();
+        List<Task> tasks = BenchmarkTasks.create(count);
+        TaskList taskList = new TaskList(new ArrayList<>(tasks));
+        System.out.println("Selection benchmark on " + count + " tasks");
+
+        StringBuilder listedNumbers = new StringBuilder("mark");
+        for (int i = 1; i <= LISTED_NUMBER_COUNT; i++) {
+            listedNumbers.append(' ').append(i);
+        }
+        String listedCommand = listedNumbers.toString();
+        BenchmarkRunner.run("select " + LISTED_NUMBER_COUNT + " listed numbers",
+                () -> taskList.select(Parser.parseMarkCommand(listedCommand, count)));
+        BenchmarkRunner.run("select range of half the list",
+                () -> taskList.select(Parser.parseMarkCommand("mark 1-" + count / 2, count)));
+        BenchmarkRunner.run("select done",
+                () -> taskList.select(Parser.parseMarkCommand("mark done", count)));
+        BenchmarkRunner.run("select overdue",
+                () -> taskList.select(Parser.parseMarkCommand("mark overdue", count)));
+        BenchmarkRunner.run("select find:review",
+                () -> taskList.select(Parser.parseMarkCommand("mark find:review", count)));
+
+        // Saving a large list dominates these, so fewer rounds are run
+        BenchmarkRunner.run("mark all and unmark all, two saves", 1, 3, () -> {
+            taskList.markAsDone(taskList.select(Parser.parseMarkCommand("mark all", count)));
+            taskList.markAsUndone(taskList.select(Parser.parseUnmarkCommand("unmark all", count)));
+        });
+        List<Task> deletedTasks = BenchmarkTasks.create(count);
+        BenchmarkRunner.run("copy list and delete done, one save", 1, 3, () -> {
+            TaskList copy = new TaskList(new ArrayList<>(deletedTasks));
+            copy.delete(copy.select(Parser.parseDeleteCommand("delete done", count)));
+        });
+        BenchmarkRunner.run("copy list only", 1, 3, () -> new TaskList(new ArrayList<>(deletedTasks)));
+    }
+}
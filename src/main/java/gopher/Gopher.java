@@ -1,22 +1,47 @@
 package gopher;
 
+import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Paths;
+import java.time.Clock;
 import java.time.format.DateTimeParseException;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import gopher.exception.EmptyTaskDescriptionException;
 import gopher.exception.FileCorruptedException;
+import gopher.exception.FindPatternTooComplexException;
 import gopher.exception.InvalidDurationException;
+import gopher.exception.InvalidFindPatternException;
+import gopher.exception.InvalidListOptionException;
+import gopher.exception.InvalidPageNumberException;
+import gopher.exception.InvalidTaskAttributeException;
 import gopher.exception.InvalidTaskNumberException;
 import gopher.exception.InvalidTokenException;
 import gopher.exception.MissingTaskNumberException;
 import gopher.exception.MissingTokenException;
+import gopher.exception.SyncFailedException;
 import gopher.exception.UnknownCommandException;
 import gopher.message.Message;
+import gopher.message.MessageType;
+import gopher.metrics.CommandExecutionEvent;
+import gopher.metrics.CommandName;
+import gopher.metrics.Metrics;
 import gopher.parser.Parser;
+import gopher.reminder.ReminderScheduler;
+import gopher.storage.PagedTaskStore;
+import gopher.storage.SyncPlan;
+import gopher.storage.TaskCache;
+import gopher.storage.TaskFileFormat;
+import gopher.storage.TaskFileWatcher;
 import gopher.storage.TaskManager;
+import gopher.task.FindQuery;
+import gopher.task.ListQuery;
 import gopher.task.Task;
 import gopher.task.TaskList;
+import gopher.task.TaskSelector;
 import gopher.ui.UI;
 import javafx.application.Platform;
 
@@ -24,39 +49,166 @@ import javafx.application.Platform;
  * Represents the chatbot Gopher.
  */
 public class Gopher {
+    /** System property that switches the task list to columnar storage, for very large lists */
+    private static final String COLUMNAR_STORAGE_PROPERTY = "gopher.columnarStorage";
+
+    /**
+     * System property that keeps the tasks in a paged store file instead of in memory, for huge lists.
+     * The task file is moved into the store the first time, and is neither read nor written after that
+     */
+    private static final String PAGED_STORAGE_PROPERTY = "gopher.pagedStorage";
+
+    /** Path of the paged store file relative to the working directory */
+    private static final String PAGED_STORE_FILE = "./task/task.db";
+
+    /** System property that sets the byte budget of the decoded task cache of the paged store */
+    private static final String TASK_CACHE_BYTES_PROPERTY = "gopher.taskCacheBytes";
+
+    /** System property that keeps the task file compressed, to save disk space for very large lists */
+    private static final String COMPRESSED_STORAGE_PROPERTY = "gopher.compressedStorage";
+
+    /** Largest number of tasks shown by a search */
+    private static final int SEARCH_RESULT_LIMIT = 10;
+
+    /** Largest number of tasks shown in each group of the agenda */
+    private static final int AGENDA_ITEM_LIMIT = 3;
 
     /**
      * TaskList object used by Gopher to track user tasks
      */
     private static TaskList taskList;
 
+    /**
+     * Scheduler that reminds the user of upcoming deadlines and events
+     */
+    private static ReminderScheduler reminders;
+
+    /**
+     * Watcher that notices when the task file is written by another program
+     */
+    private static TaskFileWatcher taskFileWatcher;
+
     /**
      * Constructor for Gopher class
      */
     public Gopher() {
+        if (Boolean.getBoolean(COMPRESSED_STORAGE_PROPERTY)) {
+            TaskManager.setFormat(TaskFileFormat.GZIP);
+        }
         TaskManager.initialize();
+        Metrics.registerMBean();
         assert Files.exists(Paths.get("./task/task.txt"))
                 : "Task save file should exist after successful initialization";
 
-        taskList = new TaskList();
+        taskList = Boolean.getBoolean(COLUMNAR_STORAGE_PROPERTY)
+                ? TaskList.ofColumnar()
+                : new TaskList();
+        if (Boolean.getBoolean(PAGED_STORAGE_PROPERTY)) {
+            try {
+                PagedTaskStore store = PagedTaskStore.open(Paths.get(PAGED_STORE_FILE));
+                store.getTaskCache().setByteBudget(Long.getLong(TASK_CACHE_BYTES_PROPERTY,
+                        TaskCache.DEFAULT_BYTE_BUDGET));
+                taskList = TaskList.ofPaged(store);
+            } catch (IOException e) {
+                System.out.println("Paged task store cannot be opened");
+            }
+        }
+        reminders = new ReminderScheduler(Clock.systemDefaultZone());
+        taskList.setReminderScheduler(reminders);
+        reminders.start();
+        taskFileWatcher = new TaskFileWatcher();
+        // The paged store no longer follows the task file once filled from it
+        if (!taskList.isPaged()) {
+            try {
+                taskFileWatcher.start();
+            } catch (IOException e) {
+                System.out.println("Task file cannot be watched");
+            }
+        }
+    }
+
+    /**
+     * Sets the listener that shows reminders of upcoming deadlines and events to the user.
+     * The listener is called on the reminder thread, not the thread handling user input.
+     *
+     * @param listener listener receiving each reminder as a message
+     */
+    public static void setReminderListener(Consumer<Message> listener) {
+        reminders.setListener(reminder -> listener.accept(UI.getReminderMessage(reminder)));
+    }
+
+    /**
+     * Sets the listener called whenever the task file may have been written by another program.
+     * The listener is called on the watch thread, not the thread handling user input,
+     * and should hand over to that thread to call {@link #executeReloadTasks()}.
+     *
+     * @param listener listener of the writes to the task file
+     */
+    public static void setTaskFileListener(Runnable listener) {
+        taskFileWatcher.setListener(listener);
     }
 
     /**
-     * Executes load tasks action at the start of the program and
-     * determine the welcome message that user should see based on
-     * the load tasks result.
+     * Executes reload tasks action after the task file may have been written by another program,
+     * taking in only the tasks changed there.
      *
-     * @return Message that shows the result of loading tasks
+     * @return Message that shows the changes taken in, or empty if there were none
      */
-    public static Message executeLoadTasks() {
+    public static Optional<Message> executeReloadTasks() {
+        if (taskList.isPaged() || !TaskManager.isChangedExternally()) {
+            return Optional.empty();
+        }
         try {
-            taskList.load();
-            return UI.getGreetMessage();
+            SyncPlan plan = taskList.reload();
+            return plan.changesTaskList() ? Optional.of(UI.getReloadMessage(plan)) : Optional.empty();
         } catch (FileCorruptedException e) {
-            return UI.getErrorMessage(e);
+            return Optional.of(UI.getErrorMessage(e));
         }
     }
 
+    /**
+     * Executes load tasks action at the start of the program on a background thread,
+     * so that the window can be shown while a large task file is read.
+     * Until the listener is called, only the commands allowed by
+     * {@link #isAvailableWhileLoading(String)} should be run.
+     *
+     * @param listener listener called on the load thread once loading ends,
+     *     receiving the error message if the tasks could not be loaded
+     */
+    public static void executeLoadTasksInBackground(Consumer<Optional<Message>> listener) {
+        Thread loadThread = new Thread(() -> {
+            Optional<Message> error = Optional.empty();
+            try {
+                taskList.load();
+            } catch (FileCorruptedException e) {
+                error = Optional.of(UI.getErrorMessage(e));
+            }
+            listener.accept(error);
+        }, "gopher-load");
+        loadThread.setDaemon(true);
+        loadThread.start();
+    }
+
+    /**
+     * Checks whether the given user input can be run while the tasks are still loading,
+     * as it does not touch the task list.
+     *
+     * @param userInput command input by the user
+     * @return true if the command can be run before the tasks are loaded
+     */
+    public static boolean isAvailableWhileLoading(String userInput) {
+        return userInput.equalsIgnoreCase("bye") || userInput.equalsIgnoreCase("stats");
+    }
+
+    /**
+     * Gets the message shown for a command put off until the tasks are loaded.
+     *
+     * @return Message object showing how many tasks are loaded so far
+     */
+    public static Message getLoadingMessage() {
+        return UI.getLoadingMessage(TaskManager.getLoadedTaskCount());
+    }
+
     /**
      * Executes the relevant actions when user input exit program command
      *
@@ -70,10 +222,20 @@ public class Gopher {
     /**
      * Executes the relevant actions when user input list tasks command
      *
+     * @param userInput command input by the user
      * @return Message object indicating response by gopher after successful action
      */
-    public static Message executeListTasksCommand() {
-        return UI.getTaskListMessage(taskList);
+    public static Message executeListTasksCommand(String userInput) {
+        try {
+            ListQuery query = Parser.parseListCommand(userInput);
+            if (query.hasFilter()) {
+                return UI.getFilteredTaskListMessage(taskList.filter(query), query);
+            }
+            return UI.getTaskListMessage(taskList, query);
+        } catch (InvalidListOptionException | InvalidPageNumberException
+                 | InvalidTaskAttributeException e) {
+            return UI.getErrorMessage(e);
+        }
     }
 
     /**
@@ -84,13 +246,15 @@ public class Gopher {
      */
     public static Message executeMarkTaskCommand(String userInput) {
         try {
-            int[] taskNumbers = Parser.parseMarkCommand(userInput);
-            taskList.markAsDone(taskNumbers);
-            return UI.getMarkAsDoneMessage(taskList, taskNumbers);
+            TaskSelector selector = Parser.parseMarkCommand(userInput, taskList.getSize());
+            BitSet selection = taskList.select(selector);
+            if (selection.isEmpty()) {
+                return UI.getEmptySelectionWarning();
+            }
+            taskList.markAsDone(selection);
+            return UI.getMarkAsDoneMessage(taskList, selection);
         } catch (MissingTaskNumberException | InvalidTaskNumberException e) {
             return UI.getErrorMessage(e);
-        } finally {
-            taskList.save();
         }
     }
 
@@ -102,13 +266,15 @@ public class Gopher {
      */
     public static Message executeUnmarkTaskCommand(String userInput) {
         try {
-            int[] taskNumbers = Parser.parseUnmarkCommand(userInput);
-            taskList.markAsUndone(taskNumbers);
-            return UI.getMarkAsUndoneMessage(taskList, taskNumbers);
+            TaskSelector selector = Parser.parseUnmarkCommand(userInput, taskList.getSize());
+            BitSet selection = taskList.select(selector);
+            if (selection.isEmpty()) {
+                return UI.getEmptySelectionWarning();
+            }
+            taskList.markAsUndone(selection);
+            return UI.getMarkAsUndoneMessage(taskList, selection);
         } catch (MissingTaskNumberException | InvalidTaskNumberException e) {
             return UI.getErrorMessage(e);
-        } finally {
-            taskList.save();
         }
     }
 
@@ -120,14 +286,16 @@ public class Gopher {
      */
     public static Message executeDeleteTaskCommand(String userInput) {
         try {
-            int[] taskNumbers = Parser.parseDeleteCommand(userInput);
-            Message message = UI.getDeleteTaskMessage(taskList, taskNumbers);
-            taskList.delete(taskNumbers);
+            TaskSelector selector = Parser.parseDeleteCommand(userInput, taskList.getSize());
+            BitSet selection = taskList.select(selector);
+            if (selection.isEmpty()) {
+                return UI.getEmptySelectionWarning();
+            }
+            Message message = UI.getDeleteTaskMessage(taskList, selection);
+            taskList.delete(selection);
             return message;
         } catch (MissingTaskNumberException | InvalidTaskNumberException e) {
             return UI.getErrorMessage(e);
-        } finally {
-            taskList.save();
         }
     }
 
@@ -138,9 +306,52 @@ public class Gopher {
      * @return Message object indicating response by gopher after successful action
      */
     public static Message executeFindTaskCommand(String userInput) {
-        String keyword = Parser.parseFindCommand(userInput);
-        TaskList matchedTasks = taskList.find(keyword);
-        return UI.getMatchedTasksMessage(matchedTasks);
+        try {
+            FindQuery query = Parser.parseFindCommand(userInput);
+            TaskList matchedTasks = taskList.find(query);
+            return UI.getMatchedTasksMessage(matchedTasks);
+        } catch (InvalidFindPatternException | FindPatternTooComplexException e) {
+            return UI.getErrorMessage(e);
+        }
+    }
+
+    /**
+     * Executes the relevant actions when user input search task command.
+     *
+     * @param userInput command input by the user
+     * @return Message object indicating response by gopher after successful action
+     */
+    public static Message executeSearchTaskCommand(String userInput) {
+        String query = Parser.parseSearchCommand(userInput);
+        if (query.isEmpty()) {
+            return UI.getEmptySearchQueryWarning();
+        }
+        TaskList matchedTasks = taskList.search(query, SEARCH_RESULT_LIMIT);
+        return UI.getSearchResultMessage(matchedTasks, query);
+    }
+
+    /**
+     * Executes the relevant actions when user input sync command.
+     *
+     * @param userInput command input by the user
+     * @return Message object showing how many changes were taken in and sent
+     */
+    public static Message executeSyncCommand(String userInput) {
+        String path = Parser.parseSyncCommand(userInput);
+        if (path.isEmpty()) {
+            return UI.getEmptySyncPathWarning();
+        }
+        if (taskList.isPaged()) {
+            return UI.getPagedSyncWarning();
+        }
+        try {
+            SyncPlan plan = taskList.sync(Paths.get(path));
+            return UI.getSyncMessage(plan, path);
+        } catch (SyncFailedException e) {
+            return UI.getErrorMessage(e);
+        } catch (InvalidPathException e) {
+            return UI.getErrorMessage(new SyncFailedException(path));
+        }
     }
 
     /**
@@ -182,30 +393,101 @@ public class Gopher {
     }
 
     /**
-     * Gets the response from Gopher
+     * Executes the relevant actions when user input show agenda command.
+     *
+     * @return Message object summarizing the overdue and upcoming tasks
+     */
+    public static Message executeAgendaCommand() {
+        return UI.getAgendaMessage(taskList.getAgenda(AGENDA_ITEM_LIMIT));
+    }
+
+    /**
+     * Executes the relevant actions when user input show statistics command.
+     *
+     * @return Message object containing the current metrics
+     */
+    public static Message executeStatsCommand() {
+        return UI.getStatsMessage(Metrics.getReport());
+    }
+
+    /**
+     * Executes the relevant actions when user input show cache command.
+     *
+     * @return Message object containing the hits and misses of the task cache
+     */
+    public static Message executeCacheCommand() {
+        return taskList.getTaskCache().map(UI::getCacheMessage).orElseGet(UI::getNoCacheMessage);
+    }
+
+    /**
+     * Gets the response from Gopher.
+     * The time taken by each command is recorded in Metrics and
+     * as a CommandExecutionEvent for Java Flight Recorder.
      *
      * @return Message object that contains Gopher's response
      */
     public static Message getResponse(String userInput)
             throws UnknownCommandException {
-        if (userInput.equalsIgnoreCase("bye")) {
-            return executeExitCommand();
-        } else if (userInput.equalsIgnoreCase("list")) {
-            return executeListTasksCommand();
-        } else if (userInput.toLowerCase().startsWith("mark")) {
-            return executeMarkTaskCommand(userInput);
-        } else if (userInput.toLowerCase().startsWith("unmark")) {
-            return executeUnmarkTaskCommand(userInput);
-        } else if (userInput.toLowerCase().startsWith("delete")) {
-            return executeDeleteTaskCommand(userInput);
-        } else if (userInput.toLowerCase().startsWith("find")) {
-            return executeFindTaskCommand(userInput);
-        } else if (Parser.isValidTaskType(userInput.split(" ")[0])) {
-            return executeCreateTaskCommand(userInput);
-        } else if (userInput.toLowerCase().startsWith("update")) {
-            return executeUpdateTaskCommand(userInput);
-        } else {
-            throw new UnknownCommandException(userInput);
+        long startTime = System.nanoTime();
+        CommandExecutionEvent event = new CommandExecutionEvent();
+        event.begin();
+        CommandName command = CommandName.UNKNOWN;
+        boolean isFailed = false;
+        try {
+            Message response;
+            if (userInput.equalsIgnoreCase("bye")) {
+                command = CommandName.BYE;
+                response = executeExitCommand();
+            } else if (userInput.equalsIgnoreCase("stats")) {
+                command = CommandName.STATS;
+                response = executeStatsCommand();
+            } else if (userInput.equalsIgnoreCase("cache")) {
+                command = CommandName.CACHE;
+                response = executeCacheCommand();
+            } else if (userInput.equalsIgnoreCase("agenda")) {
+                command = CommandName.AGENDA;
+                response = executeAgendaCommand();
+            } else if (userInput.toLowerCase().startsWith("list")) {
+                command = CommandName.LIST;
+                response = executeListTasksCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("mark")) {
+                command = CommandName.MARK;
+                response = executeMarkTaskCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("unmark")) {
+                command = CommandName.UNMARK;
+                response = executeUnmarkTaskCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("delete")) {
+                command = CommandName.DELETE;
+                response = executeDeleteTaskCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("find")) {
+                command = CommandName.FIND;
+                response = executeFindTaskCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("search")) {
+                command = CommandName.SEARCH;
+                response = executeSearchTaskCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("sync")) {
+                command = CommandName.SYNC;
+                response = executeSyncCommand(userInput);
+            } else if (Parser.isValidTaskType(userInput.split(" ")[0])) {
+                command = CommandName.CREATE;
+                response = executeCreateTaskCommand(userInput);
+            } else if (userInput.toLowerCase().startsWith("update")) {
+                command = CommandName.UPDATE;
+                response = executeUpdateTaskCommand(userInput);
+            } else {
+                throw new UnknownCommandException(userInput);
+            }
+            isFailed = response.getType() == MessageType.ERROR;
+            return response;
+        } catch (UnknownCommandException e) {
+            isFailed = true;
+            throw e;
+        } finally {
+            if (isFailed) {
+                Metrics.increment(Metrics.COMMAND_ERRORS);
+            }
+            Metrics.recordCommand(command, System.nanoTime() - startTime);
+            event.emit(command.getLabel(), isFailed);
         }
     }
 }
@@ -0,0 +1,23 @@
+package gopher.exception;
+
+/**
+ * Thrown if the pattern of a find --regex command takes too long to check against a task.
+ */
+public class FindPatternTooComplexException extends Exception {
+    private String pattern;
+
+    /**
+     * Constructor for FindPatternTooComplexException.
+     *
+     * @param pattern pattern in the find command that triggers the exception
+     */
+    public FindPatternTooComplexException(String pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, \"%s\" is taking me too long to check against your tasks...\n"
+                + "Please try again with a simpler pattern...", this.pattern);
+    }
+}
@@ -0,0 +1,24 @@
+package gopher.exception;
+
+/**
+ * Thrown if the pattern of a find --regex command is not a valid regular expression.
+ */
+public class InvalidFindPatternException extends Exception {
+    private String pattern;
+
+    /**
+     * Constructor for InvalidFindPatternException.
+     *
+     * @param pattern pattern in the find command that triggers the exception
+     */
+    public InvalidFindPatternException(String pattern) {
+        this.pattern = pattern;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, \"%s\" is not a pattern I can understand...\n"
+                + "Leave out --regex to find the exact text instead.\n"
+                + "Please try again...", this.pattern);
+    }
+}
@@ -0,0 +1,23 @@
+package gopher.exception;
+
+/**
+ * Thrown if the list command contains an option or value that cannot be understood.
+ */
+public class InvalidListOptionException extends Exception {
+    private String option;
+
+    /**
+     * Constructor for InvalidListOptionException.
+     *
+     * @param option option or value in the list command that triggers the exception
+     */
+    public InvalidListOptionException(String option) {
+        this.option = option;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, I don't understand %s in your list command...\n"
+                + "Try something like: list 2 --page-size 100", this.option);
+    }
+}
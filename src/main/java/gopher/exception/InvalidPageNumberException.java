@@ -0,0 +1,27 @@
+package gopher.exception;
+
+/**
+ * Thrown if user asks for a page of the task list that does not exist.
+ */
+public class InvalidPageNumberException extends Exception {
+    private int page;
+    private int pageCount;
+
+    /**
+     * Constructor for InvalidPageNumberException.
+     *
+     * @param page page number requested by the user
+     * @param pageCount number of pages available in the task list
+     */
+    public InvalidPageNumberException(int page, int pageCount) {
+        this.page = page;
+        this.pageCount = pageCount;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, there is no page %d in your task list...\n"
+                + "You currently have %d %s of tasks.", this.page,
+                this.pageCount, this.pageCount == 1 ? "page" : "pages");
+    }
+}
@@ -0,0 +1,34 @@
+package gopher.exception;
+
+/**
+ * Thrown if the value given to a task attribute token such as /p, /tag or /every
+ * cannot be accepted.
+ */
+public class InvalidTaskAttributeException extends InvalidTokenException {
+    private String token;
+    private String value;
+
+    /**
+     * Constructor for InvalidTaskAttributeException.
+     *
+     * @param token attribute token that the value is given to
+     * @param value value that triggers the exception, empty if no value is given
+     */
+    public InvalidTaskAttributeException(String token, String value) {
+        super("any", token);
+        this.token = token;
+        this.value = value;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, \"%s\" is not a valid value for %s...\n"
+                + "Priority can be none, low, medium or high, "
+                + "and each tag must be a single word without commas.\n"
+                + "Recurring deadlines and events need /every daily, weekly or monthly "
+                + "and /until [end date].\n"
+                + "Please try again...",
+                this.value,
+                this.token);
+    }
+}
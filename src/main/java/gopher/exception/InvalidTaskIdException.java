@@ -0,0 +1,25 @@
+package gopher.exception;
+
+/**
+ * Thrown if user gives a task ID that does not belong to any task in the
+ * given task list
+ */
+public class InvalidTaskIdException extends InvalidTaskNumberException {
+    private int invalidTaskId;
+
+    /**
+     * Constructor for InvalidTaskIdException.
+     *
+     * @param taskId task ID that triggers the exception
+     */
+    public InvalidTaskIdException(int taskId) {
+        super(taskId);
+        this.invalidTaskId = taskId;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, I can't seem to find a task with ID #%s...\n"
+                + "Please try again with a valid task ID...", this.invalidTaskId);
+    }
+}
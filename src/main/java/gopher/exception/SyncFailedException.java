@@ -0,0 +1,24 @@
+package gopher.exception;
+
+/**
+ * Thrown if the task file to sync with cannot be read, understood or written.
+ */
+public class SyncFailedException extends Exception {
+    private String path;
+
+    /**
+     * Constructor for SyncFailedException.
+     *
+     * @param path path of the task file that triggers the exception
+     */
+    public SyncFailedException(String path) {
+        this.path = path;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Sorry, I can't sync with the task file at %s...\n"
+                + "Please make sure it is a Gopher task file that I can read and write, "
+                + "and try again...", this.path);
+    }
+}
@@ -3,6 +3,7 @@ package gopher.gui;
 import java.io.IOException;
 
 import gopher.Gopher;
+import gopher.metrics.Metrics;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -27,6 +28,7 @@ public class Main extends Application {
             fxmlLoader.<MainWindow>getController().setGopher(gopher);
             stage.getIcons().add(new Image("images/Gopher.png"));
             stage.setTitle("Gopher");
+            stage.setOnShown(event -> Metrics.recordSinceLaunch(Metrics.STARTUP_FIRST_FRAME));
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
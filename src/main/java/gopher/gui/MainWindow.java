@@ -1,9 +1,18 @@
 package gopher.gui;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import gopher.Gopher;
 import gopher.exception.UnknownCommandException;
 import gopher.message.Message;
+import gopher.metrics.Metrics;
 import gopher.ui.UI;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ScrollPane;
@@ -16,6 +25,15 @@ import javafx.scene.layout.VBox;
  * Controller for the main GUI.
  */
 public class MainWindow extends AnchorPane {
+    /** System property that prints how long startup took once the tasks are loaded, then exits */
+    private static final String STARTUP_BENCHMARK_PROPERTY = "gopher.startupBenchmark";
+
+    /**
+     * System property naming a file of commands to run once the tasks are loaded, then exit,
+     * so that a training run loads the classes a session needs for a class data sharing archive
+     */
+    private static final String TRAINING_COMMANDS_PROPERTY = "gopher.trainingCommands";
+
     @FXML
     private ScrollPane scrollPane;
     @FXML
@@ -27,6 +45,12 @@ public class MainWindow extends AnchorPane {
 
     private Gopher gopher;
 
+    /** Whether the tasks are loaded, after which every command can be run */
+    private boolean isLoaded;
+
+    /** Inputs entered while the tasks were loading, run in order once they are loaded */
+    private final List<String> pendingInputs = new ArrayList<>();
+
     private Image userImage =
             new Image(this
                     .getClass()
@@ -39,16 +63,25 @@ public class MainWindow extends AnchorPane {
             );
 
     /**
-     * Initializes the GUI when user enters
+     * Initializes the GUI when user enters.
+     * The user is greeted straight away, while the tasks load in the background.
      */
     @FXML
     public void initialize() {
         scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
-        Message welcomeMessage = Gopher.executeLoadTasks();
+        Gopher.setReminderListener(reminder -> Platform.runLater(() -> dialogContainer
+                .getChildren()
+                .add(DialogBox.getGopherDialog(reminder, gopherImage))));
+        Gopher.setTaskFileListener(() -> Platform.runLater(() -> {
+            if (isLoaded) {
+                showReloadedTasks();
+            }
+        }));
         dialogContainer
                 .getChildren()
                 .add(DialogBox.getGopherDialog(
-                        welcomeMessage, gopherImage));
+                        UI.getGreetMessage(), gopherImage));
+        Gopher.executeLoadTasksInBackground(error -> Platform.runLater(() -> finishLoading(error)));
     }
 
     /** Injects the Gopher instance */
@@ -59,6 +92,7 @@ public class MainWindow extends AnchorPane {
     /**
      * Creates two dialog boxes, one echoing user input and the other containing Gopher's reply and then appends them to
      * the dialog container. Clears the user input after processing.
+     * A command that needs the task list is put off until the tasks are loaded.
      */
     @FXML
     private void handleUserInput() {
@@ -66,19 +100,95 @@ public class MainWindow extends AnchorPane {
         if (input.isEmpty()) {
             return;
         }
+        Message response;
+        if (isLoaded || Gopher.isAvailableWhileLoading(input)) {
+            response = getResponse(input);
+        } else {
+            pendingInputs.add(input);
+            response = Gopher.getLoadingMessage();
+        }
+        dialogContainer.getChildren().addAll(
+                DialogBox.getUserDialog(input, userImage),
+                DialogBox.getGopherDialog(response, gopherImage)
+        );
+        userInput.clear();
+    }
+
+    /**
+     * Gets Gopher's reply to the given user input.
+     *
+     * @param input command input by the user
+     * @return Message object of the reply, or a warning if the command is unknown
+     */
+    private Message getResponse(String input) {
         try {
-            Message response = gopher.getResponse(input);
-            dialogContainer.getChildren().addAll(
-                    DialogBox.getUserDialog(input, userImage),
-                    DialogBox.getGopherDialog(response, gopherImage)
-            );
+            return gopher.getResponse(input);
         } catch (UnknownCommandException e) {
-            dialogContainer.getChildren().addAll(
-                    DialogBox.getUserDialog(input, userImage),
-                    DialogBox.getGopherDialog(UI.getUnknownCommandWarning(e), gopherImage)
-            );
-        } finally {
-            userInput.clear();
+            return UI.getUnknownCommandWarning(e);
         }
     }
+
+    /**
+     * Shows the outcome of loading the tasks and runs the commands put off while they were loading.
+     *
+     * @param error error message if the tasks could not be loaded
+     */
+    private void finishLoading(Optional<Message> error) {
+        isLoaded = true;
+        long interactiveNanos = Metrics.recordSinceLaunch(Metrics.STARTUP_INTERACTIVE);
+        if (error.isPresent()) {
+            dialogContainer.getChildren().add(DialogBox.getGopherDialog(error.get(), gopherImage));
+        } else {
+            // The task file may have been written by another program while it was being read
+            showReloadedTasks();
+        }
+        for (String input : pendingInputs) {
+            dialogContainer.getChildren().add(DialogBox.getGopherDialog(getResponse(input), gopherImage));
+        }
+        pendingInputs.clear();
+        boolean isBenchmark = Boolean.getBoolean(STARTUP_BENCHMARK_PROPERTY);
+        if (isBenchmark) {
+            System.out.println("First frame: "
+                    + Metrics.getHistogram(Metrics.STARTUP_FIRST_FRAME).getMax() / 1_000_000 + " ms");
+            System.out.println("Interactive: " + interactiveNanos / 1_000_000 + " ms");
+        }
+        String trainingCommands = System.getProperty(TRAINING_COMMANDS_PROPERTY);
+        if (trainingCommands != null) {
+            runTrainingCommands(trainingCommands);
+        }
+        if (isBenchmark || trainingCommands != null) {
+            Platform.exit();
+        }
+    }
+
+    /**
+     * Runs the commands in the given file as if the user had entered them, showing each reply.
+     * Blank lines and lines starting with # are skipped.
+     *
+     * @param file path of the file of commands
+     */
+    private void runTrainingCommands(String file) {
+        try {
+            for (String input : Files.readAllLines(Paths.get(file))) {
+                if (input.isBlank() || input.startsWith("#")) {
+                    continue;
+                }
+                dialogContainer.getChildren().addAll(
+                        DialogBox.getUserDialog(input, userImage),
+                        DialogBox.getGopherDialog(getResponse(input.trim()), gopherImage)
+                );
+            }
+        } catch (IOException e) {
+            System.out.println("Training commands cannot be read");
+        }
+    }
+
+    /**
+     * Takes in the changes made to the task file by another program, if any, and shows them.
+     */
+    private void showReloadedTasks() {
+        Gopher.executeReloadTasks().ifPresent(message -> dialogContainer
+                .getChildren()
+                .add(DialogBox.getGopherDialog(message, gopherImage)));
+    }
 }
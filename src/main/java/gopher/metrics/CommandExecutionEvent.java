@@ -0,0 +1,40 @@
+package gopher.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded when Gopher executes a user command.
+ */
+@Name("gopher.CommandExecution")
+@Label("Command Execution")
+@Category("Gopher")
+@Description("Execution of a user command, from input to response")
+@StackTrace(false)
+public class CommandExecutionEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    @Label("Failed")
+    @Description("Whether the command ended with an error message")
+    private boolean isFailed;
+
+    /**
+     * Ends the event and commits it with the given details if it is being recorded.
+     *
+     * @param command name of the command executed
+     * @param isFailed whether the command ended with an error
+     */
+    public void emit(String command, boolean isFailed) {
+        end();
+        if (shouldCommit()) {
+            this.command = command;
+            this.isFailed = isFailed;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package gopher.metrics;
+
+/**
+ * Represents the user commands whose latency is recorded.
+ * The latency histogram of each command is registered once, up front, so that
+ * recording a command neither builds the name of its histogram nor looks it up.
+ */
+public enum CommandName {
+    BYE("bye"),
+    STATS("stats"),
+    CACHE("cache"),
+    AGENDA("agenda"),
+    LIST("list"),
+    MARK("mark"),
+    UNMARK("unmark"),
+    DELETE("delete"),
+    FIND("find"),
+    SEARCH("search"),
+    SYNC("sync"),
+    CREATE("create"),
+    UPDATE("update"),
+    UNKNOWN("unknown");
+
+    private final String label;
+
+    private final LatencyHistogram latency;
+
+    CommandName(String label) {
+        this.label = label;
+        this.latency = Metrics.getHistogram(Metrics.COMMAND_PREFIX + label);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
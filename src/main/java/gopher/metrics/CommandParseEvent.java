@@ -0,0 +1,39 @@
+package gopher.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded when Parser parses a user command.
+ */
+@Name("gopher.CommandParse")
+@Label("Command Parse")
+@Category("Gopher")
+@Description("Parsing of a user command into its arguments")
+@StackTrace(false)
+public class CommandParseEvent extends Event {
+    @Label("Command")
+    private String command;
+
+    @Label("Input Length")
+    private int inputLength;
+
+    /**
+     * Ends the event and commits it with the given details if it is being recorded.
+     *
+     * @param command name of the command being parsed
+     * @param input full input given by the user
+     */
+    public void emit(String command, String input) {
+        end();
+        if (shouldCommit()) {
+            this.command = command;
+            this.inputLength = input.length();
+            commit();
+        }
+    }
+}
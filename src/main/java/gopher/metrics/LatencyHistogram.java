@@ -0,0 +1,131 @@
+package gopher.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a fixed-size latency histogram with log-linear buckets,
+ * in the spirit of an HDR histogram.
+ * Every power of two is split into 8 linear sub-buckets, so any recorded
+ * value is reported with at most 12.5% relative error while the whole
+ * range of a long fits into a few hundred counters.
+ * Recording is lock-free and never allocates.
+ */
+public class LatencyHistogram {
+    /** Number of bits used to pick the sub-bucket within a power of two */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Number of sub-buckets within a power of two */
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /** Values below this limit are counted exactly, one bucket per value */
+    private static final int LINEAR_LIMIT = SUB_BUCKET_COUNT << 1;
+
+    /** Number of buckets needed to cover every non-negative long */
+    private static final int BUCKET_COUNT = getBucketIndex(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Gets the index of the bucket that the given value falls into.
+     *
+     * @param value non-negative value to be recorded
+     * @return index of the bucket holding the value
+     */
+    static int getBucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int mantissa = (int) (value >>> shift);
+        return shift * SUB_BUCKET_COUNT + mantissa;
+    }
+
+    /**
+     * Gets the smallest value that falls into the bucket with the given index.
+     *
+     * @param index index of the bucket
+     * @return lower bound of the bucket
+     */
+    static long getBucketLowerBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long mantissa = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return mantissa << shift;
+    }
+
+    /**
+     * Records a single value into the histogram.
+     * Negative values are recorded as zero.
+     *
+     * @param value value to be recorded, usually a duration in nanoseconds
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        buckets.incrementAndGet(getBucketIndex(clamped));
+        count.increment();
+        sum.add(clamped);
+        max.accumulateAndGet(clamped, Math::max);
+    }
+
+    /**
+     * Gets the number of values recorded.
+     *
+     * @return number of values recorded
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Gets the largest value recorded.
+     *
+     * @return largest value recorded, or 0 if nothing is recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the mean of the values recorded.
+     *
+     * @return mean value, or 0 if nothing is recorded
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets the approximate value at the given percentile.
+     * The result is the lower bound of the bucket containing the percentile,
+     * or the largest value recorded if that bucket is the highest one in use.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return approximate value at the given percentile, or 0 if nothing is recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "Percentile should be between 0 and 100";
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= total) {
+                return getMax();
+            } else if (seen >= target) {
+                return getBucketLowerBound(i);
+            }
+        }
+        return getMax();
+    }
+}
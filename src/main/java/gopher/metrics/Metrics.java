@@ -0,0 +1,235 @@
+package gopher.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Groups the counters, gauges and latency histograms that track
+ * how Gopher is being used and where time is spent.
+ * All recording methods are thread-safe and allocation-free once
+ * the metric with the given name exists.
+ */
+public class Metrics {
+    /** Name under which the metrics are exposed through JMX */
+    public static final String MBEAN_NAME = "gopher:type=Metrics";
+
+    /** Prefix of the latency histograms of user commands */
+    public static final String COMMAND_PREFIX = "command.";
+
+    /** Latency histogram of saving the task file */
+    public static final String STORAGE_SAVE = "storage.save";
+
+    /** Latency histogram of loading the task file */
+    public static final String STORAGE_LOAD = "storage.load";
+
+    /** Latency histogram of the time from launch until the window is first shown */
+    public static final String STARTUP_FIRST_FRAME = "startup.firstFrame";
+
+    /** Latency histogram of the time from launch until the tasks are loaded and every command can be run */
+    public static final String STARTUP_INTERACTIVE = "startup.interactive";
+
+    /** Counter of commands that ended with an error message */
+    public static final String COMMAND_ERRORS = "command.errors";
+
+    /** Gauge of task names and tags found in the name pool, read from the pool when reported */
+    public static final String NAME_POOL_HITS = "pool.names.hits";
+
+    /** Gauge of task names and tags added to the name pool, read from the pool when reported */
+    public static final String NAME_POOL_MISSES = "pool.names.misses";
+
+    /** Counter of tasks found decoded in the task cache of a paged store */
+    public static final String TASK_CACHE_HITS = "cache.tasks.hits";
+
+    /** Counter of tasks decoded from their rows because the task cache did not hold them */
+    public static final String TASK_CACHE_MISSES = "cache.tasks.misses";
+
+    /** Counter of changed tasks written from the task cache back to a paged store */
+    public static final String TASK_CACHE_WRITE_BACKS = "cache.tasks.writebacks";
+
+    /** Gauge of the number of tasks in the task file */
+    public static final String TASK_COUNT = "tasks.count";
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong> GAUGES = new ConcurrentHashMap<>();
+    private static final Map<String, LongSupplier> READ_GAUGES = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the latency histogram with the given name, creating it if needed.
+     *
+     * @param name name of the histogram
+     * @return histogram with the given name
+     */
+    public static LatencyHistogram getHistogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Records a duration into the latency histogram with the given name.
+     *
+     * @param name name of the histogram
+     * @param nanos duration in nanoseconds
+     */
+    public static void recordLatency(String name, long nanos) {
+        getHistogram(name).record(nanos);
+    }
+
+    /**
+     * Records the duration of a user command into its pre-registered histogram.
+     *
+     * @param command the command, e.g. list
+     * @param nanos duration in nanoseconds
+     */
+    public static void recordCommand(CommandName command, long nanos) {
+        command.getLatency().record(nanos);
+    }
+
+    /**
+     * Records the time since the JVM was launched into the latency histogram with the given name,
+     * to measure how long a stage of startup took.
+     *
+     * @param name name of the histogram
+     * @return time since launch in nanoseconds, to the millisecond
+     */
+    public static long recordSinceLaunch(String name) {
+        long nanos = TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime());
+        recordLatency(name, nanos);
+        return nanos;
+    }
+
+    /**
+     * Increments the counter with the given name by one.
+     *
+     * @param name name of the counter
+     */
+    public static void increment(String name) {
+        COUNTERS.computeIfAbsent(name, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Sets the gauge with the given name to the given value.
+     *
+     * @param name name of the gauge
+     * @param value current value of the gauge
+     */
+    public static void setGauge(String name, long value) {
+        GAUGES.computeIfAbsent(name, key -> new AtomicLong()).set(value);
+    }
+
+    /**
+     * Registers a gauge whose value is read from the given supplier only when it is reported,
+     * for values updated too often to be published on every change.
+     *
+     * @param name name of the gauge
+     * @param value supplier of the current value of the gauge
+     */
+    public static void registerGauge(String name, LongSupplier value) {
+        READ_GAUGES.put(name, value);
+    }
+
+    /**
+     * Gets the current value of the counter or gauge with the given name.
+     *
+     * @param name name of the counter or gauge
+     * @return current value, or 0 if nothing has been recorded
+     */
+    public static long getValue(String name) {
+        LongAdder counter = COUNTERS.get(name);
+        if (counter != null) {
+            return counter.sum();
+        }
+        LongSupplier readGauge = READ_GAUGES.get(name);
+        if (readGauge != null) {
+            return readGauge.getAsLong();
+        }
+        AtomicLong gauge = GAUGES.get(name);
+        return gauge == null ? 0 : gauge.get();
+    }
+
+    /**
+     * Gets a snapshot of all counters and gauges, sorted by name.
+     *
+     * @return map from metric name to its current value
+     */
+    public static Map<String, Long> getValues() {
+        Map<String, Long> values = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.sum()));
+        GAUGES.forEach((name, gauge) -> values.put(name, gauge.get()));
+        READ_GAUGES.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    /**
+     * Gets a snapshot of the latency histograms, sorted by name.
+     *
+     * @return map from histogram name to the histogram
+     */
+    public static Map<String, LatencyHistogram> getHistograms() {
+        return new TreeMap<>(HISTOGRAMS);
+    }
+
+    /**
+     * Registers the metrics as an MXBean on the platform MBean server,
+     * so that they can be inspected with tools such as JConsole.
+     * Does nothing if the metrics are already registered.
+     */
+    public static void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMxBeanImpl(), name);
+            }
+        } catch (JMException e) {
+            System.out.println("Metrics cannot be registered with JMX");
+        }
+    }
+
+    /**
+     * Gets a human-readable report of all metrics.
+     * Histograms with nothing recorded yet, such as those of commands not used so far, are left out.
+     *
+     * @return report of all metrics
+     */
+    public static String getReport() {
+        StringBuilder report = new StringBuilder();
+        getValues().forEach((name, value) -> report.append(name)
+                .append(": ")
+                .append(value)
+                .append('\n'));
+        report.append("Latency in microseconds (count / mean / p50 / p99 / max):");
+        getHistograms().forEach((name, histogram) -> {
+            if (histogram.getCount() == 0) {
+                return;
+            }
+            report.append('\n')
+                    .append(name)
+                    .append(": ")
+                    .append(histogram.getCount())
+                    .append(" / ").append(toMicros(histogram.getMean()))
+                    .append(" / ").append(toMicros(histogram.getValueAtPercentile(50)))
+                    .append(" / ").append(toMicros(histogram.getValueAtPercentile(99)))
+                    .append(" / ").append(toMicros(histogram.getMax()));
+        });
+        return report.toString();
+    }
+
+    /**
+     * Converts nanoseconds to microseconds rounded to one decimal place.
+     *
+     * @param nanos duration in nanoseconds
+     * @return duration in microseconds
+     */
+    private static double toMicros(double nanos) {
+        return Math.round(nanos / 100) / 10.0;
+    }
+}
@@ -0,0 +1,31 @@
+package gopher.metrics;
+
+import java.util.Map;
+import javax.management.MXBean;
+
+/**
+ * Management interface exposing Gopher's metrics through JMX.
+ */
+@MXBean
+public interface MetricsMxBean {
+    /**
+     * Gets the current value of every counter and gauge.
+     *
+     * @return map from metric name to its current value
+     */
+    Map<String, Long> getValues();
+
+    /**
+     * Gets the 99th percentile latency of every histogram in nanoseconds.
+     *
+     * @return map from histogram name to its 99th percentile latency
+     */
+    Map<String, Long> getP99LatencyNanos();
+
+    /**
+     * Gets a human-readable report of all metrics.
+     *
+     * @return report of all metrics
+     */
+    String getReport();
+}
@@ -0,0 +1,27 @@
+package gopher.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Implementation of MetricsMxBean backed by the Metrics registry.
+ */
+class MetricsMxBeanImpl implements MetricsMxBean {
+    @Override
+    public Map<String, Long> getValues() {
+        return Metrics.getValues();
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanos() {
+        Map<String, Long> latencies = new TreeMap<>();
+        Metrics.getHistograms().forEach((name, histogram) ->
+                latencies.put(name, histogram.getValueAtPercentile(99)));
+        return latencies;
+    }
+
+    @Override
+    public String getReport() {
+        return Metrics.getReport();
+    }
+}
@@ -0,0 +1,46 @@
+package gopher.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded when TaskManager loads the task file.
+ */
+@Name("gopher.TaskFileLoad")
+@Label("Task File Load")
+@Category("Gopher")
+@Description("Loading of the task file, including disk access and parsing")
+@StackTrace(false)
+public class TaskFileLoadEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it with the given details if it is being recorded.
+     *
+     * @param path path of the task file
+     * @param taskCount number of tasks in the file
+     * @param bytes size of the file in bytes
+     */
+    public void emit(String path, int taskCount, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.taskCount = taskCount;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
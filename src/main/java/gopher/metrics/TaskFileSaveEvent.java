@@ -0,0 +1,46 @@
+package gopher.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event recorded when TaskManager saves the task file.
+ */
+@Name("gopher.TaskFileSave")
+@Label("Task File Save")
+@Category("Gopher")
+@Description("Saving of the task file, including encoding and disk access")
+@StackTrace(false)
+public class TaskFileSaveEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("Task Count")
+    private int taskCount;
+
+    @Label("Size")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Ends the event and commits it with the given details if it is being recorded.
+     *
+     * @param path path of the task file
+     * @param taskCount number of tasks in the file
+     * @param bytes size of the file in bytes
+     */
+    public void emit(String path, int taskCount, long bytes) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.taskCount = taskCount;
+            this.bytes = bytes;
+            commit();
+        }
+    }
+}
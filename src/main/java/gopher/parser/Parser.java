@@ -1,5 +1,6 @@
 package gopher.parser;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
@@ -8,13 +9,26 @@ import java.util.ArrayList;
 import gopher.exception.EmptyTaskDescriptionException;
 import gopher.exception.FileCorruptedException;
 import gopher.exception.InvalidDurationException;
+import gopher.exception.InvalidListOptionException;
+import gopher.exception.InvalidTaskAttributeException;
+import gopher.exception.InvalidTaskNumberException;
 import gopher.exception.InvalidTokenException;
 import gopher.exception.MissingTaskNumberException;
 import gopher.exception.MissingTokenException;
 import gopher.exception.UnknownCommandException;
+import gopher.metrics.CommandParseEvent;
 import gopher.task.Deadline;
 import gopher.task.Event;
+import gopher.task.FindQuery;
+import gopher.task.Frequency;
+import gopher.task.ListQuery;
+import gopher.task.Priority;
+import gopher.task.Recurrence;
+import gopher.task.SortOrder;
 import gopher.task.Task;
+import gopher.task.TaskAttributes;
+import gopher.task.TaskList;
+import gopher.task.TaskSelector;
 import gopher.task.ToDo;
 
 
@@ -23,6 +37,12 @@ import gopher.task.ToDo;
  * user and data files.
  */
 public class Parser {
+    /**
+     * First line of task files saved in the escaped format, which tells them apart
+     * from files saved before, whose rows are not escaped
+     */
+    public static final String SAVE_FORMAT_HEADER = "# gopher tasks v2";
+
     /**
      * DateTimeFormater for date input
      */
@@ -85,13 +105,45 @@ public class Parser {
     }
 
     /**
-     * Checks for whether at least one task number is supplied in the given command.
+     * Extracts the /p, /tag, /every and /until tokens and their values from the given command tokens.
+     * Each token takes exactly one word as its value, e.g. /p high /tag work /every weekly /until 2025-06-30.
+     *
+     * @param tokens tokens within the given command
+     * @param attributes attributes to be filled with the extracted values
+     * @return remaining tokens without the attribute tokens and their values
+     * @throws InvalidTaskAttributeException if an attribute value is missing or invalid
      */
-    public static void hasTaskNumber(int[] taskNumbers)
-            throws MissingTaskNumberException {
-        if (taskNumbers.length == 0) {
-            throw new MissingTaskNumberException();
+    public static String[] extractTaskAttributes(String[] tokens, TaskAttributes attributes)
+            throws InvalidTaskAttributeException {
+        ArrayList<String> remainingTokens = new ArrayList<>(tokens.length);
+        for (int i = 0; i < tokens.length; i++) {
+            boolean isPriorityToken = tokens[i].equalsIgnoreCase("/p");
+            boolean isTagToken = tokens[i].equalsIgnoreCase("/tag");
+            boolean isFrequencyToken = tokens[i].equalsIgnoreCase("/every");
+            boolean isUntilToken = tokens[i].equalsIgnoreCase("/until");
+            if (!isPriorityToken && !isTagToken && !isFrequencyToken && !isUntilToken) {
+                remainingTokens.add(tokens[i]);
+                continue;
+            }
+            if (i + 1 >= tokens.length) {
+                throw new InvalidTaskAttributeException(tokens[i], "");
+            }
+            String value = tokens[++i];
+            if (isPriorityToken) {
+                attributes.setPriority(Priority.of(value));
+            } else if (isTagToken) {
+                attributes.addTag(value);
+            } else if (isFrequencyToken) {
+                attributes.setFrequency(Frequency.of(value));
+            } else {
+                try {
+                    attributes.setUntil(parseDateString(value).toLocalDate());
+                } catch (DateTimeParseException e) {
+                    throw new InvalidTaskAttributeException(tokens[i - 1], value);
+                }
+            }
         }
+        return remainingTokens.toArray(new String[0]);
     }
 
     /**
@@ -238,25 +290,35 @@ public class Parser {
             throws UnknownCommandException, DateTimeParseException,
             EmptyTaskDescriptionException, MissingTokenException,
             InvalidTokenException, InvalidDurationException {
-        String[] tokens = command.split(" ");
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        try {
+            TaskAttributes attributes = new TaskAttributes();
+            String[] tokens = extractTaskAttributes(command.split(" "), attributes);
 
-        String taskType = tokens[0];
-        if (!isValidTaskType(taskType)) {
-            throw new UnknownCommandException(taskType);
-        }
+            String taskType = tokens[0];
+            if (!isValidTaskType(taskType)) {
+                throw new UnknownCommandException(taskType);
+            }
 
-        if (tokens.length < 2) {
-            throw new EmptyTaskDescriptionException(taskType);
-        }
+            if (tokens.length < 2) {
+                throw new EmptyTaskDescriptionException(taskType);
+            }
 
-        if (taskType.equalsIgnoreCase("todo")) {
-            return parseCreateToDoCommand(tokens);
-        } else if (taskType.equalsIgnoreCase("deadline")) {
-            return parseCreateDeadlineCommand(tokens);
-        } else if (taskType.equalsIgnoreCase("event")) {
-            return parseCreateEventCommand(tokens);
-        } else {
-            throw new UnknownCommandException(taskType);
+            Task task;
+            if (taskType.equalsIgnoreCase("todo")) {
+                task = parseCreateToDoCommand(tokens);
+            } else if (taskType.equalsIgnoreCase("deadline")) {
+                task = parseCreateDeadlineCommand(tokens);
+            } else if (taskType.equalsIgnoreCase("event")) {
+                task = parseCreateEventCommand(tokens);
+            } else {
+                throw new UnknownCommandException(taskType);
+            }
+            attributes.applyTo(task);
+            return task;
+        } finally {
+            event.emit("create", command);
         }
     }
 
@@ -410,138 +472,403 @@ public class Parser {
     }
 
     /**
-     * Parses saved task data to ArrayList of Task
+     * Parses the optional ID, recurrence, priority and tags columns of a saved task row
+     * and applies them to the task.
+     * Rows saved before these columns existed simply have no extra columns.
      *
-     * @param taskData task data within the saved task file
-     * @return ArrayList of tasks represented by the save file
-     * @throws FileCorruptedException if file read failed
+     * @param task task created from the row
+     * @param tokens columns of the saved task row
+     * @param startIndex index of the first optional column
+     * @throws InvalidTaskAttributeException if a column cannot be understood
      */
-    public static ArrayList<Task> parseSavedTaskData(String taskData)
-            throws FileCorruptedException {
-        ArrayList<Task> tasks = new ArrayList<>();
-        String[] taskRows = taskData.split("\n");
-        String[] tokens;
-        for (String row : taskRows) {
-            if (row.isEmpty()) {
-                continue;
-            }
-            tokens = row.split(" \\| ");
-            String taskType = tokens[0];
-            String taskStatus = tokens[1];
-            String taskName = tokens[2];
-            try {
-                Task newTask = null;
-                switch (taskType) {
-                case "T":
-                    newTask = Task.of("todo " + taskName);
-                    break;
-                case "D":
-                    newTask = Task.of(String.format("deadline %s /by %s",
-                            taskName,
-                            tokens[3]));
-                    break;
-                case "E":
-                    newTask = Task.of(String.format("event %s /from %s /to %s",
-                            taskName,
-                            tokens[3],
-                            tokens[4]));
-                    break;
-                default:
-                    break;
+    private static void applySavedTaskAttributes(Task task, String[] tokens, int startIndex)
+            throws InvalidTaskAttributeException {
+        TaskAttributes attributes = new TaskAttributes();
+        for (int i = startIndex; i < tokens.length; i++) {
+            if (tokens[i].startsWith("id:")) {
+                try {
+                    task.setId(Integer.parseInt(tokens[i].substring(3)));
+                } catch (NumberFormatException e) {
+                    throw new InvalidTaskAttributeException("saved column", tokens[i]);
                 }
-                if (newTask != null && taskStatus.equals("X")) {
-                    newTask.markAsDone();
+            } else if (tokens[i].startsWith("every:")) {
+                task.setRecurrence(parseSavedRecurrence(tokens[i]));
+            } else if (tokens[i].startsWith("done:")) {
+                task.setDoneThrough(parseDateString(tokens[i].substring(5)));
+            } else if (tokens[i].startsWith("at:")) {
+                try {
+                    task.setModifiedAt(Long.parseLong(tokens[i].substring(3)));
+                } catch (NumberFormatException e) {
+                    throw new InvalidTaskAttributeException("saved column", tokens[i]);
                 }
-                tasks.add(newTask);
-            } catch (UnknownCommandException
-                     | EmptyTaskDescriptionException
-                     | MissingTokenException
-                     | InvalidTokenException
-                     | InvalidDurationException e) {
-                throw new FileCorruptedException();
+            } else if (tokens[i].startsWith("p:")) {
+                attributes.setPriority(Priority.of(tokens[i].substring(2)));
+            } else if (tokens[i].startsWith("tags:")) {
+                for (String tag : tokens[i].substring(5).split(",")) {
+                    attributes.addTag(tag);
+                }
+            } else {
+                throw new InvalidTaskAttributeException("saved column", tokens[i]);
             }
         }
-        return tasks;
+        attributes.applyTo(task);
     }
 
     /**
-    * Parses mark task as done command.
-    *
-    * @param command mark task command
-    * @return task number of the task marked as done
-    */
-    public static int[] parseMarkCommand(String command)
-            throws MissingTaskNumberException {
+     * Parses the recurrence column of a saved task row, e.g. every:weekly:2025-06-30.
+     *
+     * @param column recurrence column of the row
+     * @return recurrence rule saved in the column
+     * @throws InvalidTaskAttributeException if the column cannot be understood
+     */
+    private static Recurrence parseSavedRecurrence(String column) throws InvalidTaskAttributeException {
+        String[] parts = column.split(":");
+        if (parts.length != 3) {
+            throw new InvalidTaskAttributeException("saved column", column);
+        }
         try {
-            String[] tokens = command.split(" ");
-            int[] taskNumbers = new int[tokens.length - 1];
-            for (int i = 1; i < tokens.length; i++) {
-                taskNumbers[i - 1] = Integer.parseInt(tokens[i]);
+            return new Recurrence(Frequency.of(parts[1]), LocalDate.parse(parts[2]));
+        } catch (DateTimeParseException e) {
+            throw new InvalidTaskAttributeException("saved column", column);
+        }
+    }
+
+    /**
+     * Escapes a column of a saved task row, so that user text holding the column separator,
+     * line breaks or backslashes cannot be mistaken for the structure of the file.
+     *
+     * @param column text of the column
+     * @return escaped column text
+     */
+    public static String escapeSavedColumn(String column) {
+        StringBuilder escaped = null;
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            String escape = switch (c) {
+            case '\\' -> "\\\\";
+            case '|' -> "\\|";
+            case '\n' -> "\\n";
+            case '\r' -> "\\r";
+            default -> null;
+            };
+            if (escape != null && escaped == null) {
+                escaped = new StringBuilder(column.length() + 8).append(column, 0, i);
+            }
+            if (escaped != null) {
+                if (escape != null) {
+                    escaped.append(escape);
+                } else {
+                    escaped.append(c);
+                }
             }
-            hasTaskNumber(taskNumbers);
-            return taskNumbers;
-        } catch (NumberFormatException e) {
-            throw new MissingTaskNumberException();
         }
+        return escaped == null ? column : escaped.toString();
     }
 
     /**
-     * Parses mark task as not done command.
+     * Splits an escaped saved task row into its unescaped columns in a single pass.
+     * Columns are separated by an unescaped | with a space on either side.
      *
-     * @param command unmark task command
-     * @return task number of the task marked as not done
+     * @param row escaped row of the saved task file
+     * @return unescaped columns of the row
+     */
+    public static String[] splitSavedRow(String row) {
+        ArrayList<String> columns = new ArrayList<>();
+        StringBuilder column = new StringBuilder();
+        int length = row.length();
+        for (int i = 0; i < length; i++) {
+            char c = row.charAt(i);
+            if (c == '\\' && i + 1 < length) {
+                char escaped = row.charAt(++i);
+                column.append(escaped == 'n' ? '\n' : escaped == 'r' ? '\r' : escaped);
+            } else if (c == '|' && i + 1 < length && row.charAt(i + 1) == ' '
+                    && column.length() > 0 && column.charAt(column.length() - 1) == ' ') {
+                column.setLength(column.length() - 1);
+                columns.add(column.toString());
+                column.setLength(0);
+                i++;
+            } else {
+                column.append(c);
+            }
+        }
+        columns.add(column.toString());
+        return columns.toArray(new String[0]);
+    }
+
+    /**
+     * Parses a single non-empty row of the saved task file to a Task.
+     * Escaped rows are split in a single pass and their tasks are built directly,
+     * so names holding separators or command keywords are kept as they are.
+     *
+     * @param row row of the saved task file
+     * @param isEscaped whether the row is escaped, as in files starting with the save format header
+     * @return task represented by the row
+     * @throws FileCorruptedException if the row cannot be understood
      */
-    public static int[] parseUnmarkCommand(String command)
-            throws MissingTaskNumberException {
+    public static Task parseSavedTaskRow(String row, boolean isEscaped) throws FileCorruptedException {
+        String[] tokens = isEscaped ? splitSavedRow(row) : row.split(" \\| ");
+        String taskType = tokens[0];
+        String taskStatus = tokens[1];
+        String taskName = tokens[2];
         try {
-            String[] tokens = command.split(" ");
-            int[] taskNumbers = new int[tokens.length - 1];
-            for (int i = 1; i < tokens.length; i++) {
-                taskNumbers[i - 1] = Integer.parseInt(tokens[i]);
+            Task newTask;
+            int attributeIndex;
+            switch (taskType) {
+            case "T":
+                newTask = isEscaped
+                        ? new ToDo(taskName)
+                        : Task.of("todo " + taskName);
+                attributeIndex = 3;
+                break;
+            case "D":
+                newTask = isEscaped
+                        ? new Deadline(taskName, tokens[3])
+                        : Task.of(String.format("deadline %s /by %s",
+                                taskName,
+                                tokens[3]));
+                attributeIndex = 4;
+                break;
+            case "E":
+                newTask = isEscaped
+                        ? new Event(taskName, tokens[3], tokens[4])
+                        : Task.of(String.format("event %s /from %s /to %s",
+                                taskName,
+                                tokens[3],
+                                tokens[4]));
+                attributeIndex = 5;
+                break;
+            default:
+                throw new FileCorruptedException();
             }
-            hasTaskNumber(taskNumbers);
-            return taskNumbers;
-        } catch (NumberFormatException e) {
-            throw new MissingTaskNumberException();
+            if (taskStatus.equals("X")) {
+                newTask.markAsDone();
+            }
+            applySavedTaskAttributes(newTask, tokens, attributeIndex);
+            return newTask;
+        } catch (UnknownCommandException
+                 | EmptyTaskDescriptionException
+                 | MissingTokenException
+                 | InvalidTokenException
+                 | InvalidDurationException
+                 | DateTimeParseException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Parses a single task reference, which is either a 1-based position in the
+     * task list or a stable task ID prefixed with #, e.g. 3 or #17.
+     *
+     * @param token task reference given by the user
+     * @param taskList task list used to look up task IDs, or null if IDs are not accepted
+     * @return 1-based position of the referenced task
+     * @throws NumberFormatException if the token is not a task reference
+     * @throws InvalidTaskNumberException if no task has the given ID
+     */
+    public static int parseTaskNumber(String token, TaskList taskList)
+            throws InvalidTaskNumberException {
+        if (token.startsWith("#") && taskList != null) {
+            return taskList.getTaskNumberById(Integer.parseInt(token.substring(1)));
         }
+        return Integer.parseInt(token);
+    }
+
+    /**
+     * Parses mark task as done command.
+     *
+     * @param command mark task command
+     * @param maxTaskNumber largest task number that can be selected
+     * @return TaskSelector of the tasks to be marked as done
+     * @throws MissingTaskNumberException if no term is given or a term cannot be understood
+     * @throws InvalidTaskNumberException if a task number is outside the task list
+     */
+    public static TaskSelector parseMarkCommand(String command, int maxTaskNumber)
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        return parseTaskSelector("mark", command, maxTaskNumber);
+    }
+
+    /**
+     * Parses mark task as not done command.
+     *
+     * @param command unmark task command
+     * @param maxTaskNumber largest task number that can be selected
+     * @return TaskSelector of the tasks to be marked as not done
+     * @throws MissingTaskNumberException if no term is given or a term cannot be understood
+     * @throws InvalidTaskNumberException if a task number is outside the task list
+     */
+    public static TaskSelector parseUnmarkCommand(String command, int maxTaskNumber)
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        return parseTaskSelector("unmark", command, maxTaskNumber);
     }
 
     /**
      * Parses delete task command.
      *
      * @param command delete task command
-     * @return task number of the task to be deleted
+     * @param maxTaskNumber largest task number that can be selected
+     * @return TaskSelector of the tasks to be deleted
+     * @throws MissingTaskNumberException if no term is given or a term cannot be understood
+     * @throws InvalidTaskNumberException if a task number is outside the task list
      */
-    public static int[] parseDeleteCommand(String command)
-            throws MissingTaskNumberException {
+    public static TaskSelector parseDeleteCommand(String command, int maxTaskNumber)
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        return parseTaskSelector("delete", command, maxTaskNumber);
+    }
+
+    /**
+     * Parses the task selector of a mark, unmark or delete command.
+     * Each word after the command is one selector term: a task number (3),
+     * a range of task numbers (1-500), a task ID (#17), all, done, overdue
+     * or a search keyword (find:report). The selected tasks are the union of all terms.
+     * Terms are scanned directly from the command string, and task numbers
+     * outside the task list are rejected as soon as they are read.
+     *
+     * @param commandName name of the command recorded with the parse
+     * @param command mark, unmark or delete command
+     * @param maxTaskNumber largest task number that can be selected
+     * @return TaskSelector holding every term in the command
+     * @throws MissingTaskNumberException if no term is given or a term cannot be understood
+     * @throws InvalidTaskNumberException if a task number is outside the task list
+     */
+    private static TaskSelector parseTaskSelector(String commandName, String command, int maxTaskNumber)
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
         try {
-            String[] tokens = command.split(" ");
-            int[] taskNumbers = new int[tokens.length - 1];
+            TaskSelector selector = new TaskSelector();
+            new TaskSelectorScanner(command, maxTaskNumber).scanInto(selector);
+            if (selector.isEmpty()) {
+                throw new MissingTaskNumberException();
+            }
+            return selector;
+        } finally {
+            event.emit(commandName, command);
+        }
+    }
+
+    /**
+     * Parses list tasks command.
+     * Accepts an optional page number, an optional --page-size option,
+     * optional /tag and /p filters and an optional /sort order, e.g. list, list 2,
+     * list --page-size 100, list /tag work /p high, list /sort due.
+     *
+     * @param command list tasks command
+     * @return ListQuery with the page, page size, filters and order requested
+     * @throws InvalidListOptionException if an option or value is not recognized
+     * @throws InvalidTaskAttributeException if a filter value is not valid
+     */
+    public static ListQuery parseListCommand(String command)
+            throws InvalidListOptionException, InvalidTaskAttributeException {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        try {
+            TaskAttributes filter = new TaskAttributes();
+            String[] tokens = extractTaskAttributes(command.trim().split("\\s+"), filter);
+            if (filter.hasRecurrence()) {
+                throw new InvalidListOptionException("/every");
+            }
+            int page = 1;
+            int pageSize = ListQuery.DEFAULT_PAGE_SIZE;
+            SortOrder sortOrder = null;
             for (int i = 1; i < tokens.length; i++) {
-                taskNumbers[i - 1] = Integer.parseInt(tokens[i]);
+                if (tokens[i].equalsIgnoreCase("--page-size")) {
+                    if (i + 1 >= tokens.length) {
+                        throw new InvalidListOptionException(tokens[i]);
+                    }
+                    pageSize = parsePositiveInt(tokens[++i]);
+                } else if (tokens[i].equalsIgnoreCase("/sort")) {
+                    if (i + 1 >= tokens.length) {
+                        throw new InvalidListOptionException(tokens[i]);
+                    }
+                    sortOrder = SortOrder.of(tokens[++i]);
+                } else {
+                    page = parsePositiveInt(tokens[i]);
+                }
             }
-            hasTaskNumber(taskNumbers);
-            return taskNumbers;
+            return new ListQuery(page, pageSize, filter, sortOrder);
+        } finally {
+            event.emit("list", command);
+        }
+    }
+
+    /**
+     * Parses a positive integer option value in a list command.
+     *
+     * @param token token holding the value
+     * @return parsed positive integer
+     * @throws InvalidListOptionException if token is not a positive integer
+     */
+    private static int parsePositiveInt(String token)
+            throws InvalidListOptionException {
+        try {
+            int value = Integer.parseInt(token);
+            if (value <= 0) {
+                throw new InvalidListOptionException(token);
+            }
+            return value;
         } catch (NumberFormatException e) {
-            throw new MissingTaskNumberException();
+            throw new InvalidListOptionException(token);
         }
     }
 
     /**
      * Parses find task command.
+     * The keyword is exact text, unless the command starts with the --regex option,
+     * e.g. find --regex rep(ort|ly).
      *
      * @param command find task command
-     * @return keyword used for searching
+     * @return FindQuery with the keyword used for searching
      */
-    public static String parseFindCommand(String command) {
-        String[] tokens = command.split(" ");
-        StringBuilder keyword = new StringBuilder();
-        for (int i = 1; i < tokens.length; i++) {
-            keyword.append(tokens[i]);
-            if (i < tokens.length - 1) {
-                keyword.append(" ");
+    public static FindQuery parseFindCommand(String command) {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        try {
+            String[] tokens = command.split(" ");
+            boolean isRegex = tokens.length > 1 && tokens[1].equalsIgnoreCase("--regex");
+            StringBuilder keyword = new StringBuilder();
+            for (int i = isRegex ? 2 : 1; i < tokens.length; i++) {
+                keyword.append(tokens[i]);
+                if (i < tokens.length - 1) {
+                    keyword.append(" ");
+                }
             }
+            return new FindQuery(keyword.toString(), isRegex);
+        } finally {
+            event.emit("find", command);
+        }
+    }
+
+    /**
+     * Parses search task command.
+     *
+     * @param command search task command, e.g. search reprot
+     * @return query used for searching, empty if none is given
+     */
+    public static String parseSearchCommand(String command) {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        try {
+            int separator = command.indexOf(' ');
+            return separator < 0 ? "" : command.substring(separator + 1).trim();
+        } finally {
+            event.emit("search", command);
+        }
+    }
+
+    /**
+     * Parses sync command.
+     *
+     * @param command sync command, e.g. sync /mnt/server/task.txt
+     * @return path of the task file to sync with, empty if none is given
+     */
+    public static String parseSyncCommand(String command) {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        try {
+            int separator = command.indexOf(' ');
+            return separator < 0 ? "" : command.substring(separator + 1).trim();
+        } finally {
+            event.emit("sync", command);
         }
-        return keyword.toString();
     }
 }
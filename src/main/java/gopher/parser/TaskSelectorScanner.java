@@ -0,0 +1,168 @@
+package gopher.parser;
+
+import gopher.exception.InvalidTaskNumberException;
+import gopher.exception.MissingTaskNumberException;
+import gopher.task.TaskSelector;
+
+/**
+ * Scans the selector terms of a mark, unmark or delete command directly from
+ * the command string, without splitting it into tokens or parsing numbers
+ * through Integer.parseInt.
+ * Task numbers are checked against the size of the task list as soon as they
+ * are read, so an invalid command fails before any other work is done.
+ */
+class TaskSelectorScanner {
+    /** Command being scanned */
+    private final String command;
+
+    /** Largest task number that can be selected */
+    private final int maxTaskNumber;
+
+    /** Index of the next character to be scanned */
+    private int position;
+
+    /**
+     * Constructor for TaskSelectorScanner.
+     * Scanning starts after the first word of the command.
+     *
+     * @param command mark, unmark or delete command
+     * @param maxTaskNumber largest task number that can be selected
+     */
+    TaskSelectorScanner(String command, int maxTaskNumber) {
+        this.command = command;
+        this.maxTaskNumber = maxTaskNumber;
+        this.position = 0;
+        skipWhitespace();
+        while (position < command.length() && !Character.isWhitespace(command.charAt(position))) {
+            position++;
+        }
+    }
+
+    /**
+     * Scans every remaining term of the command into the given selector.
+     *
+     * @param selector selector that the terms are added to
+     * @throws MissingTaskNumberException if a term cannot be understood
+     * @throws InvalidTaskNumberException if a task number is out of range
+     */
+    void scanInto(TaskSelector selector)
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        skipWhitespace();
+        while (position < command.length()) {
+            scanTerm(selector);
+            skipWhitespace();
+        }
+    }
+
+    /**
+     * Scans a single term starting at the current position.
+     *
+     * @param selector selector that the term is added to
+     * @throws MissingTaskNumberException if the term cannot be understood
+     * @throws InvalidTaskNumberException if a task number is out of range
+     */
+    private void scanTerm(TaskSelector selector)
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        int termStart = position;
+        char first = command.charAt(position);
+        if (isDigit(first)) {
+            int start = scanTaskNumber();
+            if (position < command.length() && command.charAt(position) == '-') {
+                position++;
+                selector.addRange(start, scanTaskNumber());
+            } else {
+                selector.addTaskNumber(start);
+            }
+        } else if (first == '#') {
+            position++;
+            long id = scanDigits();
+            selector.addId((int) Math.min(id, Integer.MAX_VALUE));
+        } else {
+            int termEnd = findTermEnd();
+            if (isKeyword(termStart, termEnd, "all")) {
+                selector.selectAll();
+            } else if (isKeyword(termStart, termEnd, "done")) {
+                selector.selectDone();
+            } else if (isKeyword(termStart, termEnd, "overdue")) {
+                selector.selectOverdue();
+            } else if (termEnd - termStart > 5
+                    && command.regionMatches(true, termStart, "find:", 0, 5)) {
+                selector.addKeyword(command.substring(termStart + 5, termEnd));
+            } else {
+                throw new MissingTaskNumberException();
+            }
+            position = termEnd;
+        }
+        if (position < command.length() && !Character.isWhitespace(command.charAt(position))) {
+            throw new MissingTaskNumberException();
+        }
+    }
+
+    /**
+     * Scans a task number and checks that it refers to a task.
+     *
+     * @return task number between 1 and the largest task number
+     * @throws MissingTaskNumberException if no digits are found
+     * @throws InvalidTaskNumberException if the task number is out of range
+     */
+    private int scanTaskNumber()
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        long taskNumber = scanDigits();
+        if (taskNumber < 1 || taskNumber > maxTaskNumber) {
+            throw new InvalidTaskNumberException((int) Math.min(taskNumber, Integer.MAX_VALUE));
+        }
+        return (int) taskNumber;
+    }
+
+    /**
+     * Scans a run of decimal digits.
+     * Values above the int range are capped instead of overflowing.
+     *
+     * @return value of the digits
+     * @throws MissingTaskNumberException if no digits are found
+     */
+    private long scanDigits() throws MissingTaskNumberException {
+        int start = position;
+        long value = 0;
+        while (position < command.length() && isDigit(command.charAt(position))) {
+            value = Math.min(value * 10 + (command.charAt(position) - '0'), Integer.MAX_VALUE + 1L);
+            position++;
+        }
+        if (position == start) {
+            throw new MissingTaskNumberException();
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether the term between the given indexes is the given keyword,
+     * ignoring case.
+     */
+    private boolean isKeyword(int termStart, int termEnd, String keyword) {
+        return termEnd - termStart == keyword.length()
+                && command.regionMatches(true, termStart, keyword, 0, keyword.length());
+    }
+
+    /**
+     * Finds the index right after the term starting at the current position.
+     *
+     * @return exclusive end index of the current term
+     */
+    private int findTermEnd() {
+        int end = position;
+        while (end < command.length() && !Character.isWhitespace(command.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    private void skipWhitespace() {
+        while (position < command.length() && Character.isWhitespace(command.charAt(position))) {
+            position++;
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
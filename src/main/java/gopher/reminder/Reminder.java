@@ -0,0 +1,86 @@
+package gopher.reminder;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import gopher.task.Recurrence;
+import gopher.task.Task;
+
+/**
+ * Represents a reminder of one upcoming occurrence of a deadline or event.
+ * The reminder copies what it needs from the task when it is scheduled, on the thread
+ * changing the task, so that the reminder thread can deliver it and schedule the next
+ * occurrence without reading the task while the task list changes it.
+ */
+public class Reminder {
+    /** ID of the task being reminded of */
+    private final int taskId;
+
+    /** Task as displayed when the reminder was scheduled */
+    private final String taskText;
+
+    /** Recurrence rule of the task, or null if the task happens only once */
+    private final Recurrence recurrence;
+
+    /** Date of the first occurrence of the task, from which later occurrences are counted */
+    private final LocalDateTime firstOccurrence;
+
+    /** Due date or start date of the occurrence being reminded of */
+    private final LocalDateTime occurrence;
+
+    /** Time at which the reminder is delivered */
+    private final LocalDateTime remindAt;
+
+    /**
+     * Constructor for Reminder which copies what it needs from the given task.
+     *
+     * @param task task being reminded of
+     * @param occurrence due date or start date of the occurrence
+     */
+    Reminder(Task task, LocalDateTime occurrence) {
+        this(task.getId(), task.toString(), task.getRecurrence(),
+                task.getOccurrences(LocalDateTime.MIN, LocalDateTime.MAX).findFirst().orElse(occurrence),
+                occurrence);
+    }
+
+    private Reminder(int taskId, String taskText, Recurrence recurrence, LocalDateTime firstOccurrence,
+            LocalDateTime occurrence) {
+        this.taskId = taskId;
+        this.taskText = taskText;
+        this.recurrence = recurrence;
+        this.firstOccurrence = firstOccurrence;
+        this.occurrence = occurrence;
+        this.remindAt = occurrence.minus(ReminderScheduler.LEAD_TIME);
+    }
+
+    public int getTaskId() {
+        return this.taskId;
+    }
+
+    public String getTaskText() {
+        return this.taskText;
+    }
+
+    public LocalDateTime getOccurrence() {
+        return this.occurrence;
+    }
+
+    public LocalDateTime getRemindAt() {
+        return this.remindAt;
+    }
+
+    /**
+     * Gets the reminder of the occurrence of the task after this one, computed from the copy
+     * taken when this reminder was scheduled rather than from the task.
+     *
+     * @return reminder of the next occurrence, or empty if the task does not recur or has no occurrence left
+     */
+    Optional<Reminder> getNextReminder() {
+        if (recurrence == null) {
+            return Optional.empty();
+        }
+        return recurrence.getOccurrences(firstOccurrence, occurrence.plusSeconds(1), LocalDateTime.MAX)
+                .findFirst()
+                .map(next -> new Reminder(taskId, taskText, recurrence, firstOccurrence, next));
+    }
+}
@@ -0,0 +1,303 @@
+package gopher.reminder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+import gopher.task.Task;
+
+/**
+ * Delivers reminders shortly before deadlines are due and events start.
+ * Pending reminders are kept in a priority queue ordered by delivery time,
+ * and a single timer thread sleeps until the earliest one is due,
+ * so the thread only wakes up when there is something to deliver or the
+ * earliest reminder changes, however many reminders are scheduled.
+ *
+ * Each task has at most one pending reminder, for its next occurrence.
+ * Rescheduling or cancelling a task leaves its old queue entry in place
+ * and marks it stale, and stale entries are skipped when they reach the head
+ * of the queue, so both take logarithmic time.
+ *
+ * Tasks are only read when they are scheduled, on the thread that changes them.
+ * Each reminder carries a copy of what it needs from its task, so delivering it
+ * and moving on to the next occurrence never touch a task from the timer thread.
+ */
+public class ReminderScheduler {
+    /** How long before an occurrence its reminder is delivered */
+    public static final Duration LEAD_TIME = Duration.ofMinutes(15);
+
+    private final Object lock = new Object();
+
+    /** Pending reminders, including stale ones, earliest first */
+    private final PriorityQueue<Reminder> queue =
+            new PriorityQueue<>(Comparator.comparing(Reminder::getRemindAt));
+
+    /** Current pending reminder of each task, keyed by task ID */
+    private final Map<Integer, Reminder> remindersByTaskId = new HashMap<>();
+
+    private final Clock clock;
+
+    /** Number of stale entries in the queue */
+    private int staleCount;
+
+    private Consumer<Reminder> listener = reminder -> { };
+
+    private Thread timerThread;
+
+    /**
+     * Constructor for ReminderScheduler.
+     *
+     * @param clock clock used to tell the current time
+     */
+    public ReminderScheduler(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the listener that receives each reminder when it is due.
+     * The listener is called on the timer thread.
+     *
+     * @param listener listener of the reminders
+     */
+    public void setListener(Consumer<Reminder> listener) {
+        synchronized (lock) {
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Starts the timer thread, which delivers reminders until stopped.
+     * Does nothing if the thread is already running.
+     */
+    public void start() {
+        synchronized (lock) {
+            if (timerThread != null) {
+                return;
+            }
+            timerThread = new Thread(this::run, "gopher-reminders");
+            timerThread.setDaemon(true);
+            timerThread.start();
+        }
+    }
+
+    /**
+     * Stops the timer thread. Pending reminders are kept.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (timerThread != null) {
+                timerThread.interrupt();
+                timerThread = null;
+            }
+        }
+    }
+
+    /**
+     * Schedules a reminder for the next occurrence of the given task,
+     * replacing any reminder the task already has.
+     * Tasks that are done, or have no upcoming occurrence, have their reminder cancelled.
+     *
+     * @param task task to be reminded of
+     */
+    public void schedule(Task task) {
+        synchronized (lock) {
+            cancelLocked(task.getId());
+            scheduleLocked(task, LocalDateTime.now(clock));
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Replaces all reminders with reminders for the given tasks.
+     * The queue is built in one go, which takes linear time.
+     *
+     * @param tasks tasks to be reminded of
+     */
+    public void scheduleAll(List<Task> tasks) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        synchronized (lock) {
+            remindersByTaskId.clear();
+            List<Reminder> reminders = new ArrayList<>();
+            for (Task task : tasks) {
+                createReminder(task, now).ifPresent(reminder -> {
+                    reminders.add(reminder);
+                    remindersByTaskId.put(task.getId(), reminder);
+                });
+            }
+            queue.clear();
+            queue.addAll(reminders);
+            staleCount = 0;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Cancels the pending reminder of the task with the given ID, if any.
+     *
+     * @param taskId ID of the task
+     */
+    public void cancel(int taskId) {
+        synchronized (lock) {
+            cancelLocked(taskId);
+        }
+    }
+
+    /**
+     * Gets the number of pending reminders.
+     *
+     * @return number of tasks with a pending reminder
+     */
+    public int getPendingCount() {
+        synchronized (lock) {
+            return remindersByTaskId.size();
+        }
+    }
+
+    /**
+     * Gets the delivery time of the earliest pending reminder.
+     *
+     * @return delivery time of the earliest reminder, or null if there is none
+     */
+    public LocalDateTime getNextRemindAt() {
+        synchronized (lock) {
+            Reminder head = peekLocked();
+            return head == null ? null : head.getRemindAt();
+        }
+    }
+
+    /**
+     * Removes the reminders that are due at the given time,
+     * and schedules the next occurrence of each recurring task among them.
+     * The next occurrence is worked out from the reminder, so the tasks themselves are not read.
+     *
+     * @param now current time
+     * @return due reminders, earliest first
+     */
+    List<Reminder> pollDue(LocalDateTime now) {
+        synchronized (lock) {
+            List<Reminder> dueReminders = new ArrayList<>();
+            Reminder head = peekLocked();
+            while (head != null && !head.getRemindAt().isAfter(now)) {
+                queue.poll();
+                remindersByTaskId.remove(head.getTaskId());
+                dueReminders.add(head);
+                head.getNextReminder().ifPresent(this::addLocked);
+                head = peekLocked();
+            }
+            return dueReminders;
+        }
+    }
+
+    /**
+     * Delivers reminders as they become due, sleeping until the earliest one in between.
+     */
+    private void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Consumer<Reminder> currentListener;
+                synchronized (lock) {
+                    LocalDateTime nextRemindAt = getNextRemindAt();
+                    LocalDateTime now = LocalDateTime.now(clock);
+                    if (nextRemindAt == null) {
+                        lock.wait();
+                        continue;
+                    }
+                    if (nextRemindAt.isAfter(now)) {
+                        // Woken early if a new earlier reminder is scheduled
+                        lock.wait(Math.max(1, Duration.between(now, nextRemindAt).toMillis()));
+                        continue;
+                    }
+                    currentListener = listener;
+                }
+                for (Reminder reminder : pollDue(LocalDateTime.now(clock))) {
+                    currentListener.accept(reminder);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Adds a reminder for the first occurrence of the task at or after the given time.
+     * Must be called while holding the lock.
+     *
+     * @param task task to be reminded of
+     * @param after earliest occurrence to be reminded of
+     */
+    private void scheduleLocked(Task task, LocalDateTime after) {
+        createReminder(task, after).ifPresent(this::addLocked);
+    }
+
+    /**
+     * Adds the given reminder as the pending reminder of its task.
+     * Must be called while holding the lock.
+     *
+     * @param reminder reminder to be added
+     */
+    private void addLocked(Reminder reminder) {
+        queue.add(reminder);
+        remindersByTaskId.put(reminder.getTaskId(), reminder);
+    }
+
+    /**
+     * Cancels the pending reminder of the task with the given ID.
+     * Must be called while holding the lock.
+     *
+     * @param taskId ID of the task
+     */
+    private void cancelLocked(int taskId) {
+        if (remindersByTaskId.remove(taskId) == null) {
+            return;
+        }
+        staleCount++;
+
+        // Purge stale entries once they outnumber the live ones, so that
+        // frequent rescheduling cannot grow the queue without bound
+        if (staleCount > remindersByTaskId.size()) {
+            queue.removeIf(this::isStale);
+            staleCount = 0;
+        }
+    }
+
+    /**
+     * Gets the earliest pending reminder, dropping stale entries at the head of the queue.
+     * Must be called while holding the lock.
+     *
+     * @return earliest pending reminder, or null if there is none
+     */
+    private Reminder peekLocked() {
+        Reminder head = queue.peek();
+        while (head != null && isStale(head)) {
+            queue.poll();
+            staleCount--;
+            head = queue.peek();
+        }
+        return head;
+    }
+
+    private boolean isStale(Reminder reminder) {
+        return remindersByTaskId.get(reminder.getTaskId()) != reminder;
+    }
+
+    /**
+     * Creates a reminder for the first pending occurrence of the task at or after the given time.
+     *
+     * @param task task to be reminded of
+     * @param after earliest occurrence to be reminded of
+     * @return reminder of the occurrence, or empty if the task is done or has no such pending occurrence
+     */
+    private static Optional<Reminder> createReminder(Task task, LocalDateTime after) {
+        return task.getPendingOccurrences(after, LocalDateTime.MAX)
+                .findFirst()
+                .map(occurrence -> new Reminder(task, occurrence));
+    }
+}
@@ -0,0 +1,665 @@
+package gopher.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Represents a B+tree of byte values keyed by long, stored in the pages of a page cache.
+ * Internal pages hold separator keys and child pages, and leaf pages hold the entries,
+ * sorted by key and linked to the next leaf, so a range of keys is read leaf by leaf.
+ *
+ * Lookups search the cached pages in place. Changes decode the page being changed,
+ * and a page that no longer fits is split in two, which may split its parents up to the root.
+ * Internal pages also count the entries under each child, so the rank of a key and the key
+ * at a rank are found in one descent, and the entries within a range of keys are counted
+ * without visiting them.
+ * Values longer than a quarter page are kept in a chain of overflow pages, so every leaf
+ * holds a few entries at least. Removing an entry leaves its leaf in place even when it
+ * is empty, which keeps every separator valid; the space is reused by later entries.
+ */
+class BPlusTree {
+    /** Largest value kept in its leaf, longer values go to overflow pages */
+    static final int MAX_INLINE_VALUE = PageCache.PAGE_SIZE / 4;
+
+    private static final byte LEAF = 1;
+    private static final byte INTERNAL = 2;
+
+    /** Size of the page header: type, entry count and next leaf */
+    private static final int HEADER_SIZE = 7;
+
+    /** Size of each entry of an internal page: separator key, child page and number of entries under the child */
+    private static final int INTERNAL_ENTRY_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /** Size of each entry of a leaf page before its value: key, value offset and value length */
+    private static final int LEAF_ENTRY_SIZE = Long.BYTES + Short.BYTES + Integer.BYTES;
+
+    /** Size of the overflow page header: next overflow page */
+    private static final int OVERFLOW_HEADER_SIZE = Integer.BYTES;
+
+    private final PageCache pages;
+
+    /** Header slot holding the root page of the tree */
+    private final int rootSlot;
+
+    /**
+     * Constructor for BPlusTree which opens the tree whose root page is kept in the given slot,
+     * creating an empty tree if the slot is empty.
+     *
+     * @param pages page cache holding the tree
+     * @param rootSlot header slot holding the root page of the tree
+     * @throws IOException if the root page cannot be written
+     */
+    BPlusTree(PageCache pages, int rootSlot) throws IOException {
+        this.pages = pages;
+        this.rootSlot = rootSlot;
+        if (pages.getSlot(rootSlot) == 0) {
+            int root = pages.allocate();
+            writeLeaf(root, new long[0], new byte[0][], 0, 0, 0);
+            pages.setSlot(rootSlot, root);
+        }
+    }
+
+    /**
+     * Gets the value with the given key.
+     *
+     * @param key key of the entry
+     * @return value of the entry, or null if there is none
+     * @throws IOException if a page cannot be read
+     */
+    byte[] get(long key) throws IOException {
+        ByteBuffer leaf = pages.read(findLeaf(key));
+        int index = search(leaf, key);
+        return index >= 0 ? readValue(leaf, index) : null;
+    }
+
+    /**
+     * Sets the value with the given key, replacing any value the key had.
+     *
+     * @param key key of the entry
+     * @param value value of the entry
+     * @throws IOException if a page cannot be read or written
+     */
+    void put(long key, byte[] value) throws IOException {
+        int root = getRoot();
+        int addedCount = get(key) == null ? 1 : 0;
+        Split split = insert(root, key, value, addedCount);
+        if (split != null) {
+            int newRoot = pages.allocate();
+            writeInternal(newRoot, new long[] {split.key}, new int[] {root, split.page},
+                    new int[] {split.leftCount, split.rightCount}, 1);
+            pages.setSlot(rootSlot, newRoot);
+        }
+    }
+
+    /**
+     * Removes the entry with the given key.
+     *
+     * @param key key of the entry
+     * @return true if there was an entry with the key
+     * @throws IOException if a page cannot be read or written
+     */
+    boolean remove(long key) throws IOException {
+        return remove(getRoot(), key);
+    }
+
+    /**
+     * Removes the entry with the given key from the subtree under the given page,
+     * counting one entry less under every page it passes through.
+     *
+     * @param pageNumber root page of the subtree
+     * @param key key of the entry
+     * @return true if there was an entry with the key
+     * @throws IOException if a page cannot be read or written
+     */
+    private boolean remove(int pageNumber, long key) throws IOException {
+        ByteBuffer page = pages.read(pageNumber);
+        if (page.get(0) == INTERNAL) {
+            int childIndex = findChild(page, key);
+            if (!remove(page.getInt(getChildOffset(getCount(page), childIndex)), key)) {
+                return false;
+            }
+            addToChildCount(pageNumber, childIndex, -1);
+            return true;
+        }
+        int index = search(page, key);
+        if (index < 0) {
+            return false;
+        }
+        int count = getCount(page);
+        long[] keys = new long[count];
+        byte[][] values = new byte[count][];
+        int next = page.getInt(3);
+        readLeaf(page, keys, values);
+        freeOverflow(page);
+        writeLeaf(pageNumber, keys, values, count, index, next);
+        return true;
+    }
+
+    /**
+     * Gets the number of entries with keys smaller than the given key.
+     *
+     * @param key key to be ranked, which need not be in the tree
+     * @return number of smaller keys
+     * @throws IOException if a page cannot be read
+     */
+    long rank(long key) throws IOException {
+        long rank = 0;
+        ByteBuffer page = pages.read(getRoot());
+        while (page.get(0) == INTERNAL) {
+            int count = getCount(page);
+            int childIndex = findChild(page, key);
+            for (int i = 0; i < childIndex; i++) {
+                rank += getChildCount(page, count, i);
+            }
+            page = pages.read(page.getInt(getChildOffset(count, childIndex)));
+        }
+        int index = search(page, key);
+        return rank + (index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * Gets the key of the entry with the given rank.
+     *
+     * @param rank number of entries with smaller keys, less than the number of entries
+     * @return key at the rank
+     * @throws IOException if a page cannot be read
+     */
+    long getKeyAt(long rank) throws IOException {
+        LeafEntry entry = findEntry(rank);
+        return getLeafKey(pages.read(entry.page), entry.index);
+    }
+
+    /**
+     * Gets the value of the entry with the given rank.
+     *
+     * @param rank number of entries with smaller keys, less than the number of entries
+     * @return value at the rank
+     * @throws IOException if a page cannot be read
+     */
+    byte[] getValueAt(long rank) throws IOException {
+        LeafEntry entry = findEntry(rank);
+        return readValue(pages.read(entry.page), entry.index);
+    }
+
+    /**
+     * Visits the entries with keys within the given range, in key order.
+     * The tree must not be changed while it is visited.
+     *
+     * @param fromKey smallest key visited
+     * @param toKey largest key visited
+     * @param visitor visitor of the entries
+     * @throws IOException if a page cannot be read
+     */
+    void forEach(long fromKey, long toKey, EntryVisitor visitor) throws IOException {
+        int leafPage = findLeaf(fromKey);
+        while (leafPage != 0) {
+            ByteBuffer leaf = pages.read(leafPage);
+            int count = getCount(leaf);
+            int index = search(leaf, fromKey);
+            for (int i = index >= 0 ? index : -index - 1; i < count; i++) {
+                long key = getLeafKey(leaf, i);
+                if (key > toKey) {
+                    return;
+                }
+                visitor.visit(key, readValue(leaf, i));
+                // The visitor may have read other pages, which can evict this one
+                leaf = pages.read(leafPage);
+            }
+            leafPage = leaf.getInt(3);
+        }
+    }
+
+    /**
+     * Finds the leaf entry with the given rank, descending by the counts of the internal pages.
+     *
+     * @param rank number of entries with smaller keys
+     * @return leaf page and index of the entry
+     * @throws IOException if a page cannot be read
+     */
+    private LeafEntry findEntry(long rank) throws IOException {
+        int pageNumber = getRoot();
+        ByteBuffer page = pages.read(pageNumber);
+        long remaining = rank;
+        while (page.get(0) == INTERNAL) {
+            int count = getCount(page);
+            int childIndex = 0;
+            while (childIndex < count && remaining >= getChildCount(page, count, childIndex)) {
+                remaining -= getChildCount(page, count, childIndex);
+                childIndex++;
+            }
+            pageNumber = page.getInt(getChildOffset(count, childIndex));
+            page = pages.read(pageNumber);
+        }
+        if (remaining >= getCount(page)) {
+            throw new IndexOutOfBoundsException("Rank: " + rank);
+        }
+        return new LeafEntry(pageNumber, (int) remaining);
+    }
+
+    /**
+     * Finds the leaf page that holds or would hold the given key.
+     *
+     * @param key key to be found
+     * @return number of the leaf page
+     * @throws IOException if a page cannot be read
+     */
+    private int findLeaf(long key) throws IOException {
+        int pageNumber = getRoot();
+        ByteBuffer page = pages.read(pageNumber);
+        while (page.get(0) == INTERNAL) {
+            pageNumber = page.getInt(getChildOffset(getCount(page), findChild(page, key)));
+            page = pages.read(pageNumber);
+        }
+        return pageNumber;
+    }
+
+    /**
+     * Inserts the entry into the subtree under the given page.
+     *
+     * @param pageNumber root page of the subtree
+     * @param key key of the entry
+     * @param value value of the entry
+     * @param addedCount 1 if the key is new to the tree, 0 if it replaces a value
+     * @return split of the page if it had to be split, or null if it did not
+     * @throws IOException if a page cannot be read or written
+     */
+    private Split insert(int pageNumber, long key, byte[] value, int addedCount) throws IOException {
+        ByteBuffer page = pages.read(pageNumber);
+        int count = getCount(page);
+        if (page.get(0) == LEAF) {
+            return insertIntoLeaf(pageNumber, page, key, value);
+        }
+        int childIndex = findChild(page, key);
+        Split childSplit = insert(page.getInt(getChildOffset(count, childIndex)), key, value, addedCount);
+        if (childSplit == null) {
+            if (addedCount != 0) {
+                addToChildCount(pageNumber, childIndex, addedCount);
+            }
+            return null;
+        }
+
+        // Add the separator of the split child after the child
+        page = pages.read(pageNumber);
+        long[] keys = new long[count + 1];
+        int[] children = new int[count + 2];
+        int[] childCounts = new int[count + 2];
+        for (int i = 0; i < count; i++) {
+            keys[i < childIndex ? i : i + 1] = page.getLong(HEADER_SIZE + i * Long.BYTES);
+        }
+        for (int i = 0; i <= count; i++) {
+            children[i <= childIndex ? i : i + 1] = page.getInt(getChildOffset(count, i));
+            childCounts[i <= childIndex ? i : i + 1] = getChildCount(page, count, i);
+        }
+        keys[childIndex] = childSplit.key;
+        children[childIndex + 1] = childSplit.page;
+        childCounts[childIndex] = childSplit.leftCount;
+        childCounts[childIndex + 1] = childSplit.rightCount;
+        count++;
+        if (HEADER_SIZE + count * INTERNAL_ENTRY_SIZE + 2 * Integer.BYTES <= PageCache.PAGE_SIZE) {
+            writeInternal(pageNumber, keys, children, childCounts, count);
+            return null;
+        }
+        // Move the upper half to a new page, pushing the middle key up to the parent.
+        // Keys added in ascending order only ever split the last child, so leave the
+        // left page full in that case rather than half empty.
+        int middle = childIndex == count - 1 ? count - 2 : count / 2;
+        int rightPage = pages.allocate();
+        writeInternal(pageNumber, keys, children, childCounts, middle);
+        writeInternal(rightPage, Arrays.copyOfRange(keys, middle + 1, count),
+                Arrays.copyOfRange(children, middle + 1, count + 1),
+                Arrays.copyOfRange(childCounts, middle + 1, count + 1), count - middle - 1);
+        return new Split(keys[middle], rightPage, sum(childCounts, 0, middle + 1),
+                sum(childCounts, middle + 1, count + 1));
+    }
+
+    /**
+     * Inserts the entry into the given leaf page.
+     *
+     * @param pageNumber number of the leaf page
+     * @param page content of the leaf page
+     * @param key key of the entry
+     * @param value value of the entry
+     * @return split of the page if it had to be split, or null if it did not
+     * @throws IOException if a page cannot be read or written
+     */
+    private Split insertIntoLeaf(int pageNumber, ByteBuffer page, long key, byte[] value) throws IOException {
+        int count = getCount(page);
+        int next = page.getInt(3);
+        int index = search(page, key);
+        long[] keys = new long[count + 1];
+        byte[][] values = new byte[count + 1][];
+        readLeaf(page, keys, values);
+        freeOverflow(page);
+        if (index < 0) {
+            index = -index - 1;
+            System.arraycopy(keys, index, keys, index + 1, count - index);
+            System.arraycopy(values, index, values, index + 1, count - index);
+            count++;
+        }
+        keys[index] = key;
+        values[index] = value;
+
+        int size = HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            size += getEntrySize(values[i]);
+        }
+        if (size <= PageCache.PAGE_SIZE) {
+            writeLeaf(pageNumber, keys, values, count, -1, next);
+            return null;
+        }
+        // Split where the left half first holds half of the bytes, or keep the left page full
+        // when the entry is added after the last key of the tree, as happens when adding in key order
+        int middle = 0;
+        if (next == 0 && index == count - 1) {
+            middle = count - 1;
+        } else {
+            for (int leftSize = HEADER_SIZE; leftSize < size / 2 && middle < count - 1; middle++) {
+                leftSize += getEntrySize(values[middle]);
+            }
+        }
+        int rightPage = pages.allocate();
+        writeLeaf(rightPage, Arrays.copyOfRange(keys, middle, count), Arrays.copyOfRange(values, middle, count),
+                count - middle, -1, next);
+        writeLeaf(pageNumber, keys, values, middle, -1, rightPage);
+        return new Split(keys[middle], rightPage, middle, count - middle);
+    }
+
+    /**
+     * Reads the keys and values of the given leaf page, including the values in overflow pages.
+     *
+     * @param leaf content of the leaf page
+     * @param keys array filled with the keys
+     * @param values array filled with the values
+     * @throws IOException if an overflow page cannot be read
+     */
+    private void readLeaf(ByteBuffer leaf, long[] keys, byte[][] values) throws IOException {
+        int count = getCount(leaf);
+        for (int i = 0; i < count; i++) {
+            keys[i] = getLeafKey(leaf, i);
+            values[i] = readValue(leaf, i);
+        }
+    }
+
+    /**
+     * Writes a leaf page holding the given entries. Long values are written to overflow pages.
+     *
+     * @param pageNumber number of the page
+     * @param keys keys of the entries
+     * @param values values of the entries
+     * @param count number of entries
+     * @param skippedIndex index of an entry left out, or -1 if none is
+     * @param next number of the next leaf page, or 0 if it is the last
+     * @throws IOException if a page cannot be written
+     */
+    private void writeLeaf(int pageNumber, long[] keys, byte[][] values, int count, int skippedIndex, int next)
+            throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(PageCache.PAGE_SIZE);
+        int written = 0;
+        int dataOffset = PageCache.PAGE_SIZE;
+        for (int i = 0; i < count; i++) {
+            if (i == skippedIndex) {
+                continue;
+            }
+            byte[] value = values[i];
+            int entryOffset = HEADER_SIZE + written * LEAF_ENTRY_SIZE;
+            page.putLong(entryOffset, keys[i]);
+            page.putInt(entryOffset + Long.BYTES + Short.BYTES, value.length);
+            if (value.length > MAX_INLINE_VALUE) {
+                dataOffset -= Integer.BYTES;
+                page.putInt(dataOffset, writeOverflow(value));
+            } else {
+                dataOffset -= value.length;
+                page.put(dataOffset, value);
+            }
+            page.putShort(entryOffset + Long.BYTES, (short) dataOffset);
+            written++;
+        }
+        page.put(0, LEAF);
+        page.putShort(1, (short) written);
+        page.putInt(3, next);
+        pages.write(pageNumber, page);
+    }
+
+    /**
+     * Writes an internal page holding the given separators and children.
+     *
+     * @param pageNumber number of the page
+     * @param keys separator keys
+     * @param children child pages, one more than the separators
+     * @param childCounts number of entries under each child
+     * @param count number of separator keys
+     * @throws IOException if the page cannot be written
+     */
+    private void writeInternal(int pageNumber, long[] keys, int[] children, int[] childCounts, int count)
+            throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(PageCache.PAGE_SIZE);
+        page.put(0, INTERNAL);
+        page.putShort(1, (short) count);
+        for (int i = 0; i < count; i++) {
+            page.putLong(HEADER_SIZE + i * Long.BYTES, keys[i]);
+        }
+        for (int i = 0; i <= count; i++) {
+            page.putInt(getChildOffset(count, i), children[i]);
+            page.putInt(getChildCountOffset(count, i), childCounts[i]);
+        }
+        pages.write(pageNumber, page);
+    }
+
+    /**
+     * Changes the number of entries counted under a child of an internal page.
+     *
+     * @param pageNumber number of the internal page
+     * @param childIndex index of the child
+     * @param delta number of entries added under the child, negative if removed
+     * @throws IOException if the page cannot be read or written
+     */
+    private void addToChildCount(int pageNumber, int childIndex, int delta) throws IOException {
+        ByteBuffer page = pages.read(pageNumber);
+        ByteBuffer changed = ByteBuffer.allocate(PageCache.PAGE_SIZE);
+        changed.put(0, page, 0, PageCache.PAGE_SIZE);
+        int offset = getChildCountOffset(getCount(page), childIndex);
+        changed.putInt(offset, page.getInt(offset) + delta);
+        pages.write(pageNumber, changed);
+    }
+
+    /**
+     * Reads the value of the entry at the given index of a leaf page.
+     *
+     * @param leaf content of the leaf page
+     * @param index index of the entry
+     * @return value of the entry
+     * @throws IOException if an overflow page cannot be read
+     */
+    private byte[] readValue(ByteBuffer leaf, int index) throws IOException {
+        int entryOffset = HEADER_SIZE + index * LEAF_ENTRY_SIZE;
+        int dataOffset = Short.toUnsignedInt(leaf.getShort(entryOffset + Long.BYTES));
+        int length = leaf.getInt(entryOffset + Long.BYTES + Short.BYTES);
+        byte[] value = new byte[length];
+        if (length <= MAX_INLINE_VALUE) {
+            leaf.get(dataOffset, value);
+            return value;
+        }
+        int overflowPage = leaf.getInt(dataOffset);
+        for (int read = 0; read < length; ) {
+            ByteBuffer page = pages.read(overflowPage);
+            int chunk = Math.min(length - read, PageCache.PAGE_SIZE - OVERFLOW_HEADER_SIZE);
+            page.get(OVERFLOW_HEADER_SIZE, value, read, chunk);
+            read += chunk;
+            overflowPage = page.getInt(0);
+        }
+        return value;
+    }
+
+    /**
+     * Writes a long value to a new chain of overflow pages.
+     *
+     * @param value value to be written
+     * @return number of the first overflow page
+     * @throws IOException if a page cannot be written
+     */
+    private int writeOverflow(byte[] value) throws IOException {
+        int chunkSize = PageCache.PAGE_SIZE - OVERFLOW_HEADER_SIZE;
+        int next = 0;
+        // Write the chain backwards so that each page knows the next one
+        for (int start = (value.length - 1) / chunkSize * chunkSize; start >= 0; start -= chunkSize) {
+            int pageNumber = pages.allocate();
+            ByteBuffer page = ByteBuffer.allocate(PageCache.PAGE_SIZE);
+            page.putInt(0, next);
+            page.put(OVERFLOW_HEADER_SIZE, value, start, Math.min(chunkSize, value.length - start));
+            pages.write(pageNumber, page);
+            next = pageNumber;
+        }
+        return next;
+    }
+
+    /**
+     * Frees the overflow pages of every entry of a leaf page, once its values have been read
+     * to be written again.
+     *
+     * @param leaf content of the leaf page
+     * @throws IOException if a page cannot be read or written
+     */
+    private void freeOverflow(ByteBuffer leaf) throws IOException {
+        for (int i = 0; i < getCount(leaf); i++) {
+            int entryOffset = HEADER_SIZE + i * LEAF_ENTRY_SIZE;
+            if (leaf.getInt(entryOffset + Long.BYTES + Short.BYTES) <= MAX_INLINE_VALUE) {
+                continue;
+            }
+            int overflowPage = leaf.getInt(Short.toUnsignedInt(leaf.getShort(entryOffset + Long.BYTES)));
+            while (overflowPage != 0) {
+                int next = pages.read(overflowPage).getInt(0);
+                pages.free(overflowPage);
+                overflowPage = next;
+            }
+        }
+    }
+
+    /**
+     * Searches a leaf page for the given key.
+     *
+     * @param leaf content of the leaf page
+     * @param key key to be found
+     * @return index of the key, or (-(insertion point) - 1) if the page does not hold it
+     */
+    private static int search(ByteBuffer leaf, long key) {
+        int low = 0;
+        int high = getCount(leaf) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            long middleKey = getLeafKey(leaf, middle);
+            if (middleKey < key) {
+                low = middle + 1;
+            } else if (middleKey > key) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -low - 1;
+    }
+
+    /**
+     * Finds the child of an internal page whose subtree holds the given key,
+     * which is the child after the last separator not larger than the key.
+     *
+     * @param page content of the internal page
+     * @param key key to be found
+     * @return index of the child
+     */
+    private static int findChild(ByteBuffer page, long key) {
+        int low = 0;
+        int high = getCount(page);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (page.getLong(HEADER_SIZE + middle * Long.BYTES) <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private int getRoot() {
+        return (int) pages.getSlot(rootSlot);
+    }
+
+    private static int getCount(ByteBuffer page) {
+        return page.getShort(1);
+    }
+
+    private static long getLeafKey(ByteBuffer leaf, int index) {
+        return leaf.getLong(HEADER_SIZE + index * LEAF_ENTRY_SIZE);
+    }
+
+    private static int getChildOffset(int count, int index) {
+        return HEADER_SIZE + count * Long.BYTES + index * Integer.BYTES;
+    }
+
+    private static int getChildCountOffset(int count, int index) {
+        return getChildOffset(count, count + 1) + index * Integer.BYTES;
+    }
+
+    private static int getChildCount(ByteBuffer page, int count, int index) {
+        return page.getInt(getChildCountOffset(count, index));
+    }
+
+    private static int sum(int[] values, int fromIndex, int toIndex) {
+        int sum = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    private static int getEntrySize(byte[] value) {
+        return LEAF_ENTRY_SIZE + (value.length > MAX_INLINE_VALUE ? Integer.BYTES : value.length);
+    }
+
+    /**
+     * Visitor of the entries of a tree.
+     */
+    @FunctionalInterface
+    interface EntryVisitor {
+        /**
+         * Visits an entry.
+         *
+         * @param key key of the entry
+         * @param value value of the entry
+         * @throws IOException if the visitor fails to read pages of its own
+         */
+        void visit(long key, byte[] value) throws IOException;
+    }
+
+    /**
+     * Represents a page split in two: the new right page, the smallest key under it,
+     * and the number of entries left under each half.
+     */
+    private static class Split {
+        private final long key;
+        private final int page;
+        private final int leftCount;
+        private final int rightCount;
+
+        Split(long key, int page, int leftCount, int rightCount) {
+            this.key = key;
+            this.page = page;
+            this.leftCount = leftCount;
+            this.rightCount = rightCount;
+        }
+    }
+
+    /**
+     * Represents the position of an entry: its leaf page and its index within the page.
+     */
+    private static class LeafEntry {
+        private final int page;
+        private final int index;
+
+        LeafEntry(int page, int index) {
+            this.page = page;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package gopher.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes a file as fixed-size pages through a {@link FileChannel},
+ * keeping the most recently used pages in memory.
+ * At most a fixed number of pages are cached, the least recently used page is evicted
+ * to make room for another, and changed pages are written back when evicted or flushed,
+ * so the memory used stays the same however large the file grows.
+ *
+ * Page 0 is the header of the file. It holds a few numbered slots where the users
+ * of the file keep values such as the root pages of their trees, and the list of free pages.
+ */
+class PageCache implements Closeable {
+    /** Size of each page in bytes */
+    static final int PAGE_SIZE = 4096;
+
+    /** Number of slots in the header page available to the users of the file */
+    static final int SLOT_COUNT = 16;
+
+    /** Number that starts every page file, spelling GOPH */
+    private static final int MAGIC = 0x474f5048;
+
+    /** Offset of the first slot in the header page, after the magic number and the free list */
+    private static final int SLOTS_OFFSET = 8;
+
+    private final FileChannel channel;
+
+    /** Cached pages keyed by page number, the least recently used first */
+    private final LinkedHashMap<Integer, ByteBuffer> pages;
+
+    /** Numbers of the cached pages changed since they were read or written back */
+    private final Set<Integer> dirtyPages = new HashSet<>();
+
+    /** Values kept in the header slots */
+    private final long[] slots = new long[SLOT_COUNT];
+
+    /** Number of pages in the file, including pages not written back yet */
+    private int pageCount;
+
+    /** First page of the list of free pages, or 0 if there is none */
+    private int freePage;
+
+    private long hitCount;
+
+    private long missCount;
+
+    /**
+     * Constructor for PageCache which opens the given page file, creating it if needed.
+     *
+     * @param file page file to be opened
+     * @param capacity largest number of pages kept in memory
+     * @throws IOException if the file cannot be opened or is not a page file
+     */
+    PageCache(Path file, int capacity) throws IOException {
+        assert capacity > 0 : "Page cache should hold at least one page";
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.pages = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, ByteBuffer> eldest) {
+                if (size() <= capacity) {
+                    return false;
+                }
+                writeBack(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+        this.pageCount = (int) (channel.size() / PAGE_SIZE);
+        if (pageCount == 0) {
+            pageCount = 1;
+            writeHeader();
+        } else {
+            ByteBuffer header = read(0);
+            if (header.getInt(0) != MAGIC) {
+                channel.close();
+                throw new IOException("Not a page file: " + file);
+            }
+            freePage = header.getInt(4);
+            for (int i = 0; i < SLOT_COUNT; i++) {
+                slots[i] = header.getLong(SLOTS_OFFSET + i * Long.BYTES);
+            }
+        }
+    }
+
+    long getSlot(int slot) {
+        return slots[slot];
+    }
+
+    void setSlot(int slot, long value) {
+        slots[slot] = value;
+    }
+
+    long getHitCount() {
+        return hitCount;
+    }
+
+    long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Reads the given page, from memory if it is cached.
+     * The page returned must not be changed, and is only valid until the page is next written.
+     *
+     * @param pageNumber number of the page
+     * @return content of the page
+     * @throws IOException if the page cannot be read
+     */
+    ByteBuffer read(int pageNumber) throws IOException {
+        assert pageNumber >= 0 && pageNumber < pageCount : "Page should be within the file";
+        ByteBuffer page = pages.get(pageNumber);
+        if (page != null) {
+            hitCount++;
+            return page;
+        }
+        missCount++;
+        page = ByteBuffer.allocate(PAGE_SIZE);
+        long position = (long) pageNumber * PAGE_SIZE;
+        while (page.hasRemaining()) {
+            if (channel.read(page, position + page.position()) < 0) {
+                break;
+            }
+        }
+        page.clear();
+        cache(pageNumber, page);
+        return page;
+    }
+
+    /**
+     * Replaces the content of the given page. The page is written to the file
+     * when it is evicted or the cache is flushed.
+     *
+     * @param pageNumber number of the page
+     * @param page new content of the page, which the cache takes over
+     * @throws IOException if an evicted page cannot be written back
+     */
+    void write(int pageNumber, ByteBuffer page) throws IOException {
+        assert page.capacity() == PAGE_SIZE : "Written page should be a full page";
+        dirtyPages.add(pageNumber);
+        cache(pageNumber, page);
+    }
+
+    /**
+     * Allocates a page, reusing a freed page if there is one.
+     *
+     * @return number of the new page, whose content is undefined until written
+     * @throws IOException if the free list cannot be read
+     */
+    int allocate() throws IOException {
+        if (freePage == 0) {
+            return pageCount++;
+        }
+        int pageNumber = freePage;
+        freePage = read(pageNumber).getInt(0);
+        return pageNumber;
+    }
+
+    /**
+     * Frees the given page so that it can be allocated again.
+     *
+     * @param pageNumber number of the page
+     * @throws IOException if an evicted page cannot be written back
+     */
+    void free(int pageNumber) throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+        page.putInt(0, freePage);
+        write(pageNumber, page);
+        freePage = pageNumber;
+    }
+
+    /**
+     * Writes every changed page and the header to the file, and forces them to disk.
+     *
+     * @throws IOException if the pages cannot be written
+     */
+    void flush() throws IOException {
+        for (Integer pageNumber : dirtyPages.toArray(new Integer[0])) {
+            ByteBuffer page = pages.get(pageNumber);
+            if (page != null) {
+                writeBack(pageNumber, page);
+            }
+        }
+        writeHeader();
+        channel.force(false);
+    }
+
+    /**
+     * Flushes the cache and closes the file.
+     *
+     * @throws IOException if the pages cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Adds the given page to the cache, evicting the least recently used page if it is full.
+     *
+     * @param pageNumber number of the page
+     * @param page content of the page
+     * @throws IOException if an evicted page cannot be written back
+     */
+    private void cache(int pageNumber, ByteBuffer page) throws IOException {
+        try {
+            pages.put(pageNumber, page);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes the given page to the file if it has changed.
+     *
+     * @param pageNumber number of the page
+     * @param page content of the page
+     */
+    private void writeBack(int pageNumber, ByteBuffer page) {
+        if (!dirtyPages.remove(pageNumber)) {
+            return;
+        }
+        try {
+            ByteBuffer data = page.duplicate().clear();
+            long position = (long) pageNumber * PAGE_SIZE;
+            while (data.hasRemaining()) {
+                channel.write(data, position + data.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the header page straight to the file.
+     *
+     * @throws IOException if the header cannot be written
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.putInt(0, MAGIC);
+        header.putInt(4, freePage);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            header.putLong(SLOTS_OFFSET + i * Long.BYTES, slots[i]);
+        }
+        pages.remove(0);
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+}
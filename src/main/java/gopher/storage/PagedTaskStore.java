@@ -0,0 +1,706 @@
+package gopher.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+import gopher.exception.FileCorruptedException;
+import gopher.parser.Parser;
+import gopher.task.Task;
+
+/**
+ * Stores tasks in a file of pages instead of in memory, for task lists too large to load whole.
+ * Each task is kept as its saved row in a B+tree keyed by task ID. The order of the list is kept
+ * in a second B+tree from sequence number to task ID, where sequence numbers only grow along the list,
+ * so a task is added or removed anywhere without renumbering the tasks after it, and the position
+ * of a task is the rank of its sequence number. A third B+tree maps each task ID back to its sequence
+ * numbers, so the position of a task is found from its ID. Secondary B+trees index the pending tasks
+ * by due date and every task by status, so due and done tasks are found and counted without reading
+ * the other tasks. All the trees share one page cache, so the memory used stays bounded however many
+ * tasks there are.
+ *
+ * The most recently used tasks are kept decoded in a {@link TaskCache}, so a task read again
+ * is not parsed from its row, and the same task object may be handed out more than once.
+ * Changes made to a task only reach the store once it is set back, and setting back a task
+ * only marks it dirty in the cache until it is evicted or the store is flushed,
+ * so a task changed several times in a row is written once. Every task needs an ID.
+ * The same task may sit at two positions for a while, as happens when a list moves tasks
+ * over deleted ones, so a row is only removed when no position holds it.
+ * Changes reach the file when the store is flushed.
+ */
+public class PagedTaskStore extends AbstractList<Task> implements RandomAccess, Closeable {
+    /** Number of pages cached by default, taking 4 MiB */
+    public static final int DEFAULT_CACHE_PAGES = 1024;
+
+    private static final int TASKS_BY_ID_SLOT = 1;
+    private static final int IDS_BY_SEQUENCE_SLOT = 2;
+    private static final int TASKS_BY_DUE_DATE_SLOT = 3;
+    private static final int TASKS_BY_STATUS_SLOT = 4;
+    private static final int SIZE_SLOT = 5;
+    private static final int NEXT_ID_SLOT = 7;
+    private static final int SEQUENCES_BY_ID_SLOT = 8;
+    private static final int FORMAT_SLOT = 9;
+
+    /** Version of the layout of the trees, recorded in the store file */
+    private static final long FORMAT_VERSION = 2;
+
+    /** Mask of the task ID in the keys of the secondary indexes */
+    private static final long ID_MASK = 0xffffffffL;
+
+    /** Status of a pending task that happens once, kept in the upper half of its status key */
+    private static final byte STATUS_PENDING = 0;
+
+    /** Status of a done task */
+    private static final byte STATUS_DONE = 1;
+
+    /** Status of a pending recurring task */
+    private static final byte STATUS_PENDING_RECURRING = 2;
+
+    /** Due minute recorded for a task left out of the due date index */
+    private static final long NOT_DUE = Long.MIN_VALUE;
+
+    /** Size of the status and due minute recorded before the saved row of a task */
+    private static final int RECORD_HEADER_SIZE = 1 + Long.BYTES;
+
+    /** Difference between the sequence numbers of neighbouring tasks added at either end of the list */
+    private static final long SEQUENCE_GAP = 1L << 32;
+
+    /** Earliest due minute kept apart, so that every due key fits in a long */
+    private static final long MIN_DUE_MINUTE = Integer.MIN_VALUE;
+
+    /** Latest due minute kept apart, one short of the largest so that the minute after it still fits */
+    private static final long MAX_DUE_MINUTE = Integer.MAX_VALUE - 1;
+
+    private final PageCache pages;
+
+    /** Saved row of each task, after its status and due minute, keyed by task ID */
+    private final BPlusTree tasksById;
+
+    /** ID of the task at each position, keyed by a sequence number growing along the list */
+    private final BPlusTree idsBySequence;
+
+    /** Sequence numbers of the positions holding each task, keyed by task ID */
+    private final BPlusTree sequencesById;
+
+    /** Pending dated tasks keyed by the epoch minute their pending occurrence is due in the upper half
+     * and their ID in the lower half */
+    private final BPlusTree tasksByDueDate;
+
+    /** Tasks keyed by their status in the upper half and their ID in the lower half */
+    private final BPlusTree tasksByStatus;
+
+    /** Decoded tasks keyed by task ID, written back to the trees when evicted or flushed */
+    private final TaskCache taskCache;
+
+    /**
+     * Private constructor for a store held in the given page cache.
+     *
+     * @param pages page cache of the store file
+     * @throws IOException if the trees cannot be created
+     */
+    private PagedTaskStore(PageCache pages) throws IOException {
+        this.pages = pages;
+        this.tasksById = new BPlusTree(pages, TASKS_BY_ID_SLOT);
+        this.idsBySequence = new BPlusTree(pages, IDS_BY_SEQUENCE_SLOT);
+        this.sequencesById = new BPlusTree(pages, SEQUENCES_BY_ID_SLOT);
+        this.tasksByDueDate = new BPlusTree(pages, TASKS_BY_DUE_DATE_SLOT);
+        this.tasksByStatus = new BPlusTree(pages, TASKS_BY_STATUS_SLOT);
+        this.taskCache = new TaskCache(this::replace);
+    }
+
+    /**
+     * Opens the store kept in the given file, creating an empty store if the file does not exist.
+     *
+     * @param file store file
+     * @return store of the tasks in the file
+     * @throws IOException if the file cannot be opened or is not a store file
+     */
+    public static PagedTaskStore open(Path file) throws IOException {
+        return open(file, DEFAULT_CACHE_PAGES);
+    }
+
+    /**
+     * Opens the store kept in the given file, caching at most the given number of pages.
+     *
+     * @param file store file
+     * @param cachePages largest number of pages kept in memory
+     * @return store of the tasks in the file
+     * @throws IOException if the file cannot be opened or is not a store file of this version
+     */
+    static PagedTaskStore open(Path file, int cachePages) throws IOException {
+        PageCache pages = new PageCache(file, cachePages);
+        if (pages.getSlot(TASKS_BY_ID_SLOT) != 0 && pages.getSlot(FORMAT_SLOT) != FORMAT_VERSION) {
+            pages.close();
+            throw new IOException("Unsupported store file version: " + file);
+        }
+        pages.setSlot(FORMAT_SLOT, FORMAT_VERSION);
+        return new PagedTaskStore(pages);
+    }
+
+    @Override
+    public int size() {
+        return (int) pages.getSlot(SIZE_SLOT);
+    }
+
+    /**
+     * Gets the number of done tasks, without reading any task.
+     *
+     * @return number of done tasks
+     */
+    public int getDoneCount() {
+        try {
+            taskCache.flush();
+            long doneKey = getStatusKey(STATUS_DONE, 0);
+            return (int) (tasksByStatus.rank(doneKey + (1L << 32)) - tasksByStatus.rank(doneKey));
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Gets the ID to be given to the next new task, as last recorded in the store.
+     *
+     * @return next ID, or 1 if none was recorded
+     */
+    public int getNextId() {
+        return (int) Math.max(1, pages.getSlot(NEXT_ID_SLOT));
+    }
+
+    /**
+     * Records the ID to be given to the next new task, which is kept the next time the store is flushed.
+     *
+     * @param nextId next ID
+     */
+    public void setNextId(int nextId) {
+        pages.setSlot(NEXT_ID_SLOT, nextId);
+    }
+
+    public TaskCache getTaskCache() {
+        return taskCache;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index, size());
+        try {
+            return readTask(decodeId(idsBySequence.getValueAt(index)));
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Gets the position of the task with the given ID, without reading the tasks before it.
+     * If the task sits at several positions, the first is given.
+     *
+     * @param id ID of the task
+     * @return 0-based position of the task, or -1 if no task has the ID
+     * @throws FileCorruptedException if the store cannot be read
+     */
+    public int getIndexOf(int id) {
+        try {
+            byte[] sequences = sequencesById.get(id);
+            if (sequences == null) {
+                return -1;
+            }
+            long first = Long.MAX_VALUE;
+            ByteBuffer buffer = ByteBuffer.wrap(sequences);
+            while (buffer.hasRemaining()) {
+                first = Math.min(first, buffer.getLong());
+            }
+            return (int) idsBySequence.rank(first);
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task previous = get(index);
+        try {
+            if (previous.getId() == task.getId()) {
+                taskCache.put(task, task.getSaveMessage().length(), true);
+            } else {
+                long sequence = idsBySequence.getKeyAt(index);
+                retain(task, sequence);
+                release(previous.getId(), sequence);
+                idsBySequence.put(sequence, encodeId(task.getId()));
+            }
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        int size = size();
+        checkIndex(index, size + 1);
+        if (task.getId() <= 0) {
+            throw new IllegalArgumentException("Stored tasks need an ID");
+        }
+        try {
+            long sequence = getNewSequence(index, size);
+            retain(task, sequence);
+            idsBySequence.put(sequence, encodeId(task.getId()));
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+        pages.setSlot(SIZE_SLOT, size + 1);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        int size = size();
+        int removedCount = toIndex - fromIndex;
+        try {
+            // Each removal brings the next task down to the same rank, and no other key changes
+            for (int i = fromIndex; i < toIndex; i++) {
+                long sequence = idsBySequence.getKeyAt(fromIndex);
+                int id = decodeId(idsBySequence.getValueAt(fromIndex));
+                idsBySequence.remove(sequence);
+                release(id, sequence);
+            }
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+        pages.setSlot(SIZE_SLOT, size - removedCount);
+        modCount++;
+    }
+
+    /**
+     * Performs the given action on each pending task whose pending occurrence is due within the given range,
+     * the earliest first. Deadlines are due at their due date and events at their end date.
+     * Only the tasks in the range are read.
+     *
+     * @param from earliest due date
+     * @param to latest due date
+     * @param action action performed on each task
+     * @throws FileCorruptedException if the store cannot be read
+     */
+    public void forEachDueBetween(LocalDateTime from, LocalDateTime to, Consumer<Task> action) {
+        forEachIn(tasksByDueDate, toEpochMinute(from) << 32, toEpochMinute(to) << 32 | ID_MASK, action);
+    }
+
+    /**
+     * Gets the number of pending tasks whose pending occurrence is due within the given range,
+     * without reading any task.
+     *
+     * @param from earliest due date
+     * @param to latest due date
+     * @return number of tasks due within the range
+     * @throws FileCorruptedException if the store cannot be read
+     */
+    public int countDueBetween(LocalDateTime from, LocalDateTime to) {
+        try {
+            taskCache.flush();
+            return (int) (getDueRank(toEpochMinute(to) + 1) - getDueRank(toEpochMinute(from)));
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Gets some of the pending tasks whose pending occurrence is due within the given range,
+     * the earliest first, reading only the tasks returned.
+     *
+     * @param from earliest due date
+     * @param to latest due date
+     * @param skipCount number of the earliest tasks in the range to be skipped
+     * @param limit largest number of tasks returned
+     * @return tasks due within the range
+     * @throws FileCorruptedException if the store cannot be read
+     */
+    public List<Task> getDueBetween(LocalDateTime from, LocalDateTime to, int skipCount, int limit) {
+        try {
+            taskCache.flush();
+            long endRank = getDueRank(toEpochMinute(to) + 1);
+            List<Task> dueTasks = new ArrayList<>();
+            for (long rank = getDueRank(toEpochMinute(from)) + skipCount; rank < endRank && dueTasks.size() < limit;
+                    rank++) {
+                dueTasks.add(readTask((int) (tasksByDueDate.getKeyAt(rank) & ID_MASK)));
+            }
+            return dueTasks;
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Performs the given action on each task with the given status, by ascending ID
+     * among the tasks that recur and those that do not.
+     * Only the tasks with the status are read.
+     *
+     * @param isDone whether the tasks are done
+     * @param action action performed on each task
+     * @throws FileCorruptedException if the store cannot be read
+     */
+    public void forEachWithStatus(boolean isDone, Consumer<Task> action) {
+        if (isDone) {
+            forEachWithStatus(STATUS_DONE, action);
+        } else {
+            forEachWithStatus(STATUS_PENDING, action);
+            forEachWithStatus(STATUS_PENDING_RECURRING, action);
+        }
+    }
+
+    /**
+     * Performs the given action on each pending recurring task, by ascending ID.
+     * Only those tasks are read.
+     *
+     * @param action action performed on each task
+     * @throws FileCorruptedException if the store cannot be read
+     */
+    public void forEachPendingRecurring(Consumer<Task> action) {
+        forEachWithStatus(STATUS_PENDING_RECURRING, action);
+    }
+
+    /**
+     * Writes every change to the store file.
+     *
+     * @throws IOException if the store file cannot be written
+     */
+    public void flush() throws IOException {
+        taskCache.flush();
+        pages.flush();
+    }
+
+    /**
+     * Writes every change to the store file and closes it.
+     *
+     * @throws IOException if the store file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            taskCache.flush();
+        } finally {
+            pages.close();
+        }
+    }
+
+    long getCacheHitCount() {
+        return pages.getHitCount();
+    }
+
+    long getCacheMissCount() {
+        return pages.getMissCount();
+    }
+
+    /**
+     * Performs the given action on each task whose key in the given secondary index is within the range.
+     *
+     * @param index secondary index
+     * @param fromKey smallest key
+     * @param toKey largest key
+     * @param action action performed on each task
+     */
+    private void forEachIn(BPlusTree index, long fromKey, long toKey, Consumer<Task> action) {
+        try {
+            // The indexes only know the changes written back
+            taskCache.flush();
+            index.forEach(fromKey, toKey, (key, value) -> action.accept(readTask((int) (key & ID_MASK))));
+        } catch (IOException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    private void forEachWithStatus(byte status, Consumer<Task> action) {
+        long fromKey = getStatusKey(status, 0);
+        forEachIn(tasksByStatus, fromKey, fromKey | ID_MASK, action);
+    }
+
+    /**
+     * Gets the number of tasks in the due date index due before the given epoch minute.
+     *
+     * @param minute epoch minute
+     * @return number of tasks due before the minute
+     * @throws IOException if the index cannot be read
+     */
+    private long getDueRank(long minute) throws IOException {
+        return tasksByDueDate.rank(Math.min(minute, MAX_DUE_MINUTE + 1) << 32);
+    }
+
+    /**
+     * Gets a sequence number for a task added at the given position, between the sequence numbers
+     * of its neighbours. Tasks added at either end of the list leave a wide gap, so only tasks added
+     * over and over at the same place in the middle run out of room, and the list is then renumbered.
+     *
+     * @param index 0-based position of the added task
+     * @param size number of tasks before adding
+     * @return sequence number of the added task
+     * @throws IOException if the store cannot be read or written
+     */
+    private long getNewSequence(int index, int size) throws IOException {
+        if (size == 0) {
+            return 0;
+        }
+        if (index == size) {
+            long last = idsBySequence.getKeyAt(size - 1);
+            if (last <= Long.MAX_VALUE - SEQUENCE_GAP) {
+                return last + SEQUENCE_GAP;
+            }
+        } else if (index == 0) {
+            long first = idsBySequence.getKeyAt(0);
+            if (first >= Long.MIN_VALUE + SEQUENCE_GAP) {
+                return first - SEQUENCE_GAP;
+            }
+        } else {
+            long before = idsBySequence.getKeyAt(index - 1);
+            long after = idsBySequence.getKeyAt(index);
+            if (after - 1 > before) {
+                return (before >> 1) + (after >> 1) + (before & after & 1);
+            }
+        }
+        renumber(size);
+        return getNewSequence(index, size);
+    }
+
+    /**
+     * Gives the tasks evenly spaced sequence numbers again, keeping their order.
+     * Takes time linear in the size of the list, but task lists only add at the end,
+     * which never runs out of room.
+     *
+     * @param size number of tasks
+     * @throws IOException if the store cannot be read or written
+     */
+    private void renumber(int size) throws IOException {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            long sequence = idsBySequence.getKeyAt(0);
+            ids[i] = decodeId(idsBySequence.getValueAt(0));
+            idsBySequence.remove(sequence);
+            sequencesById.remove(ids[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            long sequence = i * SEQUENCE_GAP;
+            idsBySequence.put(sequence, encodeId(ids[i]));
+            addSequence(ids[i], sequence);
+        }
+    }
+
+    /**
+     * Adds a position holding the given task, adding the task if no other position holds it.
+     *
+     * @param task task to be held
+     * @param sequence sequence number of the position
+     * @throws IOException if the store cannot be read or written
+     */
+    private void retain(Task task, long sequence) throws IOException {
+        writeBack(task.getId());
+        writeRecord(task, tasksById.get(task.getId()));
+        addSequence(task.getId(), sequence);
+        taskCache.put(task, task.getSaveMessage().length(), false);
+    }
+
+    /**
+     * Replaces the given task with its new content, keeping the positions holding it.
+     *
+     * @param task new content of the task
+     * @throws IOException if the store cannot be read or written
+     */
+    private void replace(Task task) throws IOException {
+        writeRecord(task, tasksById.get(task.getId()));
+    }
+
+    /**
+     * Removes a position holding the task with the given ID, removing the task if no other position holds it.
+     *
+     * @param id ID of the task
+     * @param sequence sequence number of the position
+     * @throws IOException if the store cannot be read or written
+     */
+    private void release(int id, long sequence) throws IOException {
+        writeBack(id);
+        if (removeSequence(id, sequence)) {
+            return;
+        }
+        byte[] record = tasksById.get(id);
+        tasksById.remove(id);
+        taskCache.remove(id);
+        removeFromIndexes(id, record);
+    }
+
+    /**
+     * Records that the position with the given sequence number holds the task with the given ID.
+     *
+     * @param id ID of the task
+     * @param sequence sequence number of the position
+     * @throws IOException if the store cannot be read or written
+     */
+    private void addSequence(int id, long sequence) throws IOException {
+        byte[] sequences = sequencesById.get(id);
+        int length = sequences == null ? 0 : sequences.length;
+        byte[] added = sequences == null ? new byte[Long.BYTES] : Arrays.copyOf(sequences, length + Long.BYTES);
+        ByteBuffer.wrap(added).putLong(length, sequence);
+        sequencesById.put(id, added);
+    }
+
+    /**
+     * Records that the position with the given sequence number no longer holds the task with the given ID.
+     *
+     * @param id ID of the task
+     * @param sequence sequence number of the position
+     * @return true if another position still holds the task
+     * @throws IOException if the store cannot be read or written
+     */
+    private boolean removeSequence(int id, long sequence) throws IOException {
+        ByteBuffer sequences = ByteBuffer.wrap(sequencesById.get(id));
+        if (sequences.capacity() == Long.BYTES) {
+            sequencesById.remove(id);
+            return false;
+        }
+        ByteBuffer kept = ByteBuffer.allocate(sequences.capacity() - Long.BYTES);
+        while (sequences.hasRemaining()) {
+            long held = sequences.getLong();
+            if (held != sequence) {
+                kept.putLong(held);
+            }
+        }
+        sequencesById.put(id, kept.array());
+        return true;
+    }
+
+    /**
+     * Writes the task with the given ID back from the cache if it is dirty there,
+     * so that its record can be read and changed directly.
+     *
+     * @param id ID of the task
+     * @throws IOException if the store cannot be read or written
+     */
+    private void writeBack(int id) throws IOException {
+        Task dirtyTask = taskCache.takeDirty(id);
+        if (dirtyTask != null) {
+            replace(dirtyTask);
+        }
+    }
+
+    /**
+     * Writes the record of the given task and brings the secondary indexes in line with it.
+     * The record starts with the status and due minute of the task, so that the task
+     * can be taken out of the secondary indexes without parsing its row.
+     *
+     * @param task task to be written
+     * @param previousRecord record the task had, or null if it is new
+     * @throws IOException if the store cannot be read or written
+     */
+    private void writeRecord(Task task, byte[] previousRecord) throws IOException {
+        byte[] row = task.getSaveMessage().getBytes(StandardCharsets.UTF_8);
+        LocalDateTime dueDate = task.isDone() ? null : task.getPendingDueDate();
+        byte status = task.isDone() ? STATUS_DONE
+                : task.getRecurrence() != null ? STATUS_PENDING_RECURRING : STATUS_PENDING;
+        byte[] record = ByteBuffer.allocate(RECORD_HEADER_SIZE + row.length)
+                .put(status)
+                .putLong(dueDate == null ? NOT_DUE : toEpochMinute(dueDate))
+                .put(row)
+                .array();
+        if (Arrays.equals(record, previousRecord)) {
+            return;
+        }
+        if (previousRecord != null) {
+            removeFromIndexes(task.getId(), previousRecord);
+        }
+        tasksById.put(task.getId(), record);
+        addToIndexes(task.getId(), record);
+    }
+
+    /**
+     * Adds the task with the given ID and record to the secondary indexes.
+     *
+     * @param id ID of the task
+     * @param record record of the task
+     * @throws IOException if the store cannot be read or written
+     */
+    private void addToIndexes(int id, byte[] record) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(record);
+        tasksByStatus.put(getStatusKey(header.get(0), id), new byte[0]);
+        long dueMinute = header.getLong(1);
+        if (dueMinute != NOT_DUE) {
+            tasksByDueDate.put(dueMinute << 32 | id, new byte[0]);
+        }
+    }
+
+    /**
+     * Removes the task with the given ID and record from the secondary indexes.
+     *
+     * @param id ID of the task
+     * @param record record of the task
+     * @throws IOException if the store cannot be read or written
+     */
+    private void removeFromIndexes(int id, byte[] record) throws IOException {
+        ByteBuffer header = ByteBuffer.wrap(record);
+        tasksByStatus.remove(getStatusKey(header.get(0), id));
+        long dueMinute = header.getLong(1);
+        if (dueMinute != NOT_DUE) {
+            tasksByDueDate.remove(dueMinute << 32 | id);
+        }
+    }
+
+    /**
+     * Reads the task with the given ID, from the cache if it is held there.
+     *
+     * @param id ID of the task
+     * @return task with the given ID
+     * @throws IOException if the store cannot be read, or an evicted task cannot be written back
+     */
+    private Task readTask(int id) throws IOException {
+        Task task = taskCache.get(id);
+        if (task == null) {
+            String row = getRow(tasksById.get(id));
+            task = Parser.parseSavedTaskRow(row, true);
+            taskCache.put(task, row.length(), false);
+        }
+        return task;
+    }
+
+    private static String getRow(byte[] record) {
+        return new String(record, RECORD_HEADER_SIZE, record.length - RECORD_HEADER_SIZE, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encodeId(int id) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(id).array();
+    }
+
+    private static int decodeId(byte[] value) {
+        return ByteBuffer.wrap(value).getInt();
+    }
+
+    private static long getStatusKey(byte status, int id) {
+        return (long) status << 32 | id;
+    }
+
+    /**
+     * Gets the epoch minute of the given date, kept within the minutes the due date index can hold.
+     *
+     * @param date date and time
+     * @return epoch minute of the date
+     */
+    private static long toEpochMinute(LocalDateTime date) {
+        long minute = Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+        return Math.max(MIN_DUE_MINUTE, Math.min(MAX_DUE_MINUTE, minute));
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
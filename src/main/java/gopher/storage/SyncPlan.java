@@ -0,0 +1,132 @@
+package gopher.storage;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.task.Task;
+
+/**
+ * Represents the changes needed to bring a task list and another task file in line:
+ * the tasks received from the other file, the local tasks it deleted,
+ * and how many local changes are sent to it.
+ */
+public class SyncPlan {
+    /** Path of the other task file */
+    private final Path otherFile;
+
+    /** Directory holding the snapshot of each synced file */
+    private final Path snapshotDirectory;
+
+    /** Tasks of the other file that replace the local task with the same ID */
+    private final List<Task> replacedTasks = new ArrayList<>();
+
+    /** Tasks of the other file that are new to the task list */
+    private final List<Task> addedTasks = new ArrayList<>();
+
+    /** IDs of the local tasks deleted in the other file */
+    private final List<Integer> deletedIds = new ArrayList<>();
+
+    /** Number of local changes, additions and deletions sent to the other file */
+    private int sentCount;
+
+    /** Number of tasks changed differently on both sides */
+    private int conflictCount;
+
+    /** Next ID recorded in the other file, below which no new task may be given an ID */
+    private int nextId = 1;
+
+    /** State of the other file as read when planning, or null if it was not read */
+    private TaskFileState otherFileState;
+
+    /**
+     * Constructor for SyncPlan class.
+     *
+     * @param otherFile path of the other task file
+     * @param snapshotDirectory directory holding the snapshot of each synced file
+     */
+    SyncPlan(Path otherFile, Path snapshotDirectory) {
+        this.otherFile = otherFile;
+        this.snapshotDirectory = snapshotDirectory;
+    }
+
+    Path getOtherFile() {
+        return this.otherFile;
+    }
+
+    Path getSnapshotDirectory() {
+        return this.snapshotDirectory;
+    }
+
+    public List<Task> getReplacedTasks() {
+        return this.replacedTasks;
+    }
+
+    public List<Task> getAddedTasks() {
+        return this.addedTasks;
+    }
+
+    public List<Integer> getDeletedIds() {
+        return this.deletedIds;
+    }
+
+    public int getSentCount() {
+        return this.sentCount;
+    }
+
+    public int getConflictCount() {
+        return this.conflictCount;
+    }
+
+    public int getNextId() {
+        return this.nextId;
+    }
+
+    void setNextId(int nextId) {
+        this.nextId = nextId;
+    }
+
+    TaskFileState getOtherFileState() {
+        return this.otherFileState;
+    }
+
+    void setOtherFileState(TaskFileState otherFileState) {
+        this.otherFileState = otherFileState;
+    }
+
+    /**
+     * Gets the number of tasks received from the other file, whether changed, added or deleted.
+     *
+     * @return number of changes received
+     */
+    public int getReceivedCount() {
+        return replacedTasks.size() + addedTasks.size() + deletedIds.size();
+    }
+
+    /**
+     * Checks whether the task list has to change to match the other file.
+     *
+     * @return true if any change is received
+     */
+    public boolean changesTaskList() {
+        return getReceivedCount() > 0;
+    }
+
+    /**
+     * Checks whether the other file has to be written to match the task list.
+     * Added tasks count too, as they may be given a new ID by the task list.
+     *
+     * @return true if any change is sent or any task is added
+     */
+    public boolean changesOtherFile() {
+        return sentCount > 0 || !addedTasks.isEmpty();
+    }
+
+    void addSent() {
+        sentCount++;
+    }
+
+    void addConflict() {
+        conflictCount++;
+    }
+}
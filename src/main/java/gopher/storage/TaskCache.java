@@ -0,0 +1,232 @@
+package gopher.storage;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import gopher.metrics.Metrics;
+import gopher.task.Task;
+
+/**
+ * Keeps the most recently used tasks of a store decoded, so that tasks read again and again
+ * are not parsed from their saved rows each time. The cache holds as many tasks as fit
+ * in a byte budget, estimated from the length of their saved rows, and evicts the least
+ * recently used task to make room for another.
+ *
+ * A task changed in the cache is marked dirty instead of being written to the store right away,
+ * and is only written back when it is evicted or the cache is flushed, so a task marked and
+ * updated several times in a row is written once. Hits and misses are counted here and in the metrics.
+ */
+public class TaskCache {
+    /** Byte budget used unless another is set, enough for about 50,000 typical tasks */
+    public static final long DEFAULT_BYTE_BUDGET = 16L << 20;
+
+    /** Estimated bytes taken by a decoded task besides the characters of its row: objects, dates and map entry */
+    private static final int TASK_OVERHEAD_BYTES = 240;
+
+    /** Cached tasks keyed by task ID, the least recently used first */
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final WriteBack writeBack;
+
+    private long byteBudget = DEFAULT_BYTE_BUDGET;
+
+    private long usedBytes;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private long evictionCount;
+
+    private long writeBackCount;
+
+    /**
+     * Constructor for TaskCache which writes dirty tasks back in the given way.
+     *
+     * @param writeBack way of writing a dirty task to the store
+     */
+    TaskCache(WriteBack writeBack) {
+        this.writeBack = writeBack;
+    }
+
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public int getSize() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getWriteBackCount() {
+        return writeBackCount;
+    }
+
+    /**
+     * Sets the byte budget of the cache, evicting tasks until the cache fits in it.
+     *
+     * @param byteBudget largest estimated number of bytes taken by the cached tasks
+     * @throws IOException if an evicted task cannot be written back
+     */
+    public void setByteBudget(long byteBudget) throws IOException {
+        if (byteBudget < 0) {
+            throw new IllegalArgumentException("Byte budget cannot be negative");
+        }
+        this.byteBudget = byteBudget;
+        evict();
+    }
+
+    /**
+     * Gets the cached task with the given ID, counting a hit or a miss.
+     *
+     * @param id ID of the task
+     * @return cached task, or null if the task is not cached
+     */
+    Task get(int id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            missCount++;
+            Metrics.increment(Metrics.TASK_CACHE_MISSES);
+            return null;
+        }
+        hitCount++;
+        Metrics.increment(Metrics.TASK_CACHE_HITS);
+        return entry.task;
+    }
+
+    /**
+     * Caches the given task in place of any task with the same ID, evicting the least
+     * recently used tasks if the cache no longer fits in its budget.
+     * A task replacing a dirty task stays dirty.
+     *
+     * @param task task to be cached, which needs an ID
+     * @param rowLength length of the saved row of the task
+     * @param isDirty whether the task has changes not yet written to the store
+     * @throws IOException if an evicted task cannot be written back
+     */
+    void put(Task task, int rowLength, boolean isDirty) throws IOException {
+        Entry entry = new Entry(task, TASK_OVERHEAD_BYTES + 2L * rowLength, isDirty);
+        Entry previous = entries.put(task.getId(), entry);
+        if (previous != null) {
+            usedBytes -= previous.bytes;
+            entry.isDirty |= previous.isDirty;
+        }
+        usedBytes += entry.bytes;
+        evict();
+    }
+
+    /**
+     * Marks the task with the given ID clean, for the caller to write it to the store itself.
+     *
+     * @param id ID of the task
+     * @return task to be written, or null if the task is not cached or already clean
+     */
+    Task takeDirty(int id) {
+        Entry entry = entries.get(id);
+        if (entry == null || !entry.isDirty) {
+            return null;
+        }
+        entry.isDirty = false;
+        writeBackCount++;
+        Metrics.increment(Metrics.TASK_CACHE_WRITE_BACKS);
+        return entry.task;
+    }
+
+    /**
+     * Drops the task with the given ID without writing it back, as when it is removed from the store.
+     *
+     * @param id ID of the task
+     */
+    void remove(int id) {
+        Entry entry = entries.remove(id);
+        if (entry != null) {
+            usedBytes -= entry.bytes;
+        }
+    }
+
+    /**
+     * Writes every dirty task back to the store, keeping the tasks cached.
+     *
+     * @throws IOException if a task cannot be written back
+     */
+    void flush() throws IOException {
+        for (Entry entry : entries.values()) {
+            if (entry.isDirty) {
+                write(entry);
+            }
+        }
+    }
+
+    /**
+     * Evicts the least recently used tasks until the cache fits in its budget,
+     * writing back those that are dirty.
+     *
+     * @throws IOException if an evicted task cannot be written back
+     */
+    private void evict() throws IOException {
+        Iterator<Map.Entry<Integer, Entry>> iterator = entries.entrySet().iterator();
+        while (usedBytes > byteBudget && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            if (eldest.isDirty) {
+                // Written before being dropped, so a failed write leaves the task cached
+                write(eldest);
+            }
+            iterator.remove();
+            usedBytes -= eldest.bytes;
+            evictionCount++;
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        writeBack.write(entry.task);
+        entry.isDirty = false;
+        writeBackCount++;
+        Metrics.increment(Metrics.TASK_CACHE_WRITE_BACKS);
+    }
+
+    /**
+     * Represents the way a dirty task is written back to the store.
+     */
+    @FunctionalInterface
+    interface WriteBack {
+        /**
+         * Writes the given task to the store.
+         *
+         * @param task dirty task to be written
+         * @throws IOException if the store cannot be written
+         */
+        void write(Task task) throws IOException;
+    }
+
+    /**
+     * Represents a cached task with its estimated size.
+     */
+    private static class Entry {
+        private final Task task;
+        private final long bytes;
+        private boolean isDirty;
+
+        private Entry(Task task, long bytes, boolean isDirty) {
+            this.task = task;
+            this.bytes = bytes;
+            this.isDirty = isDirty;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package gopher.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Represents the encodings of the task file on disk.
+ * Both encodings hold the same rows of text, and are read and written a row at a time
+ * through a buffered stream, so the whole file never has to be held in memory as one string.
+ * The encoding of a file is told by its first bytes when it is read,
+ * so a file written in either encoding can always be loaded.
+ */
+public enum TaskFileFormat {
+    /** Rows of text, one task per line */
+    PLAIN,
+
+    /** Rows of text compressed with GZIP, which shrinks the separators and dates repeated on every row */
+    GZIP;
+
+    /** Size of the buffers between the rows and the file */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Number of bytes needed to tell the encoding of a file */
+    private static final int MAGIC_LENGTH = 2;
+
+    /**
+     * Opens a writer that writes rows of text to the given file in this encoding,
+     * replacing its content.
+     *
+     * @param file file to be written
+     * @return buffered writer of the rows, which has to be closed to finish the file
+     * @throws IOException if the file cannot be opened
+     */
+    Writer newWriter(Path file) throws IOException {
+        return newWriter(file, new CRC32C());
+    }
+
+    /**
+     * Opens a writer that writes rows of text to the given file in this encoding,
+     * replacing its content, and updates the given checksum with every byte written to the file.
+     *
+     * @param file file to be written
+     * @param checksum checksum of the bytes of the file
+     * @return buffered writer of the rows, which has to be closed to finish the file
+     * @throws IOException if the file cannot be opened
+     */
+    Writer newWriter(Path file, Checksum checksum) throws IOException {
+        OutputStream output = new CheckedOutputStream(Files.newOutputStream(file), checksum);
+        if (this == GZIP) {
+            output = new GZIPOutputStream(output, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Opens a reader of the rows of text in the given file, whichever encoding it was written in.
+     *
+     * @param file file to be read
+     * @return buffered reader of the rows
+     * @throws IOException if the file cannot be opened
+     */
+    static BufferedReader newReader(Path file) throws IOException {
+        return newReader(file, new CRC32C());
+    }
+
+    /**
+     * Opens a reader of the rows of text in the given file, whichever encoding it was written in,
+     * which updates the given checksum with every byte read from the file.
+     * The checksum covers the whole file once the reader has reached its end.
+     *
+     * @param file file to be read
+     * @param checksum checksum of the bytes of the file
+     * @return buffered reader of the rows
+     * @throws IOException if the file cannot be opened
+     */
+    static BufferedReader newReader(Path file, Checksum checksum) throws IOException {
+        InputStream input = new BufferedInputStream(
+                new CheckedInputStream(Files.newInputStream(file), checksum), BUFFER_SIZE);
+        if (detect(input) == GZIP) {
+            input = new GZIPInputStream(input, BUFFER_SIZE);
+        }
+        return new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    /**
+     * Tells the encoding of the stream by its first bytes, leaving the stream where it was.
+     * A text file never starts with the GZIP magic number, as its first byte is a control character.
+     *
+     * @param input stream at the start of the file
+     * @return encoding of the file
+     * @throws IOException if the stream cannot be read
+     */
+    private static TaskFileFormat detect(InputStream input) throws IOException {
+        input.mark(MAGIC_LENGTH);
+        int magic = input.read() | input.read() << 8;
+        input.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? GZIP : PLAIN;
+    }
+}
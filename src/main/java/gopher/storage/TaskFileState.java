@@ -0,0 +1,108 @@
+package gopher.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Represents the size, modification time and checksum of a task file as it was last read or written,
+ * so that a later write by another program can be told apart.
+ * The checksum is taken over the bytes streamed while the file was read or written, so remembering
+ * the state costs no extra read. A file whose size or modification time differs has changed, and only
+ * when both still match is the file read again to compare checksums, which catches an edit that keeps
+ * the size, such as marking a task done, made within the same tick of a file system with coarse
+ * modification times.
+ */
+class TaskFileState {
+    /** Number of bytes read at a time when checksumming a file */
+    private static final int CHECKSUM_BUFFER_SIZE = 64 << 10;
+
+    /** Size of the file in bytes */
+    private final long size;
+
+    /** Modification time of the file, in epoch milliseconds */
+    private final long modifiedTime;
+
+    /** CRC-32C checksum of the contents of the file */
+    private final long checksum;
+
+    private TaskFileState(long size, long modifiedTime, long checksum) {
+        this.size = size;
+        this.modifiedTime = modifiedTime;
+        this.checksum = checksum;
+    }
+
+    /**
+     * Gets the state of the given file once it has been streamed whole through the given checksum.
+     * The size and modification time are read afterwards, so an edit made while the file was
+     * streamed leaves a checksum that no longer matches the file.
+     *
+     * @param file file that was read or written
+     * @param checksum CRC-32C checksum of the bytes streamed
+     * @return state of the file
+     * @throws IOException if the attributes of the file cannot be read
+     */
+    static TaskFileState of(Path file, Checksum checksum) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return new TaskFileState(attributes.size(), attributes.lastModifiedTime().toMillis(), checksum.getValue());
+    }
+
+    /**
+     * Parses a state written by {@link #toString()}.
+     *
+     * @param text size, modification time and checksum separated by spaces
+     * @return state described by the text, or null if it is not in that form
+     */
+    static TaskFileState parse(String text) {
+        String[] fields = text.split(" ");
+        if (fields.length != 3) {
+            return null;
+        }
+        try {
+            return new TaskFileState(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    Long.parseUnsignedLong(fields[2], 16));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Checks whether the given file is still in this state. The file is only read
+     * when its size and modification time both match.
+     *
+     * @param file file to be checked
+     * @return true if the file exists and has the same size, modification time and checksum
+     * @throws IOException if the file cannot be read
+     */
+    boolean matches(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() != size || attributes.lastModifiedTime().toMillis() != modifiedTime) {
+            return false;
+        }
+        CRC32C fileChecksum = new CRC32C();
+        byte[] buffer = new byte[CHECKSUM_BUFFER_SIZE];
+        try (InputStream input = Files.newInputStream(file)) {
+            int length;
+            while ((length = input.read(buffer)) > 0) {
+                fileChecksum.update(buffer, 0, length);
+            }
+        }
+        return fileChecksum.getValue() == checksum;
+    }
+
+    @Override
+    public String toString() {
+        return size + " " + modifiedTime + " " + Long.toHexString(checksum);
+    }
+}
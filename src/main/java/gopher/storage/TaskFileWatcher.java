@@ -0,0 +1,147 @@
+package gopher.storage;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a task file for writes, so that edits made by other programs can be taken in
+ * while Gopher is running. A watch thread blocks on a {@link WatchService} of the directory
+ * holding the file, so it only wakes up when something in that directory changes.
+ *
+ * A single save often shows up as several events, so the listener is only called
+ * once the file has been quiet for a short while. The listener is called for every write,
+ * including Gopher's own, and should tell them apart with {@link TaskManager#isChangedExternally()}.
+ */
+public class TaskFileWatcher {
+    /** How long the file has to be quiet after a write before the listener is called */
+    private static final long QUIET_PERIOD_MILLIS = 100;
+
+    private final Object lock = new Object();
+
+    private final Path file;
+
+    private Runnable listener = () -> { };
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    /**
+     * Constructor for TaskFileWatcher which watches the task file of the task manager.
+     */
+    public TaskFileWatcher() {
+        this(TaskManager.TASK_FILE);
+    }
+
+    /**
+     * Constructor for TaskFileWatcher which watches the given file.
+     *
+     * @param file file to be watched
+     */
+    TaskFileWatcher(Path file) {
+        this.file = file.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Sets the listener called after the file is written.
+     * The listener is called on the watch thread.
+     *
+     * @param listener listener of the writes
+     */
+    public void setListener(Runnable listener) {
+        synchronized (lock) {
+            this.listener = listener;
+        }
+    }
+
+    /**
+     * Starts the watch thread, which watches the file until stopped.
+     * Does nothing if the thread is already running.
+     *
+     * @throws IOException if the directory of the file cannot be watched
+     */
+    public void start() throws IOException {
+        synchronized (lock) {
+            if (watchThread != null) {
+                return;
+            }
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watchThread = new Thread(this::run, "gopher-file-watch");
+            watchThread.setDaemon(true);
+            watchThread.start();
+        }
+    }
+
+    /**
+     * Stops the watch thread.
+     */
+    public void stop() {
+        synchronized (lock) {
+            if (watchThread == null) {
+                return;
+            }
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                // The thread is interrupted below either way
+            }
+            watchThread.interrupt();
+            watchThread = null;
+        }
+    }
+
+    /**
+     * Calls the listener after each burst of writes to the file.
+     */
+    private void run() {
+        WatchService service;
+        synchronized (lock) {
+            service = watchService;
+        }
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                boolean isWritten = takeWrites(service.take());
+                // Let the rest of the burst arrive before calling the listener
+                WatchKey key;
+                while ((key = service.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    isWritten |= takeWrites(key);
+                }
+                if (isWritten) {
+                    Runnable currentListener;
+                    synchronized (lock) {
+                        currentListener = listener;
+                    }
+                    currentListener.run();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    /**
+     * Takes the events of the given key and resets it.
+     *
+     * @param key key with pending events
+     * @return true if any event is a write to the watched file
+     */
+    private boolean takeWrites(WatchKey key) {
+        boolean isWritten = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // An overflow may hide a write to the file
+            isWritten |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || file.getFileName().equals(event.context());
+        }
+        key.reset();
+        return isWritten;
+    }
+}
@@ -1,35 +1,237 @@
 package gopher.storage;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
 
 import gopher.exception.FileCorruptedException;
+import gopher.metrics.Metrics;
+import gopher.metrics.TaskFileLoadEvent;
+import gopher.metrics.TaskFileSaveEvent;
 import gopher.parser.Parser;
 import gopher.task.Task;
 
 /**
  * Represents the storage for managing task related data files.
+ *
+ * The task manager remembers the size, modification time and checksum of the task file, and the
+ * content hash of each task in it, as of the last time it read or wrote the file. Another program may edit
+ * the file in the meantime, and such edits are told apart from the task manager's own writes
+ * by the file no longer matching what was remembered. The checksum is taken over the bytes streamed
+ * while the file is read or written, and the file is only read again to compare it when its size
+ * and modification time are unchanged. The remembered hashes then serve as the
+ * common base for taking in only the tasks changed outside, the same way a sync does.
+ *
+ * The task file also records the ID to be given to the next new task, so that the ID of
+ * a deleted task is never given to another, which would be mistaken for it when syncing.
+ *
+ * The task file can be kept compressed to save disk space. Tasks are streamed to and from
+ * the file a row at a time in either encoding, and a file written in either encoding is loaded.
  */
 public class TaskManager {
     /** Path of the task data file relative to the working directory */
-    private static final Path TASK_FILE = Paths.get("./task/task.txt");
+    static final Path TASK_FILE = Paths.get("./task/task.txt");
+
+    /** Path of the copy kept of an outside edit that could not be taken in before saving */
+    private static final Path CONFLICT_FILE = Paths.get("./task/task.conflict.txt");
+
+    /** Start of the line after the header recording the ID to be given to the next new task */
+    private static final String NEXT_ID_PREFIX = "# next id: ";
+
+    /** Number of rows loaded between updates of the count of tasks loaded so far */
+    private static final int LOAD_CHUNK_ROWS = 10_000;
+
+    /**
+     * Size, modification time and checksum of the task file when it was last read or written,
+     * or null if it has not been yet
+     */
+    private static volatile TaskFileState knownFileState;
+
+    /** Content hash of each task in the task file when it was last read or written, keyed by task ID */
+    private static Map<Integer, Long> knownHashes = new HashMap<>();
+
+    /** Encoding the task file is saved in */
+    private static TaskFileFormat format = TaskFileFormat.PLAIN;
+
+    /** Number of tasks loaded so far by the load in progress, updated once per chunk of rows */
+    private static volatile int loadedTaskCount;
+
+    /** Next ID recorded in the task file when it was last loaded */
+    private static volatile int loadedNextId = 1;
+
+    /**
+     * Writes List of Task to the given data file in the escaped save format, one row at a time.
+     *
+     * @param file data file to be written
+     * @param format encoding of the data file
+     * @param tasks List of Tasks
+     * @param nextId ID to be given to the next new task
+     * @param hashes map filled with the content hash of each task with an ID, keyed by task ID
+     * @return state of the data file as written
+     * @throws IOException if the data file cannot be written
+     */
+    static TaskFileState writeTasks(Path file, TaskFileFormat format, List<Task> tasks, int nextId,
+            Map<Integer, Long> hashes) throws IOException {
+        CRC32C checksum = new CRC32C();
+        try (Writer writer = format.newWriter(file, checksum)) {
+            writer.write(Parser.SAVE_FORMAT_HEADER);
+            writer.write('\n');
+            writer.write(NEXT_ID_PREFIX + nextId);
+            writer.write('\n');
+            writeRows(writer, tasks, hashes);
+        }
+        return TaskFileState.of(file, checksum);
+    }
 
     /**
-     * Converts ArrayList of Task to String data.
+     * Writes the rows of List of Task, one row at a time.
      *
-     * @param tasks ArrayList of Tasks
-     * @return string to be stored in the data file
+     * @param writer writer of the data file
+     * @param tasks List of Tasks
+     * @param hashes map filled with the content hash of each task with an ID, keyed by task ID
+     * @throws IOException if the data file cannot be written
      */
-    private static String convertToTaskString(ArrayList<Task> tasks) {
-        StringBuilder taskString = new StringBuilder();
+    private static void writeRows(Writer writer, List<Task> tasks, Map<Integer, Long> hashes)
+            throws IOException {
         for (Task task : tasks) {
-            taskString.append(task.getSaveMessage());
-            taskString.append("\n");
+            writer.write(task.getSaveMessage());
+            writer.write('\n');
+            if (task.getId() > 0) {
+                hashes.put(task.getId(), task.getContentHash());
+            }
         }
-        return taskString.toString();
+    }
+
+    /**
+     * Reads the tasks in the given data file, one row at a time, whichever encoding it was
+     * written in and whether or not it is in the escaped save format.
+     *
+     * @param file data file to be read
+     * @param tasks list the tasks stored in the file are added to
+     * @return true if the file is in the escaped save format,
+     *     false if it was saved before the format was introduced
+     * @throws IOException if the data file cannot be read
+     * @throws FileCorruptedException if a row of the data file cannot be understood
+     */
+    static boolean readTasks(Path file, List<Task> tasks) throws IOException {
+        return readTasks(file, tasks, new CRC32C(), taskCount -> { });
+    }
+
+    /**
+     * Reads the tasks in the given data file, one row at a time, updating the given checksum
+     * with every byte of the file, so that its state is known without reading it again.
+     *
+     * @param file data file to be read
+     * @param tasks list the tasks stored in the file are added to
+     * @param checksum checksum of the bytes of the file
+     * @return true if the file is in the escaped save format,
+     *     false if it was saved before the format was introduced
+     * @throws IOException if the data file cannot be read
+     * @throws FileCorruptedException if a row of the data file cannot be understood
+     */
+    static boolean readTasks(Path file, List<Task> tasks, Checksum checksum) throws IOException {
+        return readTasks(file, tasks, checksum, taskCount -> { });
+    }
+
+    /**
+     * Reads the tasks in the given data file, one row at a time, updating the given checksum
+     * and reporting the number of tasks read so far after each chunk of rows.
+     *
+     * @param file data file to be read
+     * @param tasks list the tasks stored in the file are added to
+     * @param checksum checksum of the bytes of the file
+     * @param progress listener of the number of tasks read so far
+     * @return true if the file is in the escaped save format,
+     *     false if it was saved before the format was introduced
+     * @throws IOException if the data file cannot be read
+     * @throws FileCorruptedException if a row of the data file cannot be understood
+     */
+    private static boolean readTasks(Path file, List<Task> tasks, Checksum checksum, IntConsumer progress)
+            throws IOException {
+        try (BufferedReader reader = TaskFileFormat.newReader(file, checksum)) {
+            String row = reader.readLine();
+            boolean isEscaped = Parser.SAVE_FORMAT_HEADER.equals(row);
+            if (isEscaped) {
+                row = reader.readLine();
+            }
+            if (row != null && row.startsWith(NEXT_ID_PREFIX)) {
+                row = reader.readLine();
+            }
+            for (; row != null; row = reader.readLine()) {
+                if (!row.isEmpty()) {
+                    tasks.add(Parser.parseSavedTaskRow(row, isEscaped));
+                    if (tasks.size() % LOAD_CHUNK_ROWS == 0) {
+                        progress.accept(tasks.size());
+                    }
+                }
+            }
+            return isEscaped;
+        }
+    }
+
+    /**
+     * Reads the ID to be given to the next new task recorded in the given data file.
+     *
+     * @param file data file to be read
+     * @return next ID recorded in the file, or 1 if the file does not record one
+     * @throws IOException if the data file cannot be read
+     * @throws FileCorruptedException if the recorded ID is not a number
+     */
+    static int readNextId(Path file) throws IOException {
+        try (BufferedReader reader = TaskFileFormat.newReader(file)) {
+            String row = reader.readLine();
+            if (!Parser.SAVE_FORMAT_HEADER.equals(row)) {
+                return 1;
+            }
+            row = reader.readLine();
+            if (row == null || !row.startsWith(NEXT_ID_PREFIX)) {
+                return 1;
+            }
+            return Integer.parseInt(row.substring(NEXT_ID_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Gets the ID to be given to the next new task, as recorded in the task file when it was last loaded.
+     *
+     * @return next ID recorded in the task file, or 1 if it does not record one
+     */
+    public static int getLoadedNextId() {
+        return loadedNextId;
+    }
+
+    /**
+     * Gets the number of tasks loaded so far, which another thread may check
+     * while the task file is being loaded.
+     *
+     * @return number of tasks loaded so far, counted in chunks of rows
+     */
+    public static int getLoadedTaskCount() {
+        return loadedTaskCount;
+    }
+
+    /**
+     * Sets the encoding the task file is saved in from now on.
+     * The task file is loaded whichever encoding it was saved in,
+     * so it is converted the next time it is saved.
+     *
+     * @param format encoding of the task file
+     */
+    public static void setFormat(TaskFileFormat format) {
+        TaskManager.format = format;
     }
 
     /**
@@ -51,19 +253,31 @@ public class TaskManager {
     /**
      * Saves the tasks into the local task data file.
      *
-     * @param tasks ArrayList of Task tracked by the TaskManager
+     * @param tasks List of Task tracked by the TaskManager
+     * @param nextId ID to be given to the next new task
      */
-    public static void saveTasks(ArrayList<Task> tasks) {
+    public static void saveTasks(List<Task> tasks, int nextId) {
+        long startTime = System.nanoTime();
+        TaskFileSaveEvent event = new TaskFileSaveEvent();
+        event.begin();
+        long bytes = 0;
         try {
             if (!Files.exists(TASK_FILE)) {
                 Files.createFile(TASK_FILE);
             }
             assert Files.exists(TASK_FILE)
                     : "Task save file should exist when saving task";
-            String taskString = convertToTaskString(tasks);
-            Files.writeString(TASK_FILE, taskString);
+            Map<Integer, Long> hashes = new HashMap<>();
+            TaskFileState fileState = writeTasks(TASK_FILE, format, tasks, nextId, hashes);
+            bytes = fileState.getSize();
+            knownHashes = hashes;
+            knownFileState = fileState;
+            Metrics.setGauge(Metrics.TASK_COUNT, tasks.size());
         } catch (IOException e) {
             throw new FileCorruptedException();
+        } finally {
+            Metrics.recordLatency(Metrics.STORAGE_SAVE, System.nanoTime() - startTime);
+            event.emit(TASK_FILE.toString(), tasks.size(), bytes);
         }
     }
 
@@ -73,13 +287,112 @@ public class TaskManager {
      * @return ArrayList of Task stored in the file
      */
     public static ArrayList<Task> loadTasks() {
+        long startTime = System.nanoTime();
+        TaskFileLoadEvent event = new TaskFileLoadEvent();
+        event.begin();
+        long bytes = 0;
+        int taskCount = 0;
         try {
             assert Files.exists(TASK_FILE)
                     : "Task save file should exist when loading task";
-            String taskString = Files.readString(TASK_FILE);
-            return Parser.parseSavedTaskData(taskString);
+            ArrayList<Task> tasks = new ArrayList<>();
+            loadedTaskCount = 0;
+            loadedNextId = readNextId(TASK_FILE);
+            CRC32C checksum = new CRC32C();
+            boolean isEscaped = readTasks(TASK_FILE, tasks, checksum, count -> loadedTaskCount = count);
+            TaskFileState fileState = TaskFileState.of(TASK_FILE, checksum);
+            bytes = fileState.getSize();
+            taskCount = tasks.size();
+            loadedTaskCount = taskCount;
+            rememberFile(fileState, tasks);
+            if (!isEscaped && bytes > 0) {
+                // Upgrade files saved before the escaped format right away
+                saveTasks(tasks, loadedNextId);
+            }
+            Metrics.setGauge(Metrics.TASK_COUNT, taskCount);
+            return tasks;
         } catch (IOException | ArrayIndexOutOfBoundsException e) {
             throw new FileCorruptedException();
+        } finally {
+            Metrics.recordLatency(Metrics.STORAGE_LOAD, System.nanoTime() - startTime);
+            event.emit(TASK_FILE.toString(), taskCount, bytes);
+        }
+    }
+
+    /**
+     * Checks whether another program has written the task file since the task manager
+     * last read or wrote it. The file is only read when its size and modification time are unchanged.
+     *
+     * @return true if the task file no longer matches what the task manager last saw
+     */
+    public static boolean isChangedExternally() {
+        TaskFileState fileState = knownFileState;
+        if (fileState == null) {
+            return false;
+        }
+        try {
+            return !fileState.matches(TASK_FILE);
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Works out the changes made to the task file by another program since the task manager
+     * last read or wrote it, so that only the tasks that differ have to be taken in.
+     * A task changed both outside and in the given tasks keeps the copy changed last.
+     * The task file as read is remembered, so the changes are not reported again.
+     * A task file that cannot be understood is copied aside first, as the next save overwrites it.
+     *
+     * @param localTasks tasks of the task list, all with an ID
+     * @return changes to be applied to the task list
+     * @throws FileCorruptedException if the task file cannot be read or understood
+     */
+    public static SyncPlan planReload(List<Task> localTasks) {
+        try {
+            List<Task> fileTasks = new ArrayList<>();
+            CRC32C checksum = new CRC32C();
+            readTasks(TASK_FILE, fileTasks, checksum);
+            TaskFileState fileState = TaskFileState.of(TASK_FILE, checksum);
+            SyncPlan plan = new SyncPlan(TASK_FILE, null);
+            plan.setNextId(readNextId(TASK_FILE));
+            Map<Integer, Long> fileHashes = new HashMap<>();
+            TaskSync.planTasks(plan, localTasks, fileTasks, fileHashes, knownHashes);
+            knownHashes = fileHashes;
+            knownFileState = fileState;
+            return plan;
+        } catch (IOException | ArrayIndexOutOfBoundsException | FileCorruptedException e) {
+            keepConflictCopy();
+            throw new FileCorruptedException();
+        }
+    }
+
+    /**
+     * Copies the task file aside, keeping an outside edit that could not be taken in
+     * rather than silently overwriting it.
+     */
+    private static void keepConflictCopy() {
+        try {
+            Files.copy(TASK_FILE, CONFLICT_FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Task file cannot be copied to " + CONFLICT_FILE);
+        }
+    }
+
+    /**
+     * Remembers the given state of the task file and the content hash of each task in it.
+     *
+     * @param fileState size, modification time and checksum of the task file
+     * @param tasks tasks in the task file
+     */
+    private static void rememberFile(TaskFileState fileState, List<Task> tasks) {
+        Map<Integer, Long> hashes = new HashMap<>();
+        for (Task task : tasks) {
+            if (task.getId() > 0) {
+                hashes.put(task.getId(), task.getContentHash());
+            }
         }
+        knownHashes = hashes;
+        knownFileState = fileState;
     }
 }
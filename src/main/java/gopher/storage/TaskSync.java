@@ -0,0 +1,259 @@
+package gopher.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.CRC32C;
+
+import gopher.exception.FileCorruptedException;
+import gopher.exception.SyncFailedException;
+import gopher.task.Task;
+
+/**
+ * Syncs a task list with another task file, such as a copy kept on another machine.
+ * Tasks are matched by stable ID and compared by content hash against a snapshot
+ * of the hashes both sides agreed on at the last sync, so each side's changes can be told apart.
+ * A task changed on one side only takes that side's copy, and a task changed differently
+ * on both sides takes the copy changed last.
+ *
+ * The snapshot also records the size, modification time and checksum of the other file after
+ * the last sync, the checksum taken as the file was read or written. If none has changed, the other file
+ * still matches the snapshot and is not parsed, and the other file is only written when the task list
+ * has changes to send.
+ */
+public class TaskSync {
+    /** Directory holding the snapshot of each synced file */
+    private static final Path SNAPSHOT_DIRECTORY = Paths.get("./task/sync");
+
+    /**
+     * Works out the changes needed to bring the given tasks and the other file in line.
+     * Neither the tasks nor the other file are changed.
+     * A missing other file is treated as empty, and is created when the sync completes.
+     *
+     * @param localTasks tasks of the task list, all with an ID
+     * @param otherFile path of the other task file
+     * @return changes to be applied to the task list
+     * @throws SyncFailedException if the other file cannot be read or understood
+     */
+    public static SyncPlan plan(List<Task> localTasks, Path otherFile) throws SyncFailedException {
+        return plan(localTasks, otherFile, SNAPSHOT_DIRECTORY);
+    }
+
+    /**
+     * Works out the changes needed to bring the given tasks and the other file in line,
+     * reading the snapshot of the last sync from the given directory.
+     *
+     * @param localTasks tasks of the task list, all with an ID
+     * @param otherFile path of the other task file
+     * @param snapshotDirectory directory holding the snapshot of each synced file
+     * @return changes to be applied to the task list
+     * @throws SyncFailedException if the other file cannot be read or understood
+     */
+    static SyncPlan plan(List<Task> localTasks, Path otherFile, Path snapshotDirectory)
+            throws SyncFailedException {
+        try {
+            Map<Integer, Long> baseHashes = new HashMap<>();
+            TaskFileState otherFileState = readSnapshot(getSnapshotFile(snapshotDirectory, otherFile), otherFile,
+                    baseHashes);
+            boolean isOtherUnchanged = otherFileState != null;
+            List<Task> otherTasks = new ArrayList<>();
+            Map<Integer, Long> otherHashes = isOtherUnchanged ? baseHashes : new HashMap<>();
+            SyncPlan plan = new SyncPlan(otherFile, snapshotDirectory);
+            if (!isOtherUnchanged && Files.exists(otherFile)) {
+                CRC32C checksum = new CRC32C();
+                TaskManager.readTasks(otherFile, otherTasks, checksum);
+                otherFileState = TaskFileState.of(otherFile, checksum);
+                plan.setNextId(TaskManager.readNextId(otherFile));
+            }
+            plan.setOtherFileState(otherFileState);
+            planTasks(plan, localTasks, otherTasks, otherHashes, baseHashes);
+            return plan;
+        } catch (IOException | FileCorruptedException | ArrayIndexOutOfBoundsException e) {
+            throw new SyncFailedException(otherFile.toString());
+        }
+    }
+
+    /**
+     * Works out the changes needed to bring the given tasks and the tasks read from
+     * another file in line, given the content hashes both sides agreed on before.
+     *
+     * @param plan plan the changes are added to
+     * @param localTasks tasks of the task list, all with an ID
+     * @param otherTasks tasks read from the other file, or none if it was not read
+     * @param otherHashes map filled with the content hash of each task read from the other file,
+     *     or already holding the hash of every task in the other file if it was not read
+     * @param baseHashes agreed content hash of each task, keyed by task ID
+     */
+    static void planTasks(SyncPlan plan, List<Task> localTasks, List<Task> otherTasks,
+            Map<Integer, Long> otherHashes, Map<Integer, Long> baseHashes) {
+        Map<Integer, Task> otherById = new HashMap<>();
+        List<Task> otherTasksWithoutId = new ArrayList<>();
+        for (Task task : otherTasks) {
+            if (task.getId() <= 0) {
+                otherTasksWithoutId.add(task);
+            } else {
+                otherById.put(task.getId(), task);
+                otherHashes.put(task.getId(), task.getContentHash());
+            }
+        }
+
+        Map<Integer, Task> localById = new HashMap<>();
+        for (Task task : localTasks) {
+            assert task.getId() > 0 : "Synced tasks should have an ID";
+            localById.put(task.getId(), task);
+        }
+        Set<Integer> ids = new TreeSet<>(localById.keySet());
+        ids.addAll(otherHashes.keySet());
+        ids.addAll(baseHashes.keySet());
+        for (int id : ids) {
+            planTask(plan, localById.get(id), otherById.get(id), otherHashes.get(id), baseHashes.get(id));
+        }
+        plan.getAddedTasks().addAll(otherTasksWithoutId);
+    }
+
+    /**
+     * Works out the change needed for the task with one ID.
+     *
+     * @param plan plan the change is added to
+     * @param local local copy of the task, or null if there is none
+     * @param other copy of the task in the other file, or null if it was not read
+     * @param otherHash content hash of the copy in the other file, or null if there is none
+     * @param baseHash content hash agreed on at the last sync, or null if the task was not synced
+     */
+    private static void planTask(SyncPlan plan, Task local, Task other, Long otherHash, Long baseHash) {
+        Long localHash = local == null ? null : local.getContentHash();
+        if (localHash == null && otherHash == null || localHash != null && localHash.equals(otherHash)) {
+            return;
+        }
+        boolean isLocalChanged = localHash == null ? baseHash != null : !localHash.equals(baseHash);
+        boolean isOtherChanged = otherHash == null ? baseHash != null : !otherHash.equals(baseHash);
+        if (baseHash == null && localHash != null && otherHash != null) {
+            // Both sides added a different task under the same ID, so keep both
+            plan.getAddedTasks().add(other);
+            plan.addSent();
+            return;
+        }
+        if (isLocalChanged && isOtherChanged) {
+            plan.addConflict();
+            boolean isOtherLater = other != null
+                    && (local == null || other.getModifiedAt() > local.getModifiedAt());
+            if (!isOtherLater && local != null) {
+                plan.addSent();
+                return;
+            }
+            isLocalChanged = false;
+        }
+        if (isLocalChanged || !isOtherChanged) {
+            plan.addSent();
+        } else if (other == null) {
+            plan.getDeletedIds().add(local.getId());
+        } else if (local == null) {
+            plan.getAddedTasks().add(other);
+        } else {
+            plan.getReplacedTasks().add(other);
+        }
+    }
+
+    /**
+     * Completes the sync once the plan has been applied to the task list,
+     * writing the merged tasks to the other file if it has to change,
+     * and recording the new snapshot.
+     *
+     * @param plan plan that was applied
+     * @param mergedTasks tasks of the task list after the plan was applied
+     * @param nextId ID to be given to the next new task of the task list
+     * @throws SyncFailedException if the other file or the snapshot cannot be written
+     */
+    public static void complete(SyncPlan plan, List<Task> mergedTasks, int nextId) throws SyncFailedException {
+        Path otherFile = plan.getOtherFile();
+        try {
+            TaskFileState otherFileState = plan.getOtherFileState();
+            if (plan.changesOtherFile() || otherFileState == null) {
+                otherFileState = TaskManager.writeTasks(otherFile, TaskFileFormat.PLAIN, mergedTasks, nextId,
+                        new HashMap<>());
+            }
+            writeSnapshot(plan.getSnapshotDirectory(), otherFile, otherFileState, mergedTasks);
+        } catch (IOException e) {
+            throw new SyncFailedException(otherFile.toString());
+        }
+    }
+
+    /**
+     * Reads the snapshot of the last sync with the other file into the given map.
+     *
+     * @param snapshotFile path of the snapshot
+     * @param otherFile path of the other task file
+     * @param baseHashes map filled with the agreed content hash of each task, keyed by task ID
+     * @return state of the other file recorded in the snapshot,
+     *     or null if the other file has changed since the snapshot was taken
+     * @throws IOException if the snapshot exists but cannot be read
+     */
+    private static TaskFileState readSnapshot(Path snapshotFile, Path otherFile, Map<Integer, Long> baseHashes)
+            throws IOException {
+        if (!Files.exists(snapshotFile)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8)) {
+            String path = reader.readLine();
+            String line = reader.readLine();
+            TaskFileState fileState = line == null ? null : TaskFileState.parse(line);
+            if (!otherFile.toAbsolutePath().normalize().toString().equals(path) || fileState == null) {
+                return null;
+            }
+            String row;
+            while ((row = reader.readLine()) != null) {
+                int separator = row.indexOf(' ');
+                baseHashes.put(Integer.parseInt(row.substring(0, separator)),
+                        Long.parseUnsignedLong(row.substring(separator + 1), 16));
+            }
+            return fileState.matches(otherFile) ? fileState : null;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            // A damaged snapshot only costs a full comparison
+            baseHashes.clear();
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot of the merged tasks and the current state of the other file.
+     *
+     * @param snapshotDirectory directory holding the snapshot of each synced file
+     * @param otherFile path of the other task file
+     * @param otherFileState state of the other file as last read or written
+     * @param mergedTasks tasks both sides now agree on
+     * @throws IOException if the snapshot cannot be written
+     */
+    private static void writeSnapshot(Path snapshotDirectory, Path otherFile, TaskFileState otherFileState,
+            List<Task> mergedTasks) throws IOException {
+        StringBuilder snapshot = new StringBuilder()
+                .append(otherFile.toAbsolutePath().normalize()).append('\n')
+                .append(otherFileState).append('\n');
+        for (Task task : mergedTasks) {
+            snapshot.append(task.getId()).append(' ')
+                    .append(Long.toHexString(task.getContentHash())).append('\n');
+        }
+        Files.createDirectories(snapshotDirectory);
+        Files.writeString(getSnapshotFile(snapshotDirectory, otherFile), snapshot, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the path of the snapshot of the last sync with the given file.
+     *
+     * @param snapshotDirectory directory holding the snapshot of each synced file
+     * @param otherFile path of the other task file
+     * @return path of the snapshot file
+     */
+    private static Path getSnapshotFile(Path snapshotDirectory, Path otherFile) {
+        int pathHash = otherFile.toAbsolutePath().normalize().toString().hashCode();
+        return snapshotDirectory.resolve(Integer.toHexString(pathHash) + ".snapshot");
+    }
+}
@@ -0,0 +1,82 @@
+package gopher.task;
+
+import java.util.List;
+
+/**
+ * Represents a summary of what needs attention: the tasks that are overdue,
+ * due today and due within the week, along with the undated and done tasks.
+ * Only the nearest few tasks of each group are kept, along with the size of the group.
+ */
+public class Agenda {
+    private final int overdueCount;
+    private final List<Task> nearestOverdue;
+    private final int todayCount;
+    private final List<Task> nearestToday;
+    private final int weekCount;
+    private final List<Task> nearestWeek;
+    private final int undatedCount;
+    private final int doneCount;
+    private final int taskCount;
+
+    /**
+     * Constructor for Agenda class.
+     *
+     * @param overdueCount number of overdue tasks
+     * @param nearestOverdue overdue tasks, the most recently due first
+     * @param todayCount number of pending tasks due later today
+     * @param nearestToday pending tasks due later today, the soonest first
+     * @param weekCount number of pending tasks due within the six days after today
+     * @param nearestWeek pending tasks due within the six days after today, the soonest first
+     * @param undatedCount number of pending tasks without a date
+     * @param doneCount number of done tasks
+     * @param taskCount number of tasks in the list
+     */
+    Agenda(int overdueCount, List<Task> nearestOverdue, int todayCount, List<Task> nearestToday,
+            int weekCount, List<Task> nearestWeek, int undatedCount, int doneCount, int taskCount) {
+        this.overdueCount = overdueCount;
+        this.nearestOverdue = nearestOverdue;
+        this.todayCount = todayCount;
+        this.nearestToday = nearestToday;
+        this.weekCount = weekCount;
+        this.nearestWeek = nearestWeek;
+        this.undatedCount = undatedCount;
+        this.doneCount = doneCount;
+        this.taskCount = taskCount;
+    }
+
+    public int getOverdueCount() {
+        return this.overdueCount;
+    }
+
+    public List<Task> getNearestOverdue() {
+        return this.nearestOverdue;
+    }
+
+    public int getTodayCount() {
+        return this.todayCount;
+    }
+
+    public List<Task> getNearestToday() {
+        return this.nearestToday;
+    }
+
+    public int getWeekCount() {
+        return this.weekCount;
+    }
+
+    public List<Task> getNearestWeek() {
+        return this.nearestWeek;
+    }
+
+    public int getUndatedCount() {
+        return this.undatedCount;
+    }
+
+    public int getDoneCount() {
+        return this.doneCount;
+    }
+
+    public int getTaskCount() {
+        return this.taskCount;
+    }
+}
@@ -0,0 +1,164 @@
+package gopher.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps running counts and heaps of the tasks of a list so that its agenda
+ * can be put together without going through every task.
+ * Pending dated tasks wait in a heap keyed by when their pending occurrence ends,
+ * which for a recurring task is its first occurrence not marked as done.
+ * When an agenda is asked for, the tasks whose key has passed move to the heap of
+ * overdue tasks, where they stay until the occurrence is marked as done,
+ * so every task crosses over at most once per occurrence.
+ * Tasks are indexed by ID, so the index stays valid when tasks move in the list.
+ */
+class AgendaIndex {
+    /** Number of days, starting today, covered by the agenda */
+    private static final int DAYS_IN_WEEK = 7;
+
+    /** Pending tasks that are not overdue, keyed by the end of their pending occurrence in epoch minutes */
+    private final TaskHeap upcoming = new TaskHeap();
+
+    /** Overdue tasks, keyed by the negated end of their pending occurrence so the most recent comes first */
+    private final TaskHeap overdue = new TaskHeap();
+
+    /** Number of pending tasks without a date */
+    private int undatedCount;
+
+    /** Number of done tasks */
+    private int doneCount;
+
+    /** Number of tasks */
+    private int taskCount;
+
+    /**
+     * Constructor for AgendaIndex which indexes the given tasks.
+     *
+     * @param tasks tasks to be indexed
+     * @param now current date and time
+     */
+    AgendaIndex(List<Task> tasks, LocalDateTime now) {
+        for (Task task : tasks) {
+            add(task, now);
+        }
+    }
+
+    /**
+     * Adds the given task to the index.
+     *
+     * @param task task to be indexed
+     * @param now current date and time
+     */
+    void add(Task task, LocalDateTime now) {
+        taskCount++;
+        if (task.isDone()) {
+            doneCount++;
+            return;
+        }
+        if (task.getPendingDueDate() == null) {
+            undatedCount++;
+            return;
+        }
+        addDated(task, now);
+    }
+
+    /**
+     * Adds the given pending dated task to the heap of upcoming or overdue tasks.
+     *
+     * @param task task to be indexed
+     * @param now current date and time
+     */
+    private void addDated(Task task, LocalDateTime now) {
+        long dueKey = toEpochMinute(task.getPendingDueDate());
+        if (dueKey < toEpochMinute(now)) {
+            overdue.add(task, -dueKey);
+        } else {
+            upcoming.add(task, dueKey);
+        }
+    }
+
+    /**
+     * Removes the given task from the index.
+     * Must be called before the status or dates of the task are changed.
+     *
+     * @param task task to be removed
+     */
+    void remove(Task task) {
+        taskCount--;
+        if (task.isDone()) {
+            doneCount--;
+        } else if (task.getPendingDueDate() == null) {
+            undatedCount--;
+        } else if (!upcoming.remove(task.getId())) {
+            overdue.remove(task.getId());
+        }
+    }
+
+    /**
+     * Puts together the agenda at the given time.
+     * Takes time depending on the number of tasks that fell due since the last agenda
+     * and the number of tasks due within the week, rather than the size of the list.
+     *
+     * @param now current date and time
+     * @param limit largest number of tasks kept in each group
+     * @return agenda of the tasks
+     */
+    Agenda getAgenda(LocalDateTime now, int limit) {
+        // Move the tasks whose occurrence ended before the current minute on
+        long nowKey = toEpochMinute(now);
+        while (upcoming.peekKey() < nowKey) {
+            addDated(upcoming.poll(), now);
+        }
+
+        LocalDateTime tomorrow = now.toLocalDate().plusDays(1).atStartOfDay();
+        long tomorrowKey = toEpochMinute(tomorrow);
+        long weekEndKey = toEpochMinute(tomorrow.plusDays(DAYS_IN_WEEK - 1));
+        List<Task> today = new ArrayList<>();
+        List<Long> todayKeys = new ArrayList<>();
+        List<Task> week = new ArrayList<>();
+        List<Long> weekKeys = new ArrayList<>();
+        upcoming.forEachBelow(weekEndKey, (task, key) -> {
+            if (key < tomorrowKey) {
+                today.add(task);
+                todayKeys.add(key);
+            } else {
+                week.add(task);
+                weekKeys.add(key);
+            }
+        });
+        return new Agenda(overdue.getSize(), overdue.getSmallest(limit),
+                today.size(), getNearest(today, todayKeys, limit),
+                week.size(), getNearest(week, weekKeys, limit),
+                undatedCount, doneCount, taskCount);
+    }
+
+    /**
+     * Gets the tasks with the smallest keys from the given group.
+     *
+     * @param tasks tasks in the group
+     * @param keys key of each task
+     * @param limit largest number of tasks wanted
+     * @return tasks ordered from the smallest key, then by ID
+     */
+    private static List<Task> getNearest(List<Task> tasks, List<Long> keys, int limit) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingLong((Integer i) -> keys.get(i))
+                .thenComparingInt(i -> tasks.get(i).getId()));
+        List<Task> nearest = new ArrayList<>();
+        for (int i = 0; i < order.size() && i < limit; i++) {
+            nearest.add(tasks.get(order.get(i)));
+        }
+        return nearest;
+    }
+
+    private static long toEpochMinute(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
@@ -0,0 +1,85 @@
+package gopher.task;
+
+import java.util.regex.Pattern;
+
+/**
+ * Finds a regular expression within texts, ignoring case, while limiting the work
+ * spent on each text.
+ * The text is handed to the regex engine through a view that counts every character
+ * read, and the match is abandoned once the count passes the budget, so a pattern that
+ * backtracks catastrophically fails quickly instead of hanging.
+ */
+class BoundedRegexMatcher {
+    /** Largest number of characters the regex engine may read from one text */
+    static final int STEP_BUDGET = 100_000;
+
+    private final Pattern pattern;
+
+    /**
+     * Thrown when matching a text runs out of budget.
+     */
+    static class BudgetExceededException extends RuntimeException {
+        BudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Constructor for BoundedRegexMatcher.
+     *
+     * @param regex regular expression to be found
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is not valid
+     */
+    BoundedRegexMatcher(String regex) {
+        this.pattern = Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    /**
+     * Checks whether the given text contains a match of the regular expression.
+     *
+     * @param text text to be searched
+     * @return true if the regular expression is found in the text
+     * @throws BudgetExceededException if matching reads more characters than the budget allows
+     */
+    boolean matches(String text) {
+        return pattern.matcher(new BudgetedText(text, new int[]{STEP_BUDGET})).find();
+    }
+
+    /**
+     * Represents a view of a text that counts down a shared budget on every character read.
+     */
+    private static class BudgetedText implements CharSequence {
+        private final CharSequence text;
+
+        /** Remaining budget, shared with the subsequences of this text */
+        private final int[] budget;
+
+        BudgetedText(CharSequence text, int[] budget) {
+            this.text = text;
+            this.budget = budget;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--budget[0] < 0) {
+                throw new BudgetExceededException();
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedText(text.subSequence(start, end), budget);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package gopher.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * Stores tasks column by column instead of as one object per task.
+ * The type, status, dates, recurrence, last done occurrence, ID, priority, name, tags and change time
+ * of the tasks are each kept in their own primitive array, dates as minutes since the epoch,
+ * and names are shared through the task name pool.
+ * Each distinct list of tags is stored once, with a bit set of the tag numbers in it,
+ * and every task with that list keeps only its position, so filtering by tag tests bits
+ * rather than comparing strings. Tag lists are kept for as long as the store.
+ *
+ * Tasks are materialized from the columns on every get, so a materialized
+ * task is a copy: changes made to it only reach the store once it is set back.
+ */
+class ColumnarTaskStore extends AbstractList<Task> implements RandomAccess {
+    private static final byte TYPE_TODO = 0;
+    private static final byte TYPE_DEADLINE = 1;
+    private static final byte TYPE_EVENT = 2;
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Number of tasks in the store */
+    private int size;
+
+    /** Type of each task */
+    private byte[] types;
+
+    /** Whether each task is done */
+    private final BitSet doneTasks = new BitSet();
+
+    /** Due date of deadlines and start date of events, in epoch minutes */
+    private long[] firstDates;
+
+    /** End date of events, in epoch minutes */
+    private long[] secondDates;
+
+    /** Recurrence rule of each task, or null if it happens only once */
+    private Recurrence[] recurrences;
+
+    /** Last done occurrence of each recurring task, or null if none is */
+    private LocalDateTime[] doneThroughDates;
+
+    /** Stable ID of each task */
+    private int[] ids;
+
+    /** Priority ordinal of each task */
+    private byte[] priorities;
+
+    /** Name of each task */
+    private String[] names;
+
+    /** Position of the tag list of each task in the tag lists, 0 if it has no tags */
+    private int[] tagListIndexes;
+
+    /** Every distinct list of tags stored, the empty list first */
+    private final ArrayList<TagList> tagLists = new ArrayList<>();
+
+    /** Position of each distinct list of tags in the tag lists */
+    private final Map<List<String>, Integer> tagListIndexByTags = new HashMap<>();
+
+    /** Number of each distinct tag stored, which is the position of its bit in the tag lists */
+    private final Map<String, Integer> tagNumbers = new HashMap<>();
+
+    /** Time each task was last changed, in epoch milliseconds */
+    private long[] modifiedTimes;
+
+    /**
+     * Default constructor for an empty ColumnarTaskStore.
+     */
+    ColumnarTaskStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor for an empty ColumnarTaskStore with room for the given number of tasks.
+     *
+     * @param capacity number of tasks the columns can hold before growing
+     */
+    ColumnarTaskStore(int capacity) {
+        int initialCapacity = Math.max(capacity, 1);
+        this.types = new byte[initialCapacity];
+        this.firstDates = new long[initialCapacity];
+        this.secondDates = new long[initialCapacity];
+        this.recurrences = new Recurrence[initialCapacity];
+        this.doneThroughDates = new LocalDateTime[initialCapacity];
+        this.ids = new int[initialCapacity];
+        this.priorities = new byte[initialCapacity];
+        this.names = new String[initialCapacity];
+        this.tagListIndexes = new int[initialCapacity];
+        this.modifiedTimes = new long[initialCapacity];
+        List<String> noTags = List.of();
+        tagLists.add(new TagList(noTags, new BitSet()));
+        tagListIndexByTags.put(noTags, 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        Task task = switch (types[index]) {
+        case TYPE_DEADLINE -> new Deadline(names[index], toDate(firstDates[index]));
+        case TYPE_EVENT -> new Event(names[index], toDate(firstDates[index]), toDate(secondDates[index]));
+        default -> new ToDo(names[index]);
+        };
+        if (doneTasks.get(index)) {
+            task.markAsDone();
+        }
+        task.recurrence = recurrences[index];
+        task.doneThrough = doneThroughDates[index];
+        if (ids[index] > 0) {
+            task.setId(ids[index]);
+        }
+        if (priorities[index] != Priority.NONE.ordinal()) {
+            task.setPriority(PRIORITIES[priorities[index]]);
+        }
+        if (tagListIndexes[index] != 0) {
+            task.setTags(tagLists.get(tagListIndexes[index]).tags);
+        }
+        task.modifiedAt = modifiedTimes[index];
+        return task;
+    }
+
+    @Override
+    public Task set(int index, Task task) {
+        Task replaced = get(index);
+        write(index, task);
+        return replaced;
+    }
+
+    /**
+     * Replaces the task at the given index without materializing the replaced task,
+     * which the task list never uses.
+     *
+     * @param index 0-based index of the task
+     * @param task task to be stored
+     */
+    void replace(int index, Task task) {
+        checkIndex(index);
+        write(index, task);
+    }
+
+    @Override
+    public void add(int index, Task task) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        ensureCapacity(size + 1);
+        shift(index, index + 1, size - index);
+        size++;
+        write(index, task);
+        modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        Task removed = get(index);
+        removeRange(index, index + 1);
+        return removed;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        shift(toIndex, fromIndex, size - toIndex);
+        int newSize = size - (toIndex - fromIndex);
+
+        // Drop the references held by the vacated slots
+        Arrays.fill(recurrences, newSize, size, null);
+        Arrays.fill(doneThroughDates, newSize, size, null);
+        Arrays.fill(names, newSize, size, null);
+        doneTasks.clear(newSize, size);
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Finds the tasks that have the priority and all the tags in the given filter.
+     * Only the priority and tag columns are scanned, tags as the bits of their tag lists,
+     * and only the matching tasks are materialized.
+     *
+     * @param filter priority and tags that matching tasks must have
+     * @return matching tasks in list order
+     */
+    ArrayList<Task> filter(TaskAttributes filter) {
+        ArrayList<Task> result = new ArrayList<>();
+        BitSet requiredTags = new BitSet();
+        for (String tag : filter.getTags()) {
+            Integer tagNumber = tagNumbers.get(tag);
+            if (tagNumber == null) {
+                return result;
+            }
+            requiredTags.set(tagNumber);
+        }
+        for (int i = 0; i < size; i++) {
+            if (filter.getPriority() != null && priorities[i] != filter.getPriority().ordinal()) {
+                continue;
+            }
+            if (hasTags(tagLists.get(tagListIndexes[i]).tagBits, requiredTags)) {
+                result.add(get(i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given tag bits include every required tag.
+     *
+     * @param tagBits bits of the tags of a task
+     * @param requiredTags bits of the tags in the filter
+     * @return true if the task has all the tags
+     */
+    private static boolean hasTags(BitSet tagBits, BitSet requiredTags) {
+        for (int i = requiredTags.nextSetBit(0); i >= 0; i = requiredTags.nextSetBit(i + 1)) {
+            if (!tagBits.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the position of the given list of tags in the tag lists, adding it if it is new.
+     *
+     * @param tags tags of a task, in order
+     * @return position of the tag list, 0 if there are no tags
+     */
+    private int getTagListIndex(Set<String> tags) {
+        if (tags.isEmpty()) {
+            return 0;
+        }
+        return tagListIndexByTags.computeIfAbsent(List.copyOf(tags), tagList -> {
+            BitSet tagBits = new BitSet();
+            for (String tag : tagList) {
+                tagBits.set(tagNumbers.computeIfAbsent(tag, key -> tagNumbers.size()));
+            }
+            tagLists.add(new TagList(tagList, tagBits));
+            return tagLists.size() - 1;
+        });
+    }
+
+    /**
+     * Writes the fields of the given task into the columns at the given index.
+     *
+     * @param index 0-based index of the task
+     * @param task task to be stored
+     */
+    private void write(int index, Task task) {
+        assert task != null : "Stored task cannot be null";
+        if (task instanceof Deadline deadline) {
+            types[index] = TYPE_DEADLINE;
+            firstDates[index] = toEpochMinute(deadline.getDueDate());
+            secondDates[index] = 0;
+        } else if (task instanceof Event event) {
+            types[index] = TYPE_EVENT;
+            firstDates[index] = toEpochMinute(event.getStartDate());
+            secondDates[index] = toEpochMinute(event.getEndDate());
+        } else {
+            types[index] = TYPE_TODO;
+            firstDates[index] = 0;
+            secondDates[index] = 0;
+        }
+        doneTasks.set(index, task.isDone());
+        recurrences[index] = task.getRecurrence();
+        doneThroughDates[index] = task.getDoneThrough();
+        ids[index] = task.getId();
+        priorities[index] = (byte) task.getPriority().ordinal();
+        names[index] = task.name;
+        tagListIndexes[index] = getTagListIndex(task.getTags());
+        modifiedTimes[index] = task.getModifiedAt();
+    }
+
+    /**
+     * Moves a block of rows within every column.
+     *
+     * @param fromIndex first row to be moved
+     * @param toIndex row the first moved row ends up at
+     * @param length number of rows to be moved
+     */
+    private void shift(int fromIndex, int toIndex, int length) {
+        if (length <= 0 || fromIndex == toIndex) {
+            return;
+        }
+        System.arraycopy(types, fromIndex, types, toIndex, length);
+        System.arraycopy(firstDates, fromIndex, firstDates, toIndex, length);
+        System.arraycopy(secondDates, fromIndex, secondDates, toIndex, length);
+        System.arraycopy(recurrences, fromIndex, recurrences, toIndex, length);
+        System.arraycopy(doneThroughDates, fromIndex, doneThroughDates, toIndex, length);
+        System.arraycopy(ids, fromIndex, ids, toIndex, length);
+        System.arraycopy(priorities, fromIndex, priorities, toIndex, length);
+        System.arraycopy(names, fromIndex, names, toIndex, length);
+        System.arraycopy(tagListIndexes, fromIndex, tagListIndexes, toIndex, length);
+        System.arraycopy(modifiedTimes, fromIndex, modifiedTimes, toIndex, length);
+
+        // BitSet has no block move, so copy the status bits in an order
+        // that does not overwrite bits before they are read
+        if (fromIndex > toIndex) {
+            for (int i = 0; i < length; i++) {
+                doneTasks.set(toIndex + i, doneTasks.get(fromIndex + i));
+            }
+        } else {
+            for (int i = length - 1; i >= 0; i--) {
+                doneTasks.set(toIndex + i, doneTasks.get(fromIndex + i));
+            }
+        }
+    }
+
+    /**
+     * Grows the columns so that they can hold at least the given number of tasks.
+     *
+     * @param minCapacity number of tasks the columns must be able to hold
+     */
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity <= types.length) {
+            return;
+        }
+        int capacity = Math.max(minCapacity, types.length + (types.length >> 1));
+        types = Arrays.copyOf(types, capacity);
+        firstDates = Arrays.copyOf(firstDates, capacity);
+        secondDates = Arrays.copyOf(secondDates, capacity);
+        recurrences = Arrays.copyOf(recurrences, capacity);
+        doneThroughDates = Arrays.copyOf(doneThroughDates, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        names = Arrays.copyOf(names, capacity);
+        tagListIndexes = Arrays.copyOf(tagListIndexes, capacity);
+        modifiedTimes = Arrays.copyOf(modifiedTimes, capacity);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static long toEpochMinute(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime toDate(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Represents a distinct list of tags shared by the tasks that have it.
+     */
+    private static class TagList {
+        private final List<String> tags;
+        private final BitSet tagBits;
+
+        private TagList(List<String> tags, BitSet tagBits) {
+            this.tags = tags;
+            this.tagBits = tagBits;
+        }
+    }
+}
@@ -23,8 +23,23 @@ public class Deadline extends Task {
         this.dueDate = Parser.parseDateString(dueDate);
     }
 
+    /**
+     * Constructor for Deadline class with an already parsed due date.
+     *
+     * @param name name of the task
+     * @param dueDate deadline of the task
+     */
+    Deadline(String name, LocalDateTime dueDate) {
+        super(name);
+        this.dueDate = dueDate;
+    }
+
+    LocalDateTime getDueDate() {
+        return this.dueDate;
+    }
+
     @Override
-    public void update(String[] tokens) throws InvalidTokenException {
+    protected void updateFields(String[] tokens) throws InvalidTokenException {
         // Parse tokens into individual task fields
         String[] parsedResult = Parser.parseUpdateDeadlineTaskCommand(tokens);
 
@@ -34,7 +49,7 @@ public class Deadline extends Task {
 
         // Set new task name
         if (!taskName.isEmpty()) {
-            this.name = taskName;
+            this.name = TaskNamePool.intern(taskName);
         }
 
         // Set new task due date
@@ -44,17 +59,20 @@ public class Deadline extends Task {
     }
 
     @Override
-    public String getSaveMessage() {
-        return String.format("D | %s | %s | %s",
-                getStatusIcon(),
-                this.name,
-                Parser.parseLocalDateTime(this.dueDate));
+    protected LocalDateTime getFirstOccurrence() {
+        return this.dueDate;
+    }
+
+    @Override
+    protected String formatSaveMessage() {
+        return "D | " + getStatusIcon()
+                + " | " + Parser.escapeSavedColumn(this.name)
+                + " | " + Parser.parseLocalDateTime(this.dueDate);
     }
 
     @Override
-    public String toString() {
-        return String.format("[D]%s (by %s)",
-                super.toString(),
-                Parser.displayDate(this.dueDate));
+    protected String formatDisplayString() {
+        return "[D]" + getDescription()
+                + " (by " + Parser.displayDate(this.dueDate) + ")";
     }
 }
@@ -1,5 +1,6 @@
 package gopher.task;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 import gopher.exception.InvalidDurationException;
@@ -27,8 +28,29 @@ public class Event extends Task {
         this.endDate = Parser.parseDateString(endDate);
     }
 
+    /**
+     * Constructor of Event class with already parsed dates
+     *
+     * @param name name of task
+     * @param startDate start date of the task
+     * @param endDate end date of the task
+     */
+    Event(String name, LocalDateTime startDate, LocalDateTime endDate) {
+        super(name);
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    LocalDateTime getStartDate() {
+        return this.startDate;
+    }
+
+    LocalDateTime getEndDate() {
+        return this.endDate;
+    }
+
     @Override
-    public void update(String[] tokens) throws InvalidTokenException,
+    protected void updateFields(String[] tokens) throws InvalidTokenException,
             InvalidDurationException {
         // Parse tokens into individual task fields
         String[] parsedResult = Parser.parseUpdateEventTaskCommand(tokens);
@@ -40,7 +62,7 @@ public class Event extends Task {
 
         // Set new task name
         if (!taskName.isEmpty()) {
-            this.name = taskName;
+            this.name = TaskNamePool.intern(taskName);
         }
 
         // Set new task start date and end date
@@ -61,19 +83,27 @@ public class Event extends Task {
     }
 
     @Override
-    public String getSaveMessage() {
-        return String.format("E | %s | %s | %s | %s",
-                getStatusIcon(),
-                this.name,
-                Parser.parseLocalDateTime(this.startDate),
-                Parser.parseLocalDateTime(this.endDate));
+    protected LocalDateTime getFirstOccurrence() {
+        return this.startDate;
+    }
+
+    @Override
+    protected Duration getOccurrenceLength() {
+        return Duration.between(startDate, endDate);
+    }
+
+    @Override
+    protected String formatSaveMessage() {
+        return "E | " + getStatusIcon()
+                + " | " + Parser.escapeSavedColumn(this.name)
+                + " | " + Parser.parseLocalDateTime(this.startDate)
+                + " | " + Parser.parseLocalDateTime(this.endDate);
     }
 
     @Override
-    public String toString() {
-        return String.format("[E]%s (from %s to %s)",
-                super.toString(),
-                Parser.displayDate(this.startDate),
-                Parser.displayDate(this.endDate));
+    protected String formatDisplayString() {
+        return "[E]" + getDescription()
+                + " (from " + Parser.displayDate(this.startDate)
+                + " to " + Parser.displayDate(this.endDate) + ")";
     }
 }
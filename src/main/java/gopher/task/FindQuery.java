@@ -0,0 +1,56 @@
+package gopher.task;
+
+import java.util.function.Predicate;
+import java.util.regex.PatternSyntaxException;
+
+import gopher.exception.InvalidFindPatternException;
+
+/**
+ * Represents what a find command looks for.
+ * The keyword is taken as exact text by default, and as a regular expression
+ * only when the --regex option is given.
+ */
+public class FindQuery {
+    private final String keyword;
+    private final boolean isRegex;
+
+    /**
+     * Constructor for FindQuery class.
+     *
+     * @param keyword text or regular expression to be found
+     * @param isRegex whether the keyword is a regular expression
+     */
+    public FindQuery(String keyword, boolean isRegex) {
+        this.keyword = keyword;
+        this.isRegex = isRegex;
+    }
+
+    public String getKeyword() {
+        return this.keyword;
+    }
+
+    public boolean isRegex() {
+        return this.isRegex;
+    }
+
+    /**
+     * Creates the check of whether a task's text contains the keyword, ignoring case.
+     * Regular expressions are checked with a budget per text, and a check that runs
+     * out of budget throws BoundedRegexMatcher.BudgetExceededException.
+     *
+     * @return check of the text of a task
+     * @throws InvalidFindPatternException if the keyword is not a valid regular expression
+     */
+    Predicate<String> createMatcher() throws InvalidFindPatternException {
+        if (!isRegex) {
+            LiteralMatcher matcher = new LiteralMatcher(keyword);
+            return matcher::matches;
+        }
+        try {
+            BoundedRegexMatcher matcher = new BoundedRegexMatcher(keyword);
+            return matcher::matches;
+        } catch (PatternSyntaxException e) {
+            throw new InvalidFindPatternException(keyword);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package gopher.task;
+
+import java.time.temporal.ChronoUnit;
+
+import gopher.exception.InvalidTaskAttributeException;
+
+/**
+ * How often a recurring task repeats.
+ * @see #DAILY
+ * @see #WEEKLY
+ * @see #MONTHLY
+ */
+public enum Frequency {
+    /**
+     * Repeats every day
+     */
+    DAILY(ChronoUnit.DAYS, "day"),
+    /**
+     * Repeats every week on the same weekday
+     */
+    WEEKLY(ChronoUnit.WEEKS, "week"),
+    /**
+     * Repeats every month on the same day of the month,
+     * or the last day of shorter months
+     */
+    MONTHLY(ChronoUnit.MONTHS, "month");
+
+    private final ChronoUnit unit;
+    private final String period;
+
+    Frequency(ChronoUnit unit, String period) {
+        this.unit = unit;
+        this.period = period;
+    }
+
+    /**
+     * Parses the frequency from user input or save file.
+     * Accepts full names as well as the first letter, in any case.
+     *
+     * @param value frequency given by the user, e.g. weekly or w
+     * @return frequency represented by the value
+     * @throws InvalidTaskAttributeException if value is not a frequency
+     */
+    public static Frequency of(String value) throws InvalidTaskAttributeException {
+        for (Frequency frequency : values()) {
+            if (frequency.getLabel().equalsIgnoreCase(value)
+                    || frequency.getLabel().substring(0, 1).equalsIgnoreCase(value)) {
+                return frequency;
+            }
+        }
+        throw new InvalidTaskAttributeException("/every", value);
+    }
+
+    /**
+     * Gets the label of the frequency as given by the user and in the save file.
+     *
+     * @return lower case name of the frequency
+     */
+    public String getLabel() {
+        return name().toLowerCase();
+    }
+
+    ChronoUnit getUnit() {
+        return this.unit;
+    }
+
+    String getPeriod() {
+        return this.period;
+    }
+}
@@ -0,0 +1,134 @@
+package gopher.task;
+
+import gopher.exception.InvalidPageNumberException;
+
+/**
+ * Represents the options given to a list command, such as
+ * which page of the task list to show, how many tasks each page holds,
+ * which priority and tags the listed tasks must have and how they are sorted.
+ */
+public class ListQuery {
+    /** Number of tasks shown on each page when no page size is given */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** 1-based page number to be shown */
+    private final int page;
+
+    /** Maximum number of tasks shown on each page */
+    private final int pageSize;
+
+    /** Priority and tags that listed tasks must have */
+    private final TaskAttributes filter;
+
+    /** Order the tasks are listed in, or null to list them in list order */
+    private final SortOrder sortOrder;
+
+    /**
+     * Constructor for ListQuery class.
+     *
+     * @param page 1-based page number to be shown
+     * @param pageSize maximum number of tasks on each page
+     */
+    public ListQuery(int page, int pageSize) {
+        this(page, pageSize, new TaskAttributes());
+    }
+
+    /**
+     * Constructor for ListQuery class that only lists tasks matching the filter.
+     *
+     * @param page 1-based page number to be shown
+     * @param pageSize maximum number of tasks on each page
+     * @param filter priority and tags that listed tasks must have
+     */
+    public ListQuery(int page, int pageSize, TaskAttributes filter) {
+        this(page, pageSize, filter, null);
+    }
+
+    /**
+     * Constructor for ListQuery class that lists tasks matching the filter in the given order.
+     *
+     * @param page 1-based page number to be shown
+     * @param pageSize maximum number of tasks on each page
+     * @param filter priority and tags that listed tasks must have
+     * @param sortOrder order the tasks are listed in, or null for list order
+     */
+    public ListQuery(int page, int pageSize, TaskAttributes filter, SortOrder sortOrder) {
+        assert page > 0 : "Page number should be positive";
+        assert pageSize > 0 : "Page size should be positive";
+        this.page = page;
+        this.pageSize = pageSize;
+        this.filter = filter;
+        this.sortOrder = sortOrder;
+    }
+
+    /**
+     * Gets the query that shows the first page with the default page size.
+     *
+     * @return default list query
+     */
+    public static ListQuery ofDefault() {
+        return new ListQuery(1, DEFAULT_PAGE_SIZE);
+    }
+
+    public int getPage() {
+        return this.page;
+    }
+
+    public int getPageSize() {
+        return this.pageSize;
+    }
+
+    public TaskAttributes getFilter() {
+        return this.filter;
+    }
+
+    public SortOrder getSortOrder() {
+        return this.sortOrder;
+    }
+
+    /**
+     * Checks whether only some of the tasks should be listed.
+     *
+     * @return true if a priority or tag filter is given
+     */
+    public boolean hasFilter() {
+        return !filter.isEmpty();
+    }
+
+    /**
+     * Gets the number of pages needed to show the given number of tasks.
+     * An empty list still has a single (empty) page.
+     *
+     * @param size number of tasks to be paged
+     * @return number of pages
+     */
+    public int getPageCount(int size) {
+        return Math.max(1, (size + pageSize - 1) / pageSize);
+    }
+
+    /**
+     * Gets the 0-based index of the first task on the requested page.
+     *
+     * @param size number of tasks to be paged
+     * @return index of the first task on the page
+     * @throws InvalidPageNumberException if the page does not exist
+     */
+    public int getFromIndex(int size) throws InvalidPageNumberException {
+        int pageCount = getPageCount(size);
+        if (page > pageCount) {
+            throw new InvalidPageNumberException(page, pageCount);
+        }
+        return (page - 1) * pageSize;
+    }
+
+    /**
+     * Gets the 0-based index after the last task on the requested page.
+     *
+     * @param size number of tasks to be paged
+     * @return exclusive end index of the page
+     * @throws InvalidPageNumberException if the page does not exist
+     */
+    public int getToIndex(int size) throws InvalidPageNumberException {
+        return Math.min(size, getFromIndex(size) + pageSize);
+    }
+}
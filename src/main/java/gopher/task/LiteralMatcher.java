@@ -0,0 +1,77 @@
+package gopher.task;
+
+import java.util.Arrays;
+
+/**
+ * Finds a keyword within texts, ignoring case, using the Boyer-Moore-Horspool algorithm.
+ * The keyword is compared from its last character, and a mismatch lets the search
+ * skip ahead by up to the whole keyword length, so most of the text is never looked at.
+ * Texts are compared character by character, so no lower case copy of them is made.
+ */
+class LiteralMatcher {
+    /** Characters below this value have their own entry in the skip table */
+    private static final int TABLE_SIZE = 128;
+
+    /** Lower case keyword */
+    private final char[] keyword;
+
+    /** Distance to skip when the text character under the end of the keyword is a given ASCII character */
+    private final int[] skips = new int[TABLE_SIZE];
+
+    /**
+     * Constructor for LiteralMatcher.
+     *
+     * @param keyword keyword to be found
+     */
+    LiteralMatcher(String keyword) {
+        this.keyword = keyword.toLowerCase().toCharArray();
+        int length = this.keyword.length;
+        Arrays.fill(skips, Math.max(1, length));
+        for (int i = 0; i < length - 1; i++) {
+            char c = this.keyword[i];
+            if (c < TABLE_SIZE) {
+                skips[c] = length - 1 - i;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the given text contains the keyword, ignoring case.
+     *
+     * @param text text to be searched
+     * @return true if the keyword is found in the text
+     */
+    boolean matches(CharSequence text) {
+        int length = keyword.length;
+        int last = length - 1;
+        int end = last;
+        while (end < text.length()) {
+            int i = last;
+            while (i >= 0 && Character.toLowerCase(text.charAt(end - last + i)) == keyword[i]) {
+                i--;
+            }
+            if (i < 0) {
+                return true;
+            }
+            char c = Character.toLowerCase(text.charAt(end));
+            end += c < TABLE_SIZE ? skips[c] : getSkip(c);
+        }
+        return length == 0;
+    }
+
+    /**
+     * Gets the distance to skip for a non-ASCII character under the end of the keyword.
+     *
+     * @param c lower case character
+     * @return distance to skip
+     */
+    private int getSkip(char c) {
+        int last = keyword.length - 1;
+        for (int i = last - 1; i >= 0; i--) {
+            if (keyword[i] == c) {
+                return last - i;
+            }
+        }
+        return keyword.length;
+    }
+}
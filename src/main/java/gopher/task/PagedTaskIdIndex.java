@@ -0,0 +1,47 @@
+package gopher.task;
+
+import java.util.List;
+
+import gopher.storage.PagedTaskStore;
+
+/**
+ * Maps the stable ID of each task to its current position in a paged store,
+ * and hands out IDs to tasks that do not have one yet.
+ * The store already keeps the position of each task by ID, so nothing is held in memory
+ * and nothing is read when the index is created, however many tasks the store holds.
+ */
+class PagedTaskIdIndex extends TaskIdIndex {
+    private final PagedTaskStore store;
+
+    /**
+     * Constructor for PagedTaskIdIndex which looks up positions in the given store,
+     * handing out IDs from the next ID recorded there.
+     * Every task in the store already has an ID of its own.
+     *
+     * @param store paged store holding the tasks
+     */
+    PagedTaskIdIndex(PagedTaskStore store) {
+        super(List.of(), store.getNextId());
+        this.store = store;
+    }
+
+    @Override
+    void add(Task task, int index) {
+        assignId(task);
+    }
+
+    @Override
+    void move(int id, int index) {
+        // The store moves the position of a task along with the task
+    }
+
+    @Override
+    void remove(int id) {
+        // The store forgets the position of a task when the task is removed
+    }
+
+    @Override
+    int getIndex(int id) {
+        return store.getIndexOf(id);
+    }
+}
@@ -0,0 +1,56 @@
+package gopher.task;
+
+import gopher.exception.InvalidTaskAttributeException;
+
+/**
+ * Priority levels that can be given to a task, from lowest to highest.
+ * @see #NONE
+ * @see #LOW
+ * @see #MEDIUM
+ * @see #HIGH
+ */
+public enum Priority {
+    /**
+     * No priority given
+     */
+    NONE,
+    /**
+     * Low priority
+     */
+    LOW,
+    /**
+     * Medium priority
+     */
+    MEDIUM,
+    /**
+     * High priority
+     */
+    HIGH;
+
+    /**
+     * Parses the priority from user input or save file.
+     * Accepts full names as well as the first letter, in any case.
+     *
+     * @param value priority given by the user, e.g. high or h
+     * @return priority represented by the value
+     * @throws InvalidTaskAttributeException if value is not a priority
+     */
+    public static Priority of(String value) throws InvalidTaskAttributeException {
+        for (Priority priority : values()) {
+            if (priority.getLabel().equalsIgnoreCase(value)
+                    || priority.getLabel().substring(0, 1).equalsIgnoreCase(value)) {
+                return priority;
+            }
+        }
+        throw new InvalidTaskAttributeException("/p", value);
+    }
+
+    /**
+     * Gets the label of the priority as shown to the user and in the save file.
+     *
+     * @return lower case name of the priority
+     */
+    public String getLabel() {
+        return name().toLowerCase();
+    }
+}
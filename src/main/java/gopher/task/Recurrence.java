@@ -0,0 +1,135 @@
+package gopher.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Represents the rule of a recurring task: how often it repeats and the last date it may repeat on.
+ * The rule only stores the frequency and end date, and the occurrences are
+ * computed from the first date of the task when they are asked for,
+ * so a recurring task costs the same however many times it repeats.
+ * The n-th occurrence is always computed from the first date rather than
+ * from the previous occurrence, so monthly tasks do not drift after short months.
+ */
+public class Recurrence {
+    private static final DateTimeFormatter UNTIL_TEXT_FORMAT =
+            DateTimeFormatter.ofPattern("MMM dd yyyy");
+
+    private final Frequency frequency;
+
+    /** Last date an occurrence may fall on */
+    private final LocalDate until;
+
+    /**
+     * Constructor for Recurrence.
+     *
+     * @param frequency how often the task repeats
+     * @param until last date an occurrence may fall on
+     */
+    public Recurrence(Frequency frequency, LocalDate until) {
+        assert frequency != null && until != null : "Recurrence needs a frequency and an end date";
+        this.frequency = frequency;
+        this.until = until;
+    }
+
+    public Frequency getFrequency() {
+        return this.frequency;
+    }
+
+    public LocalDate getUntil() {
+        return this.until;
+    }
+
+    /**
+     * Gets the occurrence with the given number, counting the first date as occurrence 0.
+     *
+     * @param first first date of the task
+     * @param n number of the occurrence
+     * @return date of the occurrence
+     */
+    public LocalDateTime getOccurrence(LocalDateTime first, long n) {
+        return first.plus(n, frequency.getUnit());
+    }
+
+    /**
+     * Gets the latest occurrence of the task before the given date.
+     *
+     * @param first first date of the task
+     * @param date date the occurrence must be before
+     * @return date of the occurrence, or null if the first date is not before the given date
+     */
+    public LocalDateTime getOccurrenceBefore(LocalDateTime first, LocalDateTime date) {
+        long n = date.isAfter(first) ? frequency.getUnit().between(first, date) : 0;
+        while (n >= 0 && !getOccurrence(first, n).isBefore(date)) {
+            n--;
+        }
+        return n < 0 ? null : getOccurrence(first, n);
+    }
+
+    /**
+     * Gets the last occurrence of the task.
+     * The first date always counts as an occurrence, even if it is after the end date.
+     *
+     * @param first first date of the task
+     * @return date of the last occurrence
+     */
+    public LocalDateTime getLastOccurrence(LocalDateTime first) {
+        return getOccurrence(first, getLastOccurrenceNumber(first));
+    }
+
+    /**
+     * Gets the occurrences of the task between the given dates, both inclusive.
+     * The first occurrence in range is found in constant time and
+     * the rest are generated lazily as the stream is consumed.
+     *
+     * @param first first date of the task
+     * @param from earliest date of the occurrences wanted
+     * @param to latest date of the occurrences wanted
+     * @return ordered stream of the occurrences within the range
+     */
+    public Stream<LocalDateTime> getOccurrences(LocalDateTime first, LocalDateTime from, LocalDateTime to) {
+        long n = from.isAfter(first) ? frequency.getUnit().between(first, from) : 0;
+        while (getOccurrence(first, n).isBefore(from)) {
+            n++;
+        }
+        long lastNumber = getLastOccurrenceNumber(first);
+        return LongStream.rangeClosed(n, lastNumber)
+                .mapToObj(k -> getOccurrence(first, k))
+                .takeWhile(occurrence -> !occurrence.isAfter(to));
+    }
+
+    /**
+     * Gets the number of the last occurrence that falls on or before the end date.
+     *
+     * @param first first date of the task
+     * @return number of the last occurrence, 0 if only the first date counts
+     */
+    private long getLastOccurrenceNumber(LocalDateTime first) {
+        if (!until.isAfter(first.toLocalDate())) {
+            return 0;
+        }
+        long n = frequency.getUnit().between(first, until.atTime(LocalTime.MAX));
+        while (n > 0 && getOccurrence(first, n).toLocalDate().isAfter(until)) {
+            n--;
+        }
+        return n;
+    }
+
+    /**
+     * Gets the save file representation of the rule.
+     *
+     * @return frequency and end date, e.g. weekly:2025-06-30
+     */
+    public String getSaveString() {
+        return frequency.getLabel() + ":" + until;
+    }
+
+    @Override
+    public String toString() {
+        return "every " + frequency.getPeriod() + " until " + until.format(UNTIL_TEXT_FORMAT);
+    }
+}
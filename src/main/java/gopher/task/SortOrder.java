@@ -0,0 +1,124 @@
+package gopher.task;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import gopher.exception.InvalidListOptionException;
+
+/**
+ * Order in which a list command shows the tasks.
+ * Each task is given a primitive sort key, compared as an unsigned number,
+ * so that sorted indexes compare tasks without touching their date objects.
+ * @see #DUE
+ * @see #START
+ * @see #NAME
+ * @see #STATUS
+ */
+public enum SortOrder {
+    /**
+     * Earliest due date first, taking the end of events as their due date,
+     * with undated tasks last
+     */
+    DUE("due date"),
+    /**
+     * Earliest start date first, taking the due date of deadlines as their start,
+     * with undated tasks last
+     */
+    START("start date"),
+    /**
+     * Alphabetical order of the names, ignoring case
+     */
+    NAME("name"),
+    /**
+     * Pending tasks before done tasks
+     */
+    STATUS("status");
+
+    /** Sort key of tasks without a date, placed after every dated task */
+    private static final long NO_DATE = -1L;
+
+    /** Number of leading name characters packed into the key of the name order */
+    private static final int NAME_KEY_LENGTH = 4;
+
+    private final String description;
+
+    SortOrder(String description) {
+        this.description = description;
+    }
+
+    /**
+     * Parses the sort order of a list command.
+     *
+     * @param value sort order given by the user, e.g. due
+     * @return sort order represented by the value
+     * @throws InvalidListOptionException if value is not a sort order
+     */
+    public static SortOrder of(String value) throws InvalidListOptionException {
+        for (SortOrder order : values()) {
+            if (order.name().equalsIgnoreCase(value)) {
+                return order;
+            }
+        }
+        throw new InvalidListOptionException(value);
+    }
+
+    /**
+     * Gets what the order sorts by, as shown to the user.
+     *
+     * @return description of the order, e.g. due date
+     */
+    public String getDescription() {
+        return this.description;
+    }
+
+    /**
+     * Gets the sort key of the given task in this order.
+     * Keys compare as unsigned numbers, and tasks with equal keys are ordered
+     * by name (in the name order only) and then by ID.
+     *
+     * @param task task to get the key of
+     * @return unsigned sort key of the task
+     */
+    long getKey(Task task) {
+        return switch (this) {
+        case DUE -> task instanceof Deadline deadline ? toKey(deadline.getDueDate())
+                : task instanceof Event event ? toKey(event.getEndDate())
+                : NO_DATE;
+        case START -> task instanceof Deadline deadline ? toKey(deadline.getDueDate())
+                : task instanceof Event event ? toKey(event.getStartDate())
+                : NO_DATE;
+        case NAME -> toNameKey(task.name);
+        case STATUS -> task.isDone() ? 1 : 0;
+        default -> throw new AssertionError(this);
+        };
+    }
+
+    /**
+     * Converts the given date into a key, flipping the sign bit of its epoch minute
+     * so that dates before 1970 still come first when compared as unsigned numbers.
+     *
+     * @param date date to be converted
+     * @return unsigned sort key of the date
+     */
+    private static long toKey(LocalDateTime date) {
+        return Math.floorDiv(date.toEpochSecond(ZoneOffset.UTC), 60) ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Packs the first characters of the lower case name into a key,
+     * so that most names are ordered without comparing the strings.
+     *
+     * @param name name of the task
+     * @return unsigned sort key of the name
+     */
+    private static long toNameKey(String name) {
+        long key = 0;
+        for (int i = 0; i < NAME_KEY_LENGTH; i++) {
+            key <<= Character.SIZE;
+            if (i < name.length()) {
+                key |= Character.toLowerCase(name.charAt(i));
+            }
+        }
+        return key;
+    }
+}
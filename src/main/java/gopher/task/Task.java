@@ -1,7 +1,16 @@
 package gopher.task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
 import gopher.exception.EmptyTaskDescriptionException;
 import gopher.exception.InvalidDurationException;
+import gopher.exception.InvalidTaskAttributeException;
 import gopher.exception.InvalidTokenException;
 import gopher.exception.MissingTokenException;
 import gopher.exception.UnknownCommandException;
@@ -12,20 +21,48 @@ import gopher.parser.Parser;
  */
 public abstract class Task {
 
+    /** Stable ID of the task, 0 until the task joins a task list */
+    protected int id;
+
     /** Name of the Task */
     protected String name;
 
     /** Whether the task is done */
     protected boolean isDone;
 
+    /** Priority of the task */
+    protected Priority priority = Priority.NONE;
+
+    /** Tags of the task in the order they were given */
+    protected Set<String> tags = new LinkedHashSet<>();
+
+    /** Recurrence rule of the task, or null if the task happens only once */
+    protected Recurrence recurrence;
+
+    /**
+     * Date of the last occurrence of a recurring task that is done, or null if none is.
+     * The occurrences up to it are done, and the next one is pending.
+     */
+    protected LocalDateTime doneThrough;
+
+    /** Time the task was last changed in a task list, in epoch milliseconds, or 0 if unknown */
+    protected long modifiedAt;
+
+    /** Cached display string of the task, cleared whenever the task changes */
+    private String displayString;
+
+    /** Cached save string of the task, cleared whenever the task changes */
+    private String saveString;
+
     /**
      * Constructor for abstract class Task.
      * Only to be used by the subclasses.
+     * The name is taken from the name pool, so tasks with equal names share it.
      *
      * @param name name of the task
      */
     public Task(String name) {
-        this.name = name;
+        this.name = TaskNamePool.intern(name);
         this.isDone = false;
     }
 
@@ -47,32 +84,386 @@ public abstract class Task {
 
     /**
      * Updates the relevant detail in the specified task.
+     * The cached display and save strings are cleared afterwards,
+     * even if the update is only partially applied.
+     *
+     * @param tokens tokens within the given update task command
+     * @throws InvalidTokenException if an invalid token exists in the given command
+     */
+    public void update(String[] tokens) throws InvalidTokenException,
+            InvalidDurationException {
+        try {
+            updateFields(tokens);
+        } finally {
+            invalidateCache();
+        }
+    }
+
+    /**
+     * Updates the fields specific to the task type based on the given tokens.
      *
      * @param tokens tokens within the given update task command
      * @throws InvalidTokenException if an invalid token exists in the given command
      */
-    public abstract void update(String[] tokens) throws InvalidTokenException,
+    protected abstract void updateFields(String[] tokens) throws InvalidTokenException,
             InvalidDurationException;
 
     /**
      * Gets the save file message representation of this task.
+     * The message is only formatted again after the task has changed.
+     *
+     * @return save string format of the task
+     */
+    public String getSaveMessage() {
+        if (saveString == null) {
+            saveString = formatSaveMessage() + formatSavedAttributes()
+                    + (modifiedAt > 0 ? " | at:" + modifiedAt : "");
+        }
+        return saveString;
+    }
+
+    /**
+     * Gets a 64-bit FNV-1a hash of the saved content of the task, leaving out
+     * when the task was last changed, so that equal tasks have equal hashes
+     * whenever they were changed.
+     *
+     * @return hash of the saved content of the task
+     */
+    public long getContentHash() {
+        String content = getSaveMessage();
+        int end = modifiedAt > 0 ? content.lastIndexOf(" | at:") : content.length();
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < end; i++) {
+            hash = (hash ^ content.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Formats the ID, recurrence, priority and tags as extra columns of the save file message.
+     * Columns are only written when the attribute is set, so tasks without
+     * attributes are saved exactly as before.
+     *
+     * @return extra save file columns, or empty string if there is none
+     */
+    private String formatSavedAttributes() {
+        StringBuilder attributes = new StringBuilder();
+        if (id > 0) {
+            attributes.append(" | id:").append(id);
+        }
+        if (recurrence != null) {
+            attributes.append(" | every:").append(recurrence.getSaveString());
+        }
+        if (doneThrough != null) {
+            attributes.append(" | done:").append(Parser.parseLocalDateTime(doneThrough));
+        }
+        if (priority != Priority.NONE) {
+            attributes.append(" | p:").append(priority.getLabel());
+        }
+        if (!tags.isEmpty()) {
+            attributes.append(" | tags:").append(Parser.escapeSavedColumn(String.join(",", tags)));
+        }
+        return attributes.toString();
+    }
+
+    /**
+     * Formats the recurrence, priority and tags to be shown after the task details.
+     *
+     * @return recurrence, priority and tags of the task, or empty string if there is none
+     */
+    private String formatDisplayedAttributes() {
+        if (recurrence == null && priority == Priority.NONE && tags.isEmpty()) {
+            return "";
+        }
+        StringBuilder attributes = new StringBuilder();
+        if (recurrence != null) {
+            attributes.append(" (").append(recurrence);
+            LocalDateTime pendingOccurrence = getPendingOccurrence();
+            if (doneThrough != null && pendingOccurrence != null && !isDone) {
+                attributes.append(", next ").append(Parser.displayDate(pendingOccurrence));
+            }
+            attributes.append(')');
+        }
+        if (priority != Priority.NONE) {
+            attributes.append(" !").append(priority.getLabel());
+        }
+        for (String tag : tags) {
+            attributes.append(" #").append(tag);
+        }
+        return attributes.toString();
+    }
+
+    /**
+     * Formats the save file message representation of this task.
      *
      * @return save string format of the task
      */
-    public abstract String getSaveMessage();
+    protected abstract String formatSaveMessage();
+
+    /**
+     * Formats the display representation of this task.
+     *
+     * @return display string of the task
+     */
+    protected abstract String formatDisplayString();
+
+    /**
+     * Clears the cached display and save strings of the task.
+     * Must be called whenever a field shown in either string changes.
+     */
+    protected void invalidateCache() {
+        this.displayString = null;
+        this.saveString = null;
+    }
 
     /**
      * Marks the given task as done.
+     * Only the pending occurrence of a recurring task is marked as done, and the occurrence
+     * after it becomes pending, so the task is only done once its last occurrence is.
      */
     public void markAsDone() {
-        this.isDone = true;
+        LocalDateTime pendingOccurrence = recurrence == null ? null : getPendingOccurrence();
+        if (pendingOccurrence != null) {
+            this.doneThrough = pendingOccurrence;
+        }
+        this.isDone = pendingOccurrence == null || !pendingOccurrence.isBefore(getLastOccurrence());
+        invalidateCache();
     }
 
     /**
      * Marks the given task as not done.
+     * Only the last done occurrence of a recurring task is marked as not done,
+     * which makes it the pending occurrence again.
      */
     public void markAsNotDone() {
         this.isDone = false;
+        if (doneThrough != null) {
+            this.doneThrough = recurrence == null
+                    ? null
+                    : recurrence.getOccurrenceBefore(getFirstOccurrence(), doneThrough);
+        }
+        invalidateCache();
+    }
+
+    public LocalDateTime getDoneThrough() {
+        return this.doneThrough;
+    }
+
+    /**
+     * Sets the date of the last done occurrence of a recurring task, as restored from the save file.
+     *
+     * @param doneThrough date of the last done occurrence, or null if none is done
+     */
+    public void setDoneThrough(LocalDateTime doneThrough) {
+        this.doneThrough = doneThrough;
+        invalidateCache();
+    }
+
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Sets the stable ID of the task.
+     * IDs are handed out by the task list, or restored from the save file.
+     *
+     * @param id positive ID of the task
+     */
+    public void setId(int id) {
+        assert id > 0 : "Task ID should be positive";
+        this.id = id;
+        invalidateCache();
+    }
+
+    public Priority getPriority() {
+        return this.priority;
+    }
+
+    /**
+     * Sets the priority of the task.
+     *
+     * @param priority new priority of the task
+     */
+    public void setPriority(Priority priority) {
+        assert priority != null : "Priority cannot be null";
+        this.priority = priority;
+        invalidateCache();
+    }
+
+    /**
+     * Gets the tags of the task.
+     *
+     * @return read-only view of the tags in the order they were given
+     */
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(this.tags);
+    }
+
+    /**
+     * Checks whether the task has the given tag.
+     *
+     * @param tag normalized tag to be checked
+     * @return true if the task has the tag
+     */
+    public boolean hasTag(String tag) {
+        return this.tags.contains(tag);
+    }
+
+    /**
+     * Replaces the tags of the task with the given tags.
+     *
+     * @param tags normalized tags of the task
+     */
+    public void setTags(Collection<String> tags) {
+        this.tags = new LinkedHashSet<>(tags);
+        invalidateCache();
+    }
+
+    public Recurrence getRecurrence() {
+        return this.recurrence;
+    }
+
+    public long getModifiedAt() {
+        return this.modifiedAt;
+    }
+
+    /**
+     * Sets the time the task was last changed, which decides which copy of a task
+     * is kept when two task files changed it differently.
+     *
+     * @param modifiedAt time of the last change in epoch milliseconds
+     */
+    public void setModifiedAt(long modifiedAt) {
+        this.modifiedAt = modifiedAt;
+        invalidateCache();
+    }
+
+    /**
+     * Makes the task repeat according to the given rule, starting from its first date.
+     *
+     * @param recurrence recurrence rule of the task
+     * @throws InvalidTaskAttributeException if the task has no date to repeat from
+     */
+    public void setRecurrence(Recurrence recurrence) throws InvalidTaskAttributeException {
+        if (getFirstOccurrence() == null) {
+            throw new InvalidTaskAttributeException("/every", recurrence.getFrequency().getLabel());
+        }
+        this.recurrence = recurrence;
+        invalidateCache();
+    }
+
+    /**
+     * Gets the date of the first occurrence of the task, which is
+     * the due date of a deadline and the start date of an event.
+     *
+     * @return date of the first occurrence, or null if the task has no date
+     */
+    protected LocalDateTime getFirstOccurrence() {
+        return null;
+    }
+
+    /**
+     * Gets the date of the last occurrence of the task.
+     *
+     * @return date of the last occurrence, or null if the task has no date
+     */
+    protected LocalDateTime getLastOccurrence() {
+        LocalDateTime first = getFirstOccurrence();
+        if (first == null || recurrence == null) {
+            return first;
+        }
+        return recurrence.getLastOccurrence(first);
+    }
+
+    /**
+     * Gets how long each occurrence of the task lasts, which is zero except for events.
+     *
+     * @return length of an occurrence
+     */
+    protected Duration getOccurrenceLength() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * Gets the first occurrence of the task that is not done,
+     * which is the only occurrence of a task that does not recur.
+     *
+     * @return due or start date of the pending occurrence, or null if the task has no date
+     *     or every occurrence is done
+     */
+    LocalDateTime getPendingOccurrence() {
+        if (doneThrough == null) {
+            return getFirstOccurrence();
+        }
+        return getPendingOccurrences(doneThrough, LocalDateTime.MAX).findFirst().orElse(null);
+    }
+
+    /**
+     * Gets the time the pending occurrence of the task ends,
+     * which is when the task becomes overdue if the occurrence is not done by then.
+     *
+     * @return end of the pending occurrence, or null if the task has no date or every occurrence is done
+     */
+    public LocalDateTime getPendingDueDate() {
+        LocalDateTime pendingOccurrence = getPendingOccurrence();
+        return pendingOccurrence == null ? null : pendingOccurrence.plus(getOccurrenceLength());
+    }
+
+    /**
+     * Gets the occurrences of the task between the given dates, both inclusive.
+     * Occurrences of a recurring task are generated lazily, so only those
+     * that are consumed are ever computed.
+     *
+     * @param from earliest date of the occurrences wanted
+     * @param to latest date of the occurrences wanted
+     * @return ordered stream of the due or start dates of the occurrences within the range
+     */
+    public Stream<LocalDateTime> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime first = getFirstOccurrence();
+        if (first == null) {
+            return Stream.empty();
+        }
+        if (recurrence != null) {
+            return recurrence.getOccurrences(first, from, to);
+        }
+        return first.isBefore(from) || first.isAfter(to) ? Stream.empty() : Stream.of(first);
+    }
+
+    /**
+     * Gets the occurrences of the task between the given dates that are not done, both inclusive.
+     *
+     * @param from earliest date of the occurrences wanted
+     * @param to latest date of the occurrences wanted
+     * @return ordered stream of the due or start dates of the pending occurrences within the range
+     */
+    public Stream<LocalDateTime> getPendingOccurrences(LocalDateTime from, LocalDateTime to) {
+        if (isDone) {
+            return Stream.empty();
+        }
+        if (doneThrough != null && !from.isAfter(doneThrough)) {
+            return getOccurrences(doneThrough.plusNanos(1), to);
+        }
+        return getOccurrences(from, to);
+    }
+
+    /**
+     * Checks whether an occurrence of the task is still not done after its due time,
+     * which for an event is the time it ends.
+     * Tasks without a due time are never overdue.
+     *
+     * @param now current date and time
+     * @return true if the task is overdue
+     */
+    public boolean isOverdue(LocalDateTime now) {
+        if (isDone) {
+            return false;
+        }
+        LocalDateTime pendingDueDate = getPendingDueDate();
+        return pendingDueDate != null && pendingDueDate.isBefore(now);
+    }
+
+    public boolean isDone() {
+        return this.isDone;
     }
 
     /**
@@ -84,10 +475,21 @@ public abstract class Task {
         return isDone ? "X" : " ";
     }
 
+    /**
+     * Gets the status icon and name of the task, which is shared by
+     * the display strings of all task types.
+     *
+     * @return status icon and name of the task
+     */
+    protected String getDescription() {
+        return "[" + getStatusIcon() + "] " + this.name;
+    }
+
     @Override
     public String toString() {
-        return String.format("[%s] %s",
-                getStatusIcon(),
-                this.name);
+        if (displayString == null) {
+            displayString = formatDisplayString() + formatDisplayedAttributes();
+        }
+        return displayString;
     }
 }
@@ -0,0 +1,130 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes tasks by priority and by tag so that filtering a task list
+ * takes time proportional to the number of candidate tasks rather than
+ * the size of the whole list.
+ * Tasks are indexed by their stable ID, so that matching tasks are returned
+ * in list order however often they were changed.
+ */
+class TaskAttributeIndex {
+    /** IDs of the tasks with each priority */
+    private final Map<Priority, Set<Integer>> idsByPriority = new EnumMap<>(Priority.class);
+
+    /** IDs of the tasks with each tag */
+    private final Map<String, Set<Integer>> idsByTag = new HashMap<>();
+
+    /**
+     * Constructor for TaskAttributeIndex which indexes the given tasks.
+     *
+     * @param tasks tasks to be indexed, which need an ID
+     */
+    TaskAttributeIndex(Collection<Task> tasks) {
+        for (Priority priority : Priority.values()) {
+            idsByPriority.put(priority, new HashSet<>());
+        }
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds the given task under its current priority and tags.
+     *
+     * @param task task to be indexed
+     */
+    void add(Task task) {
+        idsByPriority.get(task.getPriority()).add(task.getId());
+        for (String tag : task.getTags()) {
+            idsByTag.computeIfAbsent(tag, key -> new HashSet<>()).add(task.getId());
+        }
+    }
+
+    /**
+     * Removes the given task from the index.
+     * Must be called before the priority or tags of the task change.
+     *
+     * @param task task to be removed
+     */
+    void remove(Task task) {
+        idsByPriority.get(task.getPriority()).remove(task.getId());
+        for (String tag : task.getTags()) {
+            Set<Integer> taggedIds = idsByTag.get(tag);
+            if (taggedIds != null) {
+                taggedIds.remove(task.getId());
+                if (taggedIds.isEmpty()) {
+                    idsByTag.remove(tag);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks that have the priority and all the tags in the given filter.
+     * Only the smallest matching index entry is scanned, and every other condition
+     * is checked directly on the candidate task.
+     *
+     * @param filter priority and tags that matching tasks must have
+     * @param tasks indexed tasks, in list order
+     * @param ids index from task ID to position in the list
+     * @return matching tasks in list order
+     */
+    ArrayList<Task> filter(TaskAttributes filter, List<Task> tasks, TaskIdIndex ids) {
+        Set<Integer> candidates = null;
+        if (filter.getPriority() != null) {
+            candidates = idsByPriority.get(filter.getPriority());
+        }
+        for (String tag : filter.getTags()) {
+            Set<Integer> taggedIds = idsByTag.getOrDefault(tag, Collections.emptySet());
+            if (candidates == null || taggedIds.size() < candidates.size()) {
+                candidates = taggedIds;
+            }
+        }
+        assert candidates != null : "Filter should contain a priority or at least one tag";
+
+        int[] indexes = new int[candidates.size()];
+        int count = 0;
+        for (int id : candidates) {
+            indexes[count++] = ids.getIndex(id);
+        }
+        Arrays.sort(indexes);
+        ArrayList<Task> result = new ArrayList<>();
+        for (int index : indexes) {
+            Task task = tasks.get(index);
+            if (matches(task, filter)) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the given task satisfies every condition of the filter.
+     *
+     * @param task task to be checked
+     * @param filter priority and tags that the task must have
+     * @return true if the task matches the filter
+     */
+    private static boolean matches(Task task, TaskAttributes filter) {
+        if (filter.getPriority() != null && task.getPriority() != filter.getPriority()) {
+            return false;
+        }
+        for (String tag : filter.getTags()) {
+            if (!task.hasTag(tag)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
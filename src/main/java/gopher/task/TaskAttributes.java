@@ -0,0 +1,121 @@
+package gopher.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import gopher.exception.InvalidTaskAttributeException;
+
+/**
+ * Represents the optional attributes given to a task through the
+ * /p, /tag, /every and /until tokens of a create, update or list command.
+ */
+public class TaskAttributes {
+    /** Priority given by the /p token, null if no priority is given */
+    private Priority priority;
+
+    /** Tags given by the /tag tokens in the order they appear */
+    private final List<String> tags = new ArrayList<>();
+
+    /** Frequency given by the /every token, null if the task does not recur */
+    private Frequency frequency;
+
+    /** End date given by the /until token, null if no end date is given */
+    private LocalDate until;
+
+    /**
+     * Normalizes a tag given by the user so that tags are compared case-insensitively.
+     *
+     * @param tag tag given by the user
+     * @return tag in lower case, taken from the name pool
+     * @throws InvalidTaskAttributeException if tag is empty or contains separators
+     */
+    public static String normalizeTag(String tag) throws InvalidTaskAttributeException {
+        if (tag.isEmpty() || tag.startsWith("/") || tag.contains(",")
+                || tag.contains("|") || tag.contains(" ")) {
+            throw new InvalidTaskAttributeException("/tag", tag);
+        }
+        return TaskNamePool.intern(tag.toLowerCase());
+    }
+
+    public Priority getPriority() {
+        return this.priority;
+    }
+
+    public void setPriority(Priority priority) {
+        this.priority = priority;
+    }
+
+    public List<String> getTags() {
+        return this.tags;
+    }
+
+    public void setFrequency(Frequency frequency) {
+        this.frequency = frequency;
+    }
+
+    public void setUntil(LocalDate until) {
+        this.until = until;
+    }
+
+    /**
+     * Adds a tag, ignoring tags that were already given.
+     *
+     * @param tag tag given by the user
+     * @throws InvalidTaskAttributeException if tag is not valid
+     */
+    public void addTag(String tag) throws InvalidTaskAttributeException {
+        String normalizedTag = normalizeTag(tag);
+        if (!tags.contains(normalizedTag)) {
+            tags.add(normalizedTag);
+        }
+    }
+
+    /**
+     * Checks whether any attribute is given.
+     *
+     * @return true if no priority, tags or recurrence are given
+     */
+    public boolean isEmpty() {
+        return priority == null && tags.isEmpty() && frequency == null && until == null;
+    }
+
+    /**
+     * Checks whether /every or /until is given.
+     *
+     * @return true if a frequency or end date is given
+     */
+    public boolean hasRecurrence() {
+        return frequency != null || until != null;
+    }
+
+    /**
+     * Applies the given attributes to a newly created task.
+     * A recurrence needs both /every and /until, so that every recurring task ends,
+     * but either one alone changes the recurrence of a task that already recurs.
+     *
+     * @param task task to receive the attributes
+     * @throws InvalidTaskAttributeException if the task has no date to recur from,
+     *     or only one of /every and /until is given to a task that does not recur yet
+     */
+    public void applyTo(Task task) throws InvalidTaskAttributeException {
+        if (hasRecurrence()) {
+            Recurrence current = task.getRecurrence();
+            if (until == null && current == null) {
+                throw new InvalidTaskAttributeException("/until", "");
+            }
+            if (frequency == null && current == null) {
+                throw new InvalidTaskAttributeException("/every", "");
+            }
+            task.setRecurrence(new Recurrence(
+                    frequency == null ? current.getFrequency() : frequency,
+                    until == null ? current.getUntil() : until));
+        }
+        if (priority != null) {
+            task.setPriority(priority);
+        }
+        if (!tags.isEmpty()) {
+            task.setTags(tags);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Binary min-heap of tasks keyed by a primitive number, such as a date in epoch minutes.
+ * The heap remembers the slot of every task by ID, so a task can be removed
+ * in logarithmic time when it changes or is deleted.
+ */
+class TaskHeap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Key of the task in each slot, the smallest at slot 0 */
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    /** Task in each slot */
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+
+    /** Slot of each task, keyed by task ID */
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+
+    /** Number of tasks in the heap */
+    private int size;
+
+    /**
+     * Adds the given task under the given key, replacing any entry with the same ID.
+     *
+     * @param task task to be added
+     * @param key key the task is ordered by
+     */
+    void add(Task task, long key) {
+        remove(task.getId());
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            tasks = Arrays.copyOf(tasks, size * 2);
+        }
+        place(size, task, key);
+        siftUp(size++);
+    }
+
+    /**
+     * Removes the task with the given ID.
+     *
+     * @param id ID of the task
+     * @return true if the task was in the heap
+     */
+    boolean remove(int id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        size--;
+        if (slot < size) {
+            place(slot, tasks[size], keys[size]);
+            siftDown(slot);
+            siftUp(slot);
+        }
+        tasks[size] = null;
+        return true;
+    }
+
+    /**
+     * Removes the task with the smallest key.
+     *
+     * @return removed task
+     */
+    Task poll() {
+        assert size > 0 : "Heap should not be empty";
+        Task task = tasks[0];
+        remove(task.getId());
+        return task;
+    }
+
+    /**
+     * Gets the smallest key in the heap.
+     *
+     * @return smallest key, or Long.MAX_VALUE if the heap is empty
+     */
+    long peekKey() {
+        return size == 0 ? Long.MAX_VALUE : keys[0];
+    }
+
+    int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Passes every task whose key is below the given limit to the action, in no particular order.
+     * Subtrees whose root is not below the limit are skipped, so the time taken
+     * depends on the number of tasks passed rather than the size of the heap.
+     *
+     * @param limit exclusive upper bound of the keys wanted
+     * @param action action taking each task and its key
+     */
+    void forEachBelow(long limit, ObjLongConsumer<Task> action) {
+        int[] pending = new int[INITIAL_CAPACITY];
+        int pendingCount = 0;
+        if (size > 0) {
+            pending[pendingCount++] = 0;
+        }
+        while (pendingCount > 0) {
+            int slot = pending[--pendingCount];
+            if (keys[slot] >= limit) {
+                continue;
+            }
+            action.accept(tasks[slot], keys[slot]);
+            if (pendingCount + 2 > pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                pending[pendingCount++] = child;
+            }
+        }
+    }
+
+    /**
+     * Gets the tasks with the smallest keys, without changing the heap.
+     * Only the slots next to those already taken are looked at, so the time taken
+     * depends on the number of tasks wanted rather than the size of the heap.
+     *
+     * @param limit largest number of tasks wanted
+     * @return tasks ordered from the smallest key
+     */
+    List<Task> getSmallest(int limit) {
+        List<Task> smallest = new ArrayList<>();
+        PriorityQueue<Integer> frontier = new PriorityQueue<>((first, second) -> Long.compare(keys[first],
+                keys[second]));
+        if (size > 0) {
+            frontier.add(0);
+        }
+        while (!frontier.isEmpty() && smallest.size() < limit) {
+            int slot = frontier.poll();
+            smallest.add(tasks[slot]);
+            for (int child = 2 * slot + 1; child <= 2 * slot + 2 && child < size; child++) {
+                frontier.add(child);
+            }
+        }
+        return smallest;
+    }
+
+    private void siftUp(int slot) {
+        Task task = tasks[slot];
+        long key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) / 2;
+            if (keys[parent] <= key) {
+                break;
+            }
+            place(slot, tasks[parent], keys[parent]);
+            slot = parent;
+        }
+        place(slot, task, key);
+    }
+
+    private void siftDown(int slot) {
+        Task task = tasks[slot];
+        long key = keys[slot];
+        while (2 * slot + 1 < size) {
+            int child = 2 * slot + 1;
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            place(slot, tasks[child], keys[child]);
+            slot = child;
+        }
+        place(slot, task, key);
+    }
+
+    private void place(int slot, Task task, long key) {
+        tasks[slot] = task;
+        keys[slot] = key;
+        slotsById.put(task.getId(), slot);
+    }
+}
@@ -0,0 +1,135 @@
+package gopher.task;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the stable ID of each task to its current position in a task list,
+ * and hands out IDs to tasks that do not have one yet.
+ * IDs are never handed out twice: the next ID is saved along with the tasks,
+ * so the ID of a deleted task is not reused after a restart either.
+ */
+class TaskIdIndex {
+    /** 0-based position of each task in the list, keyed by task ID */
+    private final Map<Integer, Integer> indexById = new HashMap<>();
+
+    /** ID given to the next task without one */
+    private int nextId = 1;
+
+    /**
+     * Constructor for TaskIdIndex which indexes the given tasks,
+     * handing out IDs from after the highest ID in the list.
+     *
+     * @param tasks tasks to be indexed, in list order
+     */
+    TaskIdIndex(List<Task> tasks) {
+        this(tasks, 1);
+    }
+
+    /**
+     * Constructor for TaskIdIndex which indexes the given tasks.
+     * Tasks without an ID, or whose ID is already taken by an earlier task,
+     * are given a new ID, which is written back to the list.
+     *
+     * @param tasks tasks to be indexed, in list order
+     * @param nextId saved ID to be given to the next task without one, which may be below
+     *     the highest ID in the list if the list was saved without it
+     */
+    TaskIdIndex(List<Task> tasks, int nextId) {
+        this.nextId = Math.max(nextId, 1);
+        for (Task task : tasks) {
+            this.nextId = Math.max(this.nextId, task.getId() + 1);
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            int oldId = task.getId();
+            add(task, i);
+            if (task.getId() != oldId) {
+                // Write the new ID back, as the list may hold a copy of the task
+                tasks.set(i, task);
+            }
+        }
+    }
+
+    /**
+     * Gives an ID to every task in the given list that does not have one yet,
+     * or whose ID is already taken by an earlier task, writing the new IDs back to the list.
+     *
+     * @param tasks tasks to be given IDs, in list order
+     * @param nextId saved ID to be given to the next task without one
+     * @return ID to be given to the next task after these
+     */
+    static int assignIds(List<Task> tasks, int nextId) {
+        return new TaskIdIndex(tasks, nextId).getNextId();
+    }
+
+    int getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Makes sure no ID below the given one is handed out, such as when another
+     * task file has already handed those IDs out.
+     *
+     * @param nextId lowest ID that may be handed out from now on
+     */
+    void reserveIds(int nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    /**
+     * Adds the given task at the given position, giving it an ID if needed.
+     *
+     * @param task task to be indexed
+     * @param index 0-based position of the task in the list
+     */
+    void add(Task task, int index) {
+        assignId(task);
+        indexById.put(task.getId(), index);
+    }
+
+    /**
+     * Gives the given task a new ID if it has none or its ID is already taken,
+     * and makes sure its ID is never handed out again.
+     *
+     * @param task task about to be added
+     */
+    void assignId(Task task) {
+        if (task.getId() <= 0 || getIndex(task.getId()) >= 0) {
+            task.setId(nextId++);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
+    }
+
+    /**
+     * Records that the task with the given ID now sits at another position.
+     *
+     * @param id ID of the task
+     * @param index new 0-based position of the task
+     */
+    void move(int id, int index) {
+        indexById.put(id, index);
+    }
+
+    /**
+     * Removes the task with the given ID from the index.
+     * The ID is never handed out again by this index.
+     *
+     * @param id ID of the removed task
+     */
+    void remove(int id) {
+        indexById.remove(id);
+    }
+
+    /**
+     * Gets the position of the task with the given ID.
+     *
+     * @param id ID of the task
+     * @return 0-based position of the task, or -1 if no task has the ID
+     */
+    int getIndex(int id) {
+        Integer index = indexById.get(id);
+        return index == null ? -1 : index;
+    }
+}
@@ -1,32 +1,106 @@
 package gopher.task;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
+import gopher.exception.FileCorruptedException;
+import gopher.exception.FindPatternTooComplexException;
 import gopher.exception.InvalidDurationException;
+import gopher.exception.InvalidFindPatternException;
+import gopher.exception.InvalidTaskIdException;
 import gopher.exception.InvalidTaskNumberException;
 import gopher.exception.InvalidTokenException;
 import gopher.exception.MissingTaskNumberException;
+import gopher.exception.SyncFailedException;
 import gopher.message.Message;
+import gopher.parser.Parser;
+import gopher.reminder.ReminderScheduler;
+import gopher.storage.PagedTaskStore;
+import gopher.storage.SyncPlan;
+import gopher.storage.TaskCache;
 import gopher.storage.TaskManager;
+import gopher.storage.TaskSync;
 import gopher.ui.UI;
 
 /**
  * Represents TaskList that tracks user input tasks.
  * Supports functionalities such as:
  *     1. Add/Delete task.
- *     2. Mark/Unmark task as done.
- *     3. Display tasks as list.
- *     4. Find tasks based on keywords.
- *     5. Get task by number.
- *     6. Get size of the list.
+ *     2. Mark/Unmark task as done, selecting tasks by number, range, ID or condition.
+ *     3. Display tasks as list, one page at a time.
+ *     4. Find tasks based on keywords, search them allowing typos, or filter them by priority and tags.
+ *     5. Summarize the overdue and upcoming tasks as an agenda.
+ *     6. Get task by number or by stable ID.
+ *     7. Get size of the list.
  */
 public class TaskList {
+    /** Largest render buffer capacity kept between renders */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 16;
+
+    /** Number of days, starting today, covered by the agenda */
+    private static final int DAYS_IN_WEEK = 7;
+
+    /**
+     * Tasks tracked by the TaskList, either as task objects or in columnar form
+     */
+    private List<Task> tasks;
+
+    /**
+     * Buffer reused across renders so that listing does not allocate
+     * a new builder for every call
+     */
+    private final StringBuilder renderBuffer = new StringBuilder();
+
+    /**
+     * Index of the tasks by priority and tag, built on the first filter
+     * and kept up to date afterwards
+     */
+    private TaskAttributeIndex attributeIndex;
+
+    /**
+     * Index from stable task ID to position in the list, built on first use
+     * and kept up to date afterwards
+     */
+    private TaskIdIndex idIndex;
+
+    /** Saved ID to be given to the next new task, which the ID index starts from when built */
+    private int savedNextId = 1;
+
+    /**
+     * Index of the task names for typo-tolerant search, built on the first search
+     * and kept up to date afterwards
+     */
+    private TaskNameIndex nameIndex;
+
     /**
-     * Tasks tracked by the TaskList
+     * Index of the tasks in each sort order, built on the first sorted listing
+     * in that order and kept up to date afterwards
      */
-    private ArrayList<Task> tasks;
+    private final Map<SortOrder, TaskOrderIndex> orderIndexes = new EnumMap<>(SortOrder.class);
+
+    /**
+     * Running counts and heaps of due dates for the agenda, built on the first agenda
+     * and kept up to date afterwards
+     */
+    private AgendaIndex agendaIndex;
+
+    /**
+     * Scheduler notified whenever a task is added, changed or removed,
+     * or null if the tasks need no reminders
+     */
+    private ReminderScheduler reminders;
 
     /**
      * Default task list constructor.
@@ -47,20 +121,128 @@ public class TaskList {
     }
 
     /**
-     * Adds the given task to the task list.
+     * Creates an empty task list that keeps its tasks in columnar form.
+     * Each task then takes a few primitive array slots instead of a graph of objects,
+     * which suits very large lists. Tasks handed out by the list are copies
+     * materialized from the columns, and the list writes back every change it makes.
+     *
+     * @return empty task list with columnar storage
+     */
+    public static TaskList ofColumnar() {
+        return new TaskList(new ColumnarTaskStore());
+    }
+
+    /**
+     * Creates a task list that keeps its tasks in the given paged store instead of in memory,
+     * which suits lists too large to load whole. The store is filled from the task file
+     * the first time the list is loaded, and is flushed instead of writing the task file on save,
+     * so from then on the task file is neither read nor written and cannot be synced or reloaded.
+     * Tasks handed out by the list are read through the decoded task cache of the store,
+     * and the list sets back every task it changes, which marks the task dirty in the cache.
+     * Task IDs, reminders, the agenda and done and overdue selections are looked up in the indexes
+     * of the store, so only the tasks they concern are read.
+     *
+     * @param store paged store holding the tasks
+     * @return task list backed by the store
+     */
+    public static TaskList ofPaged(PagedTaskStore store) {
+        return new TaskList(store);
+    }
+
+    /**
+     * Private constructor for a task list backed by the given list of tasks.
+     *
+     * @param tasks list of task objects or columnar store holding the tasks
+     */
+    private TaskList(List<Task> tasks) {
+        this.tasks = tasks;
+    }
+
+    /**
+     * Adds the given task to the task list, giving it a stable ID.
      * Triggers the TaskManager to update the local saved tasks.
      *
      * @param task task to be added
      */
     public void add(Task task) {
         assert task != null : "Added task cannot be null";
+        task.setModifiedAt(System.currentTimeMillis());
+        append(task);
+        save();
+    }
+
+    /**
+     * Appends the given task to the end of the list and to every index, giving it a stable ID.
+     *
+     * @param task task to be appended
+     */
+    private void append(Task task) {
+        getIdIndex().add(task, tasks.size());
         this.tasks.add(task);
-        TaskManager.saveTasks(tasks);
+        addToIndexes(task);
+    }
+
+    /**
+     * Stores the given task at the given index in place of the task there.
+     * A columnar store skips materializing the replaced task, which is never used.
+     *
+     * @param index 0-based index of the task
+     * @param task task to be stored
+     */
+    private void replace(int index, Task task) {
+        if (tasks instanceof ColumnarTaskStore columns) {
+            columns.replace(index, task);
+        } else {
+            tasks.set(index, task);
+        }
+    }
+
+    /**
+     * Adds the given task to every index built so far, and schedules its reminder.
+     *
+     * @param task task that was added or changed
+     */
+    private void addToIndexes(Task task) {
+        if (attributeIndex != null) {
+            attributeIndex.add(task);
+        }
+        if (nameIndex != null) {
+            nameIndex.add(task);
+        }
+        for (TaskOrderIndex orderIndex : orderIndexes.values()) {
+            orderIndex.add(task);
+        }
+        if (agendaIndex != null) {
+            agendaIndex.add(task, LocalDateTime.now());
+        }
+        scheduleReminder(task);
+    }
+
+    /**
+     * Removes the given task from every index built so far other than the ID index.
+     * Must be called before the task is changed.
+     *
+     * @param task task that is about to change or be removed
+     */
+    private void removeFromIndexes(Task task) {
+        if (attributeIndex != null) {
+            attributeIndex.remove(task);
+        }
+        if (nameIndex != null) {
+            nameIndex.remove(task.getId());
+        }
+        for (TaskOrderIndex orderIndex : orderIndexes.values()) {
+            orderIndex.remove(task);
+        }
+        if (agendaIndex != null) {
+            agendaIndex.remove(task);
+        }
     }
 
     /**
      * Updates the task with the given task number with the relevant information,
-     * and respond with the detail of the updated task
+     * and respond with the detail of the updated task.
+     * A /p token replaces the priority and /tag tokens replace all tags of the task.
      *
      * @param tokens tokens from the update command
      * @return UI message showing the detail of the updated task
@@ -71,13 +253,26 @@ public class TaskList {
         try {
             if (tokens.length < 2) {
                 throw new MissingTaskNumberException();
-            } else if (tokens.length == 2) {
+            }
+            TaskAttributes attributes = new TaskAttributes();
+            String[] fieldTokens = Parser.extractTaskAttributes(tokens, attributes);
+            if (fieldTokens.length <= 2 && attributes.isEmpty()) {
                 return UI.getEmptyUpdateCommandWarning();
             }
-            int taskNumber = Integer.parseInt(tokens[1]);
+            int taskNumber = Parser.parseTaskNumber(tokens[1], this);
             Task task = this.getTask(taskNumber);
-            task.update(tokens);
-            TaskManager.saveTasks(tasks);
+            removeFromIndexes(task);
+            try {
+                if (fieldTokens.length > 2) {
+                    task.update(fieldTokens);
+                }
+                attributes.applyTo(task);
+            } finally {
+                task.setModifiedAt(System.currentTimeMillis());
+                replace(taskNumber - 1, task);
+                addToIndexes(task);
+            }
+            save();
             return UI.getUpdateTaskMessage(task);
         } catch (NumberFormatException e) {
             throw new MissingTaskNumberException();
@@ -85,77 +280,438 @@ public class TaskList {
     }
 
     /**
-     * Deletes the task with the given task number from the task list.
-     * Triggers the TaskManager to update the local saved tasks.
+     * Deletes the selected tasks from the task list.
+     * Triggers the TaskManager to update the local saved tasks once.
+     * All the tasks are removed in a single compaction pass over the list,
+     * so deleting many tasks takes time linear in the size of the list.
      *
-     * @param taskNumbers numbers of the tasks to be deleted
+     * @param selection 0-based indexes of the tasks to be deleted, as returned by select
      */
-    public void delete(int... taskNumbers)
-            throws InvalidTaskNumberException {
-        // Map the task numbers to their corresponding task in the task list
-        Task[] tasksToBeDeleted = new Task[taskNumbers.length];
-        for (int i = 0; i < taskNumbers.length; i++) {
-            tasksToBeDeleted[i] = this.getTask(taskNumbers[i]);
+    public void delete(BitSet selection) {
+        removeSelected(selection);
+        save();
+    }
+
+    /**
+     * Removes the selected tasks from the list and every index in a single compaction pass.
+     *
+     * @param selection 0-based indexes of the tasks to be removed
+     */
+    private void removeSelected(BitSet selection) {
+        if (tasks instanceof PagedTaskStore) {
+            removeSelectedRuns(selection);
+            return;
+        }
+        // Shift the remaining tasks left over the deleted ones,
+        // keeping the ID index in step with the new positions
+        TaskIdIndex ids = getIdIndex();
+        Set<Integer> deletedIds = new HashSet<>();
+        int writeIndex = 0;
+        for (int readIndex = 0; readIndex < tasks.size(); readIndex++) {
+            Task task = tasks.get(readIndex);
+            if (selection.get(readIndex)) {
+                deletedIds.add(task.getId());
+                ids.remove(task.getId());
+                if (reminders != null) {
+                    reminders.cancel(task.getId());
+                }
+                if (nameIndex != null) {
+                    nameIndex.remove(task.getId());
+                }
+                if (attributeIndex != null) {
+                    attributeIndex.remove(task);
+                }
+                if (agendaIndex != null) {
+                    agendaIndex.remove(task);
+                }
+                continue;
+            }
+            if (writeIndex != readIndex) {
+                replace(writeIndex, task);
+                ids.move(task.getId(), writeIndex);
+            }
+            writeIndex++;
+        }
+        tasks.subList(writeIndex, tasks.size()).clear();
+        for (TaskOrderIndex orderIndex : orderIndexes.values()) {
+            orderIndex.removeIf(deletedIds::contains);
+        }
+    }
+
+    /**
+     * Removes the selected tasks from every index, then removes each run of selected tasks
+     * from the list in one go, from the last run back. A paged store removes a task
+     * without moving the tasks after it, so this takes time depending on the number
+     * of tasks removed rather than the size of the list.
+     *
+     * @param selection 0-based indexes of the tasks to be removed
+     */
+    private void removeSelectedRuns(BitSet selection) {
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            Task task = tasks.get(i);
+            if (reminders != null) {
+                reminders.cancel(task.getId());
+            }
+            removeFromIndexes(task);
+        }
+        int end = selection.length();
+        while (end > 0) {
+            int start = selection.previousClearBit(end - 1) + 1;
+            tasks.subList(start, end).clear();
+            end = selection.previousSetBit(start - 1) + 1;
         }
+    }
 
-        // Delete tasks by reference
-        // Do not use task number for deletion directly because
-        // items in ArrayList will shift left after deletion
-        // causing the indexes of the items to be messed up
-        for (Task task: tasksToBeDeleted) {
-            tasks.remove(task);
+    /**
+     * Syncs the task list with another task file, taking in the changes made there
+     * and sending the changes made here, so that both end up with the same tasks.
+     * Only the tasks that differ are replaced, added or removed, and the local task file
+     * is only saved if anything was taken in.
+     *
+     * @param otherFile path of the other task file
+     * @return plan of the changes taken in and sent
+     * @throws SyncFailedException if the other file cannot be read, understood or written,
+     *     or the list is backed by a paged store, which no longer follows any task file
+     */
+    public SyncPlan sync(Path otherFile) throws SyncFailedException {
+        if (isPaged()) {
+            throw new SyncFailedException(otherFile.toString());
+        }
+        SyncPlan plan = TaskSync.plan(tasks, otherFile);
+        int nextId = getIdIndex().getNextId();
+        apply(plan);
+        if (plan.changesTaskList() || getIdIndex().getNextId() != nextId) {
+            save();
+        }
+        TaskSync.complete(plan, tasks, getIdIndex().getNextId());
+        return plan;
+    }
+
+    /**
+     * Takes in the changes made to the task file by another program,
+     * so that only the tasks changed there are replaced, added or removed.
+     * A task also changed here keeps the copy changed last, and the task file is
+     * only saved if it has to change to match the task list.
+     *
+     * @return plan of the changes taken in
+     * @throws FileCorruptedException if the task file cannot be read or understood
+     * @throws IllegalStateException if the list is backed by a paged store, which no longer follows the task file
+     */
+    public SyncPlan reload() {
+        if (isPaged()) {
+            throw new IllegalStateException("Paged task lists are not reloaded from the task file");
+        }
+        // Every task needs an ID to be matched with the task file
+        getIdIndex();
+        SyncPlan plan = TaskManager.planReload(tasks);
+        apply(plan);
+        if (plan.changesOtherFile()) {
+            TaskManager.saveTasks(tasks, getIdIndex().getNextId());
         }
+        return plan;
+    }
 
-        TaskManager.saveTasks(tasks);
+    /**
+     * Applies the changes received in the given plan to the tasks and every index.
+     *
+     * @param plan plan of the changes
+     */
+    private void apply(SyncPlan plan) {
+        TaskIdIndex ids = getIdIndex();
+        ids.reserveIds(plan.getNextId());
+        for (Task task : plan.getReplacedTasks()) {
+            int index = ids.getIndex(task.getId());
+            removeFromIndexes(tasks.get(index));
+            replace(index, task);
+            addToIndexes(task);
+        }
+        BitSet deleted = new BitSet(tasks.size());
+        for (int id : plan.getDeletedIds()) {
+            deleted.set(ids.getIndex(id));
+        }
+        if (!deleted.isEmpty()) {
+            removeSelected(deleted);
+        }
+        for (Task task : plan.getAddedTasks()) {
+            append(task);
+        }
     }
 
     /**
-     * Finds tasks whose description contains the given keyword.
+     * Finds tasks whose description contains the keyword of the given query, ignoring case.
+     * The keyword is matched as exact text unless the query asks for a regular expression,
+     * in which case the work spent on each task is limited.
+     * Large lists are checked in parallel, keeping the matching tasks in list order.
+     * A regular expression that runs out of budget on any task fails the whole find.
      *
-     * @param keyword keyword used to search for tasks
+     * @param query find query containing the keyword
      * @return TaskList object containing all the matching tasks
+     * @throws InvalidFindPatternException if the regular expression is not valid
+     * @throws FindPatternTooComplexException if the regular expression takes too long on a task
      */
-    public TaskList find(String keyword) {
-        // Define regex pattern based on the given keyword
-        Pattern keywordPattern = Pattern.compile(keyword,
-                Pattern.CASE_INSENSITIVE);
+    public TaskList find(FindQuery query)
+            throws InvalidFindPatternException, FindPatternTooComplexException {
+        Predicate<String> matcher = query.createMatcher();
+        try {
+            return getTasks(TaskScan.scan(tasks, task -> matcher.test(task.toString())));
+        } catch (BoundedRegexMatcher.BudgetExceededException e) {
+            throw new FindPatternTooComplexException(query.getKeyword());
+        }
+    }
 
-        // Search task whose String representation matches regex pattern
-        List<Task> matchedTasks = tasks.stream()
-                .filter(task -> keywordPattern.matcher(task.toString()).find())
-                .toList();
-        ArrayList<Task> result = new ArrayList<>(matchedTasks);
+    /**
+     * Searches for the tasks whose name is closest to the given query, tolerating typos.
+     * Uses the trigram index of the task names, so only tasks sharing
+     * parts of the query are compared against it.
+     *
+     * @param query text to search for
+     * @param limit largest number of tasks wanted
+     * @return TaskList object containing the matching tasks, closest first
+     */
+    public TaskList search(String query, int limit) {
+        TaskIdIndex ids = getIdIndex();
+        if (nameIndex == null) {
+            nameIndex = new TaskNameIndex(tasks);
+        }
+        ArrayList<Task> result = new ArrayList<>();
+        for (TaskNameIndex.Match match : nameIndex.search(query, limit)) {
+            result.add(tasks.get(ids.getIndex(match.getId())));
+        }
         return new TaskList(result);
     }
 
     /**
-     * Marks the task with the given task number as done.
-     * Triggers the TaskManager to update the local saved tasks.
+     * Filters tasks by the priority and tags in the given list query.
+     * Uses the priority and tag indexes, so the time taken depends on
+     * the number of candidate tasks rather than the size of the list.
      *
-     * @param taskNumbers numbers of the tasks to be marked as done
+     * @param query list query containing the filter
+     * @return TaskList object containing all the matching tasks in list order
      */
-    public void markAsDone(int... taskNumbers)
-            throws InvalidTaskNumberException {
-        for (int taskNumber: taskNumbers) {
-            Task task = getTask(taskNumber);
-            task.markAsDone();
+    public TaskList filter(ListQuery query) {
+        assert query.hasFilter() : "Query should contain a filter";
+        if (tasks instanceof ColumnarTaskStore columns) {
+            return new TaskList(columns.filter(query.getFilter()));
+        }
+        TaskIdIndex ids = getIdIndex();
+        if (attributeIndex == null) {
+            attributeIndex = new TaskAttributeIndex(tasks);
         }
-        TaskManager.saveTasks(tasks);
+        return new TaskList(attributeIndex.filter(query.getFilter(), tasks, ids));
     }
 
     /**
-     * Marks the task with the given task number as not done.
-     * Triggers the TaskManager to update the local saved tasks.
+     * Puts together the agenda of the task list: the overdue tasks, the tasks due today
+     * and within the week, and the number of undated and done tasks.
+     * Uses running counts and heaps of the due dates, so only the tasks that fell due
+     * since the last agenda and those due within the week are visited.
      *
-     * @param taskNumbers numbers of the tasks to be marked as not done
+     * @param limit largest number of tasks shown in each group
+     * @return agenda of the task list
      */
-    public void markAsUndone(int... taskNumbers)
-            throws InvalidTaskNumberException {
-        for (int taskNumber: taskNumbers) {
-            Task task = getTask(taskNumber);
+    public Agenda getAgenda(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        if (tasks instanceof PagedTaskStore store) {
+            return getAgenda(store, now, limit);
+        }
+        if (agendaIndex == null) {
+            getIdIndex();
+            agendaIndex = new AgendaIndex(tasks, now);
+        }
+        return agendaIndex.getAgenda(now, limit);
+    }
+
+    /**
+     * Puts together the agenda of the tasks in the given paged store from its due date and status indexes.
+     * Groups are counted from the ranks of their ends in the indexes, so only the tasks shown are read.
+     *
+     * @param store paged store holding the tasks
+     * @param now current date and time
+     * @param limit largest number of tasks shown in each group
+     * @return agenda of the tasks in the store
+     */
+    private static Agenda getAgenda(PagedTaskStore store, LocalDateTime now, int limit) {
+        LocalDateTime minute = now.truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime tomorrow = now.toLocalDate().plusDays(1).atStartOfDay();
+        LocalDateTime weekEnd = tomorrow.plusDays(DAYS_IN_WEEK - 1);
+
+        // Overdue tasks are shown the most recently due first
+        LocalDateTime lastOverdue = minute.minusMinutes(1);
+        int overdueCount = store.countDueBetween(LocalDateTime.MIN, lastOverdue);
+        List<Task> nearestOverdue = store.getDueBetween(LocalDateTime.MIN, lastOverdue,
+                Math.max(0, overdueCount - limit), limit);
+        Collections.reverse(nearestOverdue);
+
+        LocalDateTime lastToday = tomorrow.minusMinutes(1);
+        LocalDateTime lastWeek = weekEnd.minusMinutes(1);
+        int datedCount = store.countDueBetween(LocalDateTime.MIN, LocalDateTime.MAX);
+        int doneCount = store.getDoneCount();
+        return new Agenda(overdueCount, nearestOverdue,
+                store.countDueBetween(minute, lastToday), store.getDueBetween(minute, lastToday, 0, limit),
+                store.countDueBetween(tomorrow, lastWeek), store.getDueBetween(tomorrow, lastWeek, 0, limit),
+                store.size() - doneCount - datedCount, doneCount, store.size());
+    }
+
+    /**
+     * Resolves the given selector into the indexes of the selected tasks.
+     * Task numbers, ranges and IDs are validated and looked up directly,
+     * while done, overdue and find: terms are checked in a single pass over the list,
+     * split across threads for large lists.
+     *
+     * @param selector selector parsed from the user command
+     * @return 0-based indexes of every selected task
+     * @throws InvalidTaskNumberException if a task number or ID does not refer to a task
+     */
+    public BitSet select(TaskSelector selector) throws InvalidTaskNumberException {
+        BitSet selection = new BitSet(tasks.size());
+        for (int i = 0; i < selector.getTaskNumberCount(); i++) {
+            int taskNumber = selector.getTaskNumber(i);
+            getTask(taskNumber);
+            selection.set(taskNumber - 1);
+        }
+        for (int i = 0; i < selector.getRangeCount(); i++) {
+            getTask(selector.getRangeStart(i));
+            getTask(selector.getRangeEnd(i));
+            selection.set(selector.getRangeStart(i) - 1, selector.getRangeEnd(i));
+        }
+        for (int i = 0; i < selector.getIdCount(); i++) {
+            selection.set(getTaskNumberById(selector.getId(i)) - 1);
+        }
+        if (selector.isAllSelected()) {
+            selection.set(0, tasks.size());
+        } else if (tasks instanceof PagedTaskStore store && selector.getKeywords().isEmpty()) {
+            selectFromIndexes(store, selector, selection);
+        } else if (selector.needsScan()) {
+            List<LiteralMatcher> keywordMatchers = selector.getKeywords().stream()
+                    .map(LiteralMatcher::new)
+                    .toList();
+            LocalDateTime now = LocalDateTime.now();
+            selection.or(TaskScan.scan(tasks,
+                    task -> isSelectedByScan(task, selector, keywordMatchers, now)));
+        }
+        return selection;
+    }
+
+    /**
+     * Selects the done and overdue tasks of the given paged store from its status and due date indexes,
+     * so that only those tasks are read.
+     *
+     * @param store paged store holding the tasks
+     * @param selector selector parsed from the user command
+     * @param selection 0-based indexes of the selected tasks, to which the tasks are added
+     */
+    private static void selectFromIndexes(PagedTaskStore store, TaskSelector selector, BitSet selection) {
+        if (selector.isDoneSelected()) {
+            store.forEachWithStatus(true, task -> selection.set(store.getIndexOf(task.getId())));
+        }
+        if (selector.isOverdueSelected()) {
+            LocalDateTime now = LocalDateTime.now();
+            store.forEachDueBetween(LocalDateTime.MIN, now, task -> {
+                if (task.isOverdue(now)) {
+                    selection.set(store.getIndexOf(task.getId()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Checks whether the given task is selected by the done, overdue or find: terms.
+     *
+     * @param task task to be checked
+     * @param selector selector parsed from the user command
+     * @param keywordMatchers matchers of the exact text of the find: terms
+     * @param now current date and time used for overdue checks
+     * @return true if any of the terms selects the task
+     */
+    private static boolean isSelectedByScan(Task task, TaskSelector selector,
+            List<LiteralMatcher> keywordMatchers, LocalDateTime now) {
+        if (selector.isDoneSelected() && task.isDone()) {
+            return true;
+        }
+        if (selector.isOverdueSelected() && task.isOverdue(now)) {
+            return true;
+        }
+        for (LiteralMatcher keywordMatcher : keywordMatchers) {
+            if (keywordMatcher.matches(task.toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the selected tasks as a new task list, in list order.
+     *
+     * @param selection 0-based indexes of the tasks wanted
+     * @return TaskList object containing the selected tasks
+     */
+    private TaskList getTasks(BitSet selection) {
+        ArrayList<Task> result = new ArrayList<>(selection.cardinality());
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            result.add(tasks.get(i));
+        }
+        return new TaskList(result);
+    }
+
+    /**
+     * Marks the selected tasks as done.
+     * Triggers the TaskManager to update the local saved tasks once.
+     *
+     * @param selection 0-based indexes of the tasks to be marked as done, as returned by select
+     */
+    public void markAsDone(BitSet selection) {
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            Task task = tasks.get(i);
+            setDone(i, task, true);
+            scheduleReminder(task);
+        }
+        save();
+    }
+
+    /**
+     * Marks the selected tasks as not done.
+     * Triggers the TaskManager to update the local saved tasks once.
+     *
+     * @param selection 0-based indexes of the tasks to be marked as not done, as returned by select
+     */
+    public void markAsUndone(BitSet selection) {
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            Task task = tasks.get(i);
+            setDone(i, task, false);
+            scheduleReminder(task);
+        }
+        save();
+    }
+
+    /**
+     * Sets whether the task at the given index is done, writing the task back
+     * and moving it within the status order and the agenda.
+     *
+     * @param index 0-based index of the task
+     * @param task task at the index
+     * @param isDone whether the task is done
+     */
+    private void setDone(int index, Task task, boolean isDone) {
+        TaskOrderIndex statusIndex = orderIndexes.get(SortOrder.STATUS);
+        if (statusIndex != null) {
+            statusIndex.remove(task);
+        }
+        if (agendaIndex != null) {
+            agendaIndex.remove(task);
+        }
+        if (isDone) {
+            task.markAsDone();
+        } else {
             task.markAsNotDone();
         }
-        TaskManager.saveTasks(tasks);
+        task.setModifiedAt(System.currentTimeMillis());
+        replace(index, task);
+        if (statusIndex != null) {
+            statusIndex.add(task);
+        }
+        if (agendaIndex != null) {
+            agendaIndex.add(task, LocalDateTime.now());
+        }
     }
 
     /**
@@ -172,18 +728,174 @@ public class TaskList {
         return this.tasks.get(taskNumber - 1);
     }
 
+    /**
+     * Gets the cache of decoded tasks in front of the store, if the list is backed by a paged store.
+     *
+     * @return task cache of the paged store, or empty if every task is held in memory
+     */
+    public Optional<TaskCache> getTaskCache() {
+        return tasks instanceof PagedTaskStore store ? Optional.of(store.getTaskCache()) : Optional.empty();
+    }
+
+    /**
+     * Checks whether the list is backed by a paged store, which no longer follows the task file
+     * once it is filled, so the task file can then be neither synced nor reloaded.
+     *
+     * @return true if the tasks are kept in a paged store
+     */
+    public boolean isPaged() {
+        return tasks instanceof PagedTaskStore;
+    }
+
+    /**
+     * Gets the task at the given 0-based index, such as an index returned by select.
+     *
+     * @param index 0-based index of the task
+     * @return task at the given index
+     */
+    public Task getTaskAt(int index) {
+        return this.tasks.get(index);
+    }
+
+    /**
+     * Gets the position of the task with the given stable ID.
+     *
+     * @param id stable ID of the task
+     * @return 1-based number of the task in the list
+     * @throws InvalidTaskIdException if no task has the given ID
+     */
+    public int getTaskNumberById(int id) throws InvalidTaskIdException {
+        int index = getIdIndex().getIndex(id);
+        if (index < 0) {
+            throw new InvalidTaskIdException(id);
+        }
+        return index + 1;
+    }
+
+    /**
+     * Gets the index from stable task ID to position, building it if needed.
+     *
+     * @return ID index of the task list
+     */
+    private TaskIdIndex getIdIndex() {
+        if (idIndex == null) {
+            idIndex = createIdIndex();
+        }
+        return idIndex;
+    }
+
+    /**
+     * Creates the index from stable task ID to position. The index of a paged store
+     * looks positions up in the store, so no task is read.
+     *
+     * @return ID index of the tasks in the list
+     */
+    private TaskIdIndex createIdIndex() {
+        return tasks instanceof PagedTaskStore store
+                ? new PagedTaskIdIndex(store)
+                : new TaskIdIndex(tasks, savedNextId);
+    }
+
+    /**
+     * Sets the scheduler that reminds the user of the upcoming tasks in the list,
+     * and schedules a reminder for every task already in the list.
+     *
+     * @param reminders scheduler of the reminders
+     */
+    public void setReminderScheduler(ReminderScheduler reminders) {
+        this.reminders = reminders;
+        scheduleAllReminders();
+    }
+
+    /**
+     * Replaces every reminder with the reminders of the tasks in the list.
+     * Only the tasks of a paged store that can still have a reminder are read:
+     * the tasks due from now on and the pending recurring tasks.
+     */
+    private void scheduleAllReminders() {
+        if (!(tasks instanceof PagedTaskStore store)) {
+            reminders.scheduleAll(tasks);
+            return;
+        }
+        List<Task> remindedTasks = new ArrayList<>();
+        store.forEachDueBetween(LocalDateTime.now(), LocalDateTime.MAX, task -> {
+            if (task.getRecurrence() == null) {
+                remindedTasks.add(task);
+            }
+        });
+        store.forEachPendingRecurring(remindedTasks::add);
+        reminders.scheduleAll(remindedTasks);
+    }
+
+    /**
+     * Schedules, replaces or cancels the reminder of the given task
+     * so that it matches the current state of the task.
+     *
+     * @param task task that was added or changed
+     */
+    private void scheduleReminder(Task task) {
+        if (reminders != null) {
+            reminders.schedule(task);
+        }
+    }
+
     /**
      * Saves current tasks into the Task Manager.
+     * If another program has changed the task file since it was last read or written,
+     * its changes are taken in first rather than overwritten.
      */
     public void save() {
-        TaskManager.saveTasks(tasks);
+        if (tasks instanceof PagedTaskStore store) {
+            try {
+                store.setNextId(getIdIndex().getNextId());
+                store.flush();
+            } catch (IOException e) {
+                throw new FileCorruptedException();
+            }
+            return;
+        }
+        if (TaskManager.isChangedExternally()) {
+            try {
+                getIdIndex();
+                apply(TaskManager.planReload(tasks));
+            } catch (FileCorruptedException e) {
+                // The Task Manager keeps a copy of an unreadable file before overwriting it
+            }
+        }
+        TaskManager.saveTasks(tasks, getIdIndex().getNextId());
     }
 
     /**
      * Loads current tasks from the Task Manager.
      */
     public void load() {
-        this.tasks = TaskManager.loadTasks();
+        if (tasks instanceof PagedTaskStore store) {
+            if (store.isEmpty()) {
+                // Fill the store from the task file once, giving every task an ID first
+                ArrayList<Task> loadedTasks = TaskManager.loadTasks();
+                store.setNextId(TaskIdIndex.assignIds(loadedTasks, TaskManager.getLoadedNextId()));
+                store.addAll(loadedTasks);
+                save();
+            }
+            this.savedNextId = store.getNextId();
+        } else if (tasks instanceof ColumnarTaskStore) {
+            ArrayList<Task> loadedTasks = TaskManager.loadTasks();
+            ColumnarTaskStore columns = new ColumnarTaskStore(loadedTasks.size());
+            columns.addAll(loadedTasks);
+            this.tasks = columns;
+            this.savedNextId = TaskManager.getLoadedNextId();
+        } else {
+            this.tasks = TaskManager.loadTasks();
+            this.savedNextId = TaskManager.getLoadedNextId();
+        }
+        this.attributeIndex = null;
+        this.nameIndex = null;
+        this.orderIndexes.clear();
+        this.agendaIndex = null;
+        this.idIndex = createIdIndex();
+        if (reminders != null) {
+            scheduleAllReminders();
+        }
     }
 
     /**
@@ -195,19 +907,85 @@ public class TaskList {
         return this.tasks.size();
     }
 
+    /**
+     * Renders the tasks within the given index range as numbered rows,
+     * one task per line, showing the stable ID of each task that has one.
+     * Only the tasks in the range are visited.
+     *
+     * @param fromIndex 0-based index of the first task to render
+     * @param toIndex 0-based exclusive index of the last task to render
+     * @return numbered rows of the tasks in the range
+     */
+    public String render(int fromIndex, int toIndex) {
+        assert fromIndex >= 0 && fromIndex <= toIndex && toIndex <= tasks.size()
+                : "Render range should be within the task list";
+        renderBuffer.setLength(0);
+        for (int i = fromIndex; i < toIndex; i++) {
+            appendRow(i, tasks.get(i), i < toIndex - 1);
+        }
+        return takeRenderedRows();
+    }
+
+    /**
+     * Renders the tasks within the given range of the given sort order as numbered rows,
+     * numbering each task by its position in the list so that it can be marked or deleted.
+     * Uses the index of the sort order, so only the tasks in the range are visited.
+     *
+     * @param order sort order of the rows
+     * @param fromIndex 0-based position in the sort order of the first task to render
+     * @param toIndex 0-based exclusive position in the sort order of the last task to render
+     * @return numbered rows of the tasks in the range
+     */
+    public String render(SortOrder order, int fromIndex, int toIndex) {
+        assert fromIndex >= 0 && fromIndex <= toIndex && toIndex <= tasks.size()
+                : "Render range should be within the task list";
+        TaskIdIndex ids = getIdIndex();
+        TaskOrderIndex orderIndex = orderIndexes.computeIfAbsent(order,
+                key -> new TaskOrderIndex(key, tasks));
+        renderBuffer.setLength(0);
+        for (int rank = fromIndex; rank < toIndex; rank++) {
+            int index = ids.getIndex(orderIndex.getId(rank));
+            appendRow(index, tasks.get(index), rank < toIndex - 1);
+        }
+        return takeRenderedRows();
+    }
+
+    /**
+     * Appends the numbered row of the given task to the render buffer.
+     *
+     * @param index 0-based index of the task in the list
+     * @param task task to be rendered
+     * @param hasNext whether another row follows
+     */
+    private void appendRow(int index, Task task, boolean hasNext) {
+        renderBuffer.append(index + 1).append(". ");
+        if (task.getId() > 0) {
+            renderBuffer.append('#').append(task.getId()).append(' ');
+        }
+        renderBuffer.append(task);
+        if (hasNext) {
+            renderBuffer.append('\n');
+        }
+    }
+
+    /**
+     * Gets the rows in the render buffer.
+     *
+     * @return rendered rows
+     */
+    private String takeRenderedRows() {
+        String rows = renderBuffer.toString();
+
+        // Avoid holding on to a huge buffer after rendering a long list
+        if (renderBuffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            renderBuffer.setLength(0);
+            renderBuffer.trimToSize();
+        }
+        return rows;
+    }
+
     @Override
     public String toString() {
-        // List out the tasks if list not empty
-        StringBuilder list = new StringBuilder();
-        for (int i = 1; i <= tasks.size(); i++) {
-            String message = String.format("%d. %s",
-                    i,
-                    tasks.get(i - 1));
-            list.append(message);
-            if (i <= tasks.size() - 1) {
-                list.append("\n");
-            }
-        }
-        return list.toString();
+        return render(0, tasks.size());
     }
 }
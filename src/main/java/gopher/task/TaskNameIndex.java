@@ -0,0 +1,341 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes task names by their trigrams so that names can be searched
+ * approximately, tolerating typos.
+ * A search counts the trigrams each task shares with the query, then checks
+ * only the tasks sharing the most against the query by edit distance.
+ *
+ * Each indexed task takes a slot, and the posting list of every trigram holds
+ * the slots of the tasks whose name contains it, so counting is done on plain int arrays.
+ * Removing a task only frees its slot, and the index is rebuilt once freed slots
+ * outnumber the used ones.
+ * Tasks are indexed by ID, so the index stays valid when tasks move in the list.
+ */
+class TaskNameIndex {
+    /** Length of the grams that names are split into */
+    private static final int GRAM_LENGTH = 3;
+
+    /** Largest number of candidates checked by edit distance in one search */
+    private static final int MAX_CANDIDATES = 256;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Slots of the tasks whose name contains each trigram, including freed slots */
+    private final Map<String, Posting> postingsByGram = new HashMap<>();
+
+    /** Slot of each indexed task, keyed by task ID */
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+
+    /** Lower case name of the task in each slot, or null if the slot is freed */
+    private String[] names = new String[INITIAL_CAPACITY];
+
+    /** ID of the task in each slot */
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    /** Number of slots handed out, used or freed */
+    private int slotCount;
+
+    /** Number of freed slots */
+    private int freedCount;
+
+    /** Number of trigrams each slot shares with the current query, reused across searches */
+    private int[] sharedGrams = new int[INITIAL_CAPACITY];
+
+    /** Slots whose shared trigram count is set by the current search */
+    private int[] touched = new int[INITIAL_CAPACITY];
+
+    /** Number of slots touched by the current search */
+    private int touchedCount;
+
+    /**
+     * Represents the slots listed under one trigram.
+     */
+    private static class Posting {
+        private int[] slots = new int[4];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * Represents a task that matches a search, with how well it matches.
+     */
+    static class Match {
+        private final int id;
+        private final int distance;
+        private final int sharedGrams;
+
+        Match(int id, int distance, int sharedGrams) {
+            this.id = id;
+            this.distance = distance;
+            this.sharedGrams = sharedGrams;
+        }
+
+        int getId() {
+            return this.id;
+        }
+
+        int getDistance() {
+            return this.distance;
+        }
+    }
+
+    /**
+     * Constructor for TaskNameIndex which indexes the given tasks.
+     *
+     * @param tasks tasks to be indexed
+     */
+    TaskNameIndex(List<Task> tasks) {
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    /**
+     * Adds the name of the given task to the index.
+     *
+     * @param task task to be indexed
+     */
+    void add(Task task) {
+        add(task.getId(), task.name.toLowerCase());
+    }
+
+    /**
+     * Adds the given lower case name to the index under the given task ID.
+     *
+     * @param id ID of the task
+     * @param name lower case name of the task
+     */
+    private void add(int id, String name) {
+        if (slotCount == names.length) {
+            int capacity = slotCount * 2;
+            names = Arrays.copyOf(names, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            sharedGrams = Arrays.copyOf(sharedGrams, capacity);
+        }
+        int slot = slotCount++;
+        names[slot] = name;
+        ids[slot] = id;
+        slotsById.put(id, slot);
+        for (String gram : getGrams(name)) {
+            postingsByGram.computeIfAbsent(gram, key -> new Posting()).add(slot);
+        }
+    }
+
+    /**
+     * Removes the task with the given ID from the index.
+     *
+     * @param id ID of the task
+     */
+    void remove(int id) {
+        Integer slot = slotsById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        names[slot] = null;
+        freedCount++;
+        if (freedCount > slotsById.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the used slots, dropping the freed ones.
+     */
+    private void rebuild() {
+        String[] oldNames = names;
+        int[] oldIds = ids;
+        int oldSlotCount = slotCount;
+        postingsByGram.clear();
+        slotsById.clear();
+        int capacity = Math.max(INITIAL_CAPACITY, oldSlotCount - freedCount);
+        names = new String[capacity];
+        ids = new int[capacity];
+        sharedGrams = new int[capacity];
+        slotCount = 0;
+        freedCount = 0;
+        for (int slot = 0; slot < oldSlotCount; slot++) {
+            if (oldNames[slot] != null) {
+                add(oldIds[slot], oldNames[slot]);
+            }
+        }
+    }
+
+    /**
+     * Finds the tasks whose name best matches the given query, allowing a few typos.
+     * A name matches if some part of it is within a small edit distance of the query,
+     * and the distance allowed grows with the length of the query.
+     *
+     * @param query text to search for
+     * @param limit largest number of matches wanted
+     * @return matches ordered from the closest, ties broken by the number of shared trigrams
+     */
+    List<Match> search(String query, int limit) {
+        String normalizedQuery = query.toLowerCase();
+        int maxDistance = getMaxDistance(normalizedQuery);
+        List<Match> matches = new ArrayList<>();
+        try {
+            for (int slot : getCandidates(normalizedQuery, maxDistance)) {
+                int distance = getSubstringDistance(normalizedQuery, names[slot]);
+                if (distance <= maxDistance) {
+                    matches.add(new Match(ids[slot], distance, sharedGrams[slot]));
+                }
+            }
+        } finally {
+            clearSharedGrams();
+        }
+        matches.sort(Comparator.comparingInt((Match match) -> match.distance)
+                .thenComparingInt(match -> -match.sharedGrams)
+                .thenComparingInt(match -> match.id));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /**
+     * Gets the slots of the tasks worth checking against the query, which are
+     * those sharing the most trigrams with it.
+     * The shared trigram counts are left set until clearSharedGrams is called.
+     * A name within the allowed distance of the query must share a certain number
+     * of trigrams with it, so tasks sharing fewer are skipped straight away.
+     * Queries too short to have a trigram are checked against every task.
+     *
+     * @param query lower case query
+     * @param maxDistance largest edit distance accepted
+     * @return slots of the candidate tasks
+     */
+    private int[] getCandidates(String query, int maxDistance) {
+        Set<String> grams = getGrams(query);
+        if (grams.isEmpty()) {
+            return slotsById.values().stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // Count the shared trigrams of every slot, remembering which slots were touched
+        for (String gram : grams) {
+            Posting posting = postingsByGram.get(gram);
+            if (posting == null) {
+                continue;
+            }
+            for (int i = 0; i < posting.size; i++) {
+                int slot = posting.slots[i];
+                if (sharedGrams[slot]++ == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = slot;
+                }
+            }
+        }
+
+        // Keep the slots sharing the most trigrams, finding the cut-off count
+        // with a histogram of the counts rather than sorting
+        int minSharedGrams = Math.max(1, grams.size() - GRAM_LENGTH * maxDistance);
+        int[] slotsPerCount = new int[grams.size() + 1];
+        for (int i = 0; i < touchedCount; i++) {
+            slotsPerCount[sharedGrams[touched[i]]]++;
+        }
+        int cutoff = grams.size();
+        int kept = slotsPerCount[cutoff];
+        while (cutoff > minSharedGrams && kept < MAX_CANDIDATES) {
+            cutoff--;
+            kept += slotsPerCount[cutoff];
+        }
+
+        // Slots above the cut-off all fit, and slots at the cut-off fill the remaining room
+        int[] candidates = new int[Math.min(kept, MAX_CANDIDATES)];
+        int candidateCount = 0;
+        for (int i = 0; i < touchedCount; i++) {
+            int slot = touched[i];
+            if (sharedGrams[slot] > cutoff && names[slot] != null) {
+                candidates[candidateCount++] = slot;
+            }
+        }
+        for (int i = 0; i < touchedCount && candidateCount < candidates.length; i++) {
+            int slot = touched[i];
+            if (sharedGrams[slot] == cutoff && names[slot] != null) {
+                candidates[candidateCount++] = slot;
+            }
+        }
+        return Arrays.copyOf(candidates, candidateCount);
+    }
+
+    /**
+     * Resets the shared trigram counts of the slots touched by the last search.
+     */
+    private void clearSharedGrams() {
+        for (int i = 0; i < touchedCount; i++) {
+            sharedGrams[touched[i]] = 0;
+        }
+        touchedCount = 0;
+    }
+
+    /**
+     * Gets the distinct trigrams of the given text.
+     *
+     * @param text lower case text
+     * @return trigrams of the text, empty if the text is shorter than a trigram
+     */
+    private static Set<String> getGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * Gets the number of typos allowed for the given query:
+     * one for short queries, and one more for every four further characters.
+     *
+     * @param query lower case query
+     * @return largest edit distance accepted
+     */
+    private static int getMaxDistance(String query) {
+        return 1 + Math.max(0, query.length() - 4) / 4;
+    }
+
+    /**
+     * Computes the smallest edit distance between the query and any substring of the text,
+     * so that a query matching part of a name does not pay for the rest of the name.
+     *
+     * @param query lower case query
+     * @param text lower case name of a task
+     * @return smallest number of insertions, deletions and substitutions needed
+     */
+    static int getSubstringDistance(String query, String text) {
+        // Only the previous column is needed, and a match may start anywhere in the text,
+        // so the first row stays 0 for every text position
+        int[] previous = new int[query.length() + 1];
+        int[] current = new int[query.length() + 1];
+        for (int i = 0; i <= query.length(); i++) {
+            previous[i] = i;
+        }
+        int best = previous[query.length()];
+        for (int j = 1; j <= text.length(); j++) {
+            current[0] = 0;
+            for (int i = 1; i <= query.length(); i++) {
+                int cost = query.charAt(i - 1) == text.charAt(j - 1) ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1),
+                        previous[i - 1] + cost);
+            }
+            best = Math.min(best, current[query.length()]);
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,55 @@
+package gopher.task;
+
+import gopher.metrics.Metrics;
+
+/**
+ * Bounded pool of task names and tags, so that tasks sharing a name
+ * such as "standup" or "pay rent" also share a single String instance.
+ * The pool is a fixed-size table in which each string has one slot,
+ * and a new string simply replaces whatever was in its slot, so the pool
+ * never holds more than a fixed number of strings and never needs evicting.
+ * Races between threads can at worst lose an entry, never return a wrong string.
+ *
+ * Hits and misses are counted in plain fields, as interning runs for every task loaded,
+ * and the metrics read them only when a report asks. Races may lose a few counts.
+ */
+public class TaskNamePool {
+    /** Number of slots in the pool, a power of two */
+    private static final int CAPACITY = 1 << 12;
+
+    /** Pooled strings, indexed by the spread hash of the string */
+    private static final String[] ENTRIES = new String[CAPACITY];
+
+    /** Number of strings found in the pool */
+    private static long hitCount;
+
+    /** Number of strings added to the pool */
+    private static long missCount;
+
+    static {
+        Metrics.registerGauge(Metrics.NAME_POOL_HITS, () -> hitCount);
+        Metrics.registerGauge(Metrics.NAME_POOL_MISSES, () -> missCount);
+    }
+
+    /**
+     * Gets the pooled instance of the given string, pooling the string if
+     * its slot does not already hold an equal one.
+     * Hits and misses are counted for the metrics.
+     *
+     * @param value name or tag to be pooled
+     * @return pooled string equal to the given one
+     */
+    public static String intern(String value) {
+        assert value != null : "Pooled string cannot be null";
+        int hash = value.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+        String pooled = ENTRIES[slot];
+        if (value.equals(pooled)) {
+            hitCount++;
+            return pooled;
+        }
+        ENTRIES[slot] = value;
+        missCount++;
+        return value;
+    }
+}
@@ -0,0 +1,192 @@
+package gopher.task;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Keeps the IDs of the tasks sorted in one sort order, so that any page of the
+ * sorted list can be read straight off the index.
+ * Entries are held in parallel arrays of sort keys, names and IDs, kept sorted
+ * by key, then by name in the name order, then by ID.
+ * Adding or removing a task finds its entry by binary search and shifts the
+ * entries after it, which is a single block copy of primitive arrays.
+ * Tasks are indexed by ID, so the index stays valid when tasks move in the list.
+ */
+class TaskOrderIndex {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final SortOrder order;
+
+    /** Sort key of each entry, compared as unsigned numbers */
+    private long[] keys;
+
+    /** Name of the task of each entry, only kept for the name order */
+    private String[] names;
+
+    /** ID of the task of each entry */
+    private int[] ids;
+
+    /** Number of entries */
+    private int size;
+
+    /**
+     * Constructor for TaskOrderIndex which sorts the given tasks.
+     *
+     * @param order sort order kept by the index
+     * @param tasks tasks to be indexed
+     */
+    TaskOrderIndex(SortOrder order, List<Task> tasks) {
+        this.order = order;
+        int capacity = Math.max(INITIAL_CAPACITY, tasks.size());
+        long[] unsortedKeys = new long[tasks.size()];
+        String[] unsortedNames = new String[tasks.size()];
+        int[] unsortedIds = new int[tasks.size()];
+        Integer[] sortedSlots = new Integer[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            unsortedKeys[i] = order.getKey(task);
+            unsortedNames[i] = order == SortOrder.NAME ? task.name : null;
+            unsortedIds[i] = task.getId();
+            sortedSlots[i] = i;
+        }
+        Arrays.sort(sortedSlots, (first, second) -> compare(unsortedKeys[first], unsortedNames[first],
+                unsortedIds[first], unsortedKeys[second], unsortedNames[second], unsortedIds[second]));
+
+        this.keys = new long[capacity];
+        this.names = new String[capacity];
+        this.ids = new int[capacity];
+        for (int i = 0; i < sortedSlots.length; i++) {
+            keys[i] = unsortedKeys[sortedSlots[i]];
+            names[i] = unsortedNames[sortedSlots[i]];
+            ids[i] = unsortedIds[sortedSlots[i]];
+        }
+        this.size = tasks.size();
+    }
+
+    /**
+     * Adds the given task to the index at its sorted position.
+     *
+     * @param task task to be indexed
+     */
+    void add(Task task) {
+        long key = order.getKey(task);
+        String name = order == SortOrder.NAME ? task.name : null;
+        int slot = search(key, name, task.getId());
+        if (slot >= 0) {
+            return;
+        }
+        slot = -slot - 1;
+        if (size == keys.length) {
+            int capacity = size + (size >> 1);
+            keys = Arrays.copyOf(keys, capacity);
+            names = Arrays.copyOf(names, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+        }
+        System.arraycopy(keys, slot, keys, slot + 1, size - slot);
+        System.arraycopy(names, slot, names, slot + 1, size - slot);
+        System.arraycopy(ids, slot, ids, slot + 1, size - slot);
+        keys[slot] = key;
+        names[slot] = name;
+        ids[slot] = task.getId();
+        size++;
+    }
+
+    /**
+     * Removes the given task from the index.
+     * Must be called before the sorted fields of the task are changed.
+     *
+     * @param task task to be removed
+     */
+    void remove(Task task) {
+        int slot = search(order.getKey(task), order == SortOrder.NAME ? task.name : null, task.getId());
+        if (slot < 0) {
+            return;
+        }
+        System.arraycopy(keys, slot + 1, keys, slot, size - slot - 1);
+        System.arraycopy(names, slot + 1, names, slot, size - slot - 1);
+        System.arraycopy(ids, slot + 1, ids, slot, size - slot - 1);
+        size--;
+        names[size] = null;
+    }
+
+    /**
+     * Removes every task whose ID meets the given condition, in a single pass over the index.
+     *
+     * @param isRemoved check of whether the task with an ID is removed
+     */
+    void removeIf(IntPredicate isRemoved) {
+        int writeSlot = 0;
+        for (int readSlot = 0; readSlot < size; readSlot++) {
+            if (isRemoved.test(ids[readSlot])) {
+                continue;
+            }
+            keys[writeSlot] = keys[readSlot];
+            names[writeSlot] = names[readSlot];
+            ids[writeSlot] = ids[readSlot];
+            writeSlot++;
+        }
+        Arrays.fill(names, writeSlot, size, null);
+        size = writeSlot;
+    }
+
+    /**
+     * Gets the ID of the task at the given position in the sort order.
+     *
+     * @param rank 0-based position in the sort order
+     * @return ID of the task
+     */
+    int getId(int rank) {
+        assert rank >= 0 && rank < size : "Rank should be within the index";
+        return ids[rank];
+    }
+
+    int getSize() {
+        return this.size;
+    }
+
+    /**
+     * Finds the entry with the given key, name and ID by binary search.
+     *
+     * @param key sort key of the task
+     * @param name name of the task, or null outside the name order
+     * @param id ID of the task
+     * @return slot of the entry, or -(insertion slot) - 1 if there is no such entry
+     */
+    private int search(long key, String name, int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int result = compare(keys[middle], names[middle], ids[middle], key, name, id);
+            if (result < 0) {
+                low = middle + 1;
+            } else if (result > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Compares two entries by key, then by name if both have one, then by ID.
+     *
+     * @param firstKey sort key of the first entry
+     * @param firstName name of the first entry, or null outside the name order
+     * @param firstId task ID of the first entry
+     * @param secondKey sort key of the second entry
+     * @param secondName name of the second entry, or null outside the name order
+     * @param secondId task ID of the second entry
+     * @return negative, zero or positive as the first entry comes before, with or after the second
+     */
+    private static int compare(long firstKey, String firstName, int firstId,
+            long secondKey, String secondName, int secondId) {
+        int result = Long.compareUnsigned(firstKey, secondKey);
+        if (result == 0 && firstName != null && secondName != null) {
+            result = firstName.compareToIgnoreCase(secondName);
+        }
+        return result != 0 ? result : Integer.compare(firstId, secondId);
+    }
+}
@@ -0,0 +1,137 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+
+/**
+ * Checks every task of a list against a condition, giving the indexes of the matching tasks.
+ * Large lists are split into blocks checked in parallel on the common fork-join pool,
+ * while small lists are checked on the calling thread, where splitting costs more than it saves.
+ *
+ * Blocks start at multiples of 64 tasks, so every block writes its own words of the
+ * result bitmap and the blocks need no merging or locking.
+ *
+ * Only lists whose get only reads, an ArrayList or a columnar store, are checked in parallel.
+ * Getting a task from a paged store may decode it into the task cache, evict others or write
+ * them back, none of which is safe from several threads, so paged stores are checked on the calling thread.
+ */
+class TaskScan {
+    /** Smallest list size at which the tasks are checked in parallel */
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    /** Number of tasks a block is split down to, a multiple of 64 */
+    private static final int BLOCK_SIZE = 64 * 64;
+
+    /**
+     * Represents the checking of the tasks within one range of indexes,
+     * splitting the range in half until it fits in a block.
+     */
+    private static class ScanAction extends RecursiveAction {
+        private final List<Task> tasks;
+        private final Predicate<Task> condition;
+        private final long[] words;
+        private final int fromIndex;
+        private final int toIndex;
+
+        ScanAction(List<Task> tasks, Predicate<Task> condition, long[] words, int fromIndex, int toIndex) {
+            this.tasks = tasks;
+            this.condition = condition;
+            this.words = words;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= BLOCK_SIZE) {
+                scanRange(tasks, condition, words, fromIndex, toIndex);
+                return;
+            }
+            // Round the middle down to a word boundary, so no word is shared by two halves
+            int middle = (fromIndex + (toIndex - fromIndex) / 2) & ~63;
+            invokeAll(new ScanAction(tasks, condition, words, fromIndex, middle),
+                    new ScanAction(tasks, condition, words, middle, toIndex));
+        }
+    }
+
+    /**
+     * Gets the indexes of the tasks meeting the given condition,
+     * checking the tasks in parallel if the list is large.
+     * The condition may be called from several threads at once.
+     * Any exception it throws is rethrown to the caller.
+     *
+     * @param tasks tasks to be checked, with fast access by index
+     * @param condition check of a single task
+     * @return 0-based indexes of the matching tasks
+     */
+    static BitSet scan(List<Task> tasks, Predicate<Task> condition) {
+        return scan(tasks, condition, PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Gets the indexes of the tasks meeting the given condition,
+     * checking the tasks in parallel if the list has at least the given number of tasks.
+     *
+     * @param tasks tasks to be checked, with fast access by index
+     * @param condition check of a single task
+     * @param parallelThreshold smallest list size checked in parallel
+     * @return 0-based indexes of the matching tasks
+     */
+    static BitSet scan(List<Task> tasks, Predicate<Task> condition, int parallelThreshold) {
+        return scan(tasks, condition, parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Gets the indexes of the tasks meeting the given condition, checking the tasks in parallel
+     * on the given pool if the list has at least the given number of tasks and can be read from
+     * several threads.
+     *
+     * @param tasks tasks to be checked, with fast access by index
+     * @param condition check of a single task
+     * @param parallelThreshold smallest list size checked in parallel
+     * @param pool pool the blocks are checked on
+     * @return 0-based indexes of the matching tasks
+     */
+    static BitSet scan(List<Task> tasks, Predicate<Task> condition, int parallelThreshold, ForkJoinPool pool) {
+        int size = tasks.size();
+        long[] words = new long[(size + 63) / 64];
+        if (size < parallelThreshold || pool.getParallelism() < 2 || !isSafeToReadInParallel(tasks)) {
+            scanRange(tasks, condition, words, 0, size);
+        } else {
+            pool.invoke(new ScanAction(tasks, condition, words, 0, size));
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Checks whether getting tasks from the given list only reads it, so that several threads may do so at once.
+     *
+     * @param tasks tasks to be checked
+     * @return true if the list is an ArrayList or a columnar store
+     */
+    private static boolean isSafeToReadInParallel(List<Task> tasks) {
+        return tasks instanceof ArrayList || tasks instanceof ColumnarTaskStore;
+    }
+
+    /**
+     * Checks the tasks within the given range of indexes, setting the bit of every matching task.
+     *
+     * @param tasks tasks to be checked
+     * @param condition check of a single task
+     * @param words words of the result bitmap
+     * @param fromIndex 0-based index of the first task to check
+     * @param toIndex 0-based exclusive index of the last task to check
+     */
+    private static void scanRange(List<Task> tasks, Predicate<Task> condition, long[] words,
+            int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            if (condition.test(tasks.get(i))) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package gopher.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the tasks chosen by a mark, unmark or delete command.
+ * A selector is a union of terms, each of which is one of:
+ *     1. A task number, e.g. 3.
+ *     2. A range of task numbers, e.g. 1-500.
+ *     3. A stable task ID, e.g. #17.
+ *     4. A keyword: all, done or overdue.
+ *     5. A search keyword, e.g. find:report.
+ * The selector is resolved against a TaskList through TaskList.select.
+ */
+public class TaskSelector {
+    /** Initial capacity of the primitive arrays, grown by doubling when full */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Single task numbers, sorted and deduplicated by getTaskNumbers */
+    private int[] taskNumbers = new int[INITIAL_CAPACITY];
+    private int taskNumberCount;
+
+    /** Ranges of task numbers, stored as consecutive inclusive start and end pairs */
+    private int[] ranges = new int[INITIAL_CAPACITY];
+    private int rangeCount;
+
+    /** Stable task IDs */
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int idCount;
+
+    /** Search keywords given through find: terms */
+    private final List<String> keywords = new ArrayList<>();
+
+    private boolean isAllSelected;
+    private boolean isDoneSelected;
+    private boolean isOverdueSelected;
+
+    /**
+     * Adds a single task number to the selection.
+     *
+     * @param taskNumber 1-based task number
+     */
+    public void addTaskNumber(int taskNumber) {
+        taskNumbers = ensureCapacity(taskNumbers, taskNumberCount + 1);
+        taskNumbers[taskNumberCount++] = taskNumber;
+    }
+
+    /**
+     * Adds an inclusive range of task numbers to the selection.
+     * The bounds may be given in either order.
+     *
+     * @param start 1-based task number at one end of the range
+     * @param end 1-based task number at the other end of the range
+     */
+    public void addRange(int start, int end) {
+        ranges = ensureCapacity(ranges, 2 * rangeCount + 2);
+        ranges[2 * rangeCount] = Math.min(start, end);
+        ranges[2 * rangeCount + 1] = Math.max(start, end);
+        rangeCount++;
+    }
+
+    /**
+     * Adds the task with the given stable ID to the selection.
+     *
+     * @param id stable ID of the task
+     */
+    public void addId(int id) {
+        ids = ensureCapacity(ids, idCount + 1);
+        ids[idCount++] = id;
+    }
+
+    /**
+     * Grows the given array by doubling its length until it holds the required number of elements.
+     *
+     * @param array array to be grown
+     * @param required number of elements the array must hold
+     * @return the given array if it is large enough, otherwise a larger copy
+     */
+    private static int[] ensureCapacity(int[] array, int required) {
+        if (required <= array.length) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(required, array.length * 2));
+    }
+
+    /**
+     * Adds the tasks matching the given search keyword to the selection.
+     *
+     * @param keyword keyword used to search for tasks
+     */
+    public void addKeyword(String keyword) {
+        keywords.add(keyword);
+    }
+
+    public void selectAll() {
+        this.isAllSelected = true;
+    }
+
+    public void selectDone() {
+        this.isDoneSelected = true;
+    }
+
+    public void selectOverdue() {
+        this.isOverdueSelected = true;
+    }
+
+    /**
+     * Gets the single task numbers in ascending order, with repeated numbers removed.
+     * The numbers are sorted and deduplicated in place, so this can be called repeatedly.
+     *
+     * @return distinct task numbers in ascending order
+     */
+    public int[] getTaskNumbers() {
+        Arrays.sort(taskNumbers, 0, taskNumberCount);
+        int distinctCount = 0;
+        for (int i = 0; i < taskNumberCount; i++) {
+            if (distinctCount == 0 || taskNumbers[i] != taskNumbers[distinctCount - 1]) {
+                taskNumbers[distinctCount++] = taskNumbers[i];
+            }
+        }
+        taskNumberCount = distinctCount;
+        return Arrays.copyOf(taskNumbers, taskNumberCount);
+    }
+
+    public int getTaskNumberCount() {
+        return this.taskNumberCount;
+    }
+
+    public int getTaskNumber(int index) {
+        return this.taskNumbers[index];
+    }
+
+    public int getRangeCount() {
+        return this.rangeCount;
+    }
+
+    public int getRangeStart(int index) {
+        return this.ranges[2 * index];
+    }
+
+    public int getRangeEnd(int index) {
+        return this.ranges[2 * index + 1];
+    }
+
+    public int getIdCount() {
+        return this.idCount;
+    }
+
+    public int getId(int index) {
+        return this.ids[index];
+    }
+
+    public List<String> getKeywords() {
+        return this.keywords;
+    }
+
+    public boolean isAllSelected() {
+        return this.isAllSelected;
+    }
+
+    public boolean isDoneSelected() {
+        return this.isDoneSelected;
+    }
+
+    public boolean isOverdueSelected() {
+        return this.isOverdueSelected;
+    }
+
+    /**
+     * Checks whether any term needs every task in the list to be inspected.
+     *
+     * @return true if done, overdue or find: terms are given
+     */
+    public boolean needsScan() {
+        return isDoneSelected || isOverdueSelected || !keywords.isEmpty();
+    }
+
+    /**
+     * Checks whether only single task numbers are given.
+     *
+     * @return true if every term is a single task number
+     */
+    public boolean hasOnlyTaskNumbers() {
+        return rangeCount == 0 && idCount == 0 && !isAllSelected && !needsScan();
+    }
+
+    /**
+     * Checks whether no term is given.
+     *
+     * @return true if the selector selects nothing
+     */
+    public boolean isEmpty() {
+        return taskNumberCount == 0 && hasOnlyTaskNumbers();
+    }
+}
@@ -18,23 +18,21 @@ public class ToDo extends Task {
     }
 
     @Override
-    public void update(String[] tokens) throws InvalidTokenException {
+    protected void updateFields(String[] tokens) throws InvalidTokenException {
         // Extract task name from the given tokens
         String taskName = Parser.parseUpdateTodoTaskCommand(tokens)[0];
         if (!taskName.isEmpty()) {
-            this.name = taskName;
+            this.name = TaskNamePool.intern(taskName);
         }
     }
 
     @Override
-    public String getSaveMessage() {
-        return String.format("T | %s | %s",
-                getStatusIcon(),
-                this.name);
+    protected String formatSaveMessage() {
+        return "T | " + getStatusIcon() + " | " + Parser.escapeSavedColumn(this.name);
     }
 
     @Override
-    public String toString() {
-        return String.format("[T]%s", super.toString());
+    protected String formatDisplayString() {
+        return "[T]" + getDescription();
     }
 }
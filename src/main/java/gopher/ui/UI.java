@@ -1,9 +1,18 @@
 package gopher.ui;
 
-import gopher.exception.InvalidTaskNumberException;
+import java.util.BitSet;
+import java.util.List;
+
+import gopher.exception.InvalidPageNumberException;
 import gopher.exception.UnknownCommandException;
 import gopher.message.Message;
 import gopher.message.MessageType;
+import gopher.parser.Parser;
+import gopher.reminder.Reminder;
+import gopher.storage.SyncPlan;
+import gopher.storage.TaskCache;
+import gopher.task.Agenda;
+import gopher.task.ListQuery;
 import gopher.task.Task;
 import gopher.task.TaskList;
 
@@ -13,6 +22,9 @@ import gopher.task.TaskList;
  * Gopher with relevant information such as text, message type etc.
  */
 public class UI {
+    /** Maximum number of tasks listed after a mark, unmark or delete */
+    private static final int MAX_LISTED_SELECTED_TASKS = 20;
+
     /**
      * Converts a String text to a Message that can be returned by Gopher.
      *
@@ -58,29 +70,99 @@ public class UI {
                 1. todo [name] - Create a todo task
                 2. deadline [name] /by [due date] - Create a deadline that due by the given date
                 3. event [name] /from [start date] /to [end date] - Create an Event with specified start and end dates
+                   Add /p [low|medium|high] and /tag [tag] to any task to set its priority and tags
+                   Add /every [daily|weekly|monthly] /until [end date] to a deadline or event to repeat it
                 4. mark/unmark X Y Z... - Mark tasks at position X Y Z as done/not done
-                5. find [keyword] - Find matching tasks based on keywords
+                   Tasks can also be selected by ID (#17), range (1-500), all, done, overdue
+                   or keyword (find:report), for mark, unmark and delete alike
+                5. find [keyword] - Find tasks containing the exact keyword
+                   find --regex [pattern] - Find tasks matching a regular expression
+                   search [text] - Find the tasks with the closest names, even with typos
                 6. delete X Y Z - Delete tasks at position X Y Z
-                7. list - List out the current tasks
+                7. list [page] [--page-size N] [/tag tag] [/p priority] - List out the current tasks,
+                   one page at a time, optionally only those with the given tags and priority
+                   list /sort due|start|name|status - List out the tasks in the given order
                 8. update X [name] [fields] [detail] - update task at position X with the specified name and fields
-                9. bye - End the interaction
+                9. stats - Show command and storage statistics
+                   cache - Show how often tasks were found in the task cache of the paged store
+                   agenda - Show what is overdue, due today and due this week
+                   sync [path] - Sync the tasks with another task file, e.g. one on a server
+                10. bye - End the interaction
                 """;
         return UI.getMessage(text);
     }
 
     /**
-     * Gets task visualization for the given TaskList.
+     * Gets task visualization for the requested page of the given TaskList.
+     * Only the tasks on the requested page are rendered.
      *
      * @param tasks TaskList object to be printed
+     * @param query list query specifying which page to show
      * @return Message object containing task list details
+     * @throws InvalidPageNumberException if the requested page does not exist
      */
-    public static Message getTaskListMessage(TaskList tasks) {
-        String text = String.format("You currently have %d %s in the task list\n%s%s",
-                tasks.getSize(),
-                tasks.getSize() <= 1 ? "task" : "tasks",
-                tasks,
-                tasks.getSize() == 0 ? "Good job! There's no pending tasks to be done!" : "");
-        return UI.getMessage(text);
+    public static Message getTaskListMessage(TaskList tasks, ListQuery query)
+            throws InvalidPageNumberException {
+        int size = tasks.getSize();
+        StringBuilder text = new StringBuilder("You currently have ")
+                .append(size)
+                .append(size <= 1 ? " task" : " tasks")
+                .append(" in the task list\n");
+        appendPage(text, tasks, query);
+        if (size == 0) {
+            text.append("Good job! There's no pending tasks to be done!");
+        }
+        return UI.getMessage(text.toString());
+    }
+
+    /**
+     * Gets task visualization for the requested page of the tasks that
+     * matched the filter of a list command.
+     *
+     * @param tasks TaskList object containing the matched tasks
+     * @param query list query specifying the filter and which page to show
+     * @return Message object containing the matched tasks
+     * @throws InvalidPageNumberException if the requested page does not exist
+     */
+    public static Message getFilteredTaskListMessage(TaskList tasks, ListQuery query)
+            throws InvalidPageNumberException {
+        if (tasks.getSize() == 0) {
+            return UI.getMessage("Sorry, I can't find any tasks with the given priority and tags...");
+        }
+        StringBuilder text = new StringBuilder("I have found ")
+                .append(tasks.getSize())
+                .append(tasks.getSize() == 1 ? " task" : " tasks")
+                .append(" with the given priority and tags:\n");
+        appendPage(text, tasks, query);
+        return UI.getMessage(text.toString());
+    }
+
+    /**
+     * Appends the rows on the requested page of the given TaskList to the text,
+     * in the requested sort order if any, followed by the page position if the tasks span several pages.
+     *
+     * @param text text to be appended to
+     * @param tasks TaskList object to be printed
+     * @param query list query specifying which page to show
+     * @throws InvalidPageNumberException if the requested page does not exist
+     */
+    private static void appendPage(StringBuilder text, TaskList tasks, ListQuery query)
+            throws InvalidPageNumberException {
+        int size = tasks.getSize();
+        int pageCount = query.getPageCount(size);
+        int fromIndex = query.getFromIndex(size);
+        int toIndex = query.getToIndex(size);
+        if (query.getSortOrder() == null) {
+            text.append(tasks.render(fromIndex, toIndex));
+        } else {
+            text.append("Sorted by ").append(query.getSortOrder().getDescription()).append(":\n")
+                    .append(tasks.render(query.getSortOrder(), fromIndex, toIndex));
+        }
+        if (pageCount > 1) {
+            text.append("\n(Page ").append(query.getPage())
+                    .append(" of ").append(pageCount)
+                    .append(", use list [page] to see other pages)");
+        }
     }
 
     /**
@@ -99,6 +181,106 @@ public class UI {
                 tasks));
     }
 
+    /**
+     * Gets the search result message based on the given matched TaskList.
+     *
+     * @param tasks TaskList object containing the matched tasks, closest first
+     * @param query text searched for
+     * @return Message object with the matched task list as content
+     */
+    public static Message getSearchResultMessage(TaskList tasks, String query) {
+        if (tasks.getSize() == 0) {
+            return UI.getMessage("Sorry, I can't find any tasks with a name close to \"" + query + "\"...");
+        }
+        return UI.getMessage(String.format("Here %s the closest %s to \"%s\":\n%s",
+                tasks.getSize() == 1 ? "is" : "are",
+                tasks.getSize() == 1 ? "match" : "matches",
+                query,
+                tasks));
+    }
+
+    /**
+     * Gets the warning message when user inputs a search command without any text.
+     *
+     * @return Message object of type MessageType.Error warning user that the search text is empty
+     */
+    public static Message getEmptySearchQueryWarning() {
+        return UI.getErrorMessage("Sorry, I don't know what to search for...\nPlease try again...");
+    }
+
+    /**
+     * Gets the message after syncing with another task file.
+     *
+     * @param plan plan of the changes taken in and sent
+     * @param path path of the other task file
+     * @return Message object showing how many changes were taken in and sent
+     */
+    public static Message getSyncMessage(SyncPlan plan, String path) {
+        if (plan.getReceivedCount() == 0 && plan.getSentCount() == 0) {
+            return UI.getMessage("Your tasks are already in sync with " + path + "!");
+        }
+        StringBuilder text = new StringBuilder("Synced with ").append(path).append(":\n")
+                .append(plan.getReceivedCount()).append(plan.getReceivedCount() == 1 ? " change" : " changes")
+                .append(" taken in, ")
+                .append(plan.getSentCount()).append(plan.getSentCount() == 1 ? " change" : " changes")
+                .append(" sent");
+        if (plan.getConflictCount() > 0) {
+            text.append("\n").append(plan.getConflictCount())
+                    .append(plan.getConflictCount() == 1 ? " task was" : " tasks were")
+                    .append(" changed on both sides, so I kept the copy changed last");
+        }
+        return UI.getMessage(text.toString());
+    }
+
+    /**
+     * Gets the message when changes made to the task file by another program are taken in.
+     *
+     * @param plan plan of the changes taken in
+     * @return Message object that shows how many changes were taken in
+     */
+    public static Message getReloadMessage(SyncPlan plan) {
+        StringBuilder text = new StringBuilder("Your task file was changed outside of Gopher, so I took in ")
+                .append(plan.getReceivedCount()).append(plan.getReceivedCount() == 1 ? " change" : " changes");
+        if (plan.getConflictCount() > 0) {
+            text.append("\n").append(plan.getConflictCount())
+                    .append(plan.getConflictCount() == 1 ? " task was" : " tasks were")
+                    .append(" also changed here, so I kept the copy changed last");
+        }
+        return UI.getMessage(text.toString());
+    }
+
+    /**
+     * Gets the message when a command that needs the task list is entered while the tasks are loading.
+     *
+     * @param loadedTaskCount number of tasks loaded so far
+     * @return Message object telling the user that the command will run once the tasks are loaded
+     */
+    public static Message getLoadingMessage(int loadedTaskCount) {
+        return UI.getMessage("I'm still loading your tasks (" + loadedTaskCount + " so far)...\n"
+                + "I'll get to that as soon as they are all in!");
+    }
+
+    /**
+     * Gets the warning message when user inputs a sync command without a path.
+     *
+     * @return Message object of type MessageType.Error warning user that the path is missing
+     */
+    public static Message getEmptySyncPathWarning() {
+        return UI.getErrorMessage("Sorry, I don't know which task file to sync with...\n"
+                + "Please try again with a path, e.g. sync /mnt/server/task.txt...");
+    }
+
+    /**
+     * Gets the warning message when user inputs a sync command while the tasks are kept in a paged store.
+     *
+     * @return Message object of type MessageType.Error warning user that sync is not available
+     */
+    public static Message getPagedSyncWarning() {
+        return UI.getErrorMessage("Sorry, I can't sync while your tasks are kept in task/task.db...\n"
+                + "The task file was moved there when paged storage was turned on, "
+                + "and is no longer read or written...");
+    }
+
     /**
      * Gets the message when TaskList successfully add in a new task.
      *
@@ -110,69 +292,180 @@ public class UI {
     }
 
     /**
-     * Gets the message when a given task is successfully mark as done.
+     * Gets the message when the selected tasks are successfully marked as done.
      *
      * @param taskList taskList involved in the operation
-     * @param taskNumbers numbers of the tasks being marked as done
-     * @return Message object that shows a task is successfully marked as done
+     * @param selection indexes of the tasks being marked as done
+     * @return Message object that shows the tasks are successfully marked as done
      */
-    public static Message getMarkAsDoneMessage(TaskList taskList, int[] taskNumbers)
-            throws InvalidTaskNumberException {
+    public static Message getMarkAsDoneMessage(TaskList taskList, BitSet selection) {
         StringBuilder message = new StringBuilder(
                 String.format("I've marked %s %s as done:\n",
-                        taskNumbers.length <= 1 ? "this" : "these",
-                        taskNumbers.length <= 1 ? "task" : "tasks"
+                        selection.cardinality() <= 1 ? "this" : "these",
+                        selection.cardinality() <= 1 ? "task" : "tasks"
                 ));
-        for (int i = 1; i <= taskNumbers.length; i++) {
-            message.append(String.format("%d. %s", i, taskList.getTask(taskNumbers[i - 1])));
-            message.append("\n");
-        }
+        appendSelectedTasks(message, taskList, selection);
         message.append("Well Done! Keep up the good work!");
         return UI.getMessage(message.toString());
     }
 
     /**
-     * Gets the message when a given task is successfully mark as not done.
+     * Gets the message when the selected tasks are successfully marked as not done.
      *
      * @param taskList taskList involved in the operation
-     * @param taskNumbers numbers of the tasks being marked as not done
-     * @return Message object that shows a task is successfully marked as not done
+     * @param selection indexes of the tasks being marked as not done
+     * @return Message object that shows the tasks are successfully marked as not done
      */
-    public static Message getMarkAsUndoneMessage(TaskList taskList, int[] taskNumbers)
-            throws InvalidTaskNumberException {
+    public static Message getMarkAsUndoneMessage(TaskList taskList, BitSet selection) {
         StringBuilder message = new StringBuilder(
                 String.format("Ok, I've marked %s %s as not done yet:\n",
-                        taskNumbers.length <= 1 ? "this" : "these",
-                        taskNumbers.length <= 1 ? "task" : "tasks"
+                        selection.cardinality() <= 1 ? "this" : "these",
+                        selection.cardinality() <= 1 ? "task" : "tasks"
                 ));
-        for (int i = 1; i <= taskNumbers.length; i++) {
-            message.append(String.format("%d. %s", i, taskList.getTask(taskNumbers[i - 1])));
-            message.append("\n");
-        }
+        appendSelectedTasks(message, taskList, selection);
         return UI.getMessage(message.toString());
     }
 
     /**
-     * Gets the message when TaskList successfully delete a task.
+     * Gets the message when TaskList successfully delete the selected tasks.
+     * Must be called before the tasks are deleted.
      *
      * @param taskList taskList involved in the operation
-     * @param taskNumbers numbers of the tasks being deleted
-     * @return Message object that shows a task is successfully deleted
+     * @param selection indexes of the tasks being deleted
+     * @return Message object that shows the tasks are successfully deleted
      */
-    public static Message getDeleteTaskMessage(TaskList taskList, int[] taskNumbers)
-            throws InvalidTaskNumberException {
+    public static Message getDeleteTaskMessage(TaskList taskList, BitSet selection) {
         StringBuilder message = new StringBuilder(
                 String.format("Noted. I've removed %s %s:\n",
-                        taskNumbers.length <= 1 ? "this" : "these",
-                        taskNumbers.length <= 1 ? "task" : "tasks"
+                        selection.cardinality() <= 1 ? "this" : "these",
+                        selection.cardinality() <= 1 ? "task" : "tasks"
                 ));
-        for (int i = 1; i <= taskNumbers.length; i++) {
-            message.append(String.format("%d. %s", i, taskList.getTask(taskNumbers[i - 1])));
-            message.append("\n");
-        }
+        appendSelectedTasks(message, taskList, selection);
         return UI.getMessage(message.toString());
     }
 
+    /**
+     * Appends the selected tasks to the message as numbered rows.
+     * Only the first few tasks are listed so that bulk operations stay readable.
+     *
+     * @param message message to be appended to
+     * @param taskList taskList involved in the operation
+     * @param selection indexes of the selected tasks
+     */
+    private static void appendSelectedTasks(StringBuilder message, TaskList taskList,
+            BitSet selection) {
+        int count = 0;
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            if (count == MAX_LISTED_SELECTED_TASKS) {
+                message.append("...and ")
+                        .append(selection.cardinality() - count)
+                        .append(" more\n");
+                break;
+            }
+            count++;
+            message.append(count).append(". ").append(taskList.getTaskAt(i)).append('\n');
+        }
+    }
+
+    /**
+     * Gets the warning message when a selector in a command matches no task.
+     *
+     * @return Message object of type MessageType.Error warning user that nothing was selected
+     */
+    public static Message getEmptySelectionWarning() {
+        return UI.getErrorMessage("Sorry, none of your tasks match the given selection...\n"
+                + "Please try again...");
+    }
+
+    /**
+     * Gets the message showing Gopher's usage statistics.
+     *
+     * @param report human-readable report of the current metrics
+     * @return Message object containing the statistics
+     */
+    public static Message getStatsMessage(String report) {
+        return UI.getMessage("Here is how things have been going so far:\n" + report);
+    }
+
+    /**
+     * Gets the message showing how well the task cache of the paged store is doing.
+     *
+     * @param cache task cache of the paged store
+     * @return Message object showing the hits, misses and size of the cache
+     */
+    public static Message getCacheMessage(TaskCache cache) {
+        long lookupCount = cache.getHitCount() + cache.getMissCount();
+        long hitPercentage = lookupCount == 0 ? 0 : Math.round(100.0 * cache.getHitCount() / lookupCount);
+        return UI.getMessage("Here is how the task cache has been doing:"
+                + "\nHits: " + cache.getHitCount() + " (" + hitPercentage + "%)"
+                + "\nMisses: " + cache.getMissCount()
+                + "\nEvictions: " + cache.getEvictionCount()
+                + "\nWrite-backs: " + cache.getWriteBackCount()
+                + "\nCached tasks: " + cache.getSize()
+                + "\nUsed: " + cache.getUsedBytes() / 1024 + " of " + cache.getByteBudget() / 1024 + " KiB");
+    }
+
+    /**
+     * Gets the message when the cache command is used while every task is held in memory.
+     *
+     * @return Message object explaining that there is no task cache
+     */
+    public static Message getNoCacheMessage() {
+        return UI.getMessage("Every task is already held in memory, so there's no task cache to report.\n"
+                + "The cache is used when tasks are kept in a paged store file.");
+    }
+
+    /**
+     * Gets the agenda message summarizing the overdue and upcoming tasks.
+     *
+     * @param agenda agenda of the task list
+     * @return Message object showing the size and nearest tasks of each group
+     */
+    public static Message getAgendaMessage(Agenda agenda) {
+        if (agenda.getTaskCount() == 0) {
+            return UI.getMessage("Your agenda is clear! There's no tasks in the task list.");
+        }
+        StringBuilder text = new StringBuilder("Here is your agenda:");
+        appendAgendaGroup(text, "Overdue", agenda.getOverdueCount(), agenda.getNearestOverdue());
+        appendAgendaGroup(text, "Due today", agenda.getTodayCount(), agenda.getNearestToday());
+        appendAgendaGroup(text, "Due this week", agenda.getWeekCount(), agenda.getNearestWeek());
+        text.append("\nWithout a date: ").append(agenda.getUndatedCount())
+                .append("\nDone: ").append(agenda.getDoneCount())
+                .append(" of ").append(agenda.getTaskCount());
+        return UI.getMessage(text.toString());
+    }
+
+    /**
+     * Appends one group of the agenda to the text: its size, then its nearest tasks
+     * with their stable IDs, followed by how many more there are.
+     *
+     * @param text text to be appended to
+     * @param title title of the group
+     * @param count number of tasks in the group
+     * @param nearest nearest tasks of the group
+     */
+    private static void appendAgendaGroup(StringBuilder text, String title, int count, List<Task> nearest) {
+        text.append('\n').append(title).append(": ").append(count);
+        for (Task task : nearest) {
+            text.append("\n    #").append(task.getId()).append(' ').append(task);
+        }
+        if (count > nearest.size()) {
+            text.append("\n    ...and ").append(count - nearest.size()).append(" more");
+        }
+    }
+
+    /**
+     * Gets the message reminding the user of an upcoming deadline or event.
+     *
+     * @param reminder reminder being delivered
+     * @return Message object showing the task and when it is due or starts
+     */
+    public static Message getReminderMessage(Reminder reminder) {
+        return UI.getMessage("Heads up! This task is coming up at "
+                + Parser.displayDate(reminder.getOccurrence()) + ":\n"
+                + reminder.getTaskText());
+    }
+
     /**
      * Gets the exit message.
      *
@@ -0,0 +1,60 @@
+package gopher.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class LatencyHistogramTest {
+    @Test
+    public void getBucketIndex_smallValues_exactBuckets() {
+        for (int i = 0; i < 16; i++) {
+            assertEquals(i, LatencyHistogram.getBucketIndex(i));
+            assertEquals(i, LatencyHistogram.getBucketLowerBound(i));
+        }
+    }
+
+    @Test
+    public void getBucketLowerBound_anyValue_withinRelativeError() {
+        long[] values = {16, 17, 31, 32, 1_000, 123_456, 9_999_999_999L, Long.MAX_VALUE};
+        for (long value : values) {
+            long lowerBound = LatencyHistogram.getBucketLowerBound(
+                    LatencyHistogram.getBucketIndex(value));
+            assertTrue(lowerBound <= value);
+            assertTrue(value - lowerBound <= value / 8);
+        }
+    }
+
+    @Test
+    public void getValueAtPercentile_uniformValues_approximateResult() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean());
+        long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 448 && median <= 500);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void recordCommand_anyCommand_recordedInPreregisteredHistogram() {
+        LatencyHistogram histogram = Metrics.getHistogram(Metrics.COMMAND_PREFIX + "search");
+        assertSame(histogram, CommandName.SEARCH.getLatency());
+        long count = histogram.getCount();
+        Metrics.recordCommand(CommandName.SEARCH, 1_000);
+        assertEquals(count + 1, histogram.getCount());
+    }
+
+    @Test
+    public void registerGauge_valueChanged_readWhenReported() {
+        long[] value = {1};
+        Metrics.registerGauge("test.gauge", () -> value[0]);
+        value[0] = 42;
+        assertEquals(42, Metrics.getValue("test.gauge"));
+        assertEquals(Long.valueOf(42), Metrics.getValues().get("test.gauge"));
+    }
+}
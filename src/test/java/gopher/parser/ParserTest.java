@@ -2,15 +2,28 @@ package gopher.parser;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 
 import org.junit.jupiter.api.Test;
 
+import gopher.exception.InvalidListOptionException;
+import gopher.exception.InvalidTaskAttributeException;
+import gopher.exception.InvalidTaskNumberException;
 import gopher.exception.InvalidTokenException;
 import gopher.exception.MissingTaskNumberException;
+import gopher.task.ListQuery;
+import gopher.task.Priority;
+import gopher.task.SortOrder;
+import gopher.task.TaskSelector;
 
 public class ParserTest {
     @Test
@@ -72,42 +85,42 @@ public class ParserTest {
 
     @Test
     public void parseMarkCommand_singleTaskNumber_parseSuccess()
-            throws MissingTaskNumberException {
+            throws MissingTaskNumberException, InvalidTaskNumberException {
         assertArrayEquals(new int[]{2},
-                Parser.parseMarkCommand("mark 2"));
+                Parser.parseMarkCommand("mark 2", 10).getTaskNumbers());
     }
 
     @Test
     public void parseMarkCommand_multipleTaskNumbers_parseSuccess()
-            throws MissingTaskNumberException {
+            throws MissingTaskNumberException, InvalidTaskNumberException {
         assertArrayEquals(new int[]{1, 2, 3},
-                Parser.parseMarkCommand("mark 1 2 3"));
+                Parser.parseMarkCommand("mark 1 2 3", 10).getTaskNumbers());
     }
 
     @Test
     public void parseUnmarkCommand_singleTaskNumber_parseSuccess()
-            throws MissingTaskNumberException {
+            throws MissingTaskNumberException, InvalidTaskNumberException {
         assertArrayEquals(new int[]{2},
-                Parser.parseUnmarkCommand("unmark 2"));
+                Parser.parseUnmarkCommand("unmark 2", 10).getTaskNumbers());
     }
 
     @Test
     public void parseUnmarkCommand_multipleTaskNumbers_parseSuccess()
-            throws MissingTaskNumberException {
+            throws MissingTaskNumberException, InvalidTaskNumberException {
         assertArrayEquals(new int[]{1, 2, 3},
-                Parser.parseUnmarkCommand("unmark 1 2 3"));
+                Parser.parseUnmarkCommand("unmark 1 2 3", 10).getTaskNumbers());
     }
 
     @Test
     public void parseDeleteCommand_singleTaskNumbers_parseSuccess()
-            throws MissingTaskNumberException {
-        assertArrayEquals(new int[]{1}, Parser.parseDeleteCommand("delete 1"));
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        assertArrayEquals(new int[]{1}, Parser.parseDeleteCommand("delete 1", 10).getTaskNumbers());
     }
 
     @Test
     public void parseDeleteCommand_multipleTaskNumber_parseSuccess()
-            throws MissingTaskNumberException {
-        assertArrayEquals(new int[]{1, 2, 3}, Parser.parseDeleteCommand("delete 1 2 3"));
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        assertArrayEquals(new int[]{1, 2, 3}, Parser.parseDeleteCommand("delete 1 2 3", 10).getTaskNumbers());
     }
 
     @Test
@@ -160,56 +173,191 @@ public class ParserTest {
         });
     }
 
-    @Test
-    public void parseSavedTaskData_corruptedFile_exceptionThrown() {
-        assertThrows(ArrayIndexOutOfBoundsException.class, () -> {
-            Parser.parseSavedTaskData("""
-                    Hello World
-                    """);
-        });
-    }
-
     @Test
     public void parseMarkCommand_validCommand_parseSuccess()
-            throws MissingTaskNumberException {
-        assertArrayEquals(new int[]{1, 3, 5}, Parser.parseMarkCommand("mark 1 3 5"));
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        assertArrayEquals(new int[]{1, 3, 5}, Parser.parseMarkCommand("mark 1 3 5", 10).getTaskNumbers());
     }
 
     @Test
     public void parseMarkCommand_missingTaskNumber_exceptionThrown() {
         assertThrows(MissingTaskNumberException.class, () -> {
-            Parser.parseMarkCommand("mark");
+            Parser.parseMarkCommand("mark", 10);
         });
     }
 
     @Test
     public void parseUnmarkCommand_validCommand_parseSuccess()
-            throws MissingTaskNumberException {
-        assertArrayEquals(new int[]{2, 4, 6}, Parser.parseMarkCommand("unmark 2 4 6"));
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        assertArrayEquals(new int[]{2, 4, 6}, Parser.parseUnmarkCommand("unmark 2 4 6", 10).getTaskNumbers());
     }
 
     @Test
     public void parseUnmarkCommand_missingTaskNumber_exceptionThrown() {
         assertThrows(MissingTaskNumberException.class, () -> {
-            Parser.parseMarkCommand("unmark");
+            Parser.parseUnmarkCommand("unmark", 10);
         });
     }
 
     @Test
     public void parseDeleteCommand_validCommand_parseSuccess()
-            throws MissingTaskNumberException {
-        assertArrayEquals(new int[]{1, 2, 3}, Parser.parseMarkCommand("delete 1 2 3"));
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        assertArrayEquals(new int[]{1, 2, 3}, Parser.parseDeleteCommand("delete 1 2 3", 10).getTaskNumbers());
     }
 
     @Test
     public void parseDeleteCommand_missingTaskNumber_exceptionThrown() {
         assertThrows(MissingTaskNumberException.class, () -> {
-            Parser.parseMarkCommand("delete");
+            Parser.parseDeleteCommand("delete", 10);
         });
     }
 
     @Test
     public void parseFindCommand_validCommand_parseSuccess() {
-        assertEquals("Hello World 123", Parser.parseFindCommand("find Hello World 123"));
+        assertEquals("Hello World 123", Parser.parseFindCommand("find Hello World 123").getKeyword());
+        assertFalse(Parser.parseFindCommand("find Hello World 123").isRegex());
+        assertEquals("a.*b", Parser.parseFindCommand("find --regex a.*b").getKeyword());
+        assertTrue(Parser.parseFindCommand("find --regex a.*b").isRegex());
+    }
+
+    @Test
+    public void parseListCommand_noOption_defaultQuery()
+            throws InvalidListOptionException, InvalidTaskAttributeException {
+        ListQuery query = Parser.parseListCommand("list");
+        assertEquals(1, query.getPage());
+        assertEquals(ListQuery.DEFAULT_PAGE_SIZE, query.getPageSize());
+    }
+
+    @Test
+    public void parseListCommand_pageAndPageSize_parseSuccess()
+            throws InvalidListOptionException, InvalidTaskAttributeException {
+        ListQuery query = Parser.parseListCommand("list 3 --page-size 100");
+        assertEquals(3, query.getPage());
+        assertEquals(100, query.getPageSize());
+    }
+
+    @Test
+    public void parseListCommand_invalidPage_exceptionThrown() {
+        assertThrows(InvalidListOptionException.class, () -> {
+            Parser.parseListCommand("list 0");
+        });
+        assertThrows(InvalidListOptionException.class, () -> {
+            Parser.parseListCommand("list --page-size");
+        });
+    }
+
+    @Test
+    public void parseListCommand_tagAndPriorityFilter_parseSuccess()
+            throws InvalidListOptionException, InvalidTaskAttributeException {
+        ListQuery query = Parser.parseListCommand("list /tag Work /p high 2");
+        assertTrue(query.hasFilter());
+        assertEquals(2, query.getPage());
+        assertEquals(Priority.HIGH, query.getFilter().getPriority());
+        assertEquals(List.of("work"), query.getFilter().getTags());
+    }
+
+    @Test
+    public void parseListCommand_sortOrder_parseSuccess()
+            throws InvalidListOptionException, InvalidTaskAttributeException {
+        assertNull(Parser.parseListCommand("list").getSortOrder());
+        assertEquals(SortOrder.DUE, Parser.parseListCommand("list /sort Due 2").getSortOrder());
+        assertThrows(InvalidListOptionException.class, () -> {
+            Parser.parseListCommand("list /sort size");
+        });
+        assertThrows(InvalidListOptionException.class, () -> {
+            Parser.parseListCommand("list /sort");
+        });
+    }
+
+    @Test
+    public void parseListCommand_invalidPriority_exceptionThrown() {
+        assertThrows(InvalidTaskAttributeException.class, () -> {
+            Parser.parseListCommand("list /p urgent");
+        });
+    }
+
+    @Test
+    public void splitSavedRow_escapedSeparators_columnsKept() {
+        assertArrayEquals(new String[]{"T", " ", "a | b\\", " c "},
+                Parser.splitSavedRow("T |   | a \\| b\\\\ |  c "));
+        assertArrayEquals(new String[]{"T", "X", "", "id:1"}, Parser.splitSavedRow("T | X |  | id:1"));
+        assertArrayEquals(new String[]{"line\nbreak|"}, Parser.splitSavedRow("line\\nbreak|"));
+    }
+
+    @Test
+    public void parseDeleteCommand_mixedTerms_parseSuccess()
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        TaskSelector selector = Parser.parseDeleteCommand("delete 3 10-1 #17 done find:report", 10);
+        assertArrayEquals(new int[]{3}, selector.getTaskNumbers());
+        assertEquals(1, selector.getRangeCount());
+        assertEquals(1, selector.getRangeStart(0));
+        assertEquals(10, selector.getRangeEnd(0));
+        assertEquals(1, selector.getIdCount());
+        assertEquals(17, selector.getId(0));
+        assertEquals(List.of("report"), selector.getKeywords());
+        assertTrue(selector.isDoneSelected());
+    }
+
+    @Test
+    public void parseMarkCommand_invalidTerm_exceptionThrown() {
+        assertThrows(MissingTaskNumberException.class, () -> {
+            Parser.parseMarkCommand("mark", 10);
+        });
+        assertThrows(MissingTaskNumberException.class, () -> {
+            Parser.parseMarkCommand("mark 1-", 10);
+        });
+        assertThrows(MissingTaskNumberException.class, () -> {
+            Parser.parseMarkCommand("mark find:", 10);
+        });
+        assertThrows(MissingTaskNumberException.class, () -> {
+            Parser.parseMarkCommand("mark 12abc", 100);
+        });
+    }
+
+    @Test
+    public void parseDeleteCommand_outOfRangeTaskNumber_exceptionThrown() {
+        assertThrows(InvalidTaskNumberException.class, () -> {
+            Parser.parseDeleteCommand("delete 1 11", 10);
+        });
+        assertThrows(InvalidTaskNumberException.class, () -> {
+            Parser.parseDeleteCommand("delete 0", 10);
+        });
+        assertThrows(InvalidTaskNumberException.class, () -> {
+            Parser.parseDeleteCommand("delete 5-99999999999", 10);
+        });
+    }
+
+    @Test
+    public void parseMarkCommand_randomCommands_matchesReferenceParser()
+            throws MissingTaskNumberException, InvalidTaskNumberException {
+        Random random = new Random(2024);
+        String[] commands = {"mark", "unmark", "delete"};
+        for (int trial = 0; trial < 1000; trial++) {
+            int count = 1 + random.nextInt(20);
+            StringBuilder command = new StringBuilder(commands[random.nextInt(commands.length)]);
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int i = 0; i < count; i++) {
+                int taskNumber = 1 + random.nextInt(random.nextBoolean() ? 10 : 1_000_000);
+                expected.add(taskNumber);
+                command.append(random.nextBoolean() ? " " : "   ").append(taskNumber);
+            }
+            int[] expectedNumbers = expected.stream().mapToInt(Integer::intValue).toArray();
+            assertArrayEquals(expectedNumbers,
+                    Parser.parseMarkCommand(command.toString(), Integer.MAX_VALUE).getTaskNumbers(),
+                    command.toString());
+        }
+    }
+
+    @Test
+    public void parseMarkCommand_randomInvalidTerms_exceptionThrown() {
+        Random random = new Random(42);
+        String[] invalidTerms = {"abc", "1a", "-3", "#", "--", "1-2-3", "find:", "x1"};
+        for (int trial = 0; trial < 200; trial++) {
+            String command = "mark " + (1 + random.nextInt(100)) + " "
+                    + invalidTerms[random.nextInt(invalidTerms.length)];
+            assertThrows(MissingTaskNumberException.class, () -> {
+                Parser.parseMarkCommand(command, Integer.MAX_VALUE);
+            });
+        }
     }
 }
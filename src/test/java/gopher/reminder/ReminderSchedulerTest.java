@@ -0,0 +1,133 @@
+package gopher.reminder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import gopher.task.Task;
+
+public class ReminderSchedulerTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 8, 30, 9, 0);
+
+    private static Clock clockAt(LocalDateTime time) {
+        return Clock.fixed(time.toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+    }
+
+    private static Task createTask(String command, int id) throws Exception {
+        Task task = Task.of(command);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void pollDue_scheduledTasks_deliveredInDueOrder() throws Exception {
+        ReminderScheduler scheduler = new ReminderScheduler(clockAt(NOW));
+        Task deadline = createTask("deadline report /by 2024-08-30 10:00", 1);
+        Task event = createTask("event sync /from 2024-08-30 09:30 /to 2024-08-30 10:30", 2);
+        scheduler.scheduleAll(List.of(deadline, event,
+                createTask("todo read", 3),
+                createTask("deadline past /by 2024-08-29 10:00", 4)));
+        assertEquals(2, scheduler.getPendingCount());
+        assertEquals(LocalDateTime.of(2024, 8, 30, 9, 15), scheduler.getNextRemindAt());
+
+        assertTrue(scheduler.pollDue(NOW).isEmpty());
+        List<Reminder> due = scheduler.pollDue(LocalDateTime.of(2024, 8, 30, 9, 50));
+        assertEquals(2, due.size());
+        assertEquals(2, due.get(0).getTaskId());
+        assertEquals(1, due.get(1).getTaskId());
+        assertNull(scheduler.getNextRemindAt());
+    }
+
+    @Test
+    public void schedule_changedTasks_reminderReplacedOrCancelled() throws Exception {
+        ReminderScheduler scheduler = new ReminderScheduler(clockAt(NOW));
+        Task deadline = createTask("deadline report /by 2024-08-30 10:00", 1);
+        scheduler.schedule(deadline);
+
+        deadline.update(new String[]{"update", "1", "/by", "2024-08-31 10:00"});
+        scheduler.schedule(deadline);
+        assertEquals(1, scheduler.getPendingCount());
+        assertEquals(LocalDateTime.of(2024, 8, 31, 9, 45), scheduler.getNextRemindAt());
+
+        deadline.markAsDone();
+        scheduler.schedule(deadline);
+        assertEquals(0, scheduler.getPendingCount());
+        assertNull(scheduler.getNextRemindAt());
+    }
+
+    @Test
+    public void pollDue_recurringTask_nextOccurrenceScheduled() throws Exception {
+        ReminderScheduler scheduler = new ReminderScheduler(clockAt(NOW));
+        scheduler.schedule(createTask("event standup /from 2024-08-26 09:30 /to 2024-08-26 09:45"
+                + " /every daily /until 2024-09-01", 1));
+        assertEquals(LocalDateTime.of(2024, 8, 30, 9, 15), scheduler.getNextRemindAt());
+
+        assertEquals(LocalDateTime.of(2024, 8, 30, 9, 30),
+                scheduler.pollDue(LocalDateTime.of(2024, 8, 30, 9, 15)).get(0).getOccurrence());
+        assertEquals(LocalDateTime.of(2024, 8, 31, 9, 15), scheduler.getNextRemindAt());
+        assertEquals(2, scheduler.pollDue(LocalDateTime.of(2024, 9, 5, 0, 0)).size());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void pollDue_manyRescheduledTasks_earliestFirst() throws Exception {
+        ReminderScheduler scheduler = new ReminderScheduler(clockAt(NOW));
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 100_000; i++) {
+            tasks.add(createTask("deadline task /by 2024-09-01 " + String.format("%02d:%02d", i % 24, i % 60), i));
+        }
+        scheduler.scheduleAll(tasks);
+        for (int i = 0; i < 1000; i++) {
+            scheduler.schedule(tasks.get(i));
+        }
+        assertEquals(100_000, scheduler.getPendingCount());
+
+        List<Reminder> due = scheduler.pollDue(LocalDateTime.of(2024, 9, 2, 0, 0));
+        assertEquals(100_000, due.size());
+        for (int i = 1; i < due.size(); i++) {
+            assertTrue(!due.get(i).getRemindAt().isBefore(due.get(i - 1).getRemindAt()));
+        }
+    }
+
+    @Test
+    public void pollDue_taskChangedAfterScheduling_scheduledCopyDelivered() throws Exception {
+        ReminderScheduler scheduler = new ReminderScheduler(clockAt(NOW));
+        Task standup = createTask("deadline standup /by 2024-08-30 09:30 /every daily /until 2024-09-01", 1);
+        scheduler.schedule(standup);
+        String scheduledText = standup.toString();
+        standup.update(new String[]{"update", "1", "retro"});
+        assertTrue(standup.toString().contains("retro"));
+
+        Reminder reminder = scheduler.pollDue(LocalDateTime.of(2024, 8, 30, 9, 15)).get(0);
+        assertEquals(scheduledText, reminder.getTaskText());
+        assertEquals(LocalDateTime.of(2024, 8, 31, 9, 15), scheduler.getNextRemindAt());
+        assertEquals(scheduledText, scheduler.pollDue(LocalDateTime.of(2024, 8, 31, 9, 15)).get(0).getTaskText());
+    }
+
+    @Test
+    public void start_dueReminder_deliveredToListener() throws Exception {
+        ReminderScheduler scheduler = new ReminderScheduler(clockAt(LocalDateTime.of(2024, 8, 30, 9, 50)));
+        BlockingQueue<Reminder> delivered = new ArrayBlockingQueue<>(1);
+        scheduler.setListener(delivered::add);
+        scheduler.start();
+        try {
+            Task deadline = createTask("deadline report /by 2024-08-30 10:00", 1);
+            scheduler.schedule(deadline);
+            Reminder reminder = delivered.poll(5, TimeUnit.SECONDS);
+            assertEquals(deadline.getId(), reminder.getTaskId());
+        } finally {
+            scheduler.stop();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BPlusTreeTest {
+    @TempDir
+    Path directory;
+
+    private byte[] createValue(Random random) {
+        // Mostly short values, with the odd value long enough for overflow pages
+        byte[] value = new byte[random.nextInt(20) == 0 ? 1 + random.nextInt(10_000) : random.nextInt(100)];
+        random.nextBytes(value);
+        return value;
+    }
+
+    @Test
+    public void put_randomChangesWithSmallCache_matchesSortedMap() throws Exception {
+        Random random = new Random(47);
+        TreeMap<Long, byte[]> expected = new TreeMap<>();
+        Path file = directory.resolve("tree.db");
+        try (PageCache pages = new PageCache(file, 8)) {
+            BPlusTree tree = new BPlusTree(pages, 1);
+            for (int i = 0; i < 20_000; i++) {
+                long key = random.nextInt(5_000) - 1_000;
+                if (random.nextInt(4) == 0) {
+                    assertEquals(expected.remove(key) != null, tree.remove(key));
+                } else {
+                    byte[] value = createValue(random);
+                    expected.put(key, value);
+                    tree.put(key, value);
+                }
+            }
+            for (long key = -1_000; key < 4_000; key++) {
+                byte[] value = tree.get(key);
+                if (expected.containsKey(key)) {
+                    assertArrayEquals(expected.get(key), value);
+                } else {
+                    assertNull(value);
+                }
+            }
+        }
+
+        // Reopen the file and read a range back in order
+        try (PageCache pages = new PageCache(file, 8)) {
+            BPlusTree tree = new BPlusTree(pages, 1);
+            List<Long> keys = new ArrayList<>();
+            tree.forEach(0, 2_000, (key, value) -> {
+                keys.add(key);
+                assertArrayEquals(expected.get(key), value);
+            });
+            assertEquals(new ArrayList<>(expected.subMap(0L, true, 2_000L, true).keySet()), keys);
+        }
+    }
+
+    @Test
+    public void remove_everyKey_treeEmptyAndPagesReused() throws Exception {
+        Path file = directory.resolve("tree.db");
+        try (PageCache pages = new PageCache(file, 16)) {
+            BPlusTree tree = new BPlusTree(pages, 1);
+            byte[] longValue = new byte[3 * PageCache.PAGE_SIZE];
+            for (long key = 0; key < 100; key++) {
+                tree.put(key, longValue);
+            }
+            for (long key = 0; key < 100; key++) {
+                tree.remove(key);
+            }
+            Map<Long, byte[]> visited = new TreeMap<>();
+            tree.forEach(Long.MIN_VALUE, Long.MAX_VALUE, visited::put);
+            assertEquals(0, visited.size());
+            assertFalse(tree.remove(0));
+        }
+    }
+
+    @Test
+    public void rank_randomChanges_matchesSortedMap() throws Exception {
+        Random random = new Random(48);
+        TreeMap<Long, byte[]> expected = new TreeMap<>();
+        try (PageCache pages = new PageCache(directory.resolve("tree.db"), 8)) {
+            BPlusTree tree = new BPlusTree(pages, 1);
+            for (int i = 0; i < 50_000; i++) {
+                long key = random.nextInt(20_000);
+                if (random.nextInt(3) == 0) {
+                    expected.remove(key);
+                    tree.remove(key);
+                } else {
+                    byte[] value = new byte[random.nextInt(8)];
+                    expected.put(key, value);
+                    tree.put(key, value);
+                }
+            }
+            List<Long> keys = new ArrayList<>(expected.keySet());
+            for (int rank = 0; rank < keys.size(); rank += 7) {
+                assertEquals(keys.get(rank), Long.valueOf(tree.getKeyAt(rank)));
+                assertArrayEquals(expected.get(keys.get(rank)), tree.getValueAt(rank));
+            }
+            for (long key = -1; key <= 20_000; key += 13) {
+                assertEquals(expected.headMap(key).size(), tree.rank(key));
+            }
+            assertEquals(keys.size(), tree.rank(Long.MAX_VALUE));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gopher.task.Task;
+
+public class PagedTaskStoreTest {
+    @TempDir
+    Path directory;
+
+    private Task createTask(String command, int id) throws Exception {
+        Task task = Task.of(command);
+        task.setId(id);
+        return task;
+    }
+
+    private List<Integer> getIds(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    public void set_tasksMovedOverDeletedOnes_rowsKeptUntilUnreferenced() throws Exception {
+        Path file = directory.resolve("task.db");
+        try (PagedTaskStore store = PagedTaskStore.open(file, 4)) {
+            for (int id = 1; id <= 500; id++) {
+                store.add(createTask("deadline Task " + id + " /by 2025-06-" + (10 + id % 20), id));
+            }
+            // Delete every third task the way a task list does: shift the rest left, then cut the tail
+            int writeIndex = 0;
+            for (int readIndex = 0; readIndex < store.size(); readIndex++) {
+                if (readIndex % 3 != 0) {
+                    store.set(writeIndex++, store.get(readIndex));
+                }
+            }
+            store.subList(writeIndex, store.size()).clear();
+            assertEquals(333, store.size());
+            assertEquals(2, store.get(0).getId());
+            assertEquals(500, store.get(332).getId());
+
+            Task task = store.get(1);
+            task.markAsDone();
+            store.set(1, task);
+            assertEquals(1, store.getDoneCount());
+        }
+
+        try (PagedTaskStore store = PagedTaskStore.open(file, 4)) {
+            assertEquals(333, store.size());
+            List<Task> doneTasks = new ArrayList<>();
+            store.forEachWithStatus(true, doneTasks::add);
+            assertEquals(List.of(3), getIds(doneTasks));
+
+            List<Task> dueTasks = new ArrayList<>();
+            store.forEachDueBetween(LocalDateTime.of(2025, 6, 10, 0, 0), LocalDateTime.of(2025, 6, 10, 23, 59),
+                    dueTasks::add);
+            // Tasks 20, 40, ... 500 are due on the 10th, and tasks 1, 4, 7, ... were deleted
+            assertEquals(IntStream.rangeClosed(1, 500).filter(id -> id % 20 == 0 && id % 3 != 1).boxed().toList(),
+                    getIds(dueTasks));
+        }
+    }
+
+    @Test
+    public void add_randomPositions_orderAndIndexesMatchList() throws Exception {
+        Random random = new Random(47);
+        List<Integer> expected = new ArrayList<>();
+        try (PagedTaskStore store = PagedTaskStore.open(directory.resolve("task.db"), 8)) {
+            int nextId = 1;
+            for (int i = 0; i < 3000; i++) {
+                if (expected.isEmpty() || random.nextInt(3) != 0) {
+                    // Keep adding right after the first task now and then, to use up the room there
+                    int index = i % 10 == 0 ? Math.min(1, expected.size()) : random.nextInt(expected.size() + 1);
+                    store.add(index, createTask("todo Task " + nextId, nextId));
+                    expected.add(index, nextId++);
+                } else {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.remove(index).intValue(), store.remove(index).getId());
+                }
+            }
+            assertEquals(expected, getIds(store));
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(i, store.getIndexOf(expected.get(i)));
+            }
+            assertEquals(-1, store.getIndexOf(nextId));
+        }
+    }
+
+    @Test
+    public void remove_firstOfManyTasks_fewPagesVisited() throws Exception {
+        try (PagedTaskStore store = PagedTaskStore.open(directory.resolve("task.db"), 64)) {
+            for (int id = 1; id <= 20_000; id++) {
+                store.add(createTask("todo Task " + id, id));
+            }
+            long pageCount = store.getCacheHitCount() + store.getCacheMissCount();
+            store.remove(0);
+            store.add(0, createTask("todo Task 0", 20_001));
+
+            // Shifting the positions after the first task would visit every leaf of the position tree
+            assertTrue(store.getCacheHitCount() + store.getCacheMissCount() - pageCount < 200);
+            assertEquals(20_000, store.size());
+            assertEquals(1, store.getIndexOf(2));
+            assertEquals(19_999, store.getIndexOf(20_000));
+        }
+    }
+
+    @Test
+    public void countDueBetween_doneAndRecurringTasks_pendingOccurrencesCounted() throws Exception {
+        try (PagedTaskStore store = PagedTaskStore.open(directory.resolve("task.db"), 8)) {
+            for (int id = 1; id <= 30; id++) {
+                store.add(createTask("deadline Task " + id + " /by 2025-06-" + (10 + id % 10), id));
+            }
+            store.add(createTask("todo Task 31", 31));
+            store.add(createTask("deadline Rent /by 2025-06-01 /every monthly /until 2025-12-31", 32));
+            Task done = store.get(9);
+            done.markAsDone();
+            store.set(9, done);
+            Task rent = store.get(31);
+            rent.markAsDone();
+            store.set(31, rent);
+
+            // Task 10 is done, and the rent is next due in July
+            LocalDateTime from = LocalDateTime.of(2025, 6, 10, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2025, 6, 11, 23, 59);
+            assertEquals(5, store.countDueBetween(from, to));
+            assertEquals(List.of(20, 30, 1), getIds(store.getDueBetween(from, to, 0, 3)));
+            assertEquals(List.of(11, 21), getIds(store.getDueBetween(from, to, 3, 10)));
+            assertEquals(1, store.countDueBetween(LocalDateTime.of(2025, 7, 1, 0, 0), LocalDateTime.MAX));
+            assertEquals(30, store.countDueBetween(LocalDateTime.MIN, LocalDateTime.MAX));
+
+            List<Task> recurringTasks = new ArrayList<>();
+            store.forEachPendingRecurring(recurringTasks::add);
+            assertEquals(List.of(32), getIds(recurringTasks));
+            assertEquals(1, store.getDoneCount());
+        }
+    }
+
+    @Test
+    public void set_sameTaskChangedTwice_writtenBackOnFlush() throws Exception {
+        Path file = directory.resolve("task.db");
+        try (PagedTaskStore store = PagedTaskStore.open(file)) {
+            for (int id = 1; id <= 100; id++) {
+                store.add(createTask("todo Task " + id, id));
+            }
+            Task task = store.get(41);
+            assertSame(task, store.get(41));
+            task.markAsDone();
+            store.set(41, task);
+            task.update(new String[]{"update", "42", "Renamed"});
+            store.set(41, task);
+            assertEquals(0, store.getTaskCache().getWriteBackCount());
+
+            // Counting the done tasks needs the change in the status index
+            assertEquals(1, store.getDoneCount());
+            assertEquals(1, store.getTaskCache().getWriteBackCount());
+        }
+
+        try (PagedTaskStore store = PagedTaskStore.open(file)) {
+            Task task = store.get(41);
+            assertTrue(task.toString().contains("Renamed"));
+            assertEquals(1, store.getDoneCount());
+        }
+    }
+
+    @Test
+    public void get_smallByteBudget_dirtyTasksSurviveEviction() throws Exception {
+        Path file = directory.resolve("task.db");
+        try (PagedTaskStore store = PagedTaskStore.open(file, 4)) {
+            store.getTaskCache().setByteBudget(2048);
+            for (int id = 1; id <= 200; id++) {
+                store.add(createTask("todo Task " + id, id));
+            }
+            for (int i = 0; i < 200; i += 2) {
+                Task task = store.get(i);
+                task.markAsDone();
+                store.set(i, task);
+            }
+            for (int i = 0; i < 200; i++) {
+                assertEquals(i % 2 == 0, store.get(i).isDone());
+            }
+            assertTrue(store.getTaskCache().getUsedBytes() <= 2048);
+            assertTrue(store.getTaskCache().getEvictionCount() > 0);
+        }
+
+        try (PagedTaskStore store = PagedTaskStore.open(file)) {
+            assertEquals(100, store.getDoneCount());
+        }
+    }
+
+    @Test
+    public void add_taskWithoutId_exceptionThrown() throws Exception {
+        try (PagedTaskStore store = PagedTaskStore.open(directory.resolve("task.db"))) {
+            assertThrows(IllegalArgumentException.class, () -> store.add(Task.of("todo Buy milk")));
+        }
+    }
+
+    @Test
+    public void setNextId_storeReopened_nextIdKept() throws Exception {
+        Path file = directory.resolve("task.db");
+        try (PagedTaskStore store = PagedTaskStore.open(file, 4)) {
+            assertEquals(1, store.getNextId());
+            store.add(createTask("todo Task 1", 1));
+            store.setNextId(5);
+        }
+
+        try (PagedTaskStore store = PagedTaskStore.open(file, 4)) {
+            assertEquals(5, store.getNextId());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import gopher.task.Task;
+
+public class TaskCacheTest {
+    private Task createTask(int id) throws Exception {
+        Task task = Task.of("todo Task " + id);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void put_overBudget_leastRecentlyUsedEvicted() throws Exception {
+        TaskCache cache = new TaskCache(task -> { });
+        Task first = createTask(1);
+        cache.put(first, 10, false);
+        long entryBytes = cache.getUsedBytes();
+        cache.setByteBudget(entryBytes * 2);
+        cache.put(createTask(2), 10, false);
+        // Reading task 1 makes task 2 the least recently used
+        assertSame(first, cache.get(1));
+        cache.put(createTask(3), 10, false);
+
+        assertNull(cache.get(2));
+        assertSame(first, cache.get(1));
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void put_dirtyTaskEvicted_writtenBackOnce() throws Exception {
+        List<Integer> writtenIds = new ArrayList<>();
+        TaskCache cache = new TaskCache(task -> writtenIds.add(task.getId()));
+        cache.put(createTask(1), 10, true);
+        cache.put(createTask(1), 10, false);
+        cache.put(createTask(2), 10, false);
+        cache.setByteBudget(cache.getUsedBytes() / 2);
+
+        // Task 1 stays dirty when replaced by a clean copy, and task 2 was never changed
+        assertEquals(List.of(1), writtenIds);
+        assertEquals(1, cache.getWriteBackCount());
+    }
+
+    @Test
+    public void flush_dirtyTasks_writtenBackAndKept() throws Exception {
+        List<Integer> writtenIds = new ArrayList<>();
+        TaskCache cache = new TaskCache(task -> writtenIds.add(task.getId()));
+        cache.put(createTask(1), 10, true);
+        cache.put(createTask(2), 10, false);
+        cache.flush();
+        cache.flush();
+
+        assertEquals(List.of(1), writtenIds);
+        assertEquals(2, cache.getSize());
+        assertNull(cache.takeDirty(1));
+    }
+}
@@ -0,0 +1,56 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TaskFileFormatTest {
+    private static final String ROW = "D |   | Submit report | 2025-06-30 23:59 | id:1 | p:high | tags:work";
+
+    @TempDir
+    Path directory;
+
+    private void assertRowsReadBack(TaskFileFormat format, int rowCount) throws Exception {
+        Path file = directory.resolve(format + ".txt");
+        try (Writer writer = format.newWriter(file)) {
+            for (int i = 0; i < rowCount; i++) {
+                writer.write(ROW + i + '\n');
+            }
+        }
+        try (BufferedReader reader = TaskFileFormat.newReader(file)) {
+            for (int i = 0; i < rowCount; i++) {
+                assertEquals(ROW + i, reader.readLine());
+            }
+            assertNull(reader.readLine());
+        }
+    }
+
+    @Test
+    public void newReader_plainFile_rowsReadBack() throws Exception {
+        assertRowsReadBack(TaskFileFormat.PLAIN, 1000);
+    }
+
+    @Test
+    public void newReader_compressedFile_rowsReadBackAndFileSmaller() throws Exception {
+        assertRowsReadBack(TaskFileFormat.GZIP, 1000);
+        assertRowsReadBack(TaskFileFormat.PLAIN, 1000);
+        assertTrue(Files.size(directory.resolve("GZIP.txt")) * 4 < Files.size(directory.resolve("PLAIN.txt")));
+    }
+
+    @Test
+    public void newReader_emptyFile_noRows() throws Exception {
+        Path file = directory.resolve("empty.txt");
+        Files.createFile(file);
+        try (BufferedReader reader = TaskFileFormat.newReader(file)) {
+            assertNull(reader.readLine());
+        }
+    }
+}
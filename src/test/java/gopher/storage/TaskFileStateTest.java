@@ -0,0 +1,87 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gopher.task.Task;
+
+public class TaskFileStateTest {
+    @TempDir
+    Path directory;
+
+    private TaskFileState writeState(Path file, String text) throws Exception {
+        Files.writeString(file, text, StandardCharsets.UTF_8);
+        CRC32C checksum = new CRC32C();
+        checksum.update(text.getBytes(StandardCharsets.UTF_8));
+        return TaskFileState.of(file, checksum);
+    }
+
+    @Test
+    public void matches_sameSizeAndModificationTime_contentChangeSeen() throws Exception {
+        Path file = directory.resolve("task.txt");
+        TaskFileState state = writeState(file, "T |   | Buy milk | id:1\n");
+        FileTime modifiedTime = Files.getLastModifiedTime(file);
+        assertTrue(state.matches(file));
+
+        // Marking a task done keeps the size, and a coarse clock may keep the modification time
+        Files.writeString(file, "T | X | Buy milk | id:1\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, modifiedTime);
+        assertFalse(state.matches(file));
+    }
+
+    @Test
+    public void matches_sizeChangedOrFileDeleted_noMatch() throws Exception {
+        Path file = directory.resolve("task.txt");
+        TaskFileState state = writeState(file, "T |   | Buy milk | id:1\n");
+        FileTime modifiedTime = Files.getLastModifiedTime(file);
+
+        Files.writeString(file, "T |   | Buy milk | id:1\nT |   | Call mum | id:2\n", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, modifiedTime);
+        assertFalse(state.matches(file));
+        Files.delete(file);
+        assertFalse(state.matches(file));
+    }
+
+    @Test
+    public void of_tasksStreamedInEitherFormat_fileMatched() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            Task task = Task.of("deadline Task " + id + " /by 2025-06-10 18:00");
+            task.setId(id);
+            tasks.add(task);
+        }
+        for (TaskFileFormat format : TaskFileFormat.values()) {
+            Path file = directory.resolve(format + ".txt");
+            TaskFileState written = TaskManager.writeTasks(file, format, tasks, 1001, new HashMap<>());
+            assertTrue(written.matches(file));
+            assertEquals(Files.size(file), written.getSize());
+
+            CRC32C checksum = new CRC32C();
+            TaskManager.readTasks(file, new ArrayList<>(), checksum);
+            assertEquals(written.toString(), TaskFileState.of(file, checksum).toString());
+        }
+    }
+
+    @Test
+    public void parse_writtenState_sameStateRead() throws Exception {
+        TaskFileState state = writeState(directory.resolve("task.txt"), "T |   | Buy milk | id:1\n");
+        assertEquals(state.toString(), TaskFileState.parse(state.toString()).toString());
+        assertNull(TaskFileState.parse(""));
+        assertNull(TaskFileState.parse("12 34"));
+        assertNull(TaskFileState.parse("12 34 xyz"));
+    }
+}
@@ -0,0 +1,50 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TaskFileWatcherTest {
+    /** How long to wait for the watcher to go quiet, well over its own quiet period */
+    private static final long SETTLE_MILLIS = 1000;
+
+    /** Longest time to wait for the listener to be called */
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void start_burstOfWrites_listenerCalledOnce() throws Exception {
+        Path file = directory.resolve("task.txt");
+        Files.writeString(file, "", StandardCharsets.UTF_8);
+        TaskFileWatcher watcher = new TaskFileWatcher(file);
+        AtomicInteger callCount = new AtomicInteger();
+        watcher.setListener(callCount::incrementAndGet);
+        watcher.start();
+        try {
+            Files.writeString(directory.resolve("other.txt"), "T |   | Call mum", StandardCharsets.UTF_8);
+            Thread.sleep(SETTLE_MILLIS);
+            assertEquals(0, callCount.get());
+
+            for (int i = 0; i < 3; i++) {
+                Files.writeString(file, "T |   | Buy milk | id:" + i + "\n", StandardCharsets.UTF_8);
+            }
+            long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+            while (callCount.get() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            // Count again after the burst is long over, so a call per write would show up
+            Thread.sleep(SETTLE_MILLIS);
+            assertEquals(1, callCount.get());
+        } finally {
+            watcher.stop();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gopher.exception.FileCorruptedException;
+import gopher.parser.Parser;
+import gopher.task.Deadline;
+import gopher.task.Event;
+import gopher.task.Frequency;
+import gopher.task.Priority;
+import gopher.task.Task;
+import gopher.task.TaskAttributes;
+import gopher.task.ToDo;
+
+public class TaskManagerTest {
+    @TempDir
+    Path directory;
+
+    private List<Task> readTasks(String taskData) throws Exception {
+        Path file = directory.resolve("task.txt");
+        Files.writeString(file, taskData, StandardCharsets.UTF_8);
+        List<Task> tasks = new ArrayList<>();
+        TaskManager.readTasks(file, tasks);
+        return tasks;
+    }
+
+    private List<Task> createFuzzedTasks(long seed) throws Exception {
+        char[] alphabet = {'a', 'Z', ' ', '|', '\\', '\n', '\r', '/', ':', ',', 'n', '\u00e9', '\u4e2d'};
+        // Tags may hold any of these, but not spaces, separators or commas
+        char[] tagAlphabet = {'a', '\\', '\n', '\r', '/', ':', 'n', '\u00e9', '\u4e2d'};
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            String name = createFuzzedText(random, alphabet);
+            Task task = switch (i % 3) {
+            case 0 -> new ToDo(name);
+            case 1 -> new Deadline(name, "2024-08-30 23:59");
+            default -> new Event(name, "2024-08-30 09:00", "2024-08-30 10:00");
+            };
+            task.setId(i + 1);
+            if (random.nextBoolean()) {
+                task.markAsDone();
+                task.setPriority(Priority.HIGH);
+            }
+            List<String> tags = new ArrayList<>();
+            for (int tagCount = random.nextInt(3); tags.size() < tagCount; ) {
+                String tag = createFuzzedText(random, tagAlphabet);
+                if (!tag.startsWith("/")) {
+                    tags.add(TaskAttributes.normalizeTag(tag));
+                }
+            }
+            task.setTags(tags);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private String createFuzzedText(Random random, char[] alphabet) {
+        StringBuilder text = new StringBuilder();
+        for (int length = 1 + random.nextInt(16); text.length() < length; ) {
+            text.append(alphabet[random.nextInt(alphabet.length)]);
+        }
+        return text.toString();
+    }
+
+    private void assertFuzzedTasksRoundTrip(TaskFileFormat format) throws Exception {
+        List<Task> tasks = createFuzzedTasks(46);
+        Path file = directory.resolve(format + ".txt");
+        TaskManager.writeTasks(file, format, tasks, tasks.size() + 1, new HashMap<>());
+
+        List<Task> readTasks = new ArrayList<>();
+        TaskManager.readTasks(file, readTasks);
+        assertEquals(tasks.size(), readTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), readTasks.get(i).toString());
+            assertEquals(tasks.get(i).getTags(), readTasks.get(i).getTags());
+            assertEquals(tasks.get(i).getSaveMessage(), readTasks.get(i).getSaveMessage());
+            assertEquals(tasks.get(i).getContentHash(), readTasks.get(i).getContentHash());
+        }
+        assertEquals(tasks.size() + 1, TaskManager.readNextId(file));
+    }
+
+    @Test
+    public void readTasks_fuzzedPlainFile_roundTripExact() throws Exception {
+        assertFuzzedTasksRoundTrip(TaskFileFormat.PLAIN);
+    }
+
+    @Test
+    public void readTasks_fuzzedCompressedFile_roundTripExact() throws Exception {
+        assertFuzzedTasksRoundTrip(TaskFileFormat.GZIP);
+    }
+
+    @Test
+    public void readTasks_corruptedFile_exceptionThrown() {
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> {
+            readTasks("""
+                    Hello World
+                    """);
+        });
+    }
+
+    @Test
+    public void readTasks_rowsWithAndWithoutAttributes_readSuccess() throws Exception {
+        List<Task> tasks = readTasks("""
+                T |   | Event 1
+                D | X | Event 2 | 2024-08-30 00:00 | p:high | tags:work,home
+                """);
+        assertEquals(Priority.NONE, tasks.get(0).getPriority());
+        assertEquals(Priority.HIGH, tasks.get(1).getPriority());
+        assertTrue(tasks.get(1).hasTag("home"));
+        assertEquals("D | X | Event 2 | 2024-08-30 00:00 | p:high | tags:work,home",
+                tasks.get(1).getSaveMessage());
+    }
+
+    @Test
+    public void readTasks_recurringRow_readSuccess() throws Exception {
+        String row = "E |   | sync | 2024-08-30 09:00 | 2024-08-30 10:00 | id:3 | every:weekly:2025-06-30";
+        List<Task> tasks = readTasks(row + "\n");
+        assertEquals(Frequency.WEEKLY, tasks.get(0).getRecurrence().getFrequency());
+        assertEquals(row, tasks.get(0).getSaveMessage());
+        assertThrows(FileCorruptedException.class, () -> {
+            readTasks("T |   | standup | every:daily:2025-06-30\n");
+        });
+        assertThrows(FileCorruptedException.class, () -> {
+            readTasks("D |   | rent | 2024-08-30 00:00 | every:daily\n");
+        });
+    }
+
+    @Test
+    public void readTasks_legacyRow_escapedOnSave() throws Exception {
+        List<Task> tasks = readTasks("T |   | Back up C:\\tasks\n");
+        assertEquals("T |   | Back up C:\\\\tasks", tasks.get(0).getSaveMessage());
+    }
+
+    @Test
+    public void readTasks_escapedRowWithKeywordsInName_nameKept() throws Exception {
+        List<Task> tasks = readTasks(Parser.SAVE_FORMAT_HEADER + "\n"
+                + "D |   | Read \\| review /by noon | 2024-08-30 23:59\n");
+        assertEquals("D |   | Read \\| review /by noon | 2024-08-30 23:59", tasks.get(0).getSaveMessage());
+    }
+
+    @Test
+    public void readTasks_savedFileWithNextId_nextIdLineNotReadAsTask() throws Exception {
+        Path file = directory.resolve("saved.txt");
+        List<Task> tasks = List.of(new ToDo("water plants"), new Deadline("pay rent", "2024-08-30 23:59"));
+        tasks.get(0).setId(3);
+        tasks.get(1).setId(7);
+        TaskManager.writeTasks(file, TaskFileFormat.PLAIN, tasks, 12, new HashMap<>());
+
+        List<Task> readTasks = new ArrayList<>();
+        assertTrue(TaskManager.readTasks(file, readTasks));
+        assertEquals(List.of(3, 7), readTasks.stream().map(Task::getId).toList());
+        assertEquals(12, TaskManager.readNextId(file));
+    }
+
+    @Test
+    public void readNextId_fileWithoutNextIdLine_firstIdGiven() throws Exception {
+        Path file = directory.resolve("task.txt");
+        Files.writeString(file, Parser.SAVE_FORMAT_HEADER + "\nT |   | water plants | id:5\n", StandardCharsets.UTF_8);
+        assertEquals(1, TaskManager.readNextId(file));
+        Files.writeString(file, "T |   | water plants\n", StandardCharsets.UTF_8);
+        assertEquals(1, TaskManager.readNextId(file));
+        Files.writeString(file, Parser.SAVE_FORMAT_HEADER + "\n# next id: many\n", StandardCharsets.UTF_8);
+        assertThrows(FileCorruptedException.class, () -> TaskManager.readNextId(file));
+    }
+}
@@ -0,0 +1,127 @@
+package gopher.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gopher.exception.SyncFailedException;
+import gopher.task.Task;
+
+public class TaskSyncTest {
+    @TempDir
+    Path directory;
+
+    private Task createTask(String command, int id, long modifiedAt) throws Exception {
+        Task task = Task.of(command);
+        task.setId(id);
+        task.setModifiedAt(modifiedAt);
+        return task;
+    }
+
+    private List<Integer> getIds(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    public void plan_firstSync_newTasksExchanged() throws Exception {
+        Path otherFile = directory.resolve("other.txt");
+        Files.writeString(otherFile, "T |   | Buy milk | id:1 | at:5\nT |   | Call mum | id:7\n",
+                StandardCharsets.UTF_8);
+        List<Task> localTasks = List.of(createTask("todo Buy milk", 1, 5), createTask("todo Pay rent", 2, 5),
+                createTask("todo Walk dog", 7, 5));
+
+        SyncPlan plan = TaskSync.plan(localTasks, otherFile, directory);
+        assertEquals(List.of(7), getIds(plan.getAddedTasks()));
+        assertEquals("T |   | Call mum | id:7", plan.getAddedTasks().get(0).getSaveMessage());
+        assertEquals(2, plan.getSentCount());
+        assertEquals(0, plan.getConflictCount());
+    }
+
+    @Test
+    public void plan_changesOnBothSides_lastWriterWins() throws Exception {
+        Path otherFile = directory.resolve("other.txt");
+        List<Task> localTasks = new ArrayList<>(List.of(createTask("todo Buy milk", 1, 5),
+                createTask("todo Pay rent", 2, 5), createTask("todo Walk dog", 3, 5)));
+        TaskSync.complete(TaskSync.plan(localTasks, otherFile, directory), localTasks, 3);
+        assertTrue(Files.exists(otherFile));
+
+        SyncPlan plan = TaskSync.plan(localTasks, otherFile, directory);
+        assertEquals(0, plan.getReceivedCount() + plan.getSentCount());
+
+        // Task 1 is changed on both sides, later on the other side, task 2 is changed here only
+        // and task 3 is deleted on the other side
+        Files.writeString(otherFile, "T | X | Buy oat milk | id:1 | at:20\nT |   | Pay rent | id:2 | at:5\n",
+                StandardCharsets.UTF_8);
+        localTasks.set(0, createTask("todo Buy soy milk", 1, 10));
+        localTasks.set(1, createTask("todo Pay rent today", 2, 10));
+        plan = TaskSync.plan(localTasks, otherFile, directory);
+        assertEquals(List.of(1), getIds(plan.getReplacedTasks()));
+        assertTrue(plan.getReplacedTasks().get(0).isDone());
+        assertEquals(List.of(3), plan.getDeletedIds());
+        assertEquals(1, plan.getSentCount());
+        assertEquals(1, plan.getConflictCount());
+    }
+
+    @Test
+    public void planTasks_changedOutside_onlyChangedTasksReceived() throws Exception {
+        List<Task> localTasks = List.of(createTask("todo Buy milk", 1, 5), createTask("todo Pay rent", 2, 5),
+                createTask("todo Walk dog", 3, 5));
+        Map<Integer, Long> baseHashes = new HashMap<>();
+        for (Task task : localTasks) {
+            baseHashes.put(task.getId(), task.getContentHash());
+        }
+        List<Task> otherTasks = List.of(createTask("todo Buy milk", 1, 5), createTask("todo Pay rent now", 2, 9),
+                createTask("todo Call mum", 4, 9));
+
+        SyncPlan plan = new SyncPlan(directory.resolve("task.txt"), null);
+        TaskSync.planTasks(plan, localTasks, otherTasks, new HashMap<>(), baseHashes);
+        assertEquals(List.of(2), getIds(plan.getReplacedTasks()));
+        assertEquals(List.of(4), getIds(plan.getAddedTasks()));
+        assertEquals(List.of(3), plan.getDeletedIds());
+        assertEquals(0, plan.getSentCount());
+    }
+
+    @Test
+    public void complete_nextIdWritten_readBackWithTasks() throws Exception {
+        Path otherFile = directory.resolve("other.txt");
+        List<Task> localTasks = List.of(createTask("todo Buy milk", 1, 5), createTask("todo Pay rent", 2, 5));
+        // Task 3 was deleted, so its ID is not given out again
+        TaskSync.complete(TaskSync.plan(localTasks, otherFile, directory), localTasks, 4);
+
+        List<Task> otherTasks = new ArrayList<>();
+        TaskManager.readTasks(otherFile, otherTasks);
+        assertEquals(List.of(1, 2), getIds(otherTasks));
+        assertEquals(4, TaskManager.readNextId(otherFile));
+    }
+
+    @Test
+    public void plan_otherFileRecordsNextId_nextIdTakenIn() throws Exception {
+        Path otherFile = directory.resolve("other.txt");
+        Files.writeString(otherFile, "# gopher tasks v2\n# next id: 9\nT |   | Buy milk | id:1 | at:5\n",
+                StandardCharsets.UTF_8);
+
+        SyncPlan plan = TaskSync.plan(List.of(createTask("todo Buy milk", 1, 5)), otherFile, directory);
+        assertEquals(9, plan.getNextId());
+        assertEquals(0, plan.getReceivedCount());
+    }
+
+    @Test
+    public void plan_corruptedOtherFile_exceptionThrown() throws Exception {
+        Path otherFile = directory.resolve("other.txt");
+        Files.writeString(otherFile, "T\n", StandardCharsets.UTF_8);
+        assertThrows(SyncFailedException.class, () -> {
+            TaskSync.plan(List.of(), otherFile, directory);
+        });
+    }
+}
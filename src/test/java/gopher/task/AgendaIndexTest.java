@@ -0,0 +1,89 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class AgendaIndexTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 8, 30, 12, 0);
+
+    private List<Task> createTasks() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("water plants"));
+        tasks.add(new Deadline("pay rent", NOW.minusDays(2)));
+        tasks.add(new Deadline("submit report", NOW.plusHours(3)));
+        tasks.add(new Event("team lunch", NOW.minusHours(1), NOW.plusHours(1)));
+        tasks.add(new Deadline("file taxes", NOW.plusDays(3)));
+        tasks.add(new Deadline("renew passport", NOW.plusDays(30)));
+        Task standup = new Deadline("standup", NOW.minusDays(1).withHour(9));
+        standup.setRecurrence(new Recurrence(Frequency.DAILY, LocalDate.of(2024, 9, 30)));
+        tasks.add(standup);
+        Task done = new Deadline("old report", NOW.minusDays(5));
+        done.markAsDone();
+        tasks.add(done);
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(i + 1);
+        }
+        return tasks;
+    }
+
+    private List<Integer> getIds(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    public void getAgenda_mixedTasks_groupedByDueDate() throws Exception {
+        Agenda agenda = new AgendaIndex(createTasks(), NOW).getAgenda(NOW, 5);
+        // The standup missed yesterday is overdue until that occurrence is marked as done
+        assertEquals(List.of(7, 2), getIds(agenda.getNearestOverdue()));
+        assertEquals(List.of(4, 3), getIds(agenda.getNearestToday()));
+        assertEquals(List.of(5), getIds(agenda.getNearestWeek()));
+        assertEquals(1, agenda.getWeekCount());
+        assertEquals(1, agenda.getUndatedCount());
+        assertEquals(1, agenda.getDoneCount());
+        assertEquals(8, agenda.getTaskCount());
+    }
+
+    @Test
+    public void getAgenda_timePassed_tasksMoveOn() throws Exception {
+        List<Task> tasks = createTasks();
+        AgendaIndex index = new AgendaIndex(tasks, NOW);
+        Agenda agenda = index.getAgenda(NOW.plusHours(4), 1);
+        assertEquals(4, agenda.getOverdueCount());
+        assertEquals(List.of(3), getIds(agenda.getNearestOverdue()));
+        assertEquals(0, agenda.getTodayCount());
+
+        index.remove(tasks.get(2));
+        tasks.get(2).markAsDone();
+        index.add(tasks.get(2), NOW.plusHours(4));
+        agenda = index.getAgenda(NOW.plusHours(4), 1);
+        assertEquals(3, agenda.getOverdueCount());
+        assertEquals(2, agenda.getDoneCount());
+    }
+
+    @Test
+    public void getAgenda_recurringOccurrenceDone_nextOccurrenceUpcoming() throws Exception {
+        List<Task> tasks = createTasks();
+        AgendaIndex index = new AgendaIndex(tasks, NOW);
+        Task standup = tasks.get(6);
+        index.remove(standup);
+        standup.markAsDone();
+        index.add(standup, NOW);
+
+        // Today's standup at 09:00 is already over, so it is still overdue
+        Agenda agenda = index.getAgenda(NOW, 5);
+        assertEquals(List.of(7, 2), getIds(agenda.getNearestOverdue()));
+        index.remove(standup);
+        standup.markAsDone();
+        index.add(standup, NOW);
+        agenda = index.getAgenda(NOW, 5);
+        assertEquals(List.of(2), getIds(agenda.getNearestOverdue()));
+        assertEquals(List.of(7, 5), getIds(agenda.getNearestWeek()));
+        assertEquals(1, agenda.getDoneCount());
+    }
+}
@@ -0,0 +1,131 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import gopher.exception.EmptyTaskDescriptionException;
+import gopher.exception.InvalidDurationException;
+import gopher.exception.InvalidTokenException;
+import gopher.exception.MissingTokenException;
+import gopher.exception.UnknownCommandException;
+
+public class ColumnarTaskStoreTest {
+    private static final List<String> COMMANDS = List.of(
+            "todo Event 1",
+            "deadline Event 2 /by 2024-08-30 18:45 /p high /every monthly /until 2025-01-01",
+            "event Event 3 /from 1969-12-31 23:59 /to 2024-09-02 /tag work /tag home");
+
+    private ColumnarTaskStore createStore() {
+        ColumnarTaskStore store = new ColumnarTaskStore(1);
+        try {
+            for (String command : COMMANDS) {
+                store.add(Task.of(command));
+            }
+        } catch (UnknownCommandException | EmptyTaskDescriptionException
+                | MissingTokenException | InvalidTokenException
+                | InvalidDurationException e) {
+            return null;
+        }
+        return store;
+    }
+
+    @Test
+    public void get_storedTasks_sameSaveMessageAndDisplay() throws Exception {
+        ColumnarTaskStore store = createStore();
+        assertEquals(3, store.size());
+        for (int i = 0; i < COMMANDS.size(); i++) {
+            Task task = Task.of(COMMANDS.get(i));
+            assertEquals(task.getSaveMessage(), store.get(i).getSaveMessage());
+            assertEquals(task.toString(), store.get(i).toString());
+        }
+        assertNotSame(store.get(0), store.get(0));
+    }
+
+    @Test
+    public void set_changedCopy_writtenBack() {
+        ColumnarTaskStore store = createStore();
+        Task task = store.get(1);
+        task.markAsDone();
+        task.setId(5);
+        assertNull(store.get(1).getDoneThrough());
+
+        store.set(1, task);
+        assertEquals("D |   | Event 2 | 2024-08-30 18:45 | id:5 | every:monthly:2025-01-01"
+                + " | done:2024-08-30 18:45 | p:high",
+                store.get(1).getSaveMessage());
+    }
+
+    @Test
+    public void set_swappedTasks_replacedTasksReturned() {
+        ColumnarTaskStore store = createStore();
+        String first = store.get(0).getSaveMessage();
+        String second = store.get(1).getSaveMessage();
+
+        Collections.swap(store, 0, 1);
+        assertEquals(second, store.get(0).getSaveMessage());
+        assertEquals(first, store.get(1).getSaveMessage());
+        assertEquals(first, store.set(1, store.get(2)).getSaveMessage());
+    }
+
+    @Test
+    public void removeRange_middleTasks_laterTasksShifted() {
+        ColumnarTaskStore store = createStore();
+        Task event = store.get(2);
+        event.markAsDone();
+        store.set(2, event);
+        store.add(store.get(0));
+
+        store.subList(1, 3).clear();
+        assertEquals(2, store.size());
+        assertEquals("T |   | Event 1", store.get(0).getSaveMessage());
+        assertEquals("T |   | Event 1", store.get(1).getSaveMessage());
+
+        store.remove(0);
+        store.add(0, event);
+        assertTrue(store.get(0).isDone());
+        assertFalse(store.get(1).isDone());
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            store.get(2);
+        });
+    }
+
+    @Test
+    public void filter_tagAndPriority_matchingTasksOnly() {
+        ColumnarTaskStore store = createStore();
+        TaskAttributes filter = new TaskAttributes();
+        filter.getTags().add("home");
+        assertEquals(1, store.filter(filter).size());
+        assertEquals("Event 3", store.filter(filter).get(0).name);
+
+        filter.setPriority(Priority.HIGH);
+        assertTrue(store.filter(filter).isEmpty());
+    }
+
+    @Test
+    public void filter_tagsChanged_onlyCurrentTagsMatched() {
+        ColumnarTaskStore store = createStore();
+        Task todo = store.get(0);
+        todo.setTags(List.of("home", "work"));
+        store.set(0, todo);
+        Task event = store.get(2);
+        event.setTags(List.of("home"));
+        store.set(2, event);
+
+        TaskAttributes filter = new TaskAttributes();
+        filter.getTags().add("work");
+        filter.getTags().add("home");
+        assertEquals(List.of("Event 1"), store.filter(filter).stream().map(task -> task.name).toList());
+        assertEquals(List.of("home", "work"), List.copyOf(store.get(0).getTags()));
+        filter.getTags().add("errands");
+        assertTrue(store.filter(filter).isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import gopher.exception.FindPatternTooComplexException;
+import gopher.exception.InvalidFindPatternException;
+
+public class FindQueryTest {
+    @Test
+    public void matches_literalSpecialCharacters_matchedAsText() {
+        LiteralMatcher matcher = new LiteralMatcher("a.b(");
+        assertTrue(matcher.matches("[T] [ ] read A.B( notes"));
+        assertFalse(matcher.matches("[T] [ ] read axb( notes"));
+    }
+
+    @Test
+    public void matches_differentCaseAndEdges_found() {
+        assertTrue(new LiteralMatcher("REPORT").matches("report"));
+        assertTrue(new LiteralMatcher("rt").matches("report"));
+        assertTrue(new LiteralMatcher("re").matches("report"));
+        assertTrue(new LiteralMatcher("").matches("report"));
+        assertFalse(new LiteralMatcher("reports").matches("report"));
+        assertFalse(new LiteralMatcher("rx").matches("report"));
+    }
+
+    @Test
+    public void createMatcher_invalidRegex_exceptionThrown() {
+        assertThrows(InvalidFindPatternException.class, () -> {
+            new FindQuery("(unclosed", true).createMatcher();
+        });
+    }
+
+    @Test
+    public void find_regexAndLiteral_matchingTasksOnly() throws Exception {
+        TaskList taskList = new TaskList(new ArrayList<>(List.of(
+                new ToDo("write report"), new ToDo("reply to mail"), new ToDo("(re)plan week"))));
+        assertEquals(2, taskList.find(new FindQuery("rep(ort|ly)", true)).getSize());
+        assertEquals(1, taskList.find(new FindQuery("(re)", false)).getSize());
+    }
+
+    @Test
+    public void find_catastrophicRegex_exceptionThrown() throws Exception {
+        TaskList taskList = new TaskList(new ArrayList<>(List.of(new ToDo("a".repeat(40)))));
+        assertThrows(FindPatternTooComplexException.class, () -> {
+            taskList.find(new FindQuery("(.*a){20}b", true));
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import gopher.parser.Parser;
+
+public class RecurrenceTest {
+    private static final LocalDateTime FIRST = LocalDateTime.of(2024, 1, 31, 9, 0);
+
+    @Test
+    public void getOccurrences_monthlyFromMonthEnd_noDrift() {
+        Recurrence recurrence = new Recurrence(Frequency.MONTHLY, LocalDate.of(2024, 12, 31));
+        List<LocalDateTime> occurrences = recurrence.getOccurrences(FIRST,
+                LocalDateTime.of(2024, 2, 1, 0, 0), LocalDateTime.of(2024, 4, 30, 23, 59)).toList();
+        assertEquals(List.of(LocalDateTime.of(2024, 2, 29, 9, 0),
+                LocalDateTime.of(2024, 3, 31, 9, 0),
+                LocalDateTime.of(2024, 4, 30, 9, 0)), occurrences);
+        assertEquals(LocalDateTime.of(2024, 12, 31, 9, 0), recurrence.getLastOccurrence(FIRST));
+    }
+
+    @Test
+    public void getOccurrences_farHorizon_onlyRangeGenerated() {
+        Recurrence recurrence = new Recurrence(Frequency.DAILY, LocalDate.of(9999, 12, 31));
+        List<LocalDateTime> occurrences = recurrence.getOccurrences(FIRST,
+                LocalDateTime.of(5000, 6, 1, 9, 0), LocalDateTime.of(5000, 6, 3, 8, 59)).toList();
+        assertEquals(List.of(LocalDateTime.of(5000, 6, 1, 9, 0),
+                LocalDateTime.of(5000, 6, 2, 9, 0)), occurrences);
+    }
+
+    @Test
+    public void getOccurrences_beyondEnd_empty() {
+        Recurrence recurrence = new Recurrence(Frequency.WEEKLY, LocalDate.of(2024, 2, 13));
+        assertEquals(LocalDateTime.of(2024, 2, 7, 9, 0), recurrence.getLastOccurrence(FIRST));
+        assertTrue(recurrence.getOccurrences(FIRST,
+                LocalDateTime.of(2024, 2, 8, 0, 0), LocalDateTime.of(2025, 1, 1, 0, 0)).toList().isEmpty());
+    }
+
+    @Test
+    public void isOverdue_recurringDeadline_overdueAfterMissedOccurrence() throws Exception {
+        Task deadline = Task.of("deadline standup /by 2024-01-01 09:00 /every weekly /until 2024-03-01");
+        assertFalse(deadline.isOverdue(LocalDateTime.of(2024, 1, 1, 8, 0)));
+        assertTrue(deadline.isOverdue(LocalDateTime.of(2024, 1, 2, 0, 0)));
+
+        Task event = Task.of("event sync /from 2024-01-01 09:00 /to 2024-01-01 10:00 /every d /until 2024-01-03");
+        assertEquals(3, event.getOccurrences(FIRST.minusYears(1), FIRST).count());
+        event.markAsDone();
+        event.markAsDone();
+        assertFalse(event.isOverdue(LocalDateTime.of(2024, 1, 3, 9, 30)));
+        assertTrue(event.isOverdue(LocalDateTime.of(2024, 1, 3, 10, 30)));
+    }
+
+    @Test
+    public void markAsDone_recurringDeadline_nextOccurrencePending() throws Exception {
+        Task deadline = Task.of("deadline standup /by 2024-01-01 09:00 /every weekly /until 2024-01-15");
+        deadline.markAsDone();
+        assertFalse(deadline.isDone());
+        assertFalse(deadline.isOverdue(LocalDateTime.of(2024, 1, 2, 0, 0)));
+        assertEquals(List.of(LocalDateTime.of(2024, 1, 8, 9, 0), LocalDateTime.of(2024, 1, 15, 9, 0)),
+                deadline.getPendingOccurrences(FIRST.minusYears(1), FIRST).toList());
+
+        deadline.markAsDone();
+        deadline.markAsDone();
+        assertTrue(deadline.isDone());
+        assertEquals(0, deadline.getPendingOccurrences(FIRST.minusYears(1), FIRST).count());
+    }
+
+    @Test
+    public void markAsNotDone_recurringDeadline_lastDoneOccurrencePendingAgain() throws Exception {
+        Task deadline = Task.of("deadline standup /by 2024-01-01 09:00 /every weekly /until 2024-01-15");
+        deadline.markAsDone();
+        deadline.markAsDone();
+        deadline.markAsNotDone();
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 0), deadline.getDoneThrough());
+        deadline.markAsNotDone();
+        assertNull(deadline.getDoneThrough());
+        assertTrue(deadline.isOverdue(LocalDateTime.of(2024, 1, 2, 0, 0)));
+    }
+
+    @Test
+    public void getSaveMessage_occurrenceDone_progressReadBack() throws Exception {
+        Task deadline = Task.of("deadline standup /by 2024-01-01 09:00 /every weekly /until 2024-01-15");
+        deadline.markAsDone();
+        String saved = deadline.getSaveMessage();
+        assertTrue(saved.contains(" | done:2024-01-01 09:00"));
+
+        Task loaded = Parser.parseSavedTaskRow(saved, true);
+        assertEquals(LocalDateTime.of(2024, 1, 1, 9, 0), loaded.getDoneThrough());
+        assertFalse(loaded.isDone());
+        assertEquals(saved, loaded.getSaveMessage());
+    }
+}
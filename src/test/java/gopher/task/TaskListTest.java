@@ -0,0 +1,124 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gopher.exception.InvalidTaskIdException;
+import gopher.exception.SyncFailedException;
+import gopher.parser.Parser;
+import gopher.reminder.ReminderScheduler;
+import gopher.storage.PagedTaskStore;
+
+public class TaskListTest {
+    @TempDir
+    Path directory;
+
+    // Tasks are due whole days away from now, so they stay in the same agenda group however long the test takes
+    private List<Task> createTasks(LocalDateTime now) throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("water plants"));
+        tasks.add(new Deadline("pay rent", now.minusDays(2)));
+        tasks.add(new Deadline("file taxes", now.plusDays(3)));
+        tasks.add(new Event("conference", now.minusDays(1).minusHours(2), now.minusDays(1)));
+        tasks.add(new Deadline("renew passport", now.plusDays(30)));
+        Task standup = new Deadline("standup", now.minusDays(3).minusHours(1));
+        standup.setRecurrence(new Recurrence(Frequency.DAILY, LocalDate.now().plusDays(30)));
+        tasks.add(standup);
+        Task done = new Deadline("old report", now.minusDays(5));
+        done.markAsDone();
+        tasks.add(done);
+        tasks.add(new Deadline("book flights", now.plusDays(2)));
+        return tasks;
+    }
+
+    private TaskList createPagedList(List<Task> tasks) throws Exception {
+        PagedTaskStore store = PagedTaskStore.open(directory.resolve("task.db"));
+        TaskList taskList = TaskList.ofPaged(store);
+        for (Task task : tasks) {
+            taskList.add(task);
+        }
+        return taskList;
+    }
+
+    private List<Integer> getIds(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    @Test
+    public void getAgenda_pagedStore_matchesAgendaIndex() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        TaskList taskList = createPagedList(createTasks(now));
+        List<Task> tasks = createTasks(now);
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(i + 1);
+        }
+
+        Agenda agenda = taskList.getAgenda(2);
+        Agenda expected = new AgendaIndex(tasks, LocalDateTime.now()).getAgenda(LocalDateTime.now(), 2);
+        assertEquals(List.of(4, 2), getIds(agenda.getNearestOverdue()));
+        assertEquals(getIds(expected.getNearestOverdue()), getIds(agenda.getNearestOverdue()));
+        assertEquals(expected.getOverdueCount(), agenda.getOverdueCount());
+        assertEquals(getIds(expected.getNearestToday()), getIds(agenda.getNearestToday()));
+        assertEquals(expected.getTodayCount(), agenda.getTodayCount());
+        assertEquals(getIds(expected.getNearestWeek()), getIds(agenda.getNearestWeek()));
+        assertEquals(expected.getWeekCount(), agenda.getWeekCount());
+        assertEquals(1, agenda.getUndatedCount());
+        assertEquals(1, agenda.getDoneCount());
+        assertEquals(8, agenda.getTaskCount());
+    }
+
+    @Test
+    public void delete_pagedStoreDoneAndOverdueSelected_idsStillFound() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        TaskList taskList = createPagedList(createTasks(now));
+
+        BitSet selection = taskList.select(Parser.parseDeleteCommand("delete done overdue", taskList.getSize()));
+        BitSet expected = new BitSet();
+        expected.set(1);
+        expected.set(3);
+        expected.set(5, 7);
+        assertEquals(expected, selection);
+
+        taskList.delete(selection);
+        assertEquals(4, taskList.getSize());
+        assertEquals(List.of(1, 3, 5, 8), List.of(taskList.getTaskAt(0).getId(), taskList.getTaskAt(1).getId(),
+                taskList.getTaskAt(2).getId(), taskList.getTaskAt(3).getId()));
+        assertEquals(4, taskList.getTaskNumberById(8));
+        assertThrows(InvalidTaskIdException.class, () -> taskList.getTaskNumberById(6));
+
+        Task task = new ToDo("call mum");
+        taskList.add(task);
+        assertEquals(9, task.getId());
+        assertEquals(5, taskList.getTaskNumberById(9));
+    }
+
+    @Test
+    public void setReminderScheduler_pagedStore_upcomingTasksScheduled() throws Exception {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        TaskList taskList = createPagedList(createTasks(now));
+        ReminderScheduler reminders = new ReminderScheduler(Clock.systemDefaultZone());
+
+        taskList.setReminderScheduler(reminders);
+        // Tasks 3, 5 and 8 are still to come, and the standup happens again tomorrow
+        assertEquals(4, reminders.getPendingCount());
+    }
+
+    @Test
+    public void sync_pagedStore_exceptionThrown() throws Exception {
+        TaskList taskList = createPagedList(List.of(new ToDo("water plants")));
+        assertThrows(SyncFailedException.class, () -> taskList.sync(directory.resolve("other.txt")));
+        assertThrows(IllegalStateException.class, taskList::reload);
+    }
+}
@@ -0,0 +1,79 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskNameIndexTest {
+    private static List<Task> createTasks(String... names) {
+        List<Task> tasks = new ArrayList<>();
+        for (String name : names) {
+            Task task = new ToDo(name);
+            task.setId(tasks.size() + 1);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static List<Integer> getIds(List<TaskNameIndex.Match> matches) {
+        return matches.stream().map(TaskNameIndex.Match::getId).toList();
+    }
+
+    @Test
+    public void getSubstringDistance_typoInsideName_onlyTypoCounted() {
+        assertEquals(0, TaskNameIndex.getSubstringDistance("report", "submit quarterly report"));
+        assertEquals(2, TaskNameIndex.getSubstringDistance("reprot", "submit quarterly report"));
+        assertEquals(1, TaskNameIndex.getSubstringDistance("reprt", "submit quarterly report"));
+        assertEquals(3, TaskNameIndex.getSubstringDistance("abc", "xyz"));
+    }
+
+    @Test
+    public void search_typos_closestFirst() {
+        TaskNameIndex index = new TaskNameIndex(createTasks(
+                "Submit quarterly report", "Pay rent", "Report bug", "Repaint fence", "Reports review"));
+        assertEquals(List.of(1, 3, 5), getIds(index.search("reprt", 10)));
+        assertEquals(List.of(1, 3), getIds(index.search("Reprt", 2)));
+        assertEquals(List.of(4), getIds(index.search("repaint fense", 10)));
+        assertEquals(List.of(2), getIds(index.search("pay rnet", 10)));
+        assertTrue(index.search("groceries", 10).isEmpty());
+    }
+
+    @Test
+    public void search_shortQuery_everyTaskChecked() {
+        TaskNameIndex index = new TaskNameIndex(createTasks("Go to gym", "Pay rent"));
+        assertEquals(List.of(1), getIds(index.search("gm", 10)));
+    }
+
+    @Test
+    public void remove_changedTask_indexUpdated() {
+        List<Task> tasks = createTasks("Pay rent", "Report bug");
+        TaskNameIndex index = new TaskNameIndex(tasks);
+        index.remove(2);
+        assertTrue(index.search("report", 10).isEmpty());
+
+        tasks.get(0).name = "Write report";
+        index.remove(1);
+        index.add(tasks.get(0));
+        assertEquals(List.of(1), getIds(index.search("reprt", 10)));
+    }
+
+    @Test
+    public void search_largeList_matchFound() {
+        String[] words = {"pay", "rent", "report", "weekly", "sync", "review", "groceries", "call", "gym", "plan"};
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            Task task = new ToDo(words[i % 10] + " " + words[(i / 10) % 10] + " " + i);
+            task.setId(i + 1);
+            tasks.add(task);
+        }
+        Task target = new ToDo("renew passport");
+        target.setId(100_001);
+        tasks.add(target);
+        TaskNameIndex index = new TaskNameIndex(tasks);
+        assertEquals(List.of(100_001), getIds(index.search("pasport", 3)));
+    }
+}
@@ -0,0 +1,58 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskOrderIndexTest {
+    private List<Task> createTasks() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new ToDo("water plants"));
+        tasks.add(new Deadline("Submit report", LocalDateTime.of(2024, 9, 1, 12, 0)));
+        tasks.add(new Event("attend talk", LocalDateTime.of(1969, 12, 31, 23, 0),
+                LocalDateTime.of(2024, 8, 1, 9, 0)));
+        tasks.add(new Deadline("pay rent", LocalDateTime.of(2024, 8, 30, 18, 45)));
+        tasks.add(new ToDo("Submit receipts"));
+        for (int i = 0; i < tasks.size(); i++) {
+            tasks.get(i).setId(i + 1);
+        }
+        return tasks;
+    }
+
+    private List<Integer> getIds(TaskOrderIndex index) {
+        List<Integer> ids = new ArrayList<>();
+        for (int rank = 0; rank < index.getSize(); rank++) {
+            ids.add(index.getId(rank));
+        }
+        return ids;
+    }
+
+    @Test
+    public void constructor_dateOrders_undatedTasksLast() {
+        List<Task> tasks = createTasks();
+        assertEquals(List.of(3, 4, 2, 1, 5), getIds(new TaskOrderIndex(SortOrder.DUE, tasks)));
+        assertEquals(List.of(3, 4, 2, 1, 5), getIds(new TaskOrderIndex(SortOrder.START, tasks)));
+    }
+
+    @Test
+    public void constructor_nameOrder_sharedPrefixesOrderedIgnoringCase() {
+        assertEquals(List.of(3, 4, 5, 2, 1), getIds(new TaskOrderIndex(SortOrder.NAME, createTasks())));
+    }
+
+    @Test
+    public void removeAndAdd_changedStatus_taskMoved() {
+        List<Task> tasks = createTasks();
+        TaskOrderIndex index = new TaskOrderIndex(SortOrder.STATUS, tasks);
+        index.remove(tasks.get(0));
+        tasks.get(0).markAsDone();
+        index.add(tasks.get(0));
+        assertEquals(List.of(2, 3, 4, 5, 1), getIds(index));
+
+        index.removeIf(id -> id % 2 == 0);
+        assertEquals(List.of(3, 5, 1), getIds(index));
+    }
+}
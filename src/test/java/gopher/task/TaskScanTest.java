@@ -0,0 +1,87 @@
+package gopher.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import gopher.storage.PagedTaskStore;
+
+public class TaskScanTest {
+    @TempDir
+    Path directory;
+
+    private List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task task = new ToDo("task " + i);
+            if (i % 7 == 0) {
+                task.markAsDone();
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    @Test
+    public void scan_parallelAndSequential_sameIndexes() {
+        List<Task> tasks = createTasks(50_001);
+        BitSet sequential = TaskScan.scan(tasks, Task::isDone, Integer.MAX_VALUE);
+        BitSet parallel = TaskScan.scan(tasks, Task::isDone, 1);
+        assertEquals(sequential, parallel);
+        assertEquals(7143, parallel.cardinality());
+        assertTrue(parallel.get(49_994));
+    }
+
+    @Test
+    public void scan_emptyList_noIndexes() {
+        assertTrue(TaskScan.scan(new ArrayList<>(), Task::isDone, 1).isEmpty());
+    }
+
+    @Test
+    public void scan_failingCondition_exceptionRethrown() {
+        List<Task> tasks = createTasks(20_000);
+        assertThrows(IllegalStateException.class, () -> {
+            TaskScan.scan(tasks, task -> {
+                if (task.name.equals("task 19999")) {
+                    throw new IllegalStateException();
+                }
+                return false;
+            }, 1);
+        });
+    }
+
+    @Test
+    public void scan_pagedStore_checkedOnCallingThread() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (PagedTaskStore store = PagedTaskStore.open(directory.resolve("task.db"))) {
+            store.getTaskCache().setByteBudget(64 << 10);
+            List<Task> tasks = createTasks(20_000);
+            for (int i = 0; i < tasks.size(); i++) {
+                tasks.get(i).setId(i + 1);
+                store.add(tasks.get(i));
+            }
+            Set<Thread> threads = ConcurrentHashMap.newKeySet();
+            BitSet done = TaskScan.scan(store, task -> {
+                threads.add(Thread.currentThread());
+                return task.isDone();
+            }, 1, pool);
+
+            assertEquals(Set.of(Thread.currentThread()), threads);
+            assertEquals(TaskScan.scan(tasks, Task::isDone, 1, pool), done);
+            assertTrue(store.getTaskCache().getEvictionCount() > 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
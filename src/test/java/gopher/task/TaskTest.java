@@ -1,12 +1,18 @@
 package gopher.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+
 import org.junit.jupiter.api.Test;
 
 import gopher.exception.EmptyTaskDescriptionException;
 import gopher.exception.InvalidDurationException;
+import gopher.exception.InvalidTaskIdException;
+import gopher.exception.InvalidTaskNumberException;
 import gopher.exception.InvalidTokenException;
 import gopher.exception.MissingTokenException;
 import gopher.exception.UnknownCommandException;
@@ -113,6 +119,31 @@ public class TaskTest {
                 event.toString());
     }
 
+    @Test
+    public void toString_unchangedTask_cachedStringReused() {
+        Task deadline = createTask("deadline Event 2 /by 2024-08-30");
+        String display = deadline.toString();
+        String save = deadline.getSaveMessage();
+        assertSame(display, deadline.toString());
+        assertSame(save, deadline.getSaveMessage());
+
+        deadline.markAsDone();
+        assertNotSame(display, deadline.toString());
+        assertEquals("[D][X] Event 2 (by Aug 30 2024 00:00)", deadline.toString());
+        assertEquals("D | X | Event 2 | 2024-08-30 00:00", deadline.getSaveMessage());
+    }
+
+    @Test
+    public void toString_updatedTask_cacheInvalidated()
+            throws InvalidTokenException, InvalidDurationException {
+        Task todo = createTask("todo Event 1");
+        assertEquals("[T][ ] Event 1", todo.toString());
+        assertEquals("T |   | Event 1", todo.getSaveMessage());
+        todo.update(new String[]{"update", "1", "Hello"});
+        assertEquals("[T][ ] Hello", todo.toString());
+        assertEquals("T |   | Hello", todo.getSaveMessage());
+    }
+
     @Test
     public void update_validCommand_updateSuccess()
             throws InvalidTokenException, InvalidDurationException {
@@ -185,4 +216,155 @@ public class TaskTest {
             event.update(tokens);
         });
     }
+
+    @Test
+    public void of_priorityAndTags_attributesSet() {
+        Task deadline = createTask("deadline Event 2 /p high /by 2024-08-30 /tag work /tag Home");
+        assertEquals(Priority.HIGH, deadline.getPriority());
+        assertEquals("[D][ ] Event 2 (by Aug 30 2024 00:00) !high #work #home",
+                deadline.toString());
+        assertEquals("D |   | Event 2 | 2024-08-30 00:00 | p:high | tags:work,home",
+                deadline.getSaveMessage());
+    }
+
+    @Test
+    public void filter_tagAndPriority_matchingTasksOnly() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(createTask("todo Event 1 /tag work /p high"));
+        tasks.add(createTask("todo Event 2 /tag work"));
+        tasks.add(createTask("todo Event 3 /p high"));
+        TaskList taskList = new TaskList(tasks);
+
+        TaskAttributes filter = new TaskAttributes();
+        filter.setPriority(Priority.HIGH);
+        TaskList highPriorityTasks = taskList.filter(new ListQuery(1, 10, filter));
+        assertEquals(2, highPriorityTasks.getSize());
+
+        filter.getTags().add("work");
+        TaskList matchedTasks = taskList.filter(new ListQuery(1, 10, filter));
+        assertEquals("1. #1 [T][ ] Event 1 !high #work", matchedTasks.toString());
+    }
+
+    @Test
+    public void filter_taskChangedAfterIndexing_listOrderKept() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(createTask("todo Event 1 /tag work"));
+        tasks.add(createTask("todo Event 2 /tag work"));
+        tasks.add(createTask("todo Event 3 /tag work"));
+        TaskIdIndex ids = new TaskIdIndex(tasks);
+        TaskAttributeIndex index = new TaskAttributeIndex(tasks);
+        // Updating a task takes it out of the index and puts it back
+        index.remove(tasks.get(0));
+        tasks.get(0).setPriority(Priority.HIGH);
+        index.add(tasks.get(0));
+
+        TaskAttributes filter = new TaskAttributes();
+        filter.getTags().add("work");
+        assertEquals(tasks, index.filter(filter, tasks, ids));
+    }
+
+    @Test
+    public void assignIds_savedNextIdAboveHighestId_deletedIdsNotReused() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(createTask("todo Event 1"));
+        tasks.get(0).setId(2);
+        tasks.add(createTask("todo Event 2"));
+
+        assertEquals(7, TaskIdIndex.assignIds(tasks, 6));
+        assertEquals(6, tasks.get(1).getId());
+    }
+
+    @Test
+    public void of_tagWithoutValue_exceptionThrown() {
+        assertThrows(InvalidTokenException.class, () -> {
+            Task.of("todo Event 1 /tag");
+        });
+    }
+
+    @Test
+    public void getTaskNumberById_loadedTasks_idsAssignedAndResolved()
+            throws InvalidTaskNumberException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(createTask("todo Event 1"));
+        tasks.add(createTask("todo Event 2"));
+        tasks.get(1).setId(7);
+        TaskList taskList = new TaskList(tasks);
+
+        assertEquals(2, taskList.getTaskNumberById(7));
+        assertEquals(1, taskList.getTaskNumberById(8));
+        assertEquals("T |   | Event 1 | id:8", tasks.get(0).getSaveMessage());
+        assertThrows(InvalidTaskIdException.class, () -> {
+            taskList.getTaskNumberById(1);
+        });
+    }
+
+    @Test
+    public void select_rangeAndConditions_unionOfTerms()
+            throws InvalidTaskNumberException {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(createTask("todo Event 1"));
+        tasks.add(createTask("deadline Event 2 /by 2000-01-01"));
+        tasks.add(createTask("todo Event 3"));
+        tasks.add(createTask("todo Report 4"));
+        tasks.get(2).markAsDone();
+        TaskList taskList = new TaskList(tasks);
+
+        TaskSelector selector = new TaskSelector();
+        selector.selectOverdue();
+        selector.selectDone();
+        selector.addKeyword("report");
+        assertEquals("{1, 2, 3}", taskList.select(selector).toString());
+
+        TaskSelector rangeSelector = new TaskSelector();
+        rangeSelector.addRange(1, 2);
+        assertEquals("{0, 1}", taskList.select(rangeSelector).toString());
+
+        TaskSelector invalidSelector = new TaskSelector();
+        invalidSelector.addRange(3, 5);
+        assertThrows(InvalidTaskNumberException.class, () -> {
+            taskList.select(invalidSelector);
+        });
+    }
+
+    @Test
+    public void of_repeatedNameAndTag_pooledInstancesShared() throws Exception {
+        Task first = createTask("todo " + new String("standup") + " /tag daily");
+        Task second = createTask("deadline " + new String("standup") + " /by 2024-08-30 /tag DAILY");
+        assertSame(first.name, second.name);
+        assertSame(first.getTags().iterator().next(), second.getTags().iterator().next());
+
+        second.update(new String[]{"update", "1", "pay", "rent"});
+        Task third = createTask("todo pay rent");
+        assertSame(second.name, third.name);
+    }
+
+    @Test
+    public void of_recurringDeadline_savedAsOneRow() throws Exception {
+        Task deadline = Task.of("deadline pay rent /by 2024-09-01 /every monthly /until 2025-06-30 /p high");
+        assertEquals("D |   | pay rent | 2024-09-01 00:00 | every:monthly:2025-06-30 | p:high",
+                deadline.getSaveMessage());
+        assertEquals("[D][ ] pay rent (by Sep 01 2024 00:00) (every month until Jun 30 2025) !high",
+                deadline.toString());
+
+        TaskAttributes attributes = new TaskAttributes();
+        attributes.setUntil(java.time.LocalDate.of(2024, 12, 31));
+        attributes.applyTo(deadline);
+        assertEquals("every month until Dec 31 2024", deadline.getRecurrence().toString());
+    }
+
+    @Test
+    public void of_invalidRecurrence_exceptionThrown() {
+        assertThrows(InvalidTokenException.class, () -> {
+            Task.of("todo standup /every daily /until 2025-01-01");
+        });
+        assertThrows(InvalidTokenException.class, () -> {
+            Task.of("deadline standup /by 2024-01-01 /every daily");
+        });
+        assertThrows(InvalidTokenException.class, () -> {
+            Task.of("deadline standup /by 2024-01-01 /every yearly /until 2025-01-01");
+        });
+        assertThrows(InvalidTokenException.class, () -> {
+            Task.of("deadline standup /by 2024-01-01 /every daily /until someday");
+        });
+    }
 }